@@ -0,0 +1,115 @@
+/**
+ * @file CampoLibro.java
+ * @brief Questo file contiene l'enumerazione dei campi modificabili della classe Libro
+ *
+ * Ogni costante sa leggere e impostare il proprio attributo su un oggetto Libro, in modo che
+ * il model possa applicare e registrare una modifica senza conoscere il campo interessato.
+ *
+ * @author Gruppo 27
+ * @date 8 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+public enum CampoLibro {
+
+    TITOLO {
+        @Override
+        public Object leggi(Libro lib) {
+            return lib.getTitolo();
+        }
+
+        @Override
+        public void imposta(Libro lib, Object valore) {
+            lib.setTitolo((String) valore);
+        }
+    },
+    AUTORE {
+        @Override
+        public Object leggi(Libro lib) {
+            return lib.getAutore();
+        }
+
+        @Override
+        public void imposta(Libro lib, Object valore) {
+            lib.setAutore((String) valore);
+        }
+    },
+    ISBN {
+        @Override
+        public Object leggi(Libro lib) {
+            return lib.getIsbn();
+        }
+
+        @Override
+        public void imposta(Libro lib, Object valore) {
+            lib.setIsbn((String) valore);
+        }
+    },
+    ANNO {
+        @Override
+        public Object leggi(Libro lib) {
+            return lib.getAnnoPubblicazione();
+        }
+
+        @Override
+        public void imposta(Libro lib, Object valore) {
+            lib.setAnnoPubblicazione((Integer) valore);
+        }
+    },
+    PREZZO {
+        @Override
+        public Object leggi(Libro lib) {
+            return lib.getPrezzo();
+        }
+
+        @Override
+        public void imposta(Libro lib, Object valore) {
+            lib.setPrezzo((Double) valore);
+        }
+    },
+    USURA {
+        @Override
+        public Object leggi(Libro lib) {
+            return lib.getStatoUsura();
+        }
+
+        @Override
+        public void imposta(Libro lib, Object valore) {
+            lib.setStatoUsura(valore instanceof String ? StatoUsura.da((String) valore) : (StatoUsura) valore);
+        }
+    },
+    COPIE {
+        @Override
+        public Object leggi(Libro lib) {
+            return lib.getCopie();
+        }
+
+        @Override
+        public void imposta(Libro lib, Object valore) {
+            lib.setCopie((Integer) valore);
+        }
+    };
+
+   /**
+ * @brief Legge il valore attuale del campo dal libro
+ *
+ * @param[in] lib Il libro da cui leggere il campo
+ *
+ * @return Il valore del campo (String, Integer, Double o StatoUsura a seconda del campo)
+ */
+    public abstract Object leggi(Libro lib);
+
+   /**
+ * @brief Imposta il valore del campo sul libro
+ *
+ * @pre Il tipo del valore deve corrispondere a quello del campo (per USURA anche un testo, vedi StatoUsura.da)
+ * @post Il campo del libro assume il nuovo valore
+ *
+ * @param[in] lib Il libro da modificare
+ * @param[in] valore Il nuovo valore del campo
+ *
+ * @return void
+ */
+    public abstract void imposta(Libro lib, Object valore);
+}
@@ -0,0 +1,214 @@
+/**
+ * @file CatalogoColonnare.java
+ * @brief Questo file contiene il catalogo dei libri memorizzato per colonne
+ *
+ * Nella lista di oggetti ogni libro costa un oggetto Libro e quattro String (ciascuna con il suo
+ * array di byte), circa 250 byte oltre al testo: con milioni di titoli le intestazioni e i
+ * riferimenti pesano più dei dati. Qui ogni campo è una colonna: anno e copie in int[], prezzo
+ * in double[], lo stato di usura in byte[] (il codice di StatoUsura), titolo, autore e ISBN in
+ * colonne codificate con un dizionario (vedi ColonnaDizionario), così che un autore ripetuto
+ * costi solo un int per riga.
+ * I libri vengono letti attraverso viste leggere (RigaLibro) create solo quando servono, ad
+ * esempio per le righe visibili della TableView tramite getRighe().
+ * È un'esportazione in sola lettura, fatta una volta dalla lista di oggetti: il model continua a
+ * lavorare sulla lista, i cui indici si basano sull'identità dei libri, e non vede la copia. Per
+ * questo le righe non sono oggetti Libro e non hanno setter; copia() restituisce un Libro
+ * indipendente.
+ * Finché la lista resta in memoria la copia occupa memoria in più; conviene quando i libri
+ * servono solo da consultare e la lista può essere lasciata al garbage collector.
+ *
+ * @author Gruppo 27
+ * @date 25 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+import java.util.Arrays;
+import java.util.Collection;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+public class CatalogoColonnare {
+
+    private final ColonnaDizionario titoli = new ColonnaDizionario(false); ///@brief Colonna dei titoli (quasi tutti distinti)
+    private final ColonnaDizionario autori = new ColonnaDizionario(true); ///@brief Colonna degli autori
+    private final ColonnaDizionario isbn = new ColonnaDizionario(false); ///@brief Colonna degli ISBN
+    private int[] anni = new int[16]; ///@brief Colonna degli anni di pubblicazione
+    private int[] copie = new int[16]; ///@brief Colonna delle copie
+    private double[] prezzi = new double[16]; ///@brief Colonna dei prezzi
+    private byte[] usure = new byte[16]; ///@brief Colonna dei codici degli stati di usura
+    private int righe; ///@brief Numero di libri
+    private final Righe vista = new Righe(); ///@brief Lista osservabile delle viste, per la TableView
+
+   /**
+ * @brief Lista osservabile che crea una vista per ogni riga richiesta; non cambia mai
+ */
+    private final class Righe extends ObservableListBase<RigaLibro> {
+
+        @Override
+        public RigaLibro get(int indice) {
+            if (indice < 0 || indice >= righe) {
+                throw new IndexOutOfBoundsException(indice);
+            }
+            return new RigaLibro(CatalogoColonnare.this, indice);
+        }
+
+        @Override
+        public int size() {
+            return righe;
+        }
+    }
+
+   /**
+ * @brief Costruttore del catalogo vuoto; i cataloghi si costruiscono con da()
+ */
+    private CatalogoColonnare() {
+    }
+
+   /**
+ * @brief Costruisce un catalogo per colonne con i libri indicati
+ *
+ * @param[in] libri I libri, nell'ordine in cui diventeranno righe
+ *
+ * @return Il catalogo
+ */
+    public static CatalogoColonnare da(Collection<? extends Libro> libri) {
+        CatalogoColonnare c = new CatalogoColonnare();
+        for (Libro l : libri) {
+            c.aggiungi(l);
+        }
+        return c;
+    }
+
+   /**
+ * @brief Aggiunge un libro in fondo al catalogo, copiandone i campi
+ *
+ * @param[in] l Il libro
+ *
+ * @return void
+ */
+    private void aggiungi(Libro l) {
+        if (righe == anni.length) {
+            int capacita = righe * 2;
+            anni = Arrays.copyOf(anni, capacita);
+            copie = Arrays.copyOf(copie, capacita);
+            prezzi = Arrays.copyOf(prezzi, capacita);
+            usure = Arrays.copyOf(usure, capacita);
+        }
+        titoli.aggiungi(l.getTitolo());
+        autori.aggiungi(l.getAutore());
+        isbn.aggiungi(l.getIsbn());
+        anni[righe] = l.getAnnoPubblicazione();
+        copie[righe] = l.getCopie();
+        prezzi[righe] = l.getPrezzo();
+        usure[righe] = l.getStatoUsura().getCodice();
+        righe++;
+    }
+
+   /**
+ * @brief Numero di libri nel catalogo
+ *
+ * @return Il numero di righe
+ */
+    public int numeroRighe() {
+        return righe;
+    }
+
+   /**
+ * @brief Vista leggera in sola lettura di una riga, che legge direttamente le colonne
+ *
+ * @param[in] riga L'indice della riga
+ *
+ * @return La vista
+ */
+    public RigaLibro riga(int riga) {
+        controlla(riga);
+        return new RigaLibro(this, riga);
+    }
+
+   /**
+ * @brief Copia indipendente di una riga, come oggetto Libro
+ *
+ * @param[in] riga L'indice della riga
+ *
+ * @return Il libro
+ */
+    public Libro copia(int riga) {
+        controlla(riga);
+        return new Libro(titoli.leggi(riga), autori.leggi(riga), isbn.leggi(riga), anni[riga], prezzi[riga], usura(riga), copie[riga]);
+    }
+
+   /**
+ * @brief Lista osservabile delle righe, da mostrare in una TableView non modificabile
+ *
+ * Le viste vengono create a ogni get(); due viste della stessa riga sono uguali.
+ *
+ * @return La lista, non modificabile
+ */
+    public ObservableList<RigaLibro> getRighe() {
+        return vista;
+    }
+
+   /**
+ * @brief Stima dei byte occupati dalle colonne
+ *
+ * @return I byte occupati, esclusi gli oggetti del catalogo stesso
+ */
+    public long occupazione() {
+        return titoli.occupazione() + autori.occupazione() + isbn.occupazione()
+                + ColonnaDizionario.dimensioneArray(4L * anni.length)
+                + ColonnaDizionario.dimensioneArray(4L * copie.length)
+                + ColonnaDizionario.dimensioneArray(8L * prezzi.length)
+                + ColonnaDizionario.dimensioneArray(usure.length);
+    }
+
+    ///@brief Titolo di una riga
+    String titolo(int riga) {
+        return titoli.leggi(riga);
+    }
+
+    ///@brief Autore di una riga
+    String autore(int riga) {
+        return autori.leggi(riga);
+    }
+
+    ///@brief ISBN di una riga
+    String isbn(int riga) {
+        return isbn.leggi(riga);
+    }
+
+    ///@brief Stato di usura di una riga
+    StatoUsura usura(int riga) {
+        return StatoUsura.daCodice(usure[riga]);
+    }
+
+    ///@brief Anno di pubblicazione di una riga
+    int anno(int riga) {
+        return anni[riga];
+    }
+
+    ///@brief Copie di una riga
+    int copie(int riga) {
+        return copie[riga];
+    }
+
+    ///@brief Prezzo di una riga
+    double prezzo(int riga) {
+        return prezzi[riga];
+    }
+
+   /**
+ * @brief Controlla che un indice di riga sia valido
+ *
+ * @param[in] riga L'indice
+ *
+ * @return void
+ *
+ * @throws IndexOutOfBoundsException se la riga non esiste
+ */
+    private void controlla(int riga) {
+        if (riga < 0 || riga >= righe) {
+            throw new IndexOutOfBoundsException(riga);
+        }
+    }
+}
@@ -0,0 +1,564 @@
+/**
+ * @file CatalogoMappato.java
+ * @brief Questo file contiene il catalogo dei libri letto da un file mappato in memoria, fuori dallo heap
+ *
+ * Per i cataloghi molto grandi (milioni di libri di più facoltà) tenere ogni libro come oggetto
+ * nello heap allunga le pause del garbage collector. Qui il catalogo è un file a formato fisso
+ * (scritto da scrivi()) mappato in sola lettura con FileChannel.map: i dati restano nella memoria
+ * del sistema operativo, fuori dallo heap, e vengono letti solo quando servono. Gli oggetti Java
+ * sono solo le viste (LibroMappato) create per le righe richieste, ad esempio quelle visibili
+ * nella TableView tramite getRighe().
+ *
+ * Il file contiene, dopo un'intestazione di 64 byte:
+ * - un record di 40 byte per libro (posizione e lunghezze dei testi, anno, copie, prezzo, usura);
+ * - l'indice degli ISBN: coppie (hash dell'ISBN normalizzato, riga) ordinate per hash;
+ * - gli indici per anno e per prezzo: le righe ordinate per quel campo;
+ * - i testi (titolo, autore, ISBN) in UTF-8.
+ * Le ricerche per ISBN, anno e prezzo sono ricerche binarie sugli indici; le altre ricerche
+ * scorrono i record. Il catalogo è in sola lettura: le modifiche si fanno sul model e si
+ * riscrive il file. Un MappedByteBuffer è limitato a 2 GB, quindi anche il file.
+ *
+ * @author Gruppo 27
+ * @date 29 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+import Persistenza.ArchivioBinario;
+import Ricerca.Intervallo;
+import Ricerca.Normalizzatore;
+import Ricerca.Pagina;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+public class CatalogoMappato implements Closeable {
+
+    private static final byte IDENTIFICATIVO = 'M'; ///@brief Identificativo del tipo di file scritto dopo il magic
+    private static final int VERSIONE = 1; ///@brief Versione del formato
+    private static final int INTESTAZIONE = 64; ///@brief Byte dell'intestazione
+    private static final int RECORD = 40; ///@brief Byte del record di un libro
+
+    // posizioni dei campi nel record
+    private static final int TESTI = 0;     ///@brief int: posizione del titolo nell'area dei testi (seguono autore e ISBN)
+    private static final int L_TITOLO = 4;  ///@brief int: byte del titolo, -1 se null
+    private static final int L_AUTORE = 8;  ///@brief int: byte dell'autore, -1 se null
+    private static final int L_ISBN = 12;   ///@brief int: byte dell'ISBN, -1 se null
+    private static final int ANNO = 16;     ///@brief int: anno di pubblicazione
+    private static final int COPIE = 20;    ///@brief int: copie
+    private static final int PREZZO = 24;   ///@brief double: prezzo
+    private static final int USURA = 32;    ///@brief byte: codice dello stato di usura
+
+    private final FileChannel canale; ///@brief Il canale del file, aperto finché il catalogo non viene chiuso
+    private final MappedByteBuffer dati; ///@brief Il file mappato
+    private final int righe; ///@brief Numero di libri
+    private final int posIsbn; ///@brief Inizio dell'indice degli ISBN
+    private final int posAnni; ///@brief Inizio dell'indice per anno
+    private final int posPrezzi; ///@brief Inizio dell'indice per prezzo
+    private final int posTesti; ///@brief Inizio dell'area dei testi
+    private final Righe vista = new Righe(); ///@brief Lista osservabile delle viste, per la TableView
+    ///@brief Ultima vista di ogni pagina restituita, per cursore: la pagina successiva deve ritrovare lo stesso oggetto,
+    ///perché Pagina distingue per identità gli elementi con la stessa chiave e ogni riga letta crea una vista nuova
+    private final Map<Pagina.Cursore<Libro>, LibroMappato> ultimi = Collections.synchronizedMap(new WeakHashMap<>());
+
+   /**
+ * @brief Lista osservabile, in sola lettura, che crea una vista per ogni riga richiesta
+ */
+    private final class Righe extends ObservableListBase<Libro> {
+
+        @Override
+        public Libro get(int indice) {
+            return riga(indice);
+        }
+
+        @Override
+        public int size() {
+            return righe;
+        }
+    }
+
+   /**
+ * @brief Costruttore del catalogo, a partire dal file già mappato
+ *
+ * @param[in] canale Il canale del file
+ * @param[in] dati Il file mappato
+ *
+ * @throws IOException se il file non è un catalogo mappato valido
+ */
+    private CatalogoMappato(FileChannel canale, MappedByteBuffer dati) throws IOException {
+        this.canale = canale;
+        this.dati = dati;
+        byte[] magic = new byte[ArchivioBinario.MAGIC.length];
+        if (dati.limit() < INTESTAZIONE) {
+            throw new IOException("Catalogo mappato troncato");
+        }
+        dati.get(0, magic);
+        if (!Arrays.equals(magic, ArchivioBinario.MAGIC) || dati.get(4) != IDENTIFICATIVO || dati.get(5) > VERSIONE) {
+            throw new IOException("Il file non è un catalogo mappato riconosciuto");
+        }
+        this.righe = dati.getInt(8);
+        this.posIsbn = dati.getInt(16);
+        this.posAnni = dati.getInt(20);
+        this.posPrezzi = dati.getInt(24);
+        this.posTesti = dati.getInt(28);
+        if (posTesti > dati.limit() || (long) INTESTAZIONE + (long) righe * RECORD > posIsbn) {
+            throw new IOException("Catalogo mappato troncato");
+        }
+    }
+
+   /**
+ * @brief Apre un catalogo mappato in sola lettura
+ *
+ * @param[in] file Il file scritto da scrivi()
+ *
+ * @return Il catalogo, da chiudere quando non serve più
+ *
+ * @throws IOException se il file non esiste o non è un catalogo mappato valido
+ */
+    public static CatalogoMappato apri(Path file) throws IOException {
+        FileChannel canale = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (canale.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalogo mappato troppo grande (oltre 2 GB)");
+            }
+            return new CatalogoMappato(canale, canale.map(FileChannel.MapMode.READ_ONLY, 0, canale.size()));
+        } catch (IOException | RuntimeException e) {
+            canale.close();
+            throw e;
+        }
+    }
+
+   /**
+ * @brief Scrive i libri nel formato del catalogo mappato
+ *
+ * Il file viene scritto accanto a quello di destinazione e poi rinominato, così che un catalogo
+ * aperto da un'altra finestra non veda mai un file a metà.
+ *
+ * @param[in] libri I libri, nell'ordine in cui diventeranno righe
+ * @param[in] file Il file da scrivere
+ *
+ * @return void
+ *
+ * @throws IOException se il file non può essere scritto o supererebbe i 2 GB
+ */
+    public static void scrivi(Collection<? extends Libro> libri, Path file) throws IOException {
+        Libro[] elenco = libri.toArray(new Libro[0]);
+        int n = elenco.length;
+        byte[][] testi = new byte[n * 3][];
+        long dimensioneTesti = 0;
+        for (int i = 0; i < n; i++) {
+            testi[3 * i] = utf8(elenco[i].getTitolo());
+            testi[3 * i + 1] = utf8(elenco[i].getAutore());
+            testi[3 * i + 2] = utf8(elenco[i].getIsbn());
+            for (int k = 0; k < 3; k++) {
+                dimensioneTesti += testi[3 * i + k] == null ? 0 : testi[3 * i + k].length;
+            }
+        }
+        long posIsbn = INTESTAZIONE + (long) n * RECORD;
+        long posAnni = posIsbn + 8L * n;
+        long posPrezzi = posAnni + 4L * n;
+        long posTesti = posPrezzi + 4L * n;
+        long fine = posTesti + dimensioneTesti;
+        if (fine > Integer.MAX_VALUE) {
+            throw new IOException("Catalogo mappato troppo grande (oltre 2 GB)");
+        }
+
+        ByteBuffer b = ByteBuffer.allocate((int) fine);
+        b.put(ArchivioBinario.MAGIC).put(IDENTIFICATIVO).put((byte) VERSIONE);
+        b.putInt(8, n).putInt(16, (int) posIsbn).putInt(20, (int) posAnni).putInt(24, (int) posPrezzi).putInt(28, (int) posTesti);
+
+        int testo = 0;
+        long[] perIsbn = new long[n];
+        long[] perAnno = new long[n];
+        long[] perPrezzo = new long[n];
+        for (int i = 0; i < n; i++) {
+            Libro l = elenco[i];
+            int r = INTESTAZIONE + i * RECORD;
+            b.putInt(r + TESTI, testo);
+            int[] lunghezze = {L_TITOLO, L_AUTORE, L_ISBN};
+            for (int k = 0; k < 3; k++) {
+                byte[] t = testi[3 * i + k];
+                b.putInt(r + lunghezze[k], t == null ? -1 : t.length);
+                if (t != null) {
+                    b.put((int) posTesti + testo, t);
+                    testo += t.length;
+                }
+            }
+            b.putInt(r + ANNO, l.getAnnoPubblicazione());
+            b.putInt(r + COPIE, l.getCopie());
+            b.putDouble(r + PREZZO, l.getPrezzo());
+            b.put(r + USURA, l.getStatoUsura().getCodice());
+            perIsbn[i] = ((long) hashIsbn(l.getIsbn()) << 32) | i;
+            perAnno[i] = ((long) l.getAnnoPubblicazione() << 32) | i;
+            perPrezzo[i] = ((long) ordinabile(l.getPrezzo()) << 32) | i;
+        }
+        Arrays.sort(perIsbn);
+        Arrays.sort(perAnno);
+        Arrays.sort(perPrezzo);
+        for (int i = 0; i < n; i++) {
+            b.putLong((int) posIsbn + 8 * i, perIsbn[i]);
+            b.putInt((int) posAnni + 4 * i, (int) perAnno[i]);
+            b.putInt((int) posPrezzi + 4 * i, (int) perPrezzo[i]);
+        }
+
+        Path temporaneo = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporaneo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            b.rewind();
+            while (b.hasRemaining()) {
+                out.write(b);
+            }
+            out.force(true);
+        }
+        Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+   /**
+ * @brief Numero di libri nel catalogo
+ *
+ * @return Il numero di righe
+ */
+    public int numeroRighe() {
+        return righe;
+    }
+
+   /**
+ * @brief Vista di una riga, che legge i campi dal file mappato
+ *
+ * @param[in] riga L'indice della riga
+ *
+ * @return La vista, in sola lettura
+ *
+ * @throws IndexOutOfBoundsException se la riga non esiste
+ */
+    public Libro riga(int riga) {
+        if (riga < 0 || riga >= righe) {
+            throw new IndexOutOfBoundsException(riga);
+        }
+        return new LibroMappato(this, riga);
+    }
+
+   /**
+ * @brief Lista osservabile delle righe, da mostrare in una TableView
+ *
+ * Le viste vengono create a ogni get(), quindi la tabella crea oggetti solo per le righe visibili.
+ * La lista è in sola lettura e nell'ordine del file; va mostrata così com'è, senza una vista
+ * ordinata, che leggerebbe tutte le righe.
+ *
+ * @return La lista
+ */
+    public ObservableList<Libro> getRighe() {
+        return vista;
+    }
+
+   /**
+ * @brief Cerca un libro per ISBN con una ricerca binaria sull'indice
+ *
+ * @param[in] isbn L'ISBN da cercare (trattini, spazi e maiuscole non contano)
+ *
+ * @return La vista del libro, o null se non presente
+ */
+    public Libro findByIsbn(String isbn) {
+        String cercato = TabellaLibroModel.normalizzaIsbn(isbn);
+        int hash = hashIsbn(isbn);
+        int basso = 0;
+        int alto = righe;
+        while (basso < alto) {
+            int medio = (basso + alto) >>> 1;
+            if (dati.getInt(posIsbn + 8 * medio) < hash) {
+                basso = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        for (int k = basso; k < righe && dati.getInt(posIsbn + 8 * k) == hash; k++) {
+            int riga = dati.getInt(posIsbn + 8 * k + 4);
+            if (TabellaLibroModel.normalizzaIsbn(isbn(riga)).equals(cercato)) {
+                return new LibroMappato(this, riga);
+            }
+        }
+        return null;
+    }
+
+   /**
+ * @brief Cerca i libri pubblicati in un intervallo di anni
+ *
+ * @param[in] anni L'intervallo degli anni
+ *
+ * @return Le viste dei libri trovati, in ordine di anno
+ */
+    public List<Libro> cercaPerAnno(Intervallo anni) {
+        return cercaInIndice(posAnni, anni, true);
+    }
+
+   /**
+ * @brief Cerca i libri con prezzo in un intervallo
+ *
+ * @param[in] prezzi L'intervallo dei prezzi
+ *
+ * @return Le viste dei libri trovati, in ordine di prezzo
+ */
+    public List<Libro> cercaPerPrezzo(Intervallo prezzi) {
+        return cercaInIndice(posPrezzi, prezzi, false);
+    }
+
+   /**
+ * @brief Cerca i libri il cui titolo o autore contiene parole che iniziano con tutti i termini del testo
+ *
+ * Scorre tutti i record: non c'è un indice invertito fuori dallo heap.
+ *
+ * @param[in] testo Il testo cercato
+ *
+ * @return Le viste dei libri trovati, nell'ordine del file
+ */
+    public List<Libro> cercaLibri(String testo) {
+        List<String> termini = Normalizzatore.termini(testo);
+        if (termini.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return filtra(l -> {
+            List<String> parole = Normalizzatore.termini(l.getTitolo() + " " + l.getAutore(), true);
+            for (String t : termini) {
+                boolean trovato = false;
+                for (String p : parole) {
+                    if (p.startsWith(t)) {
+                        trovato = true;
+                        break;
+                    }
+                }
+                if (!trovato) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+   /**
+ * @brief Scorre il catalogo e restituisce i libri che soddisfano un filtro
+ *
+ * Il filtro riceve una vista per riga; restano in memoria solo le viste dei libri accettati.
+ *
+ * @param[in] filtro Il filtro
+ *
+ * @return Le viste dei libri accettati, nell'ordine del file
+ */
+    public List<Libro> filtra(Predicate<? super Libro> filtro) {
+        List<Libro> risultati = new ArrayList<>();
+        for (int i = 0; i < righe; i++) {
+            Libro l = new LibroMappato(this, i);
+            if (filtro.test(l)) {
+                risultati.add(l);
+            }
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Restituisce una pagina dei libri che soddisfano un filtro, come TabellaLibroModel.pagina()
+ *
+ * @param[in] filtro Il filtro, null per tutti i libri
+ * @param[in] ordine L'ordinamento, null per l'ordine per ISBN; va riusato per le pagine successive
+ * @param[in] dopo Il cursore restituito dalla pagina precedente, null per la prima pagina
+ * @param[in] limite Il numero massimo di libri nella pagina
+ *
+ * @return La pagina
+ *
+ * @throws IllegalArgumentException se il limite non è positivo o il cursore è di un altro ordinamento
+ */
+    public Pagina<Libro> pagina(Predicate<? super Libro> filtro, Comparator<? super Libro> ordine, Pagina.Cursore<Libro> dopo, int limite) {
+        LibroMappato ultimo = dopo == null ? null : ultimi.get(dopo);
+        List<Libro> candidati = new AbstractList<Libro>() {
+            @Override
+            public Libro get(int indice) {
+                return ultimo != null && ultimo.getRiga() == indice ? ultimo : new LibroMappato(CatalogoMappato.this, indice);
+            }
+
+            @Override
+            public int size() {
+                return righe;
+            }
+        };
+        Pagina<Libro> pagina = Pagina.estrai(candidati, filtro, ordine, l -> TabellaLibroModel.normalizzaIsbn(l.getIsbn()), dopo, limite);
+        if (!pagina.isUltima()) {
+            List<Libro> elementi = pagina.getElementi();
+            ultimi.put(pagina.getSuccessiva(), (LibroMappato) elementi.get(elementi.size() - 1));
+        }
+        return pagina;
+    }
+
+   /**
+ * @brief Rilascia il file; le viste già create non vanno più usate
+ *
+ * La memoria mappata viene restituita al sistema quando il buffer viene raccolto dal garbage collector.
+ *
+ * @return void
+ */
+    @Override
+    public void close() throws IOException {
+        canale.close();
+    }
+
+    ///@brief Titolo di una riga
+    String titolo(int riga) {
+        return testo(riga, 0);
+    }
+
+    ///@brief Autore di una riga
+    String autore(int riga) {
+        return testo(riga, 1);
+    }
+
+    ///@brief ISBN di una riga
+    String isbn(int riga) {
+        return testo(riga, 2);
+    }
+
+    ///@brief Anno di pubblicazione di una riga
+    int anno(int riga) {
+        return dati.getInt(INTESTAZIONE + riga * RECORD + ANNO);
+    }
+
+    ///@brief Copie di una riga
+    int copie(int riga) {
+        return dati.getInt(INTESTAZIONE + riga * RECORD + COPIE);
+    }
+
+    ///@brief Prezzo di una riga
+    double prezzo(int riga) {
+        return dati.getDouble(INTESTAZIONE + riga * RECORD + PREZZO);
+    }
+
+    ///@brief Stato di usura di una riga
+    StatoUsura usura(int riga) {
+        return StatoUsura.daCodice(dati.get(INTESTAZIONE + riga * RECORD + USURA));
+    }
+
+    ///@brief Copia indipendente di una riga, come oggetto Libro
+    Libro copia(int riga) {
+        return new Libro(titolo(riga), autore(riga), isbn(riga), anno(riga), prezzo(riga), usura(riga), copie(riga));
+    }
+
+   /**
+ * @brief Legge uno dei testi di una riga
+ *
+ * @param[in] riga La riga
+ * @param[in] campo 0 per il titolo, 1 per l'autore, 2 per l'ISBN
+ *
+ * @return Il testo, eventualmente null
+ */
+    private String testo(int riga, int campo) {
+        int r = INTESTAZIONE + riga * RECORD;
+        int inizio = posTesti + dati.getInt(r + TESTI);
+        for (int k = 0; k < campo; k++) {
+            inizio += Math.max(0, dati.getInt(r + L_TITOLO + 4 * k));
+        }
+        int lunghezza = dati.getInt(r + L_TITOLO + 4 * campo);
+        if (lunghezza < 0) {
+            return null;
+        }
+        byte[] b = new byte[lunghezza];
+        dati.get(inizio, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+   /**
+ * @brief Cerca in un indice ordinato (per anno o per prezzo) le righe con valore nell'intervallo
+ *
+ * @param[in] pos L'inizio dell'indice nel file
+ * @param[in] intervallo L'intervallo cercato
+ * @param[in] perAnno True per l'indice degli anni, false per quello dei prezzi
+ *
+ * @return Le viste delle righe trovate, in ordine di valore
+ */
+    private List<Libro> cercaInIndice(int pos, Intervallo intervallo, boolean perAnno) {
+        int basso = 0;
+        int alto = righe;
+        while (basso < alto) {
+            int medio = (basso + alto) >>> 1;
+            double v = valore(dati.getInt(pos + 4 * medio), perAnno);
+            boolean prima = intervallo.isMinimoIncluso() ? v < intervallo.getMinimo() : v <= intervallo.getMinimo();
+            if (prima) {
+                basso = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        List<Libro> risultati = new ArrayList<>();
+        for (int k = basso; k < righe; k++) {
+            int riga = dati.getInt(pos + 4 * k);
+            double v = valore(riga, perAnno);
+            if (intervallo.isMassimoIncluso() ? v > intervallo.getMassimo() : v >= intervallo.getMassimo()) {
+                break;
+            }
+            risultati.add(new LibroMappato(this, riga));
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Valore del campo di un indice per una riga
+ *
+ * @param[in] riga La riga
+ * @param[in] perAnno True per l'anno, false per il prezzo
+ *
+ * @return Il valore
+ */
+    private double valore(int riga, boolean perAnno) {
+        return perAnno ? anno(riga) : prezzo(riga);
+    }
+
+   /**
+ * @brief Hash dell'ISBN normalizzato, usato dall'indice degli ISBN
+ *
+ * @param[in] isbn L'ISBN
+ *
+ * @return L'hash
+ */
+    private static int hashIsbn(String isbn) {
+        return TabellaLibroModel.normalizzaIsbn(isbn).hashCode();
+    }
+
+   /**
+ * @brief Converte un prezzo in un int che si ordina come il prezzo (i prezzi sono positivi e con due decimali)
+ *
+ * @param[in] prezzo Il prezzo
+ *
+ * @return Il valore da ordinare
+ */
+    private static int ordinabile(double prezzo) {
+        float f = (float) prezzo;
+        int bit = Float.floatToIntBits(f);
+        return bit < 0 ? ~bit | Integer.MIN_VALUE : bit;
+    }
+
+   /**
+ * @brief Codifica un testo in UTF-8
+ *
+ * @param[in] testo Il testo, eventualmente null
+ *
+ * @return I byte, null se il testo è null
+ */
+    private static byte[] utf8(String testo) {
+        return testo == null ? null : testo.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * @file CodecLibro.java
+ * @brief Questo file contiene il codec binario compatto della classe Libro
+ *
+ * Il codec scrive i campi del libro uno per uno: stringhe UTF-8 con lunghezza, anno e copie
+ * come varint, prezzo come double e stato di usura come un byte (il codice di StatoUsura).
+ * È usato sia per l'istantanea libri.bin sia per i record di aggiunta del giornale.
+ * Nella versione 1 lo stato di usura era un testo libero, che viene ricondotto a uno StatoUsura.
+ * Gli autori letti vengono condivisi tramite PoolStringhe.
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+import Persistenza.Codec;
+import Persistenza.LettoreBinario;
+import Persistenza.PoolStringhe;
+import Persistenza.ScrittoreBinario;
+import java.io.IOException;
+
+public class CodecLibro implements Codec<Libro> {
+
+    public static final int VERSIONE = 2; ///@brief Versione corrente del formato dei record Libro
+
+    @Override
+    public byte identificativo() {
+        return 'L';
+    }
+
+    @Override
+    public int versione() {
+        return VERSIONE;
+    }
+
+    @Override
+    public Class<Libro> tipo() {
+        return Libro.class;
+    }
+
+    @Override
+    public void scrivi(ScrittoreBinario out, Libro lib) throws IOException {
+        out.scriviStringa(lib.getTitolo());
+        out.scriviStringa(lib.getAutore());
+        out.scriviStringa(lib.getIsbn());
+        out.scriviIntero(lib.getAnnoPubblicazione());
+        out.scriviDecimale(lib.getPrezzo());
+        out.scriviByte(lib.getStatoUsura().getCodice());
+        out.scriviIntero(lib.getCopie());
+    }
+
+    @Override
+    public Libro leggi(LettoreBinario in, int versione) throws IOException {
+        String titolo = in.leggiStringa();
+        String autore = PoolStringhe.COMUNE.condividi(in.leggiStringa());
+        String isbn = in.leggiStringa();
+        int anno = in.leggiIntero();
+        double prezzo = in.leggiDecimale();
+        StatoUsura usura = versione < 2 ? StatoUsura.da(in.leggiStringa()) : leggiUsura(in);
+        int copie = in.leggiIntero();
+        return new Libro(titolo, autore, isbn, anno, prezzo, usura, copie);
+    }
+
+   /**
+ * @brief Legge il codice di uno stato di usura
+ *
+ * @param[in] in Il lettore
+ *
+ * @return Lo stato letto
+ *
+ * @throws IOException se il codice non corrisponde a nessuno stato
+ */
+    static StatoUsura leggiUsura(LettoreBinario in) throws IOException {
+        int codice = in.leggiByte();
+        try {
+            return StatoUsura.daCodice(codice);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * @file ColonnaDizionario.java
+ * @brief Questo file contiene una colonna di testi codificata con un dizionario
+ *
+ * Ogni valore distinto viene conservato una sola volta, in UTF-8, in un unico array di byte;
+ * ogni riga contiene solo il codice (int) del suo valore. Il dizionario è una tabella hash ad
+ * indirizzamento aperto di soli int, quindi non ci sono oggetti String né nodi per valore.
+ * I testi vengono ricostruiti quando vengono letti; per le colonne con pochi valori distinti
+ * (autore, usura) le String ricostruite possono essere conservate, una per valore.
+ * Le righe si possono solo aggiungere: la colonna è scritta una volta, quando si costruisce il catalogo.
+ *
+ * @author Gruppo 27
+ * @date 25 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class ColonnaDizionario {
+
+    private static final int NULLO = -1; ///@brief Codice del valore null
+
+    private byte[] dati = new byte[256]; ///@brief I valori distinti in UTF-8, uno dopo l'altro
+    private int fineDati; ///@brief Byte usati in dati
+    private int[] inizi = new int[17]; ///@brief Inizio in dati di ogni valore (inizi[c + 1] ne è la fine)
+    private int valori; ///@brief Numero di valori distinti
+    private int[] tabella = new int[32]; ///@brief Tabella hash: codice + 1 di ogni valore, 0 se la cella è libera
+    private String[] decodificati; ///@brief String già ricostruite per codice, null se non vengono conservate
+    private int[] codici = new int[16]; ///@brief Codice del valore di ogni riga
+    private int righe; ///@brief Numero di righe
+
+   /**
+ * @brief Costruttore della colonna
+ *
+ * @param[in] conservaTesti Se true le String ricostruite vengono conservate (per colonne con pochi valori distinti)
+ */
+    ColonnaDizionario(boolean conservaTesti) {
+        this.decodificati = conservaTesti ? new String[16] : null;
+    }
+
+   /**
+ * @brief Aggiunge una riga in fondo alla colonna
+ *
+ * @param[in] valore Il testo della riga, eventualmente null
+ *
+ * @return void
+ */
+    void aggiungi(String valore) {
+        if (righe == codici.length) {
+            codici = Arrays.copyOf(codici, righe * 2);
+        }
+        codici[righe++] = codifica(valore);
+    }
+
+   /**
+ * @brief Testo di una riga
+ *
+ * @param[in] riga La riga
+ *
+ * @return Il testo, eventualmente null
+ */
+    String leggi(int riga) {
+        int c = codici[riga];
+        if (c == NULLO) {
+            return null;
+        }
+        if (decodificati == null) {
+            return decodifica(c);
+        }
+        String s = decodificati[c];
+        if (s == null) {
+            s = decodifica(c);
+            decodificati[c] = s;
+        }
+        return s;
+    }
+
+   /**
+ * @brief Numero di valori distinti nel dizionario
+ *
+ * @return Il numero di valori
+ */
+    int numeroValori() {
+        return valori;
+    }
+
+   /**
+ * @brief Stima dei byte occupati dalla colonna (array e String conservate)
+ *
+ * @return I byte occupati
+ */
+    long occupazione() {
+        long byteArray = dimensioneArray(dati.length) + dimensioneArray(4L * inizi.length)
+                + dimensioneArray(4L * tabella.length) + dimensioneArray(4L * codici.length);
+        if (decodificati != null) {
+            byteArray += dimensioneArray(4L * decodificati.length);
+            for (int c = 0; c < valori; c++) {
+                if (decodificati[c] != null) {
+                    byteArray += 24 + dimensioneArray(inizi[c + 1] - inizi[c]);
+                }
+            }
+        }
+        return byteArray;
+    }
+
+   /**
+ * @brief Byte occupati da un array, con intestazione e allineamento a 8 byte
+ *
+ * @param[in] contenuto I byte degli elementi
+ *
+ * @return I byte occupati
+ */
+    static long dimensioneArray(long contenuto) {
+        return (16 + contenuto + 7) & ~7L;
+    }
+
+   /**
+ * @brief Codice di un valore, aggiunto al dizionario se manca
+ *
+ * @param[in] valore Il valore, eventualmente null
+ *
+ * @return Il codice
+ */
+    private int codifica(String valore) {
+        if (valore == null) {
+            return NULLO;
+        }
+        byte[] b = valore.getBytes(StandardCharsets.UTF_8);
+        int maschera = tabella.length - 1;
+        int i = hash(b, 0, b.length) & maschera;
+        while (tabella[i] != 0) {
+            int c = tabella[i] - 1;
+            if (Arrays.equals(dati, inizi[c], inizi[c + 1], b, 0, b.length)) {
+                return c;
+            }
+            i = (i + 1) & maschera;
+        }
+        int c = valori++;
+        if (fineDati + b.length > dati.length) {
+            dati = Arrays.copyOf(dati, Math.max(dati.length * 2, fineDati + b.length));
+        }
+        System.arraycopy(b, 0, dati, fineDati, b.length);
+        fineDati += b.length;
+        if (valori + 1 > inizi.length) {
+            inizi = Arrays.copyOf(inizi, inizi.length * 2);
+            if (decodificati != null) {
+                decodificati = Arrays.copyOf(decodificati, inizi.length);
+            }
+        }
+        inizi[c + 1] = fineDati;
+        tabella[i] = c + 1;
+        if (valori * 2 > tabella.length) {
+            ridimensiona();
+        }
+        return c;
+    }
+
+   /**
+ * @brief Ricostruisce il testo di un codice
+ *
+ * @param[in] c Il codice
+ *
+ * @return Il testo
+ */
+    private String decodifica(int c) {
+        return new String(dati, inizi[c], inizi[c + 1] - inizi[c], StandardCharsets.UTF_8);
+    }
+
+   /**
+ * @brief Hash di un intervallo di byte
+ *
+ * @param[in] b I byte
+ * @param[in] da L'inizio dell'intervallo
+ * @param[in] a La fine dell'intervallo (esclusa)
+ *
+ * @return L'hash, con i bit alti mescolati in quelli bassi
+ */
+    private static int hash(byte[] b, int da, int a) {
+        int h = 1;
+        for (int i = da; i < a; i++) {
+            h = 31 * h + b[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+   /**
+ * @brief Raddoppia la tabella hash e vi reinserisce i codici
+ *
+ * @return void
+ */
+    private void ridimensiona() {
+        tabella = new int[tabella.length * 2];
+        int maschera = tabella.length - 1;
+        for (int c = 0; c < valori; c++) {
+            int i = hash(dati, inizi[c], inizi[c + 1]) & maschera;
+            while (tabella[i] != 0) {
+                i = (i + 1) & maschera;
+            }
+            tabella[i] = c + 1;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/**
+ * @file GiornaleLibri.java
+ * @brief Questo file contiene il giornale delle modifiche (append-only) del catalogo dei libri
+ *
+ * Ogni aggiunta, rimozione o modifica di un campo viene codificata come un piccolo record e
+ * accodata al file di giornale che affianca l'istantanea completa (libri.bin). Al caricamento
+ * l'istantanea viene letta e il giornale riapplicato; periodicamente il giornale viene
+ * compattato in una nuova istantanea.
+ * I record usano lo stesso formato compatto dell'istantanea (varint e stringhe UTF-8 con
+ * lunghezza) e il file inizia con la stessa intestazione "LB27" seguita dal tipo 'G'.
+ *
+ * @author Gruppo 27
+ * @date 8 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+import Persistenza.ArchivioBinario;
+import Persistenza.LettoreBinario;
+import Persistenza.PoolStringhe;
+import Persistenza.ScrittoreBinario;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GiornaleLibri {
+
+    private static final byte AGGIUNTA = 1;     ///@brief Tipo di record: libro aggiunto (tutti i campi)
+    private static final byte RIMOZIONE = 2;    ///@brief Tipo di record: libro rimosso (solo ISBN)
+    private static final byte MODIFICA = 3;     ///@brief Tipo di record: modifica di un singolo campo
+    private static final byte IDENTIFICATIVO = 'G'; ///@brief Identificativo del tipo di file scritto dopo il magic
+    private static final int VERSIONE = 2;      ///@brief Versione del formato dei record del giornale (dalla 2 l'usura è un byte)
+
+    public static final int SOGLIA_COMPATTAZIONE = 1000; ///@brief Numero di record oltre il quale il giornale va compattato
+
+    private final File file;    ///@brief Il file di giornale su disco
+    private final ByteArrayOutputStream inAttesa = new ByteArrayOutputStream(); ///@brief Record registrati ma non ancora scritti
+    private final ScrittoreBinario out = new ScrittoreBinario(inAttesa); ///@brief Scrittore dei record in attesa
+    private final CodecLibro codec = new CodecLibro(); ///@brief Codec dei libri aggiunti
+    private int vociInAttesa;   ///@brief Numero di record nel buffer in attesa
+    private int vociSuDisco;    ///@brief Numero di record presenti nel file di giornale
+
+   /**
+ * @brief Costruttore del giornale
+ *
+ * @param[in] nomeFile Il percorso del file di giornale
+ */
+    public GiornaleLibri(String nomeFile) {
+        this.file = new File(nomeFile);
+    }
+
+   /**
+ * @brief Registra l'aggiunta di un libro
+ *
+ * @param[in] lib Il libro aggiunto
+ *
+ * @return void
+ */
+    public void registraAggiunta(Libro lib) {
+        try {
+            out.scriviByte(AGGIUNTA);
+            codec.scrivi(out, lib);
+            vociInAttesa++;
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+   /**
+ * @brief Registra la rimozione di un libro
+ *
+ * @param[in] lib Il libro rimosso
+ *
+ * @return void
+ */
+    public void registraRimozione(Libro lib) {
+        try {
+            out.scriviByte(RIMOZIONE);
+            out.scriviStringa(lib.getIsbn());
+            vociInAttesa++;
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+   /**
+ * @brief Registra la modifica di un singolo campo di un libro
+ *
+ * @param[in] isbn L'ISBN che il libro aveva prima della modifica
+ * @param[in] campo Il campo modificato
+ * @param[in] lib Il libro già modificato, da cui leggere il nuovo valore
+ *
+ * @return void
+ */
+    public void registraModifica(String isbn, CampoLibro campo, Libro lib) {
+        try {
+            out.scriviByte(MODIFICA);
+            out.scriviStringa(isbn);
+            out.scriviByte(campo.ordinal());
+            Object valore = campo.leggi(lib);
+            if (valore instanceof Integer) {
+                out.scriviIntero((Integer) valore);
+            } else if (valore instanceof Double) {
+                out.scriviDecimale((Double) valore);
+            } else if (valore instanceof StatoUsura) {
+                out.scriviByte(((StatoUsura) valore).getCodice());
+            } else {
+                out.scriviStringa((String) valore);
+            }
+            vociInAttesa++;
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+   /**
+ * @brief Accoda al file di giornale i record in attesa
+ *
+ * @post I record in attesa sono stati scritti su disco e il buffer è vuoto
+ *
+ * @return void
+ */
+    public void accoda() throws IOException {
+        accoda(preleva());
+    }
+
+   /**
+ * @brief Preleva i record in attesa, che da questo momento sono contati come scritti
+ *
+ * Va chiamato dal thread che registra le modifiche; i byte restituiti possono poi essere
+ * scritti da un altro thread con accoda(byte[]).
+ *
+ * @post Il buffer dei record in attesa è vuoto
+ *
+ * @return I record da accodare al file
+ */
+    public byte[] preleva() throws IOException {
+        out.svuota();
+        byte[] record = inAttesa.toByteArray();
+        vociSuDisco += vociInAttesa;
+        vociInAttesa = 0;
+        inAttesa.reset();
+        return record;
+    }
+
+   /**
+ * @brief Accoda al file di giornale dei record prelevati, scrivendo l'intestazione se il file è nuovo
+ *
+ * @param[in] record I record restituiti da preleva()
+ *
+ * @return void
+ */
+    public void accoda(byte[] record) throws IOException {
+        if (record.length == 0) {
+            return;
+        }
+        boolean nuovo = !file.exists() || file.length() == 0;
+        try (FileOutputStream fos = new FileOutputStream(file, true)) {
+            if (nuovo) {
+                fos.write(ArchivioBinario.MAGIC);
+                fos.write(IDENTIFICATIVO);
+                fos.write(VERSIONE);
+            }
+            fos.write(record);
+        }
+    }
+
+   /**
+ * @brief Svuota il giornale dopo la scrittura di una nuova istantanea
+ *
+ * @post Il file di giornale è vuoto e i record in attesa sono stati scartati
+ *
+ * @return void
+ */
+    public void azzera() throws IOException {
+        scarta();
+        tronca();
+    }
+
+   /**
+ * @brief Scarta i record in attesa e azzera i contatori, perché inclusi in una nuova istantanea
+ *
+ * @return void
+ */
+    public void scarta() throws IOException {
+        out.svuota();
+        inAttesa.reset();
+        vociInAttesa = 0;
+        vociSuDisco = 0;
+    }
+
+   /**
+ * @brief Svuota il file di giornale
+ *
+ * @return void
+ */
+    public void tronca() throws IOException {
+        new FileOutputStream(file).close();
+    }
+
+   /**
+ * @brief Indica se il giornale è abbastanza lungo da dover essere compattato
+ *
+ * @return True se il numero di record su disco ha raggiunto la soglia di compattazione
+ */
+    public boolean daCompattare() {
+        return vociSuDisco >= SOGLIA_COMPATTAZIONE;
+    }
+
+   /**
+ * @brief Riapplica il giornale alla lista caricata dall'istantanea
+ *
+ * I record hanno valori assoluti, per cui riapplicare un giornale già incluso nell'istantanea
+ * non altera il risultato. Un record troncato in coda (es. chiusura improvvisa) viene ignorato
+ * e il giornale viene segnalato come da compattare.
+ *
+ * @pre La lista contiene i libri dell'istantanea
+ * @post La lista riflette tutte le modifiche registrate nel giornale
+ *
+ * @param[in] libri La lista da aggiornare
+ *
+ * @return void
+ */
+    public void riapplica(List<Libro> libri) throws IOException {
+        vociSuDisco = 0;
+        if (!file.exists() || file.length() == 0) {
+            return;
+        }
+        Map<String, Libro> perIsbn = new HashMap<>();
+        for (Libro l : libri) {
+            perIsbn.putIfAbsent(l.getIsbn(), l);
+        }
+        try (LettoreBinario in = new LettoreBinario(new FileInputStream(file))) {
+            if (!Arrays.equals(in.leggiByte(ArchivioBinario.MAGIC.length), ArchivioBinario.MAGIC)
+                    || in.leggiByte() != IDENTIFICATIVO) {
+                System.out.println("Giornale " + file.getName() + " in un formato non riconosciuto, ignorato");
+                vociSuDisco = SOGLIA_COMPATTAZIONE;
+                return;
+            }
+            int versione = in.leggiByte();
+            if (versione > VERSIONE) {
+                System.out.println("Giornale " + file.getName() + " in un formato non riconosciuto, ignorato");
+                vociSuDisco = SOGLIA_COMPATTAZIONE;
+                return;
+            }
+            while (!in.fine()) {
+                int tipo = in.leggiByte();
+                try {
+                    applica(tipo, in, versione, libri, perIsbn);
+                } catch (EOFException e) {
+                    System.out.println("Record troncato in coda al giornale " + file.getName());
+                    vociSuDisco = SOGLIA_COMPATTAZIONE; // forza la compattazione per eliminare il record troncato
+                    break;
+                } catch (StreamCorruptedException e) {
+                    // i record successivi non si possono più delimitare: si tengono quelli precedenti
+                    System.out.println(e.getMessage() + ", ignorato il resto del giornale");
+                    vociSuDisco = SOGLIA_COMPATTAZIONE; // forza la compattazione per eliminare il record corrotto
+                    break;
+                }
+                vociSuDisco++;
+            }
+            if (versione < VERSIONE) {
+                vociSuDisco = Math.max(vociSuDisco, SOGLIA_COMPATTAZIONE); // i nuovi record non possono essere accodati a un file di versione precedente
+            }
+        }
+    }
+
+   /**
+ * @brief Applica un singolo record del giornale
+ *
+ * @param[in] tipo Il tipo di record già letto
+ * @param[in] in Lo stream posizionato sul contenuto del record
+ * @param[in] versione La versione del giornale letta dall'intestazione
+ * @param[in] libri La lista da aggiornare
+ * @param[in] perIsbn Indice di appoggio ISBN -> libro
+ *
+ * @return void
+ *
+ * @throws StreamCorruptedException se il tipo del record o il codice di campo è sconosciuto
+ */
+    private void applica(int tipo, LettoreBinario in, int versione, List<Libro> libri, Map<String, Libro> perIsbn) throws IOException {
+        switch (tipo) {
+            case AGGIUNTA: {
+                Libro nuovo = codec.leggi(in, versione < 2 ? 1 : CodecLibro.VERSIONE);
+                Libro esistente = perIsbn.get(nuovo.getIsbn());
+                if (esistente == null) {
+                    libri.add(nuovo);
+                    perIsbn.put(nuovo.getIsbn(), nuovo);
+                } else {
+                    for (CampoLibro c : CampoLibro.values()) {
+                        c.imposta(esistente, c.leggi(nuovo));
+                    }
+                }
+                break;
+            }
+            case RIMOZIONE: {
+                Libro rimosso = perIsbn.remove(in.leggiStringa());
+                if (rimosso != null) {
+                    libri.remove(rimosso);
+                }
+                break;
+            }
+            case MODIFICA: {
+                String isbn = in.leggiStringa();
+                int codice = in.leggiByte();
+                if (codice < 0 || codice >= CampoLibro.values().length) {
+                    throw new StreamCorruptedException("Campo sconosciuto nel giornale " + file.getName() + ": " + codice);
+                }
+                CampoLibro campo = CampoLibro.values()[codice];
+                Object valore;
+                if (campo == CampoLibro.ANNO || campo == CampoLibro.COPIE) {
+                    valore = in.leggiIntero();
+                } else if (campo == CampoLibro.PREZZO) {
+                    valore = in.leggiDecimale();
+                } else if (campo == CampoLibro.USURA) {
+                    valore = versione < 2 ? StatoUsura.da(in.leggiStringa()) : CodecLibro.leggiUsura(in);
+                } else if (campo == CampoLibro.AUTORE) {
+                    valore = PoolStringhe.COMUNE.condividi(in.leggiStringa());
+                } else {
+                    valore = in.leggiStringa();
+                }
+                Libro lib = perIsbn.get(isbn);
+                if (lib != null) {
+                    campo.imposta(lib, valore);
+                    if (campo == CampoLibro.ISBN) {
+                        perIsbn.remove(isbn);
+                        perIsbn.put(lib.getIsbn(), lib);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new StreamCorruptedException("Record sconosciuto nel giornale " + file.getName() + ": " + tipo);
+        }
+    }
+}
@@ -5,6 +5,8 @@
  * Questa classe permette di istanziare un oggetto Libro, i metodi setter e getter permettono di
  * ottenere e modificare informazioni relative agli attributi, inoltre il metodo toString permette di stampare 
  * le informazioni relative alla classe Libro.
+ * Lo stato di usura è conservato come codice di StatoUsura (un byte); nella forma serializzata
+ * resta un testo, come nei file .bin meno recenti (vedi serialPersistentFields).
  *
  * @author Gruppo 27
  * @date 8 Dicembre 2025
@@ -12,17 +14,34 @@
  */
 package Libro;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 public class Libro implements Serializable{
 
+    private static final long serialVersionUID = 8539841435721688709L; ///@brief Identificativo di serializzazione, fissato per poter leggere i file .bin nel vecchio formato
+
     private String titolo;  ///@brief Il titolo del libro
     private String autore;  ///@brief L'autore del libro
     private String isbn;    ///@brief Il codice ISBN del libro
     private int copie = 1;   ///@brief Il numero di copie disponibili del libro
     private int annoPublicazione;   ///@brief L'anno di pubblicazione del libro
     private double prezzo;   ///@brief Il prezzo del libro
-    private String usura;   ///@brief Lo stato di usura del libro
+    private byte usura;   ///@brief Lo stato di usura del libro, come codice di StatoUsura
+
+    ///@brief Campi della forma serializzata, uguali a quelli delle versioni precedenti (usura come testo)
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("titolo", String.class),
+        new ObjectStreamField("autore", String.class),
+        new ObjectStreamField("isbn", String.class),
+        new ObjectStreamField("copie", int.class),
+        new ObjectStreamField("annoPublicazione", int.class),
+        new ObjectStreamField("prezzo", double.class),
+        new ObjectStreamField("usura", String.class)
+    };
 
   /**
  * @brief Costruttore per creare un nuovo oggetto Libro
@@ -37,16 +56,32 @@ public class Libro implements Serializable{
  * @param[in] numCopie Il numero di copie disponibili del libro
  * @param[in] annoPubblicazione L'anno di pubblicazione del libro
  * @param[in] prezzo Il prezzo del libro
- * @param[in] usura Lo stato di usura del libro
+ * @param[in] usura Lo stato di usura del libro, come testo (vedi StatoUsura.da)
  */
     
     public Libro(String titolo, String autore, String isbn, int annoPublicazione, double prezzo, String usura, int numCopie) {
+        this(titolo, autore, isbn, annoPublicazione, prezzo, StatoUsura.da(usura), numCopie);
+    }
+
+  /**
+ * @brief Costruttore per creare un nuovo oggetto Libro con uno stato di usura già codificato
+ *
+ * @param[in] titolo Il titolo del libro
+ * @param[in] autore L'autore del libro
+ * @param[in] isbn Il codice ISBN del libro
+ * @param[in] annoPubblicazione L'anno di pubblicazione del libro
+ * @param[in] prezzo Il prezzo del libro
+ * @param[in] usura Lo stato di usura del libro
+ * @param[in] numCopie Il numero di copie disponibili del libro
+ */
+    
+    public Libro(String titolo, String autore, String isbn, int annoPublicazione, double prezzo, StatoUsura usura, int numCopie) {
         this.titolo = titolo;
         this.autore = autore;
         this.isbn = isbn;
         this.annoPublicazione = annoPublicazione;
         this.prezzo = prezzo;
-        this.usura = usura;
+        this.usura = usura.getCodice();
         this.copie = numCopie; 
     }
 
@@ -113,11 +148,21 @@ public class Libro implements Serializable{
   /**
  * @brief Metodo che permette di ottenere lo stato di usura del libro
  * 
- * @return usura Lo stato di usura del libro in formato String
+ * @return usura L'etichetta dello stato di usura del libro in formato String
  */
     
     public String getUsura() {
-        return usura;
+        return getStatoUsura().getEtichetta();
+    }
+
+  /**
+ * @brief Metodo che permette di ottenere lo stato di usura del libro
+ * 
+ * @return Lo stato di usura del libro
+ */
+    
+    public StatoUsura getStatoUsura() {
+        return StatoUsura.daCodice(usura);
     }
 
   /**
@@ -195,13 +240,25 @@ public class Libro implements Serializable{
   /**
  * @brief Imposta o aggiorna lo stato di usura del libro 
  *
- * @param[in] usura Il nuovo stato di usura del libro
+ * @param[in] usura Il nuovo stato di usura del libro, come testo (vedi StatoUsura.da)
  * 
  * @return void
  */
     
     public void setUsura(String usura) {
-        this.usura = usura;
+        setStatoUsura(StatoUsura.da(usura));
+    }
+
+  /**
+ * @brief Imposta o aggiorna lo stato di usura del libro 
+ *
+ * @param[in] usura Il nuovo stato di usura del libro
+ * 
+ * @return void
+ */
+    
+    public void setStatoUsura(StatoUsura usura) {
+        this.usura = usura.getCodice();
     }
 
   /**
@@ -247,7 +304,44 @@ public class Libro implements Serializable{
                 ", numCopie=" + copie +
                 ", annoPublicazione=" + annoPublicazione +
                 ", prezzo=" + prezzo +
-                ", usura='" + usura + '\'' +
+                ", usura='" + getUsura() + '\'' +
                 '}';
     }
+
+  /**
+ * @brief Scrive il libro nella forma serializzata, con lo stato di usura come testo
+ *
+ * @param[in] out Lo stream di serializzazione
+ * 
+ * @return void
+ */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField campi = out.putFields();
+        campi.put("titolo", titolo);
+        campi.put("autore", autore);
+        campi.put("isbn", isbn);
+        campi.put("copie", copie);
+        campi.put("annoPublicazione", annoPublicazione);
+        campi.put("prezzo", prezzo);
+        campi.put("usura", getUsura());
+        out.writeFields();
+    }
+
+  /**
+ * @brief Legge un libro serializzato, riconducendo il testo dello stato di usura a uno StatoUsura
+ *
+ * @param[in] in Lo stream di deserializzazione
+ * 
+ * @return void
+ */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campi = in.readFields();
+        titolo = (String) campi.get("titolo", null);
+        autore = (String) campi.get("autore", null);
+        isbn = (String) campi.get("isbn", null);
+        copie = campi.get("copie", 1);
+        annoPublicazione = campi.get("annoPublicazione", 0);
+        prezzo = campi.get("prezzo", 0.0);
+        usura = StatoUsura.da((String) campi.get("usura", null)).getCodice();
+    }
 }
@@ -0,0 +1,131 @@
+/**
+ * @file LibroMappato.java
+ * @brief Questo file contiene la vista in sola lettura di una riga del catalogo mappato
+ *
+ * Una LibroMappato ricorda solo il catalogo e l'indice della riga; ogni getter
+ * legge il campo dal file mappato. Il catalogo mappato non si modifica, quindi i setter lanciano
+ * UnsupportedOperationException. Se serializzata viene scritta come un normale Libro.
+ *
+ * @author Gruppo 27
+ * @date 29 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+final class LibroMappato extends Libro {
+
+    private static final long serialVersionUID = 1L; ///@brief Identificativo di serializzazione (le viste vengono scritte come Libro)
+
+    private final transient CatalogoMappato catalogo; ///@brief Il catalogo che contiene i dati
+    private final int riga; ///@brief L'indice della riga nel catalogo
+
+   /**
+ * @brief Costruttore della vista
+ *
+ * @param[in] catalogo Il catalogo
+ * @param[in] riga L'indice della riga
+ */
+    LibroMappato(CatalogoMappato catalogo, int riga) {
+        super(null, null, null, 0, 0, StatoUsura.NON_INDICATO, 0);
+        this.catalogo = catalogo;
+        this.riga = riga;
+    }
+
+   /**
+ * @brief Indice della riga nel catalogo
+ *
+ * @return L'indice della riga
+ */
+    int getRiga() {
+        return riga;
+    }
+
+    @Override
+    public String getTitolo() {
+        return catalogo.titolo(riga);
+    }
+
+    @Override
+    public String getAutore() {
+        return catalogo.autore(riga);
+    }
+
+    @Override
+    public String getIsbn() {
+        return catalogo.isbn(riga);
+    }
+
+    @Override
+    public int getCopie() {
+        return catalogo.copie(riga);
+    }
+
+    @Override
+    public int getAnnoPubblicazione() {
+        return catalogo.anno(riga);
+    }
+
+    @Override
+    public double getPrezzo() {
+        return catalogo.prezzo(riga);
+    }
+
+    @Override
+    public StatoUsura getStatoUsura() {
+        return catalogo.usura(riga);
+    }
+
+    @Override
+    public void setTitolo(String titolo) {
+        throw new UnsupportedOperationException("Il catalogo mappato è in sola lettura");
+    }
+
+    @Override
+    public void setAutore(String autore) {
+        throw new UnsupportedOperationException("Il catalogo mappato è in sola lettura");
+    }
+
+    @Override
+    public void setIsbn(String isbn) {
+        throw new UnsupportedOperationException("Il catalogo mappato è in sola lettura");
+    }
+
+    @Override
+    public void setCopie(int numCopie) {
+        throw new UnsupportedOperationException("Il catalogo mappato è in sola lettura");
+    }
+
+    @Override
+    public void setAnnoPubblicazione(int anno) {
+        throw new UnsupportedOperationException("Il catalogo mappato è in sola lettura");
+    }
+
+    @Override
+    public void setPrezzo(double prezzo) {
+        throw new UnsupportedOperationException("Il catalogo mappato è in sola lettura");
+    }
+
+    @Override
+    public void setStatoUsura(StatoUsura usura) {
+        throw new UnsupportedOperationException("Il catalogo mappato è in sola lettura");
+    }
+
+    @Override
+    public int hashCode() {
+        return 17 + getIsbn().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return catalogo.copia(riga).toString();
+    }
+
+   /**
+ * @brief Sostituisce la vista con una copia indipendente quando viene serializzata
+ *
+ * @return Il libro con i valori della riga
+ */
+    private Object writeReplace() {
+        return catalogo.copia(riga);
+    }
+}
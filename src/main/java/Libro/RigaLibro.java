@@ -0,0 +1,144 @@
+/**
+ * @file RigaLibro.java
+ * @brief Questo file contiene la vista in sola lettura di una riga del catalogo per colonne
+ *
+ * Una RigaLibro non contiene i dati del libro: ricorda solo il catalogo e l'indice della riga,
+ * e ogni getter legge le colonne del catalogo. Non è un Libro: il catalogo per colonne è
+ * un'esportazione in sola lettura e la vista non ha setter; chi ha bisogno di un Libro (da
+ * modificare, serializzare o passare al model) lo ottiene con copia(). I getter hanno gli stessi
+ * nomi di quelli di Libro, quindi la vista si mostra in una TableView con le stesse colonne.
+ * Viene creata quando serve (ad esempio per una riga visibile della tabella) e poi lasciata al
+ * garbage collector: due viste della stessa riga dello stesso catalogo sono uguali e hanno lo
+ * stesso hashCode, così possono essere usate come chiavi anche se non sono lo stesso oggetto.
+ *
+ * @author Gruppo 27
+ * @date 25 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+public final class RigaLibro {
+
+    private final CatalogoColonnare catalogo; ///@brief Il catalogo che contiene i dati
+    private final int riga; ///@brief L'indice della riga nel catalogo
+
+   /**
+ * @brief Costruttore della vista
+ *
+ * @param[in] catalogo Il catalogo
+ * @param[in] riga L'indice della riga
+ */
+    RigaLibro(CatalogoColonnare catalogo, int riga) {
+        this.catalogo = catalogo;
+        this.riga = riga;
+    }
+
+   /**
+ * @brief Indice della riga nel catalogo
+ *
+ * @return L'indice
+ */
+    public int getRiga() {
+        return riga;
+    }
+
+   /**
+ * @brief Titolo del libro della riga
+ *
+ * @return Il titolo
+ */
+    public String getTitolo() {
+        return catalogo.titolo(riga);
+    }
+
+   /**
+ * @brief Autore del libro della riga
+ *
+ * @return L'autore
+ */
+    public String getAutore() {
+        return catalogo.autore(riga);
+    }
+
+   /**
+ * @brief Codice ISBN del libro della riga
+ *
+ * @return L'ISBN
+ */
+    public String getIsbn() {
+        return catalogo.isbn(riga);
+    }
+
+   /**
+ * @brief Numero di copie del libro della riga
+ *
+ * @return Il numero di copie
+ */
+    public int getCopie() {
+        return catalogo.copie(riga);
+    }
+
+   /**
+ * @brief Anno di pubblicazione del libro della riga
+ *
+ * @return L'anno
+ */
+    public int getAnnoPubblicazione() {
+        return catalogo.anno(riga);
+    }
+
+   /**
+ * @brief Prezzo del libro della riga
+ *
+ * @return Il prezzo
+ */
+    public double getPrezzo() {
+        return catalogo.prezzo(riga);
+    }
+
+   /**
+ * @brief Etichetta dello stato di usura del libro della riga
+ *
+ * @return L'etichetta
+ */
+    public String getUsura() {
+        return getStatoUsura().getEtichetta();
+    }
+
+   /**
+ * @brief Stato di usura del libro della riga
+ *
+ * @return Lo stato di usura
+ */
+    public StatoUsura getStatoUsura() {
+        return catalogo.usura(riga);
+    }
+
+   /**
+ * @brief Copia indipendente della riga, come oggetto Libro
+ *
+ * @return Il libro con i valori della riga
+ */
+    public Libro copia() {
+        return catalogo.copia(riga);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof RigaLibro)) {
+            return false;
+        }
+        RigaLibro altra = (RigaLibro) obj;
+        return altra.catalogo == catalogo && altra.riga == riga;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(catalogo) + riga;
+    }
+
+    @Override
+    public String toString() {
+        return copia().toString();
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * @file StatoUsura.java
+ * @brief Questo file contiene l'enumerazione degli stati di usura di un libro
+ *
+ * Lo stato di usura era un testo libero: ogni libro ne conservava una String e filtri e
+ * raggruppamenti dovevano confrontare testi. Ora è uno tra pochi gradi, ordinati dal migliore
+ * al peggiore, e ogni libro ne conserva solo il codice (un byte), che è anche l'indice del grado
+ * in values() e il valore scritto su disco. I testi liberi dei file meno recenti vengono
+ * ricondotti a un grado con da(String).
+ *
+ * @author Gruppo 27
+ * @date 27 Gennaio 2026
+ * @version 1.0
+ */
+package Libro;
+
+import Ricerca.Normalizzatore;
+
+public enum StatoUsura {
+
+    NON_INDICATO("Non indicato"),
+    NUOVO("Nuovo"),
+    OTTIMO("Ottimo"),
+    BUONO("Buono"),
+    DISCRETO("Discreto"),
+    USATO("Usato"),
+    USURATO("Usurato"),
+    DANNEGGIATO("Danneggiato");
+
+    private static final StatoUsura[] PER_CODICE = values(); ///@brief Gradi indicizzati per codice
+
+    ///@brief Radici di parole riconosciute nei testi liberi, nell'ordine in cui vengono cercate, con il grado corrispondente
+    private static final Object[][] PAROLE = {
+            {"come nuov", OTTIMO},
+            {"dannegg", DANNEGGIATO}, {"rott", DANNEGGIATO}, {"strapp", DANNEGGIATO}, {"rovinat", DANNEGGIATO}, {"pessim", DANNEGGIATO},
+            {"usurat", USURATO}, {"consumat", USURATO}, {"logor", USURATO},
+            {"usat", USATO},
+            {"discret", DISCRETO}, {"accettabil", DISCRETO}, {"sufficient", DISCRETO}, {"medi", DISCRETO},
+            {"ottim", OTTIMO}, {"eccellent", OTTIMO}, {"perfett", OTTIMO},
+            {"buon", BUONO},
+            {"nuov", NUOVO}, {"intons", NUOVO}};
+
+    private final String etichetta; ///@brief Il testo mostrato nella tabella
+
+    StatoUsura(String etichetta) {
+        this.etichetta = etichetta;
+    }
+
+   /**
+ * @brief Testo dello stato, come mostrato nella tabella
+ *
+ * @return L'etichetta (es. "Buono")
+ */
+    public String getEtichetta() {
+        return etichetta;
+    }
+
+   /**
+ * @brief Codice dello stato, conservato nei libri e scritto su disco
+ *
+ * @return Il codice, tra 0 e values().length - 1
+ */
+    public byte getCodice() {
+        return (byte) ordinal();
+    }
+
+   /**
+ * @brief Stato corrispondente a un codice
+ *
+ * @param[in] codice Il codice
+ *
+ * @return Lo stato
+ *
+ * @throws IllegalArgumentException se il codice non corrisponde a nessuno stato
+ */
+    public static StatoUsura daCodice(int codice) {
+        if (codice < 0 || codice >= PER_CODICE.length) {
+            throw new IllegalArgumentException("Codice di usura non valido: " + codice);
+        }
+        return PER_CODICE[codice];
+    }
+
+   /**
+ * @brief Riconduce un testo libero a uno stato
+ *
+ * Un testo uguale a un'etichetta o al nome di uno stato (senza distinguere maiuscole, minuscole
+ * e accenti) corrisponde a quello stato; altrimenti si cercano nel testo parole note
+ * ("rovinato", "come nuovo"...). Un testo vuoto o non riconosciuto diventa NON_INDICATO.
+ *
+ * @param[in] testo Il testo, eventualmente null
+ *
+ * @return Lo stato
+ */
+    public static StatoUsura da(String testo) {
+        String t = Normalizzatore.normalizza(testo).trim();
+        if (t.isEmpty()) {
+            return NON_INDICATO;
+        }
+        for (StatoUsura s : PER_CODICE) {
+            if (t.equals(Normalizzatore.normalizza(s.etichetta)) || t.equals(Normalizzatore.normalizza(s.name()))) {
+                return s;
+            }
+        }
+        for (Object[] p : PAROLE) {
+            if (t.contains((String) p[0])) {
+                return (StatoUsura) p[1];
+            }
+        }
+        return NON_INDICATO;
+    }
+
+    @Override
+    public String toString() {
+        return etichetta;
+    }
+}
@@ -13,8 +13,24 @@
 package Libro;
 
 import static javafx.scene.control.cell.TextFieldTableCell.forTableColumn;
+import Ricerca.CompletamentoCampo;
+import Ricerca.Interrogazione;
+import Ricerca.Intervallo;
+import Ricerca.OrdinamentoTabella;
+import Ricerca.RicercaDifferita;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -23,11 +39,16 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.ChoiceBoxTableCell;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.scene.layout.VBox;
 import static javafx.scene.control.cell.TextFieldTableCell.forTableColumn;
 import javafx.stage.Stage;
 import javafx.util.converter.DoubleStringConverter;
@@ -82,7 +103,7 @@ public class TabellaLibroController {
     private TextField prezzo; ///@brief TextField in cui è necessario inserire il prezzo del libro da aggiungere alla tabella dei libri
     
     @FXML
-    private TextField usura; ///@brief TextField in cui è necessario inserire lo stato di usura del libro da aggiungere alla tabella dei libri
+    private ChoiceBox<StatoUsura> usura; ///@brief ChoiceBox in cui è necessario scegliere lo stato di usura del libro da aggiungere alla tabella dei libri
 
     @FXML
     private TableView<Libro> tabella; ///@brief Tabella che contiene i libri della libreria universitaria
@@ -106,7 +127,10 @@ public class TabellaLibroController {
     private TableColumn<Libro, Double> prezzoCol; ///@brief Colonna che contiene il prezzo dei libri che sono stati inseriti
 
     @FXML
-    private TableColumn<Libro, String> usuraCol; ///@brief Colonna che contiene la condizione di usura dei libri che sono stati inseriti
+    private TableColumn<Libro, StatoUsura> usuraCol; ///@brief Colonna che contiene la condizione di usura dei libri che sono stati inseriti
+    
+    @FXML
+    private VBox faccette; ///@brief Barra laterale con le faccette (usura, disponibilità, decennio) e i relativi conteggi
     
     private TabellaLibroModel tabellaLibroModel; ///@brief Model associato al controller
     
@@ -114,6 +138,21 @@ public class TabellaLibroController {
     
     private Scene scenaPrincipale;///@brief Scena iniziale dell'applicazione
     
+    
+    private RicercaDifferita<Libro> ricercaDifferita; ///@brief Ricerca eseguita in background mentre si digita
+    
+    private List<Libro> ultimiRisultati; ///@brief Risultati della ricerca corrente, null se non c'è una ricerca
+    
+    private String testoRicerca; ///@brief Testo della ricerca mostrata, null se non c'è una ricerca
+    
+    private String modoRicerca; ///@brief Criterio della ricerca mostrata
+    
+    private String[] ricercaPreparata; ///@brief Testo e criterio dell'ultima ricerca preparata, non ancora mostrata
+    
+    private boolean aggiornamentoProgrammato; ///@brief True se la ricerca va già ripetuta al prossimo giro del thread JavaFX
+    
+    private final Map<String, Set<String>> selezioneFaccette = new LinkedHashMap<>(); ///@brief Valori selezionati nella barra delle faccette
+    
    
     /**
      * @brief Metodo di inizializzazione chiamato automaticamente dal JavaFX Loader
@@ -136,7 +175,7 @@ public class TabellaLibroController {
         copieCol.setCellValueFactory(new PropertyValueFactory<Libro, Integer>("copie"));
         annoPubblicazioneCol.setCellValueFactory(new PropertyValueFactory<Libro, Integer>("annoPubblicazione"));
         prezzoCol.setCellValueFactory(new PropertyValueFactory<Libro, Double>("prezzo"));
-        usuraCol.setCellValueFactory(new PropertyValueFactory<Libro, String>("usura"));
+        usuraCol.setCellValueFactory(new PropertyValueFactory<Libro, StatoUsura>("statoUsura"));
 
         // Rendo la tabella non editabile
         tabella.setEditable(false);
@@ -151,6 +190,9 @@ public class TabellaLibroController {
         usura.setDisable(true);
         annoPubblicazione.setDisable(true);
         copie.setDisable(true);
+        // lo stato di usura si sceglie tra i gradi, come nella cella della tabella
+        usura.getItems().setAll(StatoUsura.values());
+        usura.getItems().remove(StatoUsura.NON_INDICATO);
         
         //setting editabile delle celle
         // Colonna Titolo: celle editabili
@@ -159,8 +201,8 @@ public class TabellaLibroController {
             Libro l = event.getRowValue();
             String nuovoTitolo = event.getNewValue();
             if (nuovoTitolo != null && !nuovoTitolo.trim().isEmpty()) {
-                l.setTitolo(nuovoTitolo.trim());
-                    tabellaLibroModel.salvaSuBinario();
+                tabellaLibroModel.modificaLibro(l, CampoLibro.TITOLO, nuovoTitolo.trim());
+                    tabellaLibroModel.richiediSalvataggio();
             } else {
                 mostraErrore("Titiolo non valido", "Il titolo non può essere vuoto.");
                 tabella.refresh();
@@ -172,8 +214,8 @@ public class TabellaLibroController {
             Libro l = event.getRowValue();
             String nuovoAutore = event.getNewValue();
             if (nuovoAutore != null && !nuovoAutore.trim().isEmpty()) {
-                l.setAutore(nuovoAutore.trim());
-                    tabellaLibroModel.salvaSuBinario();
+                tabellaLibroModel.modificaLibro(l, CampoLibro.AUTORE, nuovoAutore.trim());
+                    tabellaLibroModel.richiediSalvataggio();
             } else {
                 mostraErrore("Autore non valido", "L'autore non può essere vuoto.");
                 tabella.refresh();
@@ -185,8 +227,12 @@ public class TabellaLibroController {
             Libro l = event.getRowValue();
             String nuovoIsbn = event.getNewValue();
             if (nuovoIsbn != null && !nuovoIsbn.trim().isEmpty()) {
-                l.setIsbn(nuovoIsbn.trim());
-                    tabellaLibroModel.salvaSuBinario();
+                if (tabellaLibroModel.modificaLibro(l, CampoLibro.ISBN, nuovoIsbn.trim())) {
+                    tabellaLibroModel.richiediSalvataggio();
+                } else {
+                    mostraErrore("Isbn non valido", "Esiste già un libro con questo isbn.");
+                    tabella.refresh();
+                }
             } else {
                 mostraErrore("Isbn non valido", "L'isbn non può essere vuoto.");
                 tabella.refresh();
@@ -198,8 +244,9 @@ public class TabellaLibroController {
             Libro l = event.getRowValue();
             Integer nuovoCopie = event.getNewValue();
             if (nuovoCopie != null && nuovoCopie < 0) {
-                l.setCopie(nuovoCopie);
-                    tabellaLibroModel.salvaSuBinario();
+                tabellaLibroModel.modificaLibro(l, CampoLibro.COPIE, nuovoCopie);
+                    tabellaLibroModel.richiediSalvataggio();
+                    applicaFiltro();
             } else {
                 mostraErrore("Numero di copie non valido", "Il numero di copie non può essere vuoto.");
                 tabella.refresh();
@@ -211,8 +258,9 @@ public class TabellaLibroController {
             Libro l = event.getRowValue();
             Integer nuovoAnnoPubblicazione = event.getNewValue();
             if (nuovoAnnoPubblicazione != null && nuovoAnnoPubblicazione < 0) {
-                l.setAnnoPubblicazione(nuovoAnnoPubblicazione);
-                    tabellaLibroModel.salvaSuBinario();
+                tabellaLibroModel.modificaLibro(l, CampoLibro.ANNO, nuovoAnnoPubblicazione);
+                    tabellaLibroModel.richiediSalvataggio();
+                    applicaFiltro();
             } else {
                 mostraErrore("Anno di pubblicazione non valido", "L'anno di pubblicazione non può essere vuoto.");
                 tabella.refresh();
@@ -224,23 +272,24 @@ public class TabellaLibroController {
             Libro l = event.getRowValue();
             Double nuovoPrezzo = event.getNewValue();
             if (nuovoPrezzo != null && nuovoPrezzo > 0) {
-                l.setPrezzo(nuovoPrezzo);
-                    tabellaLibroModel.salvaSuBinario();
+                tabellaLibroModel.modificaLibro(l, CampoLibro.PREZZO, nuovoPrezzo);
+                    tabellaLibroModel.richiediSalvataggio();
             } else {
                 mostraErrore("Prezzo non valido", "Il prezzo non può essere vuoto.");
                 tabella.refresh();
             }
         });
         
-        usuraCol.setCellFactory(TextFieldTableCell.<Libro>forTableColumn());
+        usuraCol.setCellFactory(ChoiceBoxTableCell.<Libro, StatoUsura>forTableColumn(StatoUsura.values()));
         usuraCol.setOnEditCommit(event -> {
             Libro l = event.getRowValue();
-            String nuovaUsura = event.getNewValue();
-            if (nuovaUsura != null && !nuovaUsura.trim().isEmpty()) {
-                l.setUsura(nuovaUsura.trim());
-                    tabellaLibroModel.salvaSuBinario();
+            StatoUsura nuovaUsura = event.getNewValue();
+            if (nuovaUsura != null && nuovaUsura != StatoUsura.NON_INDICATO) {
+                tabellaLibroModel.modificaLibro(l, CampoLibro.USURA, nuovaUsura);
+                    tabellaLibroModel.richiediSalvataggio();
+                    applicaFiltro();
             } else {
-                mostraErrore("Usura non valido", "L'usura non può essere vuota.");
+                mostraErrore("Usura non valido", "Scegliere uno stato di usura.");
                 tabella.refresh();
             }
         });
@@ -263,7 +312,29 @@ public class TabellaLibroController {
         this.tabellaLibroModel = model;
         this.principale = principale;
         this.scenaPrincipale = scenaPrincipale;
-        tabella.setItems(model.getLibri());
+        tabella.setItems(model.getVista());
+        OrdinamentoTabella.collega(tabella, model.getVista(), Map.of(
+                titoloCol, model.chiaviOrdinamento(CampoLibro.TITOLO),
+                autoreCol, model.chiaviOrdinamento(CampoLibro.AUTORE)));
+        if (cercaField != null) {
+            new CompletamentoCampo(cercaField, prefisso -> {
+                if (searchType.getText().equals("T")) {
+                    return model.suggerisciTitoli(prefisso, CompletamentoCampo.NUMERO_SUGGERIMENTI);
+                }
+                if (searchType.getText().equals("A")) {
+                    return model.suggerisciAutori(prefisso, CompletamentoCampo.NUMERO_SUGGERIMENTI);
+                }
+                return Collections.emptyList();
+            }, scelto -> onCerca());
+            ricercaDifferita = new RicercaDifferita<>(cercaField, RicercaDifferita.RITARDO_PREDEFINITO,
+                    this::preparaRicerca, this::mostraRisultati, this::mostraTutti);
+        }
+        // la ricerca mostrata viene ripetuta dopo aggiunte, rimozioni e modifiche dei libri
+        model.getLibri().addListener((ListChangeListener<Libro>) c -> programmaAggiornamento());
+        model.aggiungiOsservatore((l, campo) -> programmaAggiornamento());
+        if (faccette != null) {
+            aggiornaFaccette();
+        }
     }
 
     /**
@@ -323,7 +394,7 @@ public class TabellaLibroController {
         // controllo finale e rimozione
         if (risultato.isPresent() && risultato.get() == ButtonType.OK) {
             tabellaLibroModel.rimuoviLibro(libroSelezionato);
-                tabellaLibroModel.salvaSuBinario();
+                tabellaLibroModel.richiediSalvataggio();
 
         }
     }
@@ -331,7 +402,8 @@ public class TabellaLibroController {
     /**
      * @brief Gestisce il pulsante 'searchType'
      *
-     *  Cambia criterio di ricerca del libro
+     *  Cambia criterio di ricerca del libro: titolo (T), autore (A), ISBN (I),
+     *  intervallo di anni di pubblicazione (Y) e intervallo di prezzo (P)
      * * @post Il libro viene cercato con successo seguendo il criterio specifico
      *
      * * @return void
@@ -346,7 +418,16 @@ public class TabellaLibroController {
             searchType.setText("I"); 
         }
         else if(searchType.getText().compareTo("I") == 0){
+            searchType.setText("Y"); 
+            cercaField.setPromptText("es. 1990-2000");
+        }
+        else if(searchType.getText().compareTo("Y") == 0){
+            searchType.setText("P"); 
+            cercaField.setPromptText("es. <15 o 10-20");
+        }
+        else if(searchType.getText().compareTo("P") == 0){
             searchType.setText("T"); 
+            cercaField.setPromptText("Cerca...");
         }
     }
         
@@ -360,39 +441,244 @@ public class TabellaLibroController {
      */ 
       @FXML  
     private void onCerca() {
-                ObservableList<Libro> ricercaLibri = FXCollections.observableArrayList();
                 String contenuto = cercaField.getText().trim();
                 if(contenuto.isEmpty())
                 {
                     mostraErrore("Attenzione!", "Inserire dei parametri di ricerca");
                     return;
                 }
-                if(searchType.getText().compareTo("T") == 0){
-                        for(Libro l : tabellaLibroModel.getLibri()){
-                                if(l.getTitolo().compareTo(contenuto)== 0){
-                                    ricercaLibri.add(l);
-                                }
+                if (interrogazione(contenuto) == null
+                        && (searchType.getText().compareTo("Y") == 0 || searchType.getText().compareTo("P") == 0)
+                        && Intervallo.interpreta(contenuto) == null) {
+                    mostraErrore("Attenzione!", "Inserire un intervallo valido, ad esempio 1990-2000, <15 oppure >=10");
+                    return;
+                }
+                if (ricercaDifferita != null) {
+                    ricercaDifferita.annulla();
+                }
+                List<Libro> trovati;
+                try {
+                    trovati = preparaRicerca(contenuto).call();
+                } catch (IllegalArgumentException e) {
+                    mostraErrore("Attenzione!", e.getMessage());
+                    return;
+                } catch (Exception e) {
+                    System.out.println(e.getMessage());
+                    return;
+                }
+                if (!trovati.isEmpty()) {
+                mostraRisultati(trovati);
+                }
+                else {
+                mostraErrore("Attenzione!", "Nessun libro trovato");
+                }
+    }
+
+    /**
+     * @brief Prepara la ricerca secondo il criterio selezionato in 'searchType'
+     *
+     * Va chiamato sul thread JavaFX: il criterio viene letto subito e la ricerca per ISBN
+     * eseguita subito (una lettura dell'indice); la ricerca per titolo o autore restituita può
+     * invece essere eseguita su un altro thread. Se non ci sono corrispondenze esatte viene
+     * riprovata tollerando errori di battitura. Per anno e prezzo il testo è un intervallo
+     * (vedi Intervallo) cercato negli indici ordinati del model.
+     * Le ricerche ripetute sono servite dalla cache dei risultati del model.
+     * Un'interrogazione composta (es. "autore:eco anno:>1980") ignora il criterio selezionato.
+     *
+     * @param[in] contenuto Il testo da cercare
+     *
+     * @return La ricerca da eseguire
+     *
+     * @throws IllegalArgumentException se un valore dell'interrogazione composta non è valido
+     */
+    private Callable<List<Libro>> preparaRicerca(String contenuto) {
+                String modo = searchType.getText();
+                Callable<List<Libro>> ricerca = preparaRicerca(contenuto, modo);
+                ricercaPreparata = new String[] {contenuto, modo};
+                return ricerca;
+    }
+
+    /**
+     * @brief Prepara la ricerca secondo il criterio indicato
+     *
+     * @param[in] contenuto Il testo da cercare
+     * @param[in] modo Il criterio ("T", "A", "I", "Y" o "P"), ignorato dalle interrogazioni composte
+     *
+     * @return La ricerca da eseguire
+     *
+     * @throws IllegalArgumentException se un valore dell'interrogazione composta non è valido
+     */
+    private Callable<List<Libro>> preparaRicerca(String contenuto, String modo) {
+                Interrogazione q = interrogazione(contenuto);
+                if (q != null) {
+                        return tabellaLibroModel.preparaInterrogazione(q)::get;
+                }
+                if(modo.compareTo("I") == 0){
+                        Libro l = tabellaLibroModel.findByIsbn(contenuto);
+                        List<Libro> trovato = l == null ? Collections.<Libro>emptyList() : Collections.singletonList(l);
+                        return () -> trovato;
+                }
+                TabellaLibroModel model = tabellaLibroModel;
+                if(modo.compareTo("Y") == 0 || modo.compareTo("P") == 0){
+                        Intervallo intervallo = Intervallo.interpreta(contenuto);
+                        if (intervallo == null) {
+                            return Collections::emptyList;
                         }
+                        return modo.compareTo("Y") == 0
+                                ? model.inCache(modo + "|" + contenuto, () -> model.cercaPerAnno(intervallo), "anno")::get
+                                : model.inCache(modo + "|" + contenuto, () -> model.cercaPerPrezzo(intervallo), "prezzo")::get;
                 }
-                if(searchType.getText().compareTo("A") == 0){
-                        for(Libro l : tabellaLibroModel.getLibri()){
-                                if(l.getTitolo().compareTo(contenuto)== 0){
-                                    ricercaLibri.add(l);
-                                }
+                CampoLibro campo = modo.compareTo("A") == 0 ? CampoLibro.AUTORE : CampoLibro.TITOLO;
+                return model.inCache(modo + "|" + contenuto, () -> {
+                        List<Libro> trovati = model.cercaLibri(contenuto, campo, Integer.MAX_VALUE);
+                        if (trovati.isEmpty()) {
+                            // nessuna corrispondenza esatta: riprova tollerando errori di battitura
+                            trovati = model.cercaLibriSimili(contenuto, campo, Integer.MAX_VALUE);
                         }
+                        return trovati;
+                }, TabellaLibroModel.nomeCampo(campo))::get;
+    }
+
+    /**
+     * @brief Riconosce un'interrogazione composta
+     *
+     * @param[in] contenuto Il testo da cercare
+     *
+     * @return L'interrogazione analizzata, oppure null se il testo va cercato con il criterio selezionato
+     */
+    private Interrogazione interrogazione(String contenuto) {
+                if (contenuto.indexOf(':') < 0) {
+                    return null;
+                }
+                try {
+                    Interrogazione q = Interrogazione.analizza(contenuto);
+                    return tabellaLibroModel.usaCampi(q) ? q : null;
+                } catch (IllegalArgumentException e) {
+                    return null; // non è un'interrogazione ben formata: resta una ricerca semplice
+                }
+    }
+
+    /**
+     * @brief Mostra nella tabella i libri trovati, cambiando solo il filtro della vista
+     *
+     * @param[in] trovati I libri da mostrare
+     *
+     * @return void
+     */
+    private void mostraRisultati(List<Libro> trovati) {
+                ultimiRisultati = trovati;
+                if (ricercaPreparata != null) {
+                    testoRicerca = ricercaPreparata[0];
+                    modoRicerca = ricercaPreparata[1];
+                }
+                applicaFiltro();
+    }
+
+    /**
+     * @brief Rimuove il filtro della ricerca e mostra nella tabella tutti i libri
+     *
+     * Resta applicata l'eventuale selezione delle faccette
+     *
+     * @return void
+     */
+    private void mostraTutti() {
+                ultimiRisultati = null;
+                testoRicerca = null;
+                applicaFiltro();
+    }
+
+    /**
+     * @brief Programma l'aggiornamento della tabella dopo una modifica ai libri
+     *
+     * Il filtro della ricerca è l'insieme dei libri trovati: un libro aggiunto che corrisponde
+     * alla ricerca, o modificato in modo da non corrispondere più, richiede di ripetere la ricerca.
+     * Le modifiche arrivate nello stesso giro del thread JavaFX (es. un caricamento) vengono
+     * accorpate in un solo aggiornamento.
+     *
+     * @return void
+     */
+    private void programmaAggiornamento() {
+                if (aggiornamentoProgrammato || (testoRicerca == null && faccette == null)) {
+                    return;
                 }
-                if(searchType.getText().compareTo("I") == 0){
-                        for(Libro l : tabellaLibroModel.getLibri()){
-                                if(l.getTitolo().compareTo(contenuto)== 0){
-                                    ricercaLibri.add(l);
-                                }
+                aggiornamentoProgrammato = true;
+                Platform.runLater(() -> {
+                    aggiornamentoProgrammato = false;
+                    if (testoRicerca != null) {
+                        try {
+                            ultimiRisultati = preparaRicerca(testoRicerca, modoRicerca).call();
+                        } catch (Exception e) {
+                            System.out.println(e.getMessage());
                         }
+                    }
+                    applicaFiltro();
+                });
+    }
+
+    /**
+     * @brief Applica alla vista i risultati della ricerca corrente e la selezione delle faccette
+     *
+     * @return void
+     */
+    private void applicaFiltro() {
+                Predicate<Libro> filtro = null;
+                if (ultimiRisultati != null) {
+                    Set<Libro> insieme = Collections.newSetFromMap(new IdentityHashMap<>());
+                    insieme.addAll(ultimiRisultati);
+                    filtro = insieme::contains;
                 }
-                if (!ricercaLibri.isEmpty()) {
-                tabella.setItems(ricercaLibri);
+                boolean selezione = false;
+                for (Set<String> valori : selezioneFaccette.values()) {
+                    selezione |= !valori.isEmpty();
                 }
-                else {
-                mostraErrore("Attenzione!", "Nessun libro trovato");
+                if (selezione) {
+                    Predicate<Libro> perFaccette = tabellaLibroModel.filtroFaccette(selezioneFaccette);
+                    filtro = filtro == null ? perFaccette : filtro.and(perFaccette);
+                }
+                tabellaLibroModel.filtra(filtro);
+                if (tabella.getItems() != tabellaLibroModel.getVista()) {
+                    tabella.setItems(tabellaLibroModel.getVista());
+                }
+                aggiornaFaccette();
+    }
+
+    /**
+     * @brief Ricostruisce la barra delle faccette con i conteggi aggiornati
+     *
+     * Ogni valore mostra quanti libri si vedrebbero selezionandolo; i valori selezionati
+     * di una faccetta si sommano (OR), le faccette diverse si restringono a vicenda (AND)
+     *
+     * @return void
+     */
+    private void aggiornaFaccette() {
+                if (faccette == null) {
+                    return;
+                }
+                faccette.getChildren().clear();
+                boolean scomparsi = false;
+                Map<String, Map<String, Integer>> conteggi = tabellaLibroModel.conteggiFaccette(selezioneFaccette, ultimiRisultati);
+                for (Map.Entry<String, Map<String, Integer>> faccetta : conteggi.entrySet()) {
+                    Label nome = new Label(faccetta.getKey());
+                    nome.setStyle("-fx-font-weight: bold;");
+                    faccette.getChildren().add(nome);
+                    Set<String> scelti = selezioneFaccette.computeIfAbsent(faccetta.getKey(), k -> new LinkedHashSet<>());
+                    scomparsi |= scelti.retainAll(faccetta.getValue().keySet()); // nessun libro ha più quel valore
+                    for (Map.Entry<String, Integer> valore : faccetta.getValue().entrySet()) {
+                        CheckBox voce = new CheckBox(valore.getKey() + " (" + valore.getValue() + ")");
+                        voce.setSelected(scelti.contains(valore.getKey()));
+                        voce.setOnAction(e -> {
+                            if (voce.isSelected()) {
+                                scelti.add(valore.getKey());
+                            } else {
+                                scelti.remove(valore.getKey());
+                            }
+                            applicaFiltro();
+                        });
+                        faccette.getChildren().add(voce);
+                    }
+                }
+                if (scomparsi) {
+                    applicaFiltro();
                 }
     }
 
@@ -461,11 +747,11 @@ public class TabellaLibroController {
             String strIsbn = isbn.getText().trim();
             String strAnnoPubblicazione = annoPubblicazione.getText().trim();
             String strPrezzo = prezzo.getText().trim();
-            String strUsura = usura.getText().trim();
+            StatoUsura statoUsura = usura.getValue();
             String strCopie = copie.getText().trim();
             
             // controllo se uno o più parametri sono vuoti, nel caso mando un messaggio di errore
-            if(strTitolo.isEmpty() || strAutore.isEmpty() || strIsbn.isEmpty() || strAnnoPubblicazione.isEmpty() || strPrezzo.isEmpty() || strCopie.isEmpty()){
+            if(strTitolo.isEmpty() || strAutore.isEmpty() || strIsbn.isEmpty() || strAnnoPubblicazione.isEmpty() || strPrezzo.isEmpty() || statoUsura == null || strCopie.isEmpty()){
                 mostraErrore("Dati mancanti!", "Inserire ogni attributo");
                 return;
             }
@@ -486,8 +772,11 @@ public class TabellaLibroController {
                 }
                 
                 // aggiunta e salvataggio sul file di testo del libro
-                tabellaLibroModel.aggiungiLibro(strTitolo, strAutore, strIsbn, Integer.parseInt(strAnnoPubblicazione), Float.parseFloat(strPrezzo), strUsura, Integer.parseInt(strCopie));
-                tabellaLibroModel.salvaSuBinario();
+                if(!tabellaLibroModel.aggiungiLibro(strTitolo, strAutore, strIsbn, intAnno, doublePrezzo, statoUsura, intNumCopie)){
+                    mostraErrore("Attenzione!", "Esiste già un libro con questo isbn");
+                    return;
+                }
+                tabellaLibroModel.richiediSalvataggio();
 
                 // puliamo i campi di libro
                 titolo.clear();
@@ -495,7 +784,7 @@ public class TabellaLibroController {
                 isbn.clear();
                 annoPubblicazione.clear();
                 prezzo.clear();
-                usura.clear();
+                usura.setValue(null);
                 copie.clear();
                 
             } catch (NumberFormatException ex) { // nel caso in cui sia stato inserito un valore invalido dove andavano inseriti valori numerici
@@ -526,7 +815,7 @@ public class TabellaLibroController {
     @FXML
     private void onCancellaCerca() {
         cercaField.clear();
-        tabella.setItems(tabellaLibroModel.getLibri());
+        mostraTutti();
     }
 
     /**
@@ -2,7 +2,20 @@
  * @file TabellaLibroModel.java
  * @brief Questo file contiene il model della tabella che gestisce i libri della libreria
  *
- * Questo model permette di aggiungere e rimuovere libri
+ * Questo model permette di aggiungere, rimuovere e modificare libri. Le modifiche vengono
+ * salvate in un giornale append-only affiancato all'istantanea completa.
+ * Un indice hash ISBN normalizzato -> libro, aggiornato dal listener della lista, permette di
+ * cercare un libro per ISBN in tempo costante e di rifiutare gli ISBN duplicati; un indice
+ * invertito su titolo e autore permette la ricerca per parole (anche parziali) ordinata per rilevanza.
+ * Un indice a bitmap sulle faccette usura, disponibilità e decennio di pubblicazione fornisce i
+ * conteggi e i filtri della barra laterale delle faccette.
+ * Le interrogazioni composte (es. "autore:eco anno:>1980 usura:buono", vedi Interrogazione)
+ * vengono eseguite da un MotoreInterrogazioni che usa questi indici; l'indice ISBN è una
+ * ConcurrentHashMap perché anche le interrogazioni lo leggono dal thread di ricerca.
+ * I risultati delle ricerche sono conservati in una CacheRisultati, invalidata dalle aggiunte,
+ * dalle rimozioni e dalle modifiche dei soli campi da cui ogni ricerca dipende; chi dipende dai
+ * libri (ad esempio il model dei prestiti) può registrarsi per essere avvisato delle modifiche.
+ * Titolo e autore hanno le loro ChiaviCollazione, con cui la tabella ordina secondo l'alfabeto italiano.
  *
  * @author Gruppo 27
  * @date 8 dicembre 2025
@@ -11,22 +24,92 @@
 package Libro;
 
 import Libro.Libro;
+import Persistenza.ArchivioBinario;
+import Persistenza.PoolStringhe;
+import Persistenza.Salvabile;
+import Persistenza.SalvataggioDifferito;
+import Ricerca.CacheRisultati;
+import Ricerca.ChiaviCollazione;
+import Ricerca.IndiceBitmap;
+import Ricerca.IndiceIntervalli;
+import Ricerca.IndiceInvertito;
+import Ricerca.Interrogazione;
+import Ricerca.Intervallo;
+import Ricerca.MotoreInterrogazioni;
+import Ricerca.Pagina;
+import Ricerca.Suggeritore;
+import Ricerca.VistaOrdinata;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import javafx.collections.transformation.FilteredList;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.time.LocalDate;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
-public class TabellaLibroModel {
+public class TabellaLibroModel implements Salvabile {
+        public static final String FACCETTA_USURA = "Usura"; /// @brief Faccetta dello stato di usura
+        public static final String FACCETTA_DISPONIBILITA = "Disponibilità"; /// @brief Faccetta delle copie disponibili
+        public static final String FACCETTA_DECENNIO = "Decennio"; /// @brief Faccetta del decennio di pubblicazione
         private ObservableList<Libro> libri; /// @brief Questa ObservableList è una lista che contiene tutti i libri
+        private FilteredList<Libro> filtrati; /// @brief Vista dei libri che soddisfano il filtro di ricerca corrente
+        private VistaOrdinata<Libro> vista; /// @brief Vista filtrata e ordinata mostrata nella tabella
         private final String FILE_BINARIO = "libri.bin";
+        private final String FILE_GIORNALE = "libri.log";
+        private final ArchivioBinario<Libro> archivio = new ArchivioBinario<>(FILE_BINARIO, new CodecLibro()); /// @brief Istantanea completa nel formato binario compatto
+        private final GiornaleLibri giornale = new GiornaleLibri(FILE_GIORNALE); /// @brief Giornale append-only delle modifiche successive all'ultima istantanea
+        private boolean giornaleAttivo = true; /// @brief Se true i salvataggi accodano al giornale invece di riscrivere tutto il file
+        private boolean inCaricamento = false; /// @brief Sospende la registrazione nel giornale durante il caricamento
+        private SalvataggioDifferito salvataggio; /// @brief Scheduler dei salvataggi in background, null per salvare subito
+        private final Map<String, Libro> perIsbn = new ConcurrentHashMap<>(); /// @brief Indice ISBN normalizzato -> libro
+        private final IndiceInvertito<Libro> indiceTesto = new IndiceInvertito<Libro>()
+                .aggiungiCampo(Libro::getTitolo, 2.0)
+                .aggiungiCampo(Libro::getAutore, 1.0); /// @brief Indice invertito su titolo (peso doppio) e autore
+        private final Suggeritore<Libro> suggeritoreTitoli = new Suggeritore<>(Libro::getTitolo); /// @brief Completamenti dei titoli
+        private final Suggeritore<Libro> suggeritoreAutori = new Suggeritore<>(Libro::getAutore); /// @brief Completamenti degli autori
+        private final IndiceIntervalli<Libro> indiceAnno = new IndiceIntervalli<>(Libro::getAnnoPubblicazione); /// @brief Indice ordinato per anno di pubblicazione
+        private final IndiceIntervalli<Libro> indicePrezzo = new IndiceIntervalli<>(l -> arrotondaPrezzo(l.getPrezzo())); /// @brief Indice ordinato per prezzo, al centesimo
+        private final IndiceBitmap<Libro> indiceFaccette = new IndiceBitmap<Libro>()
+                .aggiungiFaccetta(FACCETTA_USURA, Libro::getUsura)
+                .aggiungiFaccetta(FACCETTA_DISPONIBILITA, l -> l.getCopie() > 0 ? "Disponibile" : "Esaurito")
+                .aggiungiFaccetta(FACCETTA_DECENNIO, TabellaLibroModel::decennio); /// @brief Bitmap per usura, disponibilità e decennio
+        private final MotoreInterrogazioni<Libro> motore = new MotoreInterrogazioni<Libro>()
+                .campoPredefinito(MotoreInterrogazioni.perParole(l -> l.getTitolo() + " " + l.getAutore()),
+                        v -> cercaLibri(v, null, Integer.MAX_VALUE), "titolo", "autore")
+                .aggiungiCampo("titolo", MotoreInterrogazioni.perParole(Libro::getTitolo),
+                        v -> cercaLibri(v, CampoLibro.TITOLO, Integer.MAX_VALUE), "t")
+                .aggiungiCampo("autore", MotoreInterrogazioni.perParole(Libro::getAutore),
+                        v -> cercaLibri(v, CampoLibro.AUTORE, Integer.MAX_VALUE), "a")
+                .aggiungiCampo("isbn", v -> l -> normalizzaIsbn(l.getIsbn()).equals(normalizzaIsbn(v)), v -> {
+                        Libro l = findByIsbn(v);
+                        return l == null ? Collections.<Libro>emptyList() : Collections.singletonList(l);
+                }, "i")
+                .aggiungiCampo("anno", MotoreInterrogazioni.perIntervallo(Libro::getAnnoPubblicazione),
+                        v -> cercaPerAnno(Intervallo.interpreta(v)), "y")
+                .aggiungiCampo("prezzo", MotoreInterrogazioni.perIntervallo(l -> arrotondaPrezzo(l.getPrezzo())),
+                        v -> cercaPerPrezzo(Intervallo.interpreta(v)), "p")
+                .aggiungiCampo("usura", v -> {
+                        StatoUsura stato = StatoUsura.da(v);
+                        return l -> l.getStatoUsura() == stato;
+                }, v -> indiceFaccette.elementi(FACCETTA_USURA, StatoUsura.da(v).getEtichetta()), "u")
+                .aggiungiCampo("copie", MotoreInterrogazioni.perIntervallo(Libro::getCopie), null, "c"); /// @brief Esecuzione delle interrogazioni composte sugli indici
+        private final CacheRisultati<Libro> risultati = new CacheRisultati<>(
+                Integer.getInteger("libreria.dimensioneCache", CacheRisultati.DIMENSIONE_PREDEFINITA)); /// @brief Cache LRU dei risultati delle ricerche
+        private final List<BiConsumer<Libro, CampoLibro>> osservatori = new CopyOnWriteArrayList<>(); /// @brief Avvisati dopo ogni modifica di un campo
+        private final ChiaviCollazione<Libro> chiaviTitolo = new ChiaviCollazione<>(Libro::getTitolo); /// @brief Chiavi di ordinamento dei titoli
+        private final ChiaviCollazione<Libro> chiaviAutore = new ChiaviCollazione<>(Libro::getAutore); /// @brief Chiavi di ordinamento degli autori
 
         /**
  * @brief Costruttore della classe TabellaLibroModel
@@ -39,6 +122,42 @@ public class TabellaLibroModel {
  */
     public TabellaLibroModel() {
         libri = FXCollections.observableArrayList();
+        filtrati = new FilteredList<>(libri);
+        vista = new VistaOrdinata<>(filtrati);
+        libri.addListener((ListChangeListener<Libro>) c -> {
+            if (inCaricamento) {
+                return; // gli indici vengono ricostruiti al termine del caricamento
+            }
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    continue;
+                }
+                for (Libro l : c.getRemoved()) {
+                    perIsbn.remove(normalizzaIsbn(l.getIsbn()), l);
+                    indiceTesto.rimuovi(l);
+                    suggeritoreTitoli.rimuovi(l);
+                    suggeritoreAutori.rimuovi(l);
+                    indiceAnno.rimuovi(l);
+                    indicePrezzo.rimuovi(l);
+                    indiceFaccette.rimuovi(l);
+                    risultati.rimosso(l);
+                    chiaviTitolo.invalida(l);
+                    chiaviAutore.invalida(l);
+                    giornale.registraRimozione(l);
+                }
+                for (Libro l : c.getAddedSubList()) {
+                    perIsbn.putIfAbsent(normalizzaIsbn(l.getIsbn()), l);
+                    indiceTesto.aggiungi(l);
+                    suggeritoreTitoli.aggiungi(l);
+                    suggeritoreAutori.aggiungi(l);
+                    indiceAnno.aggiungi(l);
+                    indicePrezzo.aggiungi(l);
+                    indiceFaccette.aggiungi(l);
+                    risultati.aggiunto(l);
+                    giornale.registraAggiunta(l);
+                }
+            }
+        });
         try{
                 caricaDaBinario();
             }
@@ -61,12 +180,74 @@ public class TabellaLibroModel {
       return libri;
     }
 
+ /**
+ * @brief Metodo getter della vista filtrata e ordinata
+ *
+ * La vista segue la lista dei libri: aggiunte, rimozioni e modifiche compaiono subito;
+ * il filtro si cambia con filtra() e l'ordinamento con OrdinamentoTabella, che imposta
+ * l'ordine della vista a partire dalle colonne ordinate della tabella.
+ *
+ * @return La vista da mostrare nella tabella
+ */
+    public VistaOrdinata<Libro> getVista() {
+        return vista;
+    }
+
+ /**
+ * @brief Chiavi di collazione con cui ordinare la tabella per un campo
+ *
+ * @param[in] campo Il campo della colonna
+ *
+ * @return Le chiavi del titolo o dell'autore, null per gli altri campi
+ */
+    public ChiaviCollazione<Libro> chiaviOrdinamento(CampoLibro campo) {
+        return campo == CampoLibro.TITOLO ? chiaviTitolo : campo == CampoLibro.AUTORE ? chiaviAutore : null;
+    }
+
+ /**
+ * @brief Esportazione in sola lettura del catalogo, memorizzata per colonne
+ *
+ * La copia non segue le modifiche successive alla lista e, finché la lista resta in memoria,
+ * occupa memoria in più: serve a consultare un catalogo molto grande senza tenere i libri.
+ * Il model non la usa: le sue righe non sono oggetti Libro e non si possono modificare.
+ *
+ * @return Il catalogo per colonne, con i libri nell'ordine della lista
+ */
+    public CatalogoColonnare comeColonnare() {
+        return CatalogoColonnare.da(libri);
+    }
+
+ /**
+ * @brief Scrive il catalogo nel formato del catalogo mappato, da aprire con CatalogoMappato.apri()
+ *
+ * @param[in] file Il file da scrivere
+ *
+ * @return void
+ *
+ * @throws IOException se il file non può essere scritto
+ */
+    public void esportaMappato(Path file) throws IOException {
+        CatalogoMappato.scrivi(libri, file);
+    }
+
+ /**
+ * @brief Imposta il filtro della vista
+ *
+ * @param[in] filtro Il predicato che un libro deve soddisfare per essere mostrato, null per mostrarli tutti
+ *
+ * @return void
+ */
+    public void filtra(Predicate<? super Libro> filtro) {
+        filtrati.setPredicate(filtro);
+    }
+
   
   
    /**
  * @brief Metodo che permette di aggiungere un libro
  *
- * Questo metodo permette aggiungere un libro alla Observable List
+ * Questo metodo permette aggiungere un libro alla Observable List, purché nessun altro libro
+ * abbia lo stesso ISBN
  *
  * @pre Deve esserci un libro da aggiungere
  * @post Il libro deve essere presente nell'Observable List
@@ -77,13 +258,33 @@ public class TabellaLibroModel {
  * @param[in] numCopie Numero di copie attualmente disponibili per quel libro
  * @param[in] anno Anno di pubblicazione del libro
  * @param[in] prezzo Prezzo del libro
- * @param[in] usura stato di usura del libro
+ * @param[in] usura stato di usura del libro, come testo (vedi StatoUsura.da)
  * 
- * @return void
+ * @return True se il libro è stato aggiunto, false se l'ISBN è già presente
+ */
+    public boolean aggiungiLibro(String titolo, String autore, String isbn, int anno, double prezzo, String usura, int numCopie) {
+            return aggiungiLibro(titolo, autore, isbn, anno, prezzo, StatoUsura.da(usura), numCopie);
+    }
 
+ /**
+ * @brief Metodo che permette di aggiungere un libro con uno stato di usura già scelto
+ *
+ * @param[in] titolo Il titolo del libro
+ * @param[in] autore  L'autore del libro
+ * @param[in] isbn Codice ISBN del libro
+ * @param[in] anno Anno di pubblicazione del libro
+ * @param[in] prezzo Prezzo del libro
+ * @param[in] usura Stato di usura del libro
+ * @param[in] numCopie Numero di copie attualmente disponibili per quel libro
+ *
+ * @return True se il libro è stato aggiunto, false se l'ISBN è già presente
  */
-    public void aggiungiLibro(String titolo, String autore, String isbn, int anno, double prezzo, String usura, int numCopie) {
-            libri.add(new Libro(titolo, autore, isbn, anno, prezzo, usura, numCopie));
+    public boolean aggiungiLibro(String titolo, String autore, String isbn, int anno, double prezzo, StatoUsura usura, int numCopie) {
+            if (findByIsbn(isbn) != null) {
+                return false;
+            }
+            libri.add(new Libro(titolo, PoolStringhe.COMUNE.condividi(autore), isbn, anno, arrotondaPrezzo(prezzo), usura, numCopie));
+            return true;
     }
 
  /**
@@ -101,43 +302,555 @@ public class TabellaLibroModel {
     public void rimuoviLibro(Libro lib) { 
             libri.remove(lib);
     }
+
+ /**
+ * @brief Metodo che permette di cercare un libro per ISBN
+ *
+ * La ricerca usa l'indice hash e ignora trattini, spazi e maiuscole/minuscole
+ *
+ * @param[in] isbn L'ISBN da cercare
+ * 
+ * @return Il libro con quell'ISBN, o null se non presente
+ */
+    public Libro findByIsbn(String isbn) {
+            return perIsbn.get(normalizzaIsbn(isbn));
+    }
+
+ /**
+ * @brief Metodo che permette di cercare i libri per parole del titolo o dell'autore
+ *
+ * Le parole vengono confrontate senza distinguere maiuscole, minuscole e accenti e possono
+ * essere parziali ("manz" trova "Manzoni"); i libri devono contenere tutte le parole
+ *
+ * @param[in] query Le parole da cercare
+ * 
+ * @return I libri trovati, dal più rilevante
+ */
+    public List<Libro> cercaLibri(String query) {
+            return cercaLibri(query, null, Integer.MAX_VALUE);
+    }
+
+ /**
+ * @brief Metodo che permette di cercare i libri per parole in un solo campo
+ *
+ * @param[in] query Le parole da cercare
+ * @param[in] campo CampoLibro.TITOLO, CampoLibro.AUTORE oppure null per entrambi
+ * @param[in] massimo Il numero massimo di risultati
+ * 
+ * @return I libri trovati, dal più rilevante
+ */
+    public List<Libro> cercaLibri(String query, CampoLibro campo, int massimo) {
+            return indiceTesto.cerca(query, maschera(campo), massimo);
+    }
+
+ /**
+ * @brief Metodo che permette di cercare i libri tollerando errori di battitura
+ *
+ * Ogni parola trova anche le parole del catalogo che differiscono di uno o due caratteri
+ * ("manzomi" trova "Manzoni"); i libri devono contenere una parola simile a ognuna
+ *
+ * @param[in] query Le parole da cercare
+ * @param[in] campo CampoLibro.TITOLO, CampoLibro.AUTORE oppure null per entrambi
+ * @param[in] massimo Il numero massimo di risultati
+ * 
+ * @return I libri trovati, dal più simile
+ */
+    public List<Libro> cercaLibriSimili(String query, CampoLibro campo, int massimo) {
+            return indiceTesto.cercaSimili(query, maschera(campo), massimo);
+    }
+
+ /**
+ * @brief Metodo che restituisce i libri pubblicati in un intervallo di anni
+ *
+ * @param[in] intervallo L'intervallo di anni (es. Intervallo.interpreta("1990-2000"))
+ * 
+ * @return I libri trovati, dal meno recente
+ */
+    public List<Libro> cercaPerAnno(Intervallo intervallo) {
+            return indiceAnno.cerca(intervallo);
+    }
+
+ /**
+ * @brief Metodo che restituisce i libri con il prezzo in un intervallo
+ *
+ * @param[in] intervallo L'intervallo di prezzo (es. Intervallo.interpreta("<15"))
+ * 
+ * @return I libri trovati, dal meno caro
+ */
+    public List<Libro> cercaPerPrezzo(Intervallo intervallo) {
+            return indicePrezzo.cerca(intervallo);
+    }
+
+ /**
+ * @brief Metodo che indica se un testo di ricerca è un'interrogazione composta
+ *
+ * @param[in] q L'interrogazione analizzata (vedi Interrogazione.analizza)
+ * 
+ * @return True se usa almeno un campo riconosciuto (titolo, autore, isbn, anno, prezzo, usura, copie)
+ */
+    public boolean usaCampi(Interrogazione q) {
+            return motore.usaCampi(q);
+    }
+
+ /**
+ * @brief Metodo che prepara un'interrogazione composta
+ *
+ * Va chiamato sul thread JavaFX: i valori vengono validati e il catalogo fotografato subito,
+ * mentre la ricerca restituita può essere eseguita su un altro thread
+ *
+ * @param[in] q L'interrogazione analizzata
+ * 
+ * @return La ricerca, che restituisce i libri trovati
+ * 
+ * @throws IllegalArgumentException se un valore non è valido (es. anno:abc)
+ */
+    public Supplier<List<Libro>> preparaInterrogazione(Interrogazione q) {
+            String chiave = "?" + q;
+            List<Libro> inCache = risultati.cerca(chiave);
+            if (inCache != null) {
+                return () -> inCache;
+            }
+            return risultati.conserva(chiave, motore.campi(q), motore.verifica(q), motore.prepara(q, new ArrayList<>(libri)));
+    }
+
+ /**
+ * @brief Metodo che fa passare una ricerca semplice dalla cache dei risultati
+ *
+ * Va chiamato sul thread JavaFX. Senza un predicato esatto, la voce viene invalidata da ogni
+ * aggiunta e da ogni modifica dei campi indicati.
+ *
+ * @param[in] chiave La chiave della ricerca (es. criterio e testo cercato)
+ * @param[in] ricerca La ricerca da eseguire se non è in cache
+ * @param[in] campi I campi da cui dipende la ricerca ("titolo", "autore", "anno", ...)
+ * 
+ * @return La ricerca, che restituisce i libri trovati
+ */
+    public Supplier<List<Libro>> inCache(String chiave, Supplier<List<Libro>> ricerca, String... campi) {
+            List<Libro> inCache = risultati.cerca(chiave);
+            if (inCache != null) {
+                return () -> inCache;
+            }
+            return risultati.conserva(chiave, Set.of(campi), null, ricerca);
+    }
+
+ /**
+ * @brief Metodo getter della cache dei risultati, per leggerne i contatori
+ *
+ * @return La cache dei risultati delle ricerche
+ */
+    public CacheRisultati<Libro> getCacheRisultati() {
+            return risultati;
+    }
+
+ /**
+ * @brief Registra chi deve essere avvisato dopo ogni modifica di un campo di un libro
+ *
+ * @param[in] osservatore Riceve il libro modificato e il campo
+ * 
+ * @return void
+ */
+    public void aggiungiOsservatore(BiConsumer<Libro, CampoLibro> osservatore) {
+            osservatori.add(osservatore);
+    }
+
+ /**
+ * @brief Nome di un campo come usato dalle interrogazioni e dalla cache
+ *
+ * @param[in] campo Il campo del libro
+ * 
+ * @return Il nome in minuscolo (es. "titolo")
+ */
+    public static String nomeCampo(CampoLibro campo) {
+            return campo.name().toLowerCase(Locale.ROOT);
+    }
+
+ /**
+ * @brief Metodo che esegue subito un'interrogazione composta
+ *
+ * @param[in] testo Il testo dell'interrogazione, es. "autore:eco anno:>1980"
+ * 
+ * @return I libri trovati
+ * 
+ * @throws IllegalArgumentException se il testo è malformato o un valore non è valido
+ */
+    public List<Libro> interroga(String testo) {
+            return preparaInterrogazione(Interrogazione.analizza(testo)).get();
+    }
+
+ /**
+ * @brief Metodo che restituisce una pagina dei libri che soddisfano un filtro
+ * 
+ * Va chiamato sul thread JavaFX: i libri vengono scorsi senza copiarne la lista. L'ordine
+ * è stabile anche tra una pagina e l'altra se nel frattempo vengono aggiunti o rimossi libri,
+ * perché la pagina successiva riparte dall'ultimo elemento letto (vedi Pagina).
+ * 
+ * @param[in] filtro Il filtro, null per tutti i libri
+ * @param[in] ordine L'ordinamento, null per l'ordine per ISBN; va riusato per le pagine successive
+ * @param[in] dopo Il cursore restituito dalla pagina precedente, null per la prima pagina
+ * @param[in] limite Il numero massimo di libri nella pagina
+ * 
+ * @return La pagina
+ * 
+ * @throws IllegalArgumentException se il limite non è positivo o il cursore è di un altro ordinamento
+ */
+    public Pagina<Libro> pagina(Predicate<? super Libro> filtro, Comparator<? super Libro> ordine, Pagina.Cursore<Libro> dopo, int limite) {
+            return Pagina.estrai(libri, filtro, ordine, l -> normalizzaIsbn(l.getIsbn()), dopo, limite);
+    }
+
+ /**
+ * @brief Metodo che restituisce una pagina dei risultati di un'interrogazione composta
+ * 
+ * I candidati vengono dagli indici (e dalla cache dei risultati), come per interroga().
+ * 
+ * @param[in] q L'interrogazione
+ * @param[in] ordine L'ordinamento, null per l'ordine per ISBN; va riusato per le pagine successive
+ * @param[in] dopo Il cursore restituito dalla pagina precedente, null per la prima pagina
+ * @param[in] limite Il numero massimo di libri nella pagina
+ * 
+ * @return La pagina
+ * 
+ * @throws IllegalArgumentException se un valore dell'interrogazione non è valido, il limite non è positivo o il cursore è di un altro ordinamento
+ */
+    public Pagina<Libro> paginaInterrogazione(Interrogazione q, Comparator<? super Libro> ordine, Pagina.Cursore<Libro> dopo, int limite) {
+            return Pagina.estrai(preparaInterrogazione(q).get(), null, ordine, l -> normalizzaIsbn(l.getIsbn()), dopo, limite);
+    }
+
+ /**
+ * @brief Metodo che conta i libri per ogni valore delle faccette
+ *
+ * Il conteggio di un valore indica quanti libri si vedrebbero selezionandolo, tenendo
+ * conto della selezione sulle altre faccette e dei risultati della ricerca corrente
+ *
+ * @param[in] selezione Faccetta -> valori selezionati (OR nella faccetta, AND tra faccette)
+ * @param[in] base I risultati della ricerca corrente, null se non c'è una ricerca
+ * 
+ * @return Faccetta -> valore -> numero di libri
+ */
+    public Map<String, Map<String, Integer>> conteggiFaccette(Map<String, ? extends Collection<String>> selezione,
+            Collection<Libro> base) {
+            return indiceFaccette.conteggi(selezione, base);
+    }
+
+ /**
+ * @brief Metodo che restituisce il filtro corrispondente a una selezione di faccette
+ *
+ * @param[in] selezione Faccetta -> valori selezionati (OR nella faccetta, AND tra faccette)
+ * 
+ * @return Il predicato che accetta i libri selezionati
+ */
+    public Predicate<Libro> filtroFaccette(Map<String, ? extends Collection<String>> selezione) {
+            return indiceFaccette.predicato(selezione);
+    }
+
+ /**
+ * @brief Metodo che conta i libri per ogni stato di usura
+ *
+ * @param[in] libriDaContare I libri da contare, ad esempio i risultati di una ricerca
+ * 
+ * @return Il numero di libri per stato, indicizzato dal codice dello stato (StatoUsura.getCodice())
+ */
+    public static int[] contaPerUsura(Collection<? extends Libro> libriDaContare) {
+            int[] conteggi = new int[StatoUsura.values().length];
+            for (Libro l : libriDaContare) {
+                conteggi[l.getStatoUsura().getCodice()]++;
+            }
+            return conteggi;
+    }
+
+ /**
+ * @brief Metodo che restituisce il filtro dei libri in uno degli stati di usura indicati
+ *
+ * @param[in] stati Gli stati accettati
+ * 
+ * @return Il predicato, che controlla il codice dello stato in una tabella
+ */
+    public static Predicate<Libro> filtroUsura(Collection<StatoUsura> stati) {
+            boolean[] accettati = new boolean[StatoUsura.values().length];
+            for (StatoUsura s : stati) {
+                accettati[s.getCodice()] = true;
+            }
+            return l -> accettati[l.getStatoUsura().getCodice()];
+    }
+
+ /**
+ * @brief Valore della faccetta decennio, nella forma "1990-1999"
+ *
+ * @param[in] l Il libro
+ * 
+ * @return Il decennio di pubblicazione
+ */
+    private static String decennio(Libro l) {
+            int inizio = Math.floorDiv(l.getAnnoPubblicazione(), 10) * 10;
+            return inizio + "-" + (inizio + 9);
+    }
+
+ /**
+ * @brief Maschera dei campi dell'indice testuale corrispondente a un campo del libro
+ *
+ * @param[in] campo CampoLibro.TITOLO, CampoLibro.AUTORE oppure null per entrambi
+ * 
+ * @return La maschera da passare all'indice
+ */
+    private static int maschera(CampoLibro campo) {
+            if (campo == CampoLibro.TITOLO) {
+                return 1;
+            } else if (campo == CampoLibro.AUTORE) {
+                return 2;
+            }
+            return IndiceInvertito.TUTTI_I_CAMPI;
+    }
+
+ /**
+ * @brief Metodo che restituisce i titoli più frequenti che iniziano con il testo digitato
+ *
+ * @param[in] prefisso Il testo digitato
+ * @param[in] massimo Il numero massimo di suggerimenti
+ * 
+ * @return I titoli suggeriti
+ */
+    public List<String> suggerisciTitoli(String prefisso, int massimo) {
+            return suggeritoreTitoli.suggerisci(prefisso, massimo);
+    }
+
+ /**
+ * @brief Metodo che restituisce gli autori con più libri che iniziano con il testo digitato
+ *
+ * @param[in] prefisso Il testo digitato
+ * @param[in] massimo Il numero massimo di suggerimenti
+ * 
+ * @return Gli autori suggeriti
+ */
+    public List<String> suggerisciAutori(String prefisso, int massimo) {
+            return suggeritoreAutori.suggerisci(prefisso, massimo);
+    }
+
+ /**
+ * @brief Arrotonda un prezzo al centesimo
+ *
+ * Un prezzo passato da un float (es. 12.99 letto come 12.98999977) non sarebbe trovato cercando
+ * "12.99"; l'indice e le interrogazioni confrontano quindi i prezzi arrotondati al centesimo.
+ *
+ * @param[in] prezzo Il prezzo
+ * 
+ * @return Il prezzo arrotondato al centesimo
+ */
+    public static double arrotondaPrezzo(double prezzo) {
+            return Math.round(prezzo * 100) / 100.0;
+    }
+
+ /**
+ * @brief Normalizza un ISBN per l'indice: rimuove trattini e spazi e porta la X finale in maiuscolo
+ *
+ * @param[in] isbn L'ISBN da normalizzare
+ * 
+ * @return L'ISBN normalizzato (stringa vuota se null)
+ */
+    public static String normalizzaIsbn(String isbn) {
+            if (isbn == null) {
+                return "";
+            }
+            StringBuilder sb = new StringBuilder(isbn.length());
+            for (int i = 0; i < isbn.length(); i++) {
+                char ch = isbn.charAt(i);
+                if (ch != '-' && !Character.isWhitespace(ch)) {
+                    sb.append(Character.toUpperCase(ch));
+                }
+            }
+            return sb.toString();
+    }
+
+ /**
+ * @brief Metodo che permette di modificare un campo di un libro
+ *
+ * Questo metodo applica la modifica al libro e la registra nel giornale, così che il
+ * successivo salvataggio scriva solo il record della modifica. Un nuovo ISBN già usato
+ * da un altro libro viene rifiutato
+ *
+ * @pre Il libro deve essere presente nell'Observable List
+ * @post Il campo del libro assume il nuovo valore
+ *
+ * @param[in] lib Libro da modificare
+ * @param[in] campo Il campo da modificare
+ * @param[in] valore Il nuovo valore del campo
+ * 
+ * @return True se la modifica è stata applicata, false se l'ISBN è già usato
+ */
+    public boolean modificaLibro(Libro lib, CampoLibro campo, Object valore) {
+            String isbnPrecedente = lib.getIsbn();
+            if (campo == CampoLibro.ISBN) {
+                Libro esistente = findByIsbn((String) valore);
+                if (esistente != null && esistente != lib) {
+                    return false;
+                }
+                perIsbn.remove(normalizzaIsbn(isbnPrecedente), lib);
+            } else if (campo == CampoLibro.AUTORE) {
+                valore = PoolStringhe.COMUNE.condividi((String) valore);
+            }
+            campo.imposta(lib, valore);
+            if (campo == CampoLibro.ISBN) {
+                perIsbn.put(normalizzaIsbn(lib.getIsbn()), lib);
+            } else if (campo == CampoLibro.TITOLO) {
+                indiceTesto.aggiorna(lib);
+                suggeritoreTitoli.aggiorna(lib);
+                chiaviTitolo.invalida(lib);
+            } else if (campo == CampoLibro.AUTORE) {
+                indiceTesto.aggiorna(lib);
+                suggeritoreAutori.aggiorna(lib);
+                chiaviAutore.invalida(lib);
+            } else if (campo == CampoLibro.ANNO) {
+                indiceAnno.aggiorna(lib);
+                indiceFaccette.aggiorna(lib);
+            } else if (campo == CampoLibro.PREZZO) {
+                indicePrezzo.aggiorna(lib);
+            } else if (campo == CampoLibro.USURA || campo == CampoLibro.COPIE) {
+                indiceFaccette.aggiorna(lib);
+            }
+            risultati.modificato(lib, nomeCampo(campo));
+            giornale.registraModifica(isbnPrecedente, campo, lib);
+            for (BiConsumer<Libro, CampoLibro> o : osservatori) {
+                o.accept(lib, campo);
+            }
+            return true;
+    }
+
+ /**
+ * @brief Attiva o disattiva la modalità di salvataggio con giornale
+ *
+ * @param[in] attivo Se false ogni salvataggio riscrive l'intera istantanea
+ * 
+ * @return void
+ */
+    public void setGiornaleAttivo(boolean attivo) {
+            this.giornaleAttivo = attivo;
+    }
+
    /**
-     * @brief Salvataggio su file binario tramite ObjectOutputStream.
-     *  Viene salvata una List<Libro>.
+     * @brief Salvataggio su file binario.
+     *  Con il giornale attivo vengono accodati al file libri.log solo i record delle modifiche
+     *  successive all'ultimo salvataggio; l'istantanea completa (formato binario compatto,
+     *  vedi ArchivioBinario e CodecLibro) viene riscritta solo se manca o se il giornale va compattato.
+     *  Il salvataggio avviene in modo sincrono sul thread chiamante.
      * 
      * @return void
      */
     public void salvaSuBinario() {
-        List<Libro> lista = new ArrayList<>(libri);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(FILE_BINARIO))) {
-            out.writeObject(lista);
+        preparaSalvataggio().run();
+    }
+
+   /**
+     * @brief Segnala che il catalogo è stato modificato e va salvato.
+     *  Se è stato impostato un SalvataggioDifferito le richieste vengono accorpate e scritte
+     *  in background, altrimenti il salvataggio è immediato.
+     * 
+     * @return void
+     */
+    public void richiediSalvataggio() {
+        if (salvataggio == null) {
+            salvaSuBinario();
+        } else {
+            salvataggio.segnala(this);
+        }
+    }
+
+   /**
+     * @brief Imposta lo scheduler dei salvataggi in background
+     * 
+     * @param[in] salvataggio Lo scheduler condiviso, o null per salvare in modo sincrono
+     * 
+     * @return void
+     */
+    public void setSalvataggioDifferito(SalvataggioDifferito salvataggio) {
+        this.salvataggio = salvataggio;
+    }
+
+   /**
+     * @brief Fotografa il catalogo e restituisce la scrittura su disco da eseguire.
+     *  I record del giornale (o l'istantanea completa) vengono codificati subito, sul thread
+     *  che possiede la lista; il Runnable restituito si limita a scriverli sul file.
+     * 
+     * @return La scrittura su disco
+     */
+    @Override
+    public Runnable preparaSalvataggio() {
+        try {
+            if (giornaleAttivo && archivio.esiste() && !giornale.daCompattare()) {
+                byte[] record = giornale.preleva();
+                return () -> {
+                    try {
+                        giornale.accoda(record);
+                    } catch (IOException e) {
+                        System.out.println(e.getMessage());
+                    }
+                };
+            }
+            byte[] istantanea = archivio.codifica(new ArrayList<>(libri));
+            giornale.scarta();
+            return () -> {
+                try {
+                    archivio.scrivi(istantanea);
+                    giornale.tronca();
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                }
+            };
         } catch (IOException e) {
             System.out.println(e.getMessage());
+            return () -> { };
         }
     }
     
+    /**
+     * @brief Ricostruisce tutti gli indici dalla lista dei libri e svuota cache e chiavi di ordinamento
+     *
+     * @return void
+     */
+    private void ricostruisciIndici() {
+        perIsbn.clear();
+        for (Libro l : libri) {
+            if (perIsbn.putIfAbsent(normalizzaIsbn(l.getIsbn()), l) != null) {
+                System.out.println("ISBN duplicato nel catalogo: " + l.getIsbn());
+            }
+        }
+        indiceTesto.ricostruisci(libri);
+        suggeritoreTitoli.ricostruisci(libri);
+        suggeritoreAutori.ricostruisci(libri);
+        indiceAnno.ricostruisci(libri);
+        indicePrezzo.ricostruisci(libri);
+        indiceFaccette.ricostruisci(libri);
+        risultati.svuota();
+        chiaviTitolo.svuota();
+        chiaviAutore.svuota();
+    }
+
          /**
      * @brief Caricamento da file binario.
-     * Formato atteso: una List<Libro> serializzata.
+     * Formato atteso: l'istantanea nel formato binario compatto (o, per i file meno recenti, una
+     * List<Libro> serializzata, che viene migrata), seguita dai record del giornale libri.log
+     * che vengono riapplicati. Se il giornale è troppo lungo viene compattato subito.
+     * Viene stampata la stima dei byte risparmiati condividendo autori e stati di usura (vedi PoolStringhe).
      * 
      * @return void
      */
      public void caricaDaBinario() throws IOException, ClassNotFoundException {
-        File file = new File(FILE_BINARIO);
-        if (!file.exists() || file.length() == 0) {
-            throw new FileNotFoundException("File binario non trovato: " + FILE_BINARIO);
-        }
-
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+        boolean formatoPrecedente = archivio.isFormatoPrecedente();
+        long risparmiati = PoolStringhe.COMUNE.getByteRisparmiati();
 
-            Object obj = in.readObject();
-
-            List<Libro> lista = (List<Libro>) obj;
-            for (Object o : lista) {
-                if (o instanceof Libro) {
-                    libri.add((Libro) o);
-                }
-            }
+        inCaricamento = true;
+        try {
+            libri.addAll(archivio.carica());
+            giornale.riapplica(libri);
+        } finally {
+            inCaricamento = false;
+            ricostruisciIndici(); // anche se la lettura fallisce a metà, gli indici seguono i libri caricati
+        }
+        System.out.println("Caricati " + libri.size() + " libri, " + (PoolStringhe.COMUNE.getByteRisparmiati() - risparmiati)
+                + " byte risparmiati condividendo i testi ripetuti");
+        if (formatoPrecedente) {
+            archivio.salva(new ArrayList<>(libri));
+            giornale.azzera();
+            System.out.println("File " + FILE_BINARIO + " migrato al formato binario compatto");
+        } else if (giornale.daCompattare()) {
+            salvaSuBinario();
         }
     }
 }
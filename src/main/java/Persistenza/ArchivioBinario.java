@@ -0,0 +1,195 @@
+/**
+ * @file ArchivioBinario.java
+ * @brief Questo file contiene la gestione dei file .bin nel formato binario compatto e versionato
+ *
+ * Il file inizia con un'intestazione (magic "LB27", identificativo del tipo di record e versione),
+ * seguita dal numero di elementi e dai record codificati campo per campo tramite un Codec.
+ * I file nel vecchio formato (List serializzata con ObjectOutputStream) vengono riconosciuti
+ * dall'assenza del magic, letti e, tramite migra(), riscritti nel nuovo formato.
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+package Persistenza;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+public class ArchivioBinario<T> {
+
+    public static final byte[] MAGIC = {'L', 'B', '2', '7'}; ///@brief Firma iniziale dei file nel formato compatto
+
+    private final File file;    ///@brief Il file gestito
+    private final Codec<T> codec;   ///@brief Il codec degli elementi
+
+   /**
+ * @brief Costruttore dell'archivio
+ *
+ * @param[in] nomeFile Il percorso del file .bin
+ * @param[in] codec Il codec con cui scrivere e leggere gli elementi
+ */
+    public ArchivioBinario(String nomeFile, Codec<T> codec) {
+        this.file = new File(nomeFile);
+        this.codec = codec;
+    }
+
+   /**
+ * @brief Indica se il file esiste e non è vuoto
+ *
+ * @return True se il file esiste e contiene dati
+ */
+    public boolean esiste() {
+        return file.exists() && file.length() > 0;
+    }
+
+   /**
+ * @brief Salva gli elementi nel formato compatto
+ *
+ * @param[in] elementi Gli elementi da salvare
+ *
+ * @return void
+ */
+    public void salva(Collection<? extends T> elementi) throws IOException {
+        scrivi(codifica(elementi));
+    }
+
+   /**
+ * @brief Codifica in memoria il contenuto completo del file (intestazione e record)
+ *
+ * Permette di fotografare gli elementi sul thread che li possiede e di lasciare a un altro
+ * thread la sola scrittura su disco.
+ *
+ * @param[in] elementi Gli elementi da codificare
+ *
+ * @return I byte del file
+ */
+    public byte[] codifica(Collection<? extends T> elementi) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ScrittoreBinario out = new ScrittoreBinario(buffer)) {
+            out.scriviByte(MAGIC);
+            out.scriviByte(codec.identificativo());
+            out.scriviVarInt(codec.versione());
+            out.scriviVarInt(elementi.size());
+            for (T elemento : elementi) {
+                codec.scrivi(out, elemento);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+   /**
+ * @brief Scrive su disco un contenuto prodotto da codifica()
+ *
+ * Il file viene prima scritto in un file temporaneo e poi rinominato, così che un'interruzione
+ * non lasci un file parziale.
+ *
+ * @param[in] contenuto I byte del file
+ *
+ * @return void
+ */
+    public void scrivi(byte[] contenuto) throws IOException {
+        File temporaneo = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporaneo)) {
+            out.write(contenuto);
+        }
+        Files.move(temporaneo.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+   /**
+ * @brief Carica gli elementi dal file, in qualunque dei formati supportati
+ *
+ * @pre Il file deve esistere
+ *
+ * @return La lista degli elementi letti
+ *
+ * @throws FileNotFoundException Se il file non esiste o è vuoto
+ */
+    public List<T> carica() throws IOException, ClassNotFoundException {
+        if (!esiste()) {
+            throw new FileNotFoundException("File binario non trovato: " + file.getName());
+        }
+        if (isFormatoPrecedente()) {
+            return caricaFormatoPrecedente();
+        }
+        try (LettoreBinario in = new LettoreBinario(new FileInputStream(file))) {
+            in.leggiByte(MAGIC.length);
+            int identificativo = in.leggiByte();
+            if (identificativo != (codec.identificativo() & 0xFF)) {
+                throw new IOException("Il file " + file.getName() + " non contiene record del tipo atteso");
+            }
+            int versione = in.leggiVarInt();
+            if (versione > codec.versione()) {
+                throw new IOException("Versione del file " + file.getName() + " non supportata: " + versione);
+            }
+            int n = in.leggiVarInt();
+            List<T> lista = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                lista.add(codec.leggi(in, versione));
+            }
+            return lista;
+        }
+    }
+
+   /**
+ * @brief Indica se il file è nel vecchio formato serializzato (senza magic)
+ *
+ * @return True se il file esiste e non inizia con il magic del formato compatto
+ */
+    public boolean isFormatoPrecedente() throws IOException {
+        if (!esiste()) {
+            return false;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] intestazione = in.readNBytes(MAGIC.length);
+            return !Arrays.equals(intestazione, MAGIC);
+        }
+    }
+
+   /**
+ * @brief Migra il file dal vecchio formato serializzato al formato compatto
+ *
+ * @post Se il file era nel vecchio formato, ora è nel formato compatto con gli stessi elementi
+ *
+ * @return True se il file è stato migrato, false se era già nel formato compatto o non esiste
+ */
+    public boolean migra() throws IOException, ClassNotFoundException {
+        if (!isFormatoPrecedente()) {
+            return false;
+        }
+        List<T> elementi = caricaFormatoPrecedente();
+        salva(elementi);
+        System.out.println("File " + file.getName() + " migrato al formato binario compatto (" + elementi.size() + " elementi)");
+        return true;
+    }
+
+   /**
+ * @brief Legge una List serializzata con ObjectOutputStream
+ *
+ * @return Gli elementi del tipo atteso contenuti nella lista
+ */
+    private List<T> caricaFormatoPrecedente() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+            Object obj = in.readObject();
+            List<T> lista = new ArrayList<>();
+            for (Object o : (List<?>) obj) {
+                if (codec.tipo().isInstance(o)) {
+                    lista.add(codec.tipo().cast(o));
+                }
+            }
+            return lista;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * @file Codec.java
+ * @brief Questo file contiene l'interfaccia dei codec campo per campo usati da ArchivioBinario
+ *
+ * Ogni entità (Libro, Utente, Prestito) fornisce un codec che scrive e legge i propri campi
+ * nel formato binario compatto. Il numero di versione scritto nell'intestazione del file
+ * viene passato alla lettura, così che un codec possa leggere anche le versioni precedenti.
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+package Persistenza;
+
+import java.io.IOException;
+
+public interface Codec<T> {
+
+   /**
+ * @brief Identificativo del tipo di record, scritto nell'intestazione del file
+ *
+ * @return Un byte che distingue i file di entità diverse
+ */
+    byte identificativo();
+
+   /**
+ * @brief Versione corrente del formato dei record
+ *
+ * @return Il numero di versione scritto dai nuovi salvataggi
+ */
+    int versione();
+
+   /**
+ * @brief Classe degli elementi, usata per filtrare i file nel vecchio formato serializzato
+ *
+ * @return La classe T
+ */
+    Class<T> tipo();
+
+   /**
+ * @brief Scrive un elemento campo per campo
+ *
+ * @param[in] out Lo scrittore su cui codificare l'elemento
+ * @param[in] elemento L'elemento da scrivere
+ *
+ * @return void
+ */
+    void scrivi(ScrittoreBinario out, T elemento) throws IOException;
+
+   /**
+ * @brief Legge un elemento scritto con la versione indicata
+ *
+ * @param[in] in Il lettore da cui decodificare l'elemento
+ * @param[in] versione La versione del formato presente nel file
+ *
+ * @return L'elemento letto
+ */
+    T leggi(LettoreBinario in, int versione) throws IOException;
+}
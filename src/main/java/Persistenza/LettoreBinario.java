@@ -0,0 +1,205 @@
+/**
+ * @file LettoreBinario.java
+ * @brief Questo file contiene il lettore del formato binario compatto usato per i file .bin
+ *
+ * È la controparte di ScrittoreBinario: decodifica varint, stringhe UTF-8 con lunghezza
+ * e date espresse come giorni dall'epoca.
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+package Persistenza;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+public class LettoreBinario implements Closeable {
+
+    private final InputStream in;   ///@brief Lo stream di origine
+    private final byte[] buffer = new byte[1 << 16]; ///@brief Buffer di lettura
+    private int pos;    ///@brief Posizione del prossimo byte da leggere
+    private int lim;    ///@brief Numero di byte validi nel buffer
+
+   /**
+ * @brief Costruttore del lettore
+ *
+ * @param[in] in Lo stream da cui leggere
+ */
+    public LettoreBinario(InputStream in) {
+        this.in = in;
+    }
+
+   /**
+ * @brief Indica se lo stream è terminato
+ *
+ * @return True se non ci sono altri byte da leggere
+ */
+    public boolean fine() throws IOException {
+        return pos == lim && !riempi();
+    }
+
+   /**
+ * @brief Legge un singolo byte
+ *
+ * @return Il byte letto, come intero tra 0 e 255
+ *
+ * @throws EOFException Se lo stream è terminato
+ */
+    public int leggiByte() throws IOException {
+        if (pos == lim && !riempi()) {
+            throw new EOFException();
+        }
+        return buffer[pos++] & 0xFF;
+    }
+
+   /**
+ * @brief Legge esattamente n byte
+ *
+ * @param[in] n Il numero di byte da leggere
+ *
+ * @return I byte letti
+ */
+    public byte[] leggiByte(int n) throws IOException {
+        byte[] b = new byte[n];
+        int letti = 0;
+        while (letti < n) {
+            if (pos == lim && !riempi()) {
+                throw new EOFException();
+            }
+            int k = Math.min(n - letti, lim - pos);
+            System.arraycopy(buffer, pos, b, letti, k);
+            pos += k;
+            letti += k;
+        }
+        return b;
+    }
+
+   /**
+ * @brief Legge un intero senza segno codificato come varint
+ *
+ * @return L'intero letto
+ */
+    public int leggiVarInt() throws IOException {
+        int valore = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = leggiByte();
+            valore |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return valore;
+            }
+        }
+        throw new IOException("Varint non valido");
+    }
+
+   /**
+ * @brief Legge un long senza segno codificato come varint
+ *
+ * @return Il long letto
+ */
+    public long leggiVarLong() throws IOException {
+        long valore = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = leggiByte();
+            valore |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return valore;
+            }
+        }
+        throw new IOException("Varint non valido");
+    }
+
+   /**
+ * @brief Legge un intero con segno in codifica zig-zag
+ *
+ * @return L'intero letto
+ */
+    public int leggiIntero() throws IOException {
+        int v = leggiVarInt();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+   /**
+ * @brief Legge un long con segno in codifica zig-zag
+ *
+ * @return Il long letto
+ */
+    public long leggiLungo() throws IOException {
+        long v = leggiVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+   /**
+ * @brief Legge un double dai suoi 8 byte IEEE 754
+ *
+ * @return Il double letto
+ */
+    public double leggiDecimale() throws IOException {
+        long bit = 0;
+        for (int i = 0; i < 8; i++) {
+            bit = (bit << 8) | leggiByte();
+        }
+        return Double.longBitsToDouble(bit);
+    }
+
+   /**
+ * @brief Legge una stringa UTF-8 preceduta dalla lunghezza
+ *
+ * @return La stringa letta, eventualmente null
+ */
+    public String leggiStringa() throws IOException {
+        int lunghezza = leggiVarInt() - 1;
+        if (lunghezza < 0) {
+            return null;
+        }
+        if (lim - pos >= lunghezza) {
+            String s = new String(buffer, pos, lunghezza, StandardCharsets.UTF_8);
+            pos += lunghezza;
+            return s;
+        }
+        return new String(leggiByte(lunghezza), StandardCharsets.UTF_8);
+    }
+
+   /**
+ * @brief Legge una data espressa come giorni dall'epoca
+ *
+ * @return La data letta, eventualmente null
+ */
+    public LocalDate leggiData() throws IOException {
+        long v = leggiVarLong();
+        if (v == 0) {
+            return null;
+        }
+        v -= 1;
+        return LocalDate.ofEpochDay((v >>> 1) ^ -(v & 1));
+    }
+
+   /**
+ * @brief Ricarica il buffer dallo stream sottostante
+ *
+ * @return False se lo stream è terminato
+ */
+    private boolean riempi() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        pos = 0;
+        lim = n;
+        return true;
+    }
+
+   /**
+ * @brief Chiude lo stream sottostante
+ *
+ * @return void
+ */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
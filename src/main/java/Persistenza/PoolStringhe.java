@@ -0,0 +1,100 @@
+/**
+ * @file PoolStringhe.java
+ * @brief Questo file contiene il pool che condivide le istanze dei testi ripetuti
+ *
+ * Autori, stati di usura, nomi e cognomi si ripetono in moltissime righe, ma ogni lettura da file
+ * e ogni aggiunta creano una String nuova. condividi() restituisce sempre la stessa istanza per
+ * testi uguali, così che le copie appena create possano essere raccolte dal garbage collector.
+ * Il pool tiene le istanze con riferimenti deboli: un testo che nessuna riga usa più viene
+ * raccolto e sparisce dal pool, che quindi non trattiene le righe rimosse.
+ * Il pool è sincronizzato, perché i codec possono essere usati anche fuori dal thread JavaFX.
+ *
+ * @author Gruppo 27
+ * @date 26 Gennaio 2026
+ * @version 1.0
+ */
+package Persistenza;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+public final class PoolStringhe {
+
+    public static final PoolStringhe COMUNE = new PoolStringhe(); ///@brief Pool condiviso da model e codec
+
+    private final WeakHashMap<String, WeakReference<String>> istanze = new WeakHashMap<>(); ///@brief Testo -> istanza condivisa (chiave e valore sono la stessa String)
+    private long byteRisparmiati; ///@brief Stima dei byte delle copie sostituite con l'istanza condivisa
+    private long condivisioni; ///@brief Numero di copie sostituite
+
+   /**
+ * @brief Restituisce l'istanza condivisa di un testo
+ *
+ * @param[in] testo Il testo, eventualmente null
+ *
+ * @return L'istanza già presente nel pool se uguale al testo, altrimenti il testo stesso (che entra nel pool)
+ */
+    public synchronized String condividi(String testo) {
+        if (testo == null) {
+            return null;
+        }
+        WeakReference<String> rif = istanze.get(testo);
+        String condivisa = rif == null ? null : rif.get();
+        if (condivisa == null) {
+            istanze.put(testo, new WeakReference<>(testo));
+            return testo;
+        }
+        if (condivisa != testo) {
+            byteRisparmiati += dimensione(testo);
+            condivisioni++;
+        }
+        return condivisa;
+    }
+
+   /**
+ * @brief Stima dei byte risparmiati dalla creazione del pool
+ *
+ * Il valore cresce soltanto: per il risparmio di un caricamento si confrontano due letture.
+ *
+ * @return I byte delle copie sostituite con l'istanza condivisa
+ */
+    public synchronized long getByteRisparmiati() {
+        return byteRisparmiati;
+    }
+
+   /**
+ * @brief Numero di copie sostituite dalla creazione del pool
+ *
+ * @return Il numero di copie
+ */
+    public synchronized long getCondivisioni() {
+        return condivisioni;
+    }
+
+   /**
+ * @brief Numero di testi distinti ancora nel pool
+ *
+ * @return Il numero di testi
+ */
+    public synchronized int dimensione() {
+        return istanze.size();
+    }
+
+   /**
+ * @brief Stima dei byte occupati da una String: l'oggetto e il suo array (1 byte per carattere
+ * se il testo è Latin-1, altrimenti 2), allineati a 8 byte
+ *
+ * @param[in] s Il testo
+ *
+ * @return I byte occupati
+ */
+    static long dimensione(String s) {
+        int perCarattere = 1;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                perCarattere = 2;
+                break;
+            }
+        }
+        return 24 + ((16 + (long) perCarattere * s.length() + 7) & ~7L);
+    }
+}
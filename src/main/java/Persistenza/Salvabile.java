@@ -0,0 +1,23 @@
+/**
+ * @file Salvabile.java
+ * @brief Questo file contiene l'interfaccia dei model che possono essere salvati in differita
+ *
+ * @author Gruppo 27
+ * @date 10 Gennaio 2026
+ * @version 1.0
+ */
+package Persistenza;
+
+public interface Salvabile {
+
+   /**
+ * @brief Fotografa lo stato corrente del model e restituisce la scrittura su disco da eseguire
+ *
+ * Viene chiamato sul thread che possiede il model (il JavaFX Application Thread), così che la
+ * fotografia sia coerente; il Runnable restituito non tocca più il model e può essere eseguito
+ * su un altro thread.
+ *
+ * @return La scrittura su disco della fotografia
+ */
+    Runnable preparaSalvataggio();
+}
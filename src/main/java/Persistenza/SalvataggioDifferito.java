@@ -0,0 +1,135 @@
+/**
+ * @file SalvataggioDifferito.java
+ * @brief Questo file contiene lo scheduler dei salvataggi su disco condiviso dai model delle tabelle
+ *
+ * I model segnalano di essere stati modificati con segnala(); le segnalazioni che arrivano entro
+ * la finestra configurata vengono accorpate in un unico salvataggio. Allo scadere della finestra
+ * il model viene fotografato sul thread proprietario (il JavaFX Application Thread) e la scrittura
+ * viene eseguita da un unico thread in background, che mantiene l'ordine dei salvataggi.
+ *
+ * @author Gruppo 27
+ * @date 10 Gennaio 2026
+ * @version 1.0
+ */
+package Persistenza;
+
+import javafx.application.Platform;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class SalvataggioDifferito {
+
+    public static final long FINESTRA_PREDEFINITA = 500; ///@brief Finestra di accorpamento predefinita, in millisecondi
+    private static final long ATTESA_MASSIMA = 30; ///@brief Secondi di attesa massima delle scritture in svuota()
+
+    private final long finestra;    ///@brief Finestra di accorpamento in millisecondi
+    private final Executor threadProprietario; ///@brief Esegue le fotografie sul thread che possiede i model
+    private final ScheduledExecutorService scrittore; ///@brief Unico thread che esegue le scritture su disco
+    private final Map<Salvabile, ScheduledFuture<?>> inAttesa = new ConcurrentHashMap<>(); ///@brief Model modificati e non ancora fotografati
+
+   /**
+ * @brief Costruttore dello scheduler, con le fotografie eseguite sul JavaFX Application Thread
+ *
+ * @param[in] finestra La finestra di accorpamento in millisecondi
+ */
+    public SalvataggioDifferito(long finestra) {
+        this(finestra, Platform::runLater);
+    }
+
+   /**
+ * @brief Costruttore dello scheduler
+ *
+ * @param[in] finestra La finestra di accorpamento in millisecondi
+ * @param[in] threadProprietario L'esecutore del thread che possiede i model
+ */
+    public SalvataggioDifferito(long finestra, Executor threadProprietario) {
+        this.finestra = finestra;
+        this.threadProprietario = threadProprietario;
+        this.scrittore = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "salvataggio-differito");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+   /**
+ * @brief Segnala che un model è stato modificato e va salvato
+ *
+ * Se il model ha già un salvataggio in attesa la segnalazione viene accorpata, altrimenti
+ * il salvataggio viene programmato allo scadere della finestra.
+ *
+ * @param[in] model Il model modificato
+ *
+ * @return void
+ */
+    public void segnala(Salvabile model) {
+        if (scrittore.isShutdown()) {
+            model.preparaSalvataggio().run();
+            return;
+        }
+        inAttesa.computeIfAbsent(model, m -> scrittore.schedule(
+                () -> threadProprietario.execute(() -> salvaOra(m)), finestra, TimeUnit.MILLISECONDS));
+    }
+
+   /**
+ * @brief Fotografa subito un model in attesa e ne accoda la scrittura
+ *
+ * @pre Deve essere chiamato sul thread proprietario
+ *
+ * @param[in] model Il model da salvare
+ *
+ * @return void
+ */
+    private void salvaOra(Salvabile model) {
+        ScheduledFuture<?> programmato = inAttesa.remove(model);
+        if (programmato == null) {
+            return; // già salvato da svuota()
+        }
+        programmato.cancel(false);
+        scrittore.execute(model.preparaSalvataggio());
+    }
+
+   /**
+ * @brief Salva subito tutti i model in attesa e aspetta che le scritture siano su disco
+ *
+ * @pre Deve essere chiamato sul thread proprietario
+ * @post Tutte le modifiche segnalate sono state scritte su disco
+ *
+ * @return void
+ */
+    public void svuota() {
+        for (Salvabile model : inAttesa.keySet()) {
+            salvaOra(model);
+        }
+        if (scrittore.isShutdown()) {
+            return;
+        }
+        try {
+            scrittore.submit(() -> { }).get(ATTESA_MASSIMA, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.out.println("Salvataggio non completato: " + e.getMessage());
+        }
+    }
+
+   /**
+ * @brief Salva tutti i model in attesa e termina il thread di scrittura
+ *
+ * @pre Deve essere chiamato sul thread proprietario
+ * @post Le segnalazioni successive vengono salvate in modo sincrono
+ *
+ * @return void
+ */
+    public void chiudi() {
+        svuota();
+        scrittore.shutdown();
+    }
+}
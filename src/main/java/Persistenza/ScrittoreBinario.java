@@ -0,0 +1,193 @@
+/**
+ * @file ScrittoreBinario.java
+ * @brief Questo file contiene lo scrittore del formato binario compatto usato per i file .bin
+ *
+ * Lo scrittore codifica i campi uno per uno: interi come varint (zig-zag per i valori con segno),
+ * stringhe UTF-8 precedute dalla lunghezza e date come numero di giorni dall'epoca.
+ * Usa un buffer proprio per evitare la sincronizzazione di BufferedOutputStream.
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+package Persistenza;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+public class ScrittoreBinario implements Closeable {
+
+    private final OutputStream out; ///@brief Lo stream di destinazione
+    private final byte[] buffer = new byte[1 << 16]; ///@brief Buffer di scrittura
+    private int pos;    ///@brief Prima posizione libera del buffer
+
+   /**
+ * @brief Costruttore dello scrittore
+ *
+ * @param[in] out Lo stream su cui scrivere
+ */
+    public ScrittoreBinario(OutputStream out) {
+        this.out = out;
+    }
+
+   /**
+ * @brief Scrive un singolo byte
+ *
+ * @param[in] b Il byte da scrivere
+ *
+ * @return void
+ */
+    public void scriviByte(int b) throws IOException {
+        if (pos == buffer.length) {
+            svuota();
+        }
+        buffer[pos++] = (byte) b;
+    }
+
+   /**
+ * @brief Scrive un array di byte
+ *
+ * @param[in] b I byte da scrivere
+ *
+ * @return void
+ */
+    public void scriviByte(byte[] b) throws IOException {
+        if (b.length > buffer.length - pos) {
+            svuota();
+            if (b.length > buffer.length) {
+                out.write(b);
+                return;
+            }
+        }
+        System.arraycopy(b, 0, buffer, pos, b.length);
+        pos += b.length;
+    }
+
+   /**
+ * @brief Scrive un intero senza segno come varint (7 bit per byte)
+ *
+ * @param[in] valore L'intero da scrivere, interpretato senza segno
+ *
+ * @return void
+ */
+    public void scriviVarInt(int valore) throws IOException {
+        while ((valore & ~0x7F) != 0) {
+            scriviByte((valore & 0x7F) | 0x80);
+            valore >>>= 7;
+        }
+        scriviByte(valore);
+    }
+
+   /**
+ * @brief Scrive un long senza segno come varint (7 bit per byte)
+ *
+ * @param[in] valore Il long da scrivere, interpretato senza segno
+ *
+ * @return void
+ */
+    public void scriviVarLong(long valore) throws IOException {
+        while ((valore & ~0x7FL) != 0) {
+            scriviByte((int) ((valore & 0x7F) | 0x80));
+            valore >>>= 7;
+        }
+        scriviByte((int) valore);
+    }
+
+   /**
+ * @brief Scrive un intero con segno in codifica zig-zag, così che i valori piccoli negativi restino corti
+ *
+ * @param[in] valore L'intero da scrivere
+ *
+ * @return void
+ */
+    public void scriviIntero(int valore) throws IOException {
+        scriviVarInt((valore << 1) ^ (valore >> 31));
+    }
+
+   /**
+ * @brief Scrive un long con segno in codifica zig-zag
+ *
+ * @param[in] valore Il long da scrivere
+ *
+ * @return void
+ */
+    public void scriviLungo(long valore) throws IOException {
+        scriviVarLong((valore << 1) ^ (valore >> 63));
+    }
+
+   /**
+ * @brief Scrive un double con i suoi 8 byte IEEE 754
+ *
+ * @param[in] valore Il double da scrivere
+ *
+ * @return void
+ */
+    public void scriviDecimale(double valore) throws IOException {
+        long bit = Double.doubleToLongBits(valore);
+        for (int i = 56; i >= 0; i -= 8) {
+            scriviByte((int) (bit >>> i));
+        }
+    }
+
+   /**
+ * @brief Scrive una stringa UTF-8 preceduta dalla lunghezza
+ *
+ * La lunghezza è scritta come varint aumentata di uno, lo zero indica una stringa null.
+ *
+ * @param[in] s La stringa da scrivere, eventualmente null
+ *
+ * @return void
+ */
+    public void scriviStringa(String s) throws IOException {
+        if (s == null) {
+            scriviVarInt(0);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        scriviVarInt(b.length + 1);
+        scriviByte(b);
+    }
+
+   /**
+ * @brief Scrive una data come numero di giorni dall'epoca (zig-zag), lo zero indica null
+ *
+ * @param[in] data La data da scrivere, eventualmente null
+ *
+ * @return void
+ */
+    public void scriviData(LocalDate data) throws IOException {
+        if (data == null) {
+            scriviVarLong(0);
+            return;
+        }
+        long giorno = data.toEpochDay();
+        scriviVarLong(((giorno << 1) ^ (giorno >> 63)) + 1);
+    }
+
+   /**
+ * @brief Scrive sullo stream sottostante il contenuto del buffer
+ *
+ * @return void
+ */
+    public void svuota() throws IOException {
+        out.write(buffer, 0, pos);
+        pos = 0;
+    }
+
+   /**
+ * @brief Svuota il buffer e chiude lo stream sottostante
+ *
+ * @return void
+ */
+    @Override
+    public void close() throws IOException {
+        try {
+            svuota();
+        } finally {
+            out.close();
+        }
+    }
+}
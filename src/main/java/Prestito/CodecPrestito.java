@@ -0,0 +1,93 @@
+/**
+ * @file CodecPrestito.java
+ * @brief Questo file contiene il codec binario compatto della classe Prestito
+ *
+ * Dalla versione 2 un prestito viene scritto per riferimento: la matricola dell'utente, l'ISBN
+ * del libro e la data di scadenza come giorni dall'epoca. In lettura i riferimenti vengono
+ * risolti sugli oggetti vivi dei model di utenti e libri; un riferimento che non corrisponde a
+ * nessun oggetto diventa un segnaposto con la sola chiave.
+ * La versione 1 conteneva le copie complete di utente e libro, che vengono ancora lette.
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+package Prestito;
+
+import Libro.CodecLibro;
+import Libro.Libro;
+import Utente.CodecUtente;
+import Utente.Utente;
+import Persistenza.Codec;
+import Persistenza.LettoreBinario;
+import Persistenza.ScrittoreBinario;
+import java.io.IOException;
+import java.util.function.Function;
+
+public class CodecPrestito implements Codec<Prestito> {
+
+    public static final int VERSIONE = 2; ///@brief Versione corrente del formato dei record Prestito
+
+    private final CodecUtente codecUtente = new CodecUtente(); ///@brief Codec delle copie di utente della versione 1
+    private final CodecLibro codecLibro = new CodecLibro(); ///@brief Codec delle copie di libro della versione 1
+    private final Function<String, Utente> risolviUtente; ///@brief Restituisce l'utente vivo con la matricola data, o null
+    private final Function<String, Libro> risolviLibro; ///@brief Restituisce il libro vivo con l'ISBN dato, o null
+
+   /**
+ * @brief Costruttore del codec senza model collegati: ogni riferimento diventa un segnaposto
+ */
+    public CodecPrestito() {
+        this(matricola -> null, isbn -> null);
+    }
+
+   /**
+ * @brief Costruttore del codec
+ *
+ * @param[in] risolviUtente Funzione matricola -> utente vivo (null se assente)
+ * @param[in] risolviLibro Funzione ISBN -> libro vivo (null se assente)
+ */
+    public CodecPrestito(Function<String, Utente> risolviUtente, Function<String, Libro> risolviLibro) {
+        this.risolviUtente = risolviUtente;
+        this.risolviLibro = risolviLibro;
+    }
+
+    @Override
+    public byte identificativo() {
+        return 'P';
+    }
+
+    @Override
+    public int versione() {
+        return VERSIONE;
+    }
+
+    @Override
+    public Class<Prestito> tipo() {
+        return Prestito.class;
+    }
+
+    @Override
+    public void scrivi(ScrittoreBinario out, Prestito p) throws IOException {
+        out.scriviStringa(p.getUtente().getMatricola());
+        out.scriviStringa(p.getLibro().getIsbn());
+        out.scriviData(p.getDataDiScadenza());
+    }
+
+    @Override
+    public Prestito leggi(LettoreBinario in, int versione) throws IOException {
+        if (versione < 2) {
+            return new Prestito(codecUtente.leggi(in, 1), codecLibro.leggi(in, 1), in.leggiData()); // copie scritte con la versione 1 dei codec
+        }
+        String matricola = in.leggiStringa();
+        String isbn = in.leggiStringa();
+        Utente utente = risolviUtente.apply(matricola);
+        if (utente == null) {
+            utente = new Utente("", "", matricola, "", null);
+        }
+        Libro libro = risolviLibro.apply(isbn);
+        if (libro == null) {
+            libro = new Libro("", "", isbn, 0, 0, "", 0);
+        }
+        return new Prestito(utente, libro, in.leggiData());
+    }
+}
@@ -5,12 +5,19 @@
  * Questa classe permette di istanziare un oggetto Prestito, i metodi setter e getter permettono di
  * ottenere e modificare informazioni relative agli attributi, inoltre il metodo toString permette di stampare 
  * le informazioni relative alla classe Prestito
+ * La data di scadenza è conservata come giorni dall'epoca (un int), così che i confronti tra
+ * scadenze non debbano creare né confrontare oggetti LocalDate; nella forma serializzata resta
+ * un LocalDate, come nei file .bin meno recenti (vedi serialPersistentFields).
  *
  * @author Gruppo 27
  * @date 8 Dicembre 2025
  * @version 1.0
  */
 package Prestito;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import Libro.Libro;
 import Utente.Utente;
@@ -18,9 +25,18 @@ import java.time.LocalDate;
 
 public class Prestito implements Serializable{
 
+    private static final long serialVersionUID = 7659651419293735362L; ///@brief Identificativo di serializzazione, fissato per poter leggere i file .bin nel vecchio formato
+
     private Utente utente;  /// @brief Attributo di tipo Utente, gestisce l'utente interessato al prestito
     private Libro libro;        /// @brief Attributo di tipo Libro, gestisce il libro interessato al prestito
-    private LocalDate dataDiScadenza;   ///@brief Data di scadenza del prestito
+    private int scadenza;   ///@brief Data di scadenza del prestito, in giorni dall'epoca (Utente.NESSUNA_DATA se assente)
+
+    ///@brief Campi della forma serializzata, uguali a quelli delle versioni precedenti (scadenza come LocalDate)
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("utente", Utente.class),
+        new ObjectStreamField("libro", Libro.class),
+        new ObjectStreamField("dataDiScadenza", LocalDate.class)
+    };
 
  /**
  * @brief Costruttore per creare un nuovo oggetto Prestito
@@ -36,7 +52,27 @@ public class Prestito implements Serializable{
     public Prestito(Utente utente, Libro libro, LocalDate dataDiScadenza) {
         this.utente = utente;
         this.libro = libro;
-        this.dataDiScadenza = dataDiScadenza;
+        this.scadenza = giorno(dataDiScadenza);
+    }
+
+ /**
+ * @brief Metodo che permette di ottenere l'utente del prestito
+ * 
+ * @return utente L'utente a cui è stato fatto il prestito
+ */
+    
+    public Utente getUtente() {
+        return utente;
+    }
+
+ /**
+ * @brief Metodo che permette di ottenere il libro del prestito
+ * 
+ * @return libro Il libro preso in prestito
+ */
+    
+    public Libro getLibro() {
+        return libro;
     }
 
  /**
@@ -133,7 +169,17 @@ public class Prestito implements Serializable{
     
     
     public LocalDate getDataDiScadenza() {
-        return dataDiScadenza;
+        return scadenza == Utente.NESSUNA_DATA ? null : LocalDate.ofEpochDay(scadenza);
+    }
+
+ /**
+ * @brief Metodo che permette di ottenere la data di scadenza senza creare un LocalDate
+ * 
+ * @return La data di scadenza in giorni dall'epoca, da confrontare con LocalDate.toEpochDay()
+ */
+    
+    public int getGiornoScadenza() {
+        return scadenza;
     }
 
 /**
@@ -145,7 +191,7 @@ public class Prestito implements Serializable{
  */
     
     public void setDataDiScadenza(LocalDate dataDiScadenza) {
-        this.dataDiScadenza = dataDiScadenza;
+        this.scadenza = giorno(dataDiScadenza);
     }
 
     /**
@@ -162,7 +208,7 @@ public class Prestito implements Serializable{
         return "Prestito{" +
                 "utente=" + utente +
                 ", libro=" + libro +
-                ", dataDiScadenza=" + dataDiScadenza +
+                ", dataDiScadenza=" + getDataDiScadenza() +
                 '}';
     }
     
@@ -187,4 +233,44 @@ public class Prestito implements Serializable{
         if(!(obj.getClass() == this.getClass()))
             return false;
         return this.getNome().equals(((Prestito)obj).getNome()) && this.getIsbn().equals(((Prestito)obj).getIsbn());    }
+
+ /**
+ * @brief Converte una data in giorni dall'epoca
+ *
+ * @param[in] data La data, eventualmente null
+ * 
+ * @return I giorni dall'epoca, Utente.NESSUNA_DATA se la data è null
+ */
+    private static int giorno(LocalDate data) {
+        return data == null ? Utente.NESSUNA_DATA : Math.toIntExact(data.toEpochDay());
+    }
+
+ /**
+ * @brief Scrive il prestito nella forma serializzata, con la scadenza come LocalDate
+ *
+ * @param[in] out Lo stream di serializzazione
+ * 
+ * @return void
+ */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField campi = out.putFields();
+        campi.put("utente", utente);
+        campi.put("libro", libro);
+        campi.put("dataDiScadenza", getDataDiScadenza());
+        out.writeFields();
+    }
+
+ /**
+ * @brief Legge un prestito serializzato, convertendo la scadenza in giorni dall'epoca
+ *
+ * @param[in] in Lo stream di deserializzazione
+ * 
+ * @return void
+ */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campi = in.readFields();
+        utente = (Utente) campi.get("utente", null);
+        libro = (Libro) campi.get("libro", null);
+        scadenza = giorno((LocalDate) campi.get("dataDiScadenza", null));
+    }
 }
@@ -0,0 +1,267 @@
+/**
+ * @file ScadenzarioPrestiti.java
+ * @brief Questo file contiene lo scadenzario che segnala i prestiti appena scaduti
+ *
+ * I prestiti attivi sono tenuti in una coda con priorità (min-heap) ordinata per data di scadenza.
+ * A ogni scatto (all'avvio e poi ogni giorno a mezzanotte) vengono estratti dalla cima dell'heap
+ * solo i prestiti scaduti dall'ultimo scatto e aggiunti alla lista dei prestiti scaduti mostrata
+ * nella schermata principale: il costo di uno scatto è O(k log n) con k prestiti appena scaduti,
+ * senza scorrere tutti i prestiti. Rimozioni e modifiche della scadenza non cercano la voce
+ * nell'heap: la voce vecchia viene invalidata e scartata quando arriva in cima.
+ * Gli scatti vengono eseguiti sul thread proprietario (il JavaFX Application Thread), lo stesso
+ * che modifica i prestiti, quindi le strutture non hanno bisogno di sincronizzazione.
+ *
+ * @author Gruppo 27
+ * @date 20 Gennaio 2026
+ * @version 1.0
+ */
+package Prestito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+public class ScadenzarioPrestiti {
+
+   /**
+ * @brief Voce dell'heap: un prestito con la scadenza con cui è stato programmato
+ */
+    private static final class Voce {
+        private final Prestito prestito;    ///@brief Il prestito programmato
+        private final long giorno;  ///@brief La scadenza in giorni dall'epoca
+
+        Voce(Prestito prestito, long giorno) {
+            this.prestito = prestito;
+            this.giorno = giorno;
+        }
+    }
+
+    private final PriorityQueue<Voce> heap = new PriorityQueue<>(Comparator.comparingLong((Voce v) -> v.giorno)); ///@brief Prestiti non ancora scaduti, dalla scadenza più vicina
+    private final Map<Prestito, Voce> programmati = new IdentityHashMap<>(); ///@brief Voce valida di ogni prestito nell'heap
+    private final ObservableList<Prestito> scaduti = FXCollections.observableArrayList(); ///@brief Prestiti scaduti, nell'ordine in cui sono scaduti
+    private final ReadOnlyIntegerWrapper numeroScaduti = new ReadOnlyIntegerWrapper(0); ///@brief Contatore dei prestiti scaduti
+    private long oggi = Long.MIN_VALUE; ///@brief Giorno dell'ultimo scatto, in giorni dall'epoca
+    private final Executor threadProprietario; ///@brief Esegue gli scatti sul thread che possiede i prestiti
+    private ScheduledExecutorService orologio; ///@brief Thread che programma gli scatti giornalieri, null se non avviato
+
+   /**
+ * @brief Costruttore dello scadenzario, con gli scatti eseguiti sul JavaFX Application Thread
+ */
+    public ScadenzarioPrestiti() {
+        this(Platform::runLater);
+    }
+
+   /**
+ * @brief Costruttore dello scadenzario
+ *
+ * @param[in] threadProprietario L'esecutore del thread che possiede i prestiti
+ */
+    public ScadenzarioPrestiti(Executor threadProprietario) {
+        this.threadProprietario = threadProprietario;
+    }
+
+   /**
+ * @brief Lista dei prestiti scaduti, da mostrare nella schermata principale
+ *
+ * @return La lista, non modificabile
+ */
+    public ObservableList<Prestito> getScaduti() {
+        return FXCollections.unmodifiableObservableList(scaduti);
+    }
+
+   /**
+ * @brief Contatore dei prestiti scaduti
+ *
+ * @return La proprietà in sola lettura con il numero di prestiti scaduti
+ */
+    public ReadOnlyIntegerProperty numeroScadutiProperty() {
+        return numeroScaduti.getReadOnlyProperty();
+    }
+
+   /**
+ * @brief Aggiunge un prestito attivo; se è già scaduto va subito tra gli scaduti
+ *
+ * @param[in] p Il prestito da seguire
+ *
+ * @return void
+ */
+    public void aggiungi(Prestito p) {
+        rimuovi(p);
+        long giorno = p.getGiornoScadenza();
+        if (giorno < oggi) {
+            segnalaScaduto(p);
+        } else {
+            Voce v = new Voce(p, giorno);
+            programmati.put(p, v);
+            heap.add(v);
+        }
+    }
+
+   /**
+ * @brief Smette di seguire un prestito (restituito o eliminato)
+ *
+ * La voce nell'heap resta e viene scartata quando arriva in cima.
+ *
+ * @param[in] p Il prestito da rimuovere
+ *
+ * @return void
+ */
+    public void rimuovi(Prestito p) {
+        if (programmati.remove(p) == null) {
+            int i = indiceScaduto(p);
+            if (i >= 0) {
+                scaduti.remove(i);
+                numeroScaduti.set(scaduti.size());
+            }
+        }
+    }
+
+   /**
+ * @brief Riprogramma un prestito dopo la modifica della scadenza
+ *
+ * @param[in] p Il prestito modificato; se non è seguito dallo scadenzario non succede nulla
+ *
+ * @return void
+ */
+    public void aggiorna(Prestito p) {
+        if (programmati.containsKey(p) || indiceScaduto(p) >= 0) {
+            aggiungi(p);
+        }
+    }
+
+   /**
+ * @brief Ricomincia da zero con i prestiti indicati
+ *
+ * @param[in] prestiti I prestiti attivi
+ *
+ * @return void
+ */
+    public void ricostruisci(Collection<? extends Prestito> prestiti) {
+        heap.clear();
+        programmati.clear();
+        scaduti.clear();
+        numeroScaduti.set(0);
+        for (Prestito p : prestiti) {
+            aggiungi(p);
+        }
+    }
+
+   /**
+ * @brief Esegue uno scatto: sposta tra gli scaduti i prestiti con scadenza precedente a oggi
+ *
+ * Estrae solo le voci in cima all'heap con scadenza passata, quindi non scorre i prestiti
+ * che non sono ancora scaduti.
+ *
+ * @pre Deve essere chiamato sul thread proprietario
+ *
+ * @param[in] data La data di oggi
+ *
+ * @return Il numero di prestiti scaduti da questo scatto
+ */
+    public int avanza(LocalDate data) {
+        oggi = Math.max(oggi, data.toEpochDay());
+        int nuovi = 0;
+        while (!heap.isEmpty() && heap.peek().giorno < oggi) {
+            Voce v = heap.poll();
+            if (programmati.get(v.prestito) != v) {
+                continue; // voce di un prestito rimosso o riprogrammato
+            }
+            programmati.remove(v.prestito);
+            segnalaScaduto(v.prestito);
+            nuovi++;
+        }
+        return nuovi;
+    }
+
+   /**
+ * @brief Avvia gli scatti: uno subito e poi uno ogni giorno dopo la mezzanotte
+ *
+ * @return void
+ */
+    public void avvia() {
+        if (orologio != null) {
+            return;
+        }
+        orologio = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "scadenzario-prestiti");
+            t.setDaemon(true);
+            return t;
+        });
+        threadProprietario.execute(() -> avanza(LocalDate.now()));
+        programmaProssimo();
+    }
+
+   /**
+ * @brief Ferma gli scatti giornalieri
+ *
+ * @return void
+ */
+    public void chiudi() {
+        if (orologio != null) {
+            orologio.shutdownNow();
+            orologio = null;
+        }
+    }
+
+   /**
+ * @brief Programma lo scatto alla prossima mezzanotte
+ *
+ * Il ritardo è ricalcolato a ogni scatto, così che i giorni di 23 o 25 ore non spostino l'orario.
+ *
+ * @return void
+ */
+    private void programmaProssimo() {
+        ScheduledExecutorService o = orologio;
+        if (o == null || o.isShutdown()) {
+            return;
+        }
+        LocalDateTime adesso = LocalDateTime.now();
+        long ritardo = Duration.between(adesso, adesso.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+        o.schedule(() -> {
+            threadProprietario.execute(() -> avanza(LocalDate.now()));
+            programmaProssimo();
+        }, ritardo + 1000, TimeUnit.MILLISECONDS);
+    }
+
+   /**
+ * @brief Cerca un prestito tra gli scaduti, per identità
+ *
+ * @param[in] p Il prestito cercato
+ *
+ * @return La posizione nella lista degli scaduti, -1 se non c'è
+ */
+    private int indiceScaduto(Prestito p) {
+        for (int i = scaduti.size() - 1; i >= 0; i--) {
+            if (scaduti.get(i) == p) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+   /**
+ * @brief Aggiunge un prestito alla lista degli scaduti e aggiorna il contatore
+ *
+ * @param[in] p Il prestito scaduto
+ *
+ * @return void
+ */
+    private void segnalaScaduto(Prestito p) {
+        scaduti.add(p);
+        numeroScaduti.set(scaduti.size());
+    }
+}
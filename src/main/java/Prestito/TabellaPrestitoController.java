@@ -12,8 +12,14 @@
 
 package Prestito;
 
+import Libro.CampoLibro;
 import Libro.Libro;
 import Libro.TabellaLibroModel;
+import Ricerca.CompletamentoCampo;
+import Ricerca.Interrogazione;
+import Ricerca.OrdinamentoTabella;
+import Ricerca.RicercaDifferita;
+import Utente.CampoUtente;
 import Utente.TabellaUtenteModel;
 import Utente.Utente;
 import javafx.fxml.FXML;
@@ -24,8 +30,18 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.Scene;
@@ -97,6 +113,13 @@ public class TabellaPrestitoController {
 
     private TabellaPrestitoModel tabellaPrestitoModel; ///@brief Model associato al controller, gestisce la logica dei dati dei prestiti
     private Scene scenaPrincipale;
+
+
+    private RicercaDifferita<Prestito> ricercaDifferita; ///@brief Ricerca eseguita in background mentre si digita
+    private String testoRicerca; ///@brief Testo della ricerca mostrata, null se non c'è una ricerca
+    private String modoRicerca; ///@brief Criterio della ricerca mostrata
+    private String[] ricercaPreparata; ///@brief Testo e criterio dell'ultima ricerca preparata, non ancora mostrata
+    private boolean aggiornamentoProgrammato; ///@brief True se la ricerca va già ripetuta al prossimo giro del thread JavaFX
     private Stage principale;
     private TabellaLibroModel tabellaLibroModel;
     private TabellaUtenteModel tabellaUtenteModel;
@@ -133,8 +156,9 @@ public class TabellaPrestitoController {
             Prestito P = event.getRowValue();
             String nuovoNome = event.getNewValue();
             if (nuovoNome != null && !nuovoNome.trim().isEmpty()) {
-                P.setNome(nuovoNome.trim());
-                            tabellaPrestitoModel.salvaSuBinario();
+                tabellaUtenteModel.modificaUtente(P.getUtente(), CampoUtente.NOME, nuovoNome.trim());
+                tabellaPrestitoModel.aggiornaIndici(P);
+                tabellaUtenteModel.richiediSalvataggio();
             } else {
                 mostraErrore("Nome non valido", "Il Nome non può essere vuoto.");
                 tabella.refresh();
@@ -146,8 +170,9 @@ public class TabellaPrestitoController {
             Prestito P = event.getRowValue();
             String nuovoCognome = event.getNewValue();
             if (nuovoCognome != null && !nuovoCognome.trim().isEmpty()) {
-                P.setCognome(nuovoCognome.trim());
-                tabellaPrestitoModel.salvaSuBinario();
+                tabellaUtenteModel.modificaUtente(P.getUtente(), CampoUtente.COGNOME, nuovoCognome.trim());
+                tabellaPrestitoModel.aggiornaIndici(P);
+                tabellaUtenteModel.richiediSalvataggio();
             } else {
                 mostraErrore("Cognome non valido", "Il Cognome non può essere vuoto.");
                 tabella.refresh();
@@ -159,8 +184,9 @@ public class TabellaPrestitoController {
             Prestito P = event.getRowValue();
             String nuovoTitolo = event.getNewValue();
             if (nuovoTitolo != null && !nuovoTitolo.trim().isEmpty()) {
-                P.setTitolo(nuovoTitolo.trim());
-                    tabellaPrestitoModel.salvaSuBinario();
+                tabellaLibroModel.modificaLibro(P.getLibro(), CampoLibro.TITOLO, nuovoTitolo.trim());
+                tabellaPrestitoModel.aggiornaIndici(P);
+                tabellaLibroModel.richiediSalvataggio();
             } else {
                 mostraErrore("Titolo non valido", "Il titolo non può essere vuoto.");
                 tabella.refresh();
@@ -173,8 +199,12 @@ public class TabellaPrestitoController {
             Prestito P = event.getRowValue();
             String nuovoIsbn = event.getNewValue();
             if (nuovoIsbn != null && !nuovoIsbn.trim().isEmpty()) {
-                P.setIsbn(nuovoIsbn.trim());
-                tabellaPrestitoModel.salvaSuBinario();
+                if (tabellaLibroModel.modificaLibro(P.getLibro(), CampoLibro.ISBN, nuovoIsbn.trim())) {
+                    tabellaLibroModel.richiediSalvataggio(); // il model dei prestiti si reindicizza e si salva da solo quando cambia l'ISBN
+                } else {
+                    mostraErrore("Isbn non valido", "Esiste già un libro con questo isbn.");
+                    tabella.refresh();
+                }
             } else {
                 mostraErrore("Isbn non valido", "L'Isbn non può essere vuoto.");
                 tabella.refresh();
@@ -185,11 +215,10 @@ public class TabellaPrestitoController {
         scadenzaCol.setOnEditCommit(event -> {
         Prestito P = event.getRowValue();
         LocalDate nuovaScadenza = event.getNewValue();
-        if (nuovaScadenza != null) {
-         P.setDataDiScadenza(nuovaScadenza);
-        tabellaPrestitoModel.salvaSuBinario();
+        if (tabellaPrestitoModel.modificaScadenza(P, nuovaScadenza)) {
+        tabellaPrestitoModel.richiediSalvataggio();
+        programmaAggiornamento();
         } else {
-        P.setDataDiScadenza(event.getOldValue());
         tabella.refresh();
         mostraErrore("Data non valida", "La data deve essere nel formato YYYY-MM-DD e non può essere vuota.");
     }
@@ -214,8 +243,28 @@ public class TabellaPrestitoController {
         this.scenaPrincipale=scenaPrincipale;
         tabellaLibroModel = libModel;
         tabellaUtenteModel = utModel;
-        tabella.setItems(model.getPrestiti());
-
+        tabella.setItems(model.getVista());
+        OrdinamentoTabella.collega(tabella, model.getVista(), Map.of(
+                nomeCol, model.chiaviOrdinamento("nome"),
+                cognomeCol, model.chiaviOrdinamento("cognome"),
+                titoloCol, model.chiaviOrdinamento("titolo")),
+                Map.of(scadenzaCol, Comparator.comparingInt(Prestito::getGiornoScadenza)));
+        if (cercaField != null) {
+            new CompletamentoCampo(cercaField, prefisso -> searchType.getText().equals("N")
+                    ? model.suggerisciNomi(prefisso, CompletamentoCampo.NUMERO_SUGGERIMENTI)
+                    : model.suggerisciTitoli(prefisso, CompletamentoCampo.NUMERO_SUGGERIMENTI),
+                    scelto -> onCerca());
+            ricercaDifferita = new RicercaDifferita<>(cercaField, RicercaDifferita.RITARDO_PREDEFINITO,
+                    this::preparaRicerca, this::mostraRisultati, this::mostraTutti);
+        }
+        // la ricerca mostrata viene ripetuta dopo aggiunte e rimozioni di prestiti e modifiche a utenti e libri
+        model.getPrestiti().addListener((ListChangeListener<Prestito>) c -> programmaAggiornamento());
+        if (utModel != null) {
+            utModel.aggiungiOsservatore((u, campo) -> programmaAggiornamento());
+        }
+        if (libModel != null) {
+            libModel.aggiungiOsservatore((l, campo) -> programmaAggiornamento());
+        }
     }
 
     /**
@@ -271,7 +320,7 @@ public class TabellaPrestitoController {
         // controllo finale e rimozione
         if (risultato.isPresent() && risultato.get() == ButtonType.OK) {
             tabellaPrestitoModel.rimuoviPrestito(prestitoSelezionato);
-            tabellaPrestitoModel.salvaSuBinario();
+            tabellaPrestitoModel.richiediSalvataggio();
             
         }
     }
@@ -364,8 +413,8 @@ public class TabellaPrestitoController {
         String tit = titolo.getText().trim();
         String  strIsbn = isbn.getText().trim();
         String  scad = scadenza.getText().trim();
-        Utente ut = new Utente(n, c, "", "", LocalDate.parse("2000-10-10"));
-        Libro lib = new Libro(tit,"",strIsbn,0,0,"",0);
+        Utente ut;
+        Libro lib;
         if (n.isEmpty() || c.isEmpty() || tit.isEmpty() || strIsbn.isEmpty() || scad.isEmpty() ) {
             mostraErrore("Dati mancanti", "Inserire tutti i dati richiesti.");
             return;
@@ -375,18 +424,18 @@ public class TabellaPrestitoController {
                 mostraErrore("Errore scadenza", "Inserire una scadenza valida");
                 return;
             }
-        if(!tabellaUtenteModel.getPersone().contains(ut))
+        ut = trovaUtente(n, c); // il prestito fa riferimento all'utente vivo
+        if(ut == null)
         {
-            mostraErrore("Errore utente", "Utente non presente nell'elenco degli utenti");
             return;
-        } 
-        /* DA MODIFICARE
-        else 
+        }
+        if(tabellaPrestitoModel.limiteRaggiunto(ut)) // conteggio dall'indice delle matricole
         {
-            ut.setLibriInPrestito(ut.getLibriInPrestito() + 1);
+            mostraErrore("Limite prestiti", "L'utente ha già " + TabellaPrestitoModel.MASSIMO_PRESTITI + " libri in prestito");
+            return;
         }
-         */
-        if(!tabellaLibroModel.getLibri().contains(lib))
+        lib = tabellaLibroModel.findByIsbn(strIsbn); // il prestito fa riferimento al libro vivo
+        if(lib == null)
         {
             mostraErrore("Errore libro", "Libro non presente nell'elenco dei libri");
             return;
@@ -394,7 +443,7 @@ public class TabellaPrestitoController {
         
         try {   
             tabellaPrestitoModel.aggiungiPrestito(ut, lib, LocalDate.parse(scad));
-            tabellaPrestitoModel.salvaSuBinario();
+            tabellaPrestitoModel.richiediSalvataggio();
             nome.clear();
             cognome.clear();
             titolo.clear();
@@ -438,41 +487,203 @@ public class TabellaPrestitoController {
      */
 @FXML
     private void onCerca() {
-        ObservableList<Prestito> ricercaPrestiti = FXCollections.observableArrayList();
         String contenuto = cercaField.getText().trim();
         if(contenuto.isEmpty())
                 {
                     mostraErrore("Attenzione!", "Inserire dei parametri di ricerca");
                     return;
                 }
-        if(searchType.getText().equals("N"))
+        if (ricercaDifferita != null) {
+            ricercaDifferita.annulla();
+        }
+        List<Prestito> trovati;
+        try {
+            trovati = preparaRicerca(contenuto).call();
+        } catch (IllegalArgumentException e) {
+            mostraErrore("Attenzione!", e.getMessage());
+            return;
+        } catch (Exception e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        if(!trovati.isEmpty())
         {
-            for(Prestito P : tabellaPrestitoModel.getPrestiti())
-            {
-                if(P.getNome().equals(contenuto))
-                {
-                    ricercaPrestiti.add(P);
-                }
-            }
+            mostraRisultati(trovati);
         }
-        if(searchType.getText().equals("T"))
+        else
         {
-            for(Prestito P : tabellaPrestitoModel.getPrestiti())
+            mostraErrore("Attenzione!", "Nessun libro trovato");
+        }
+    }
+
+    /**
+     * @brief Prepara la ricerca secondo il criterio selezionato in 'searchType'
+     *
+     * Va chiamato sul thread JavaFX: il criterio viene letto subito e l'elenco dei prestiti
+     * copiato, così che la ricerca restituita possa essere eseguita su un altro thread.
+     * Le ricerche ripetute sono servite dalla cache dei risultati del model.
+     * Un'interrogazione composta (es. "titolo:rosa scadenza:<0") ignora il criterio selezionato.
+     *
+     * @param[in] contenuto Il testo da cercare
+     *
+     * @return La ricerca da eseguire
+     *
+     * @throws IllegalArgumentException se un valore dell'interrogazione composta non è valido
+     */
+    private Callable<List<Prestito>> preparaRicerca(String contenuto) {
+        String modo = searchType.getText();
+        Callable<List<Prestito>> ricerca = preparaRicerca(contenuto, modo);
+        ricercaPreparata = new String[] {contenuto, modo};
+        return ricerca;
+    }
+
+    /**
+     * @brief Prepara la ricerca secondo il criterio indicato
+     *
+     * @param[in] contenuto Il testo da cercare
+     * @param[in] modo Il criterio ("N" per nome, altrimenti titolo), ignorato dalle interrogazioni composte
+     *
+     * @return La ricerca da eseguire
+     *
+     * @throws IllegalArgumentException se un valore dell'interrogazione composta non è valido
+     */
+    private Callable<List<Prestito>> preparaRicerca(String contenuto, String modo) {
+        Interrogazione q = interrogazione(contenuto);
+        if (q != null) {
+            return tabellaPrestitoModel.preparaInterrogazione(q)::get;
+        }
+        boolean perNome = modo.equals("N");
+        List<Prestito> prestiti = new ArrayList<>(tabellaPrestitoModel.getPrestiti());
+        return tabellaPrestitoModel.inCache(modo + "|" + contenuto, () -> {
+            List<Prestito> trovati = new ArrayList<>();
+            for(Prestito P : prestiti)
             {
-                if(P.getTitolo().equals(contenuto))
+                if((perNome ? P.getNome() : P.getTitolo()).equals(contenuto))
                 {
-                    ricercaPrestiti.add(P);
+                    trovati.add(P);
                 }
             }
+            return trovati;
+        }, perNome ? "nome" : "titolo")::get;
+    }
+
+    /**
+     * @brief Trova l'utente del prestito con l'indice dei cognomi del model degli utenti
+     *
+     * Nel campo nome si può scrivere anche la matricola, per distinguere due omonimi
+     *
+     * @param[in] n Il nome (o la matricola) scritto nel modulo
+     * @param[in] c Il cognome scritto nel modulo
+     *
+     * @return L'utente, oppure null (dopo aver mostrato l'errore) se non c'è o non è univoco
+     */
+    private Utente trovaUtente(String n, String c) {
+        List<Utente> trovati = new ArrayList<>();
+        for (Utente u : tabellaUtenteModel.findByCognome(c)) {
+            if (u.getNome().trim().equalsIgnoreCase(n)
+                    || TabellaUtenteModel.normalizzaMatricola(u.getMatricola()).equals(TabellaUtenteModel.normalizzaMatricola(n))) {
+                trovati.add(u);
+            }
         }
-        if(!ricercaPrestiti.isEmpty())
-        {
-            tabella.setItems(ricercaPrestiti);
+        if (trovati.isEmpty()) {
+            mostraErrore("Errore utente", "Utente non presente nell'elenco degli utenti");
+            return null;
         }
-        else
-        {
-            mostraErrore("Attenzione!", "Nessun libro trovato");
+        if (trovati.size() > 1) {
+            mostraErrore("Errore utente", "Più utenti hanno questo nome e cognome: inserire la matricola al posto del nome");
+            return null;
+        }
+        return trovati.get(0);
+    }
+
+    /**
+     * @brief Riconosce un'interrogazione composta
+     *
+     * @param[in] contenuto Il testo da cercare
+     *
+     * @return L'interrogazione analizzata, oppure null se il testo va cercato con il criterio selezionato
+     */
+    private Interrogazione interrogazione(String contenuto) {
+        if (contenuto.indexOf(':') < 0) {
+            return null;
+        }
+        try {
+            Interrogazione q = Interrogazione.analizza(contenuto);
+            return tabellaPrestitoModel.usaCampi(q) ? q : null;
+        } catch (IllegalArgumentException e) {
+            return null; // non è un'interrogazione ben formata: resta una ricerca semplice
+        }
+    }
+
+    /**
+     * @brief Mostra nella tabella i prestiti trovati, cambiando solo il filtro della vista
+     *
+     * @param[in] trovati I prestiti da mostrare
+     *
+     * @return void
+     */
+    private void mostraRisultati(List<Prestito> trovati) {
+        if (ricercaPreparata != null) {
+            testoRicerca = ricercaPreparata[0];
+            modoRicerca = ricercaPreparata[1];
         }
+        applicaRisultati(trovati);
+    }
+
+    /**
+     * @brief Imposta come filtro della vista l'insieme dei prestiti trovati
+     *
+     * @param[in] trovati I prestiti da mostrare
+     *
+     * @return void
+     */
+    private void applicaRisultati(List<Prestito> trovati) {
+        Set<Prestito> insieme = Collections.newSetFromMap(new IdentityHashMap<>());
+        insieme.addAll(trovati);
+        tabellaPrestitoModel.filtra(insieme::contains);
+        if (tabella.getItems() != tabellaPrestitoModel.getVista()) {
+            tabella.setItems(tabellaPrestitoModel.getVista());
+        }
+    }
+
+    /**
+     * @brief Rimuove il filtro della ricerca e mostra nella tabella tutti i prestiti
+     *
+     * @return void
+     */
+    private void mostraTutti() {
+        testoRicerca = null;
+        tabellaPrestitoModel.filtra(null);
+        if (tabella.getItems() != tabellaPrestitoModel.getVista()) {
+            tabella.setItems(tabellaPrestitoModel.getVista());
+        }
+    }
+
+    /**
+     * @brief Programma la ripetizione della ricerca mostrata dopo una modifica ai prestiti, agli utenti o ai libri
+     *
+     * Il filtro della ricerca è l'insieme dei prestiti trovati: un prestito aggiunto che corrisponde
+     * alla ricerca, o modificato in modo da non corrispondere più, richiede di ripetere la ricerca.
+     * Le modifiche arrivate nello stesso giro del thread JavaFX vengono accorpate.
+     *
+     * @return void
+     */
+    private void programmaAggiornamento() {
+        if (aggiornamentoProgrammato || testoRicerca == null) {
+            return;
+        }
+        aggiornamentoProgrammato = true;
+        Platform.runLater(() -> {
+            aggiornamentoProgrammato = false;
+            if (testoRicerca == null) {
+                return;
+            }
+            try {
+                applicaRisultati(preparaRicerca(testoRicerca, modoRicerca).call());
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
+            }
+        });
     }
     
     
@@ -489,6 +700,6 @@ public class TabellaPrestitoController {
     @FXML
     private void onCancellaCerca() {
         cercaField.clear();
-        tabella.setItems(tabellaPrestitoModel.getPrestiti());
+        mostraTutti();
     }
 }
@@ -8,7 +8,16 @@
  * @file TabellaPrestitoModel.java
  * @brief Questo file contiene il model della tabella che gestisce i prestiti della libreria
  *
- * Il model permette di aggiungere e rimuovere prestiti
+ * Il model permette di aggiungere e rimuovere prestiti. I prestiti vengono salvati per riferimento
+ * (matricola e ISBN) e, al caricamento, collegati agli utenti e ai libri dei rispettivi model.
+ * I prestiti si possono cercare anche con interrogazioni composte (vedi Interrogazione).
+ * Il model tiene tre indici sui prestiti: per matricola dell'utente, per ISBN del libro e per
+ * data di scadenza, così che "quali prestiti ha questo studente", "chi ha questo libro" e
+ * "quali prestiti sono scaduti" non richiedano di scorrere tutti i prestiti.
+ * I risultati delle ricerche sono conservati in una CacheRisultati, invalidata anche dalle
+ * modifiche agli utenti e ai libri a cui i prestiti fanno riferimento.
+ * Nome, cognome e titolo hanno le loro ChiaviCollazione per l'ordinamento della tabella; poiché
+ * questi testi appartengono a utenti e libri, le chiavi si accorgono da sole dei testi cambiati.
  *
  * @author Gruppo 27
  * @date 8 dicembre 2025
@@ -17,29 +26,84 @@
 package Prestito;
 
 import Libro.Libro;
+import Libro.TabellaLibroModel;
 import Prestito.Prestito;
+import Libro.CampoLibro;
+import Persistenza.ArchivioBinario;
+import Persistenza.Salvabile;
+import Persistenza.SalvataggioDifferito;
+import Ricerca.CacheRisultati;
+import Ricerca.ChiaviCollazione;
+import Ricerca.IndiceGiorni;
+import Ricerca.IndiceMultiplo;
+import Ricerca.Interrogazione;
+import Ricerca.Intervallo;
+import Ricerca.MotoreInterrogazioni;
+import Ricerca.Pagina;
+import Ricerca.Suggeritore;
+import Ricerca.VistaOrdinata;
+import Utente.CampoUtente;
+import Utente.TabellaUtenteModel;
 import Utente.Utente;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 
-public class TabellaPrestitoModel {
+public class TabellaPrestitoModel implements Salvabile {
         private ObservableList<Prestito> prestiti; /// @brief Questa ObservableList è una lista che contiene tutti i prestiti
+        private FilteredList<Prestito> filtrati; /// @brief Vista dei prestiti che soddisfano il filtro di ricerca corrente
+        private VistaOrdinata<Prestito> vista; /// @brief Vista filtrata e ordinata mostrata nella tabella
         private final String FILE_BINARIO = "prestiti.bin";
+        public static final int MASSIMO_PRESTITI = 3; /// @brief Numero massimo di prestiti contemporanei per utente
+        private final TabellaUtenteModel modelUtenti; /// @brief Model degli utenti a cui collegare i prestiti, eventualmente null
+        private final TabellaLibroModel modelLibri; /// @brief Model dei libri a cui collegare i prestiti, eventualmente null
+        private final Map<String, Utente> perMatricola = new HashMap<>(); /// @brief Indice matricola -> utente usato solo durante il caricamento
+        private final Map<String, Libro> perIsbn = new HashMap<>(); /// @brief Indice ISBN -> libro usato solo durante il caricamento
+        private final ArchivioBinario<Prestito> archivio = new ArchivioBinario<>(FILE_BINARIO, new CodecPrestito(perMatricola::get, perIsbn::get)); /// @brief File dei prestiti nel formato binario compatto
+        private SalvataggioDifferito salvataggio; /// @brief Scheduler dei salvataggi in background, null per salvare subito
+        private final Suggeritore<Prestito> suggeritoreNomi = new Suggeritore<>(Prestito::getNome); /// @brief Completamenti dei nomi degli utenti
+        private final Suggeritore<Prestito> suggeritoreTitoli = new Suggeritore<>(Prestito::getTitolo); /// @brief Completamenti dei titoli dei libri
+        private final IndiceMultiplo<Prestito> prestitiPerMatricola = new IndiceMultiplo<>(p -> TabellaUtenteModel.normalizzaMatricola(p.getUtente().getMatricola())); /// @brief Indice matricola -> prestiti dell'utente
+        private final IndiceMultiplo<Prestito> prestitiPerIsbn = new IndiceMultiplo<>(p -> TabellaLibroModel.normalizzaIsbn(p.getIsbn())); /// @brief Indice ISBN -> prestiti del libro
+        private final IndiceGiorni<Prestito> prestitiPerScadenza = new IndiceGiorni<>(Prestito::getGiornoScadenza); /// @brief Indice ordinato per data di scadenza (in giorni dall'epoca), su array di int
+        private final ScadenzarioPrestiti scadenzario = new ScadenzarioPrestiti(); /// @brief Heap delle scadenze che segnala i prestiti appena scaduti
+        private final CacheRisultati<Prestito> risultati = new CacheRisultati<>(
+                Integer.getInteger("libreria.dimensioneCache", CacheRisultati.DIMENSIONE_PREDEFINITA)); /// @brief Cache LRU dei risultati delle ricerche
+        private final Map<String, ChiaviCollazione<Prestito>> chiaviOrdinamento = Map.of(
+                "nome", new ChiaviCollazione<>(Prestito::getNome),
+                "cognome", new ChiaviCollazione<>(Prestito::getCognome),
+                "titolo", new ChiaviCollazione<>(Prestito::getTitolo)); /// @brief Chiavi di ordinamento delle colonne testuali
+        private boolean inCaricamento = false; /// @brief Sospende l'aggiornamento incrementale degli indici durante il caricamento
+        private final MotoreInterrogazioni<Prestito> motore = new MotoreInterrogazioni<Prestito>()
+                .campoPredefinito(MotoreInterrogazioni.perParole(p -> p.getNome() + " " + p.getCognome() + " " + p.getTitolo()), null,
+                        "nome", "cognome", "titolo")
+                .aggiungiCampo("nome", MotoreInterrogazioni.perParole(Prestito::getNome), null, "n")
+                .aggiungiCampo("cognome", MotoreInterrogazioni.perParole(Prestito::getCognome), null, "c")
+                .aggiungiCampo("matricola", v -> p -> TabellaUtenteModel.normalizzaMatricola(p.getUtente().getMatricola()).equals(TabellaUtenteModel.normalizzaMatricola(v)),
+                        this::prestitiDi, "m")
+                .aggiungiCampo("titolo", MotoreInterrogazioni.perParole(Prestito::getTitolo), null, "t")
+                .aggiungiCampo("isbn", v -> p -> TabellaLibroModel.normalizzaIsbn(p.getIsbn()).equals(TabellaLibroModel.normalizzaIsbn(v)),
+                        this::prestitiDelLibro, "i")
+                .aggiungiCampo("scadenza", MotoreInterrogazioni.perIntervallo(p -> p.getGiornoScadenza() - LocalDate.now().toEpochDay()),
+                        v -> cercaPerScadenza(Intervallo.interpreta(v), LocalDate.now()), "s"); /// @brief Esecuzione delle interrogazioni composte (scadenza: giorni da oggi, es. scadenza:<0 per gli scaduti)
         
                /**
- * @brief Costruttore della classe TabellaPrestitoModel
+ * @brief Costruttore della classe TabellaPrestitoModel senza model collegati
  *
- * Questo metodo inizializza la Observable List che contiene i prestiti
+ * Questo metodo inizializza la Observable List che contiene i prestiti; i riferimenti
+ * letti dal file non vengono risolti e diventano segnaposto con la sola chiave
  *
  * @post Inizializza l'oggetto
  *
@@ -47,7 +111,86 @@ public class TabellaPrestitoModel {
  */
         public TabellaPrestitoModel()
         {
+            this(null, null);
+        }
+
+               /**
+ * @brief Costruttore della classe TabellaPrestitoModel
+ *
+ * Questo metodo inizializza la Observable List che contiene i prestiti e carica il file,
+ * collegando ogni prestito all'utente e al libro vivi dei model indicati
+ *
+ * @pre I model di utenti e libri devono essere già caricati
+ * @post Inizializza l'oggetto
+ *
+ * @param[in] modelUtenti Il model degli utenti
+ * @param[in] modelLibri Il model dei libri
+ */
+        public TabellaPrestitoModel(TabellaUtenteModel modelUtenti, TabellaLibroModel modelLibri)
+        {
+            this.modelUtenti = modelUtenti;
+            this.modelLibri = modelLibri;
             prestiti = FXCollections.observableArrayList();
+            filtrati = new FilteredList<>(prestiti);
+            vista = new VistaOrdinata<>(filtrati);
+            prestiti.addListener((ListChangeListener<Prestito>) c -> {
+                if (inCaricamento) {
+                    return; // gli indici vengono ricostruiti al termine del caricamento
+                }
+                while (c.next()) {
+                    if (c.wasPermutated()) {
+                        continue;
+                    }
+                    for (Prestito p : c.getRemoved()) {
+                        suggeritoreNomi.rimuovi(p);
+                        suggeritoreTitoli.rimuovi(p);
+                        prestitiPerMatricola.rimuovi(p);
+                        prestitiPerIsbn.rimuovi(p);
+                        prestitiPerScadenza.rimuovi(p);
+                        scadenzario.rimuovi(p);
+                        risultati.rimosso(p);
+                        for (ChiaviCollazione<Prestito> k : chiaviOrdinamento.values()) {
+                            k.invalida(p);
+                        }
+                    }
+                    for (Prestito p : c.getAddedSubList()) {
+                        suggeritoreNomi.aggiungi(p);
+                        suggeritoreTitoli.aggiungi(p);
+                        prestitiPerMatricola.aggiungi(p);
+                        prestitiPerIsbn.aggiungi(p);
+                        prestitiPerScadenza.aggiungi(p);
+                        scadenzario.aggiungi(p);
+                        risultati.aggiunto(p);
+                    }
+                }
+            });
+            if (modelUtenti != null) {
+                // i prestiti mostrano nome, cognome e matricola dell'utente vivo
+                modelUtenti.aggiungiOsservatore((u, campo) -> {
+                    if (campo == null) {
+                        risultati.invalidaCampo("nome");
+                        risultati.invalidaCampo("cognome");
+                        risultati.invalidaCampo("matricola");
+                    } else if (campo != CampoUtente.EMAIL) {
+                        risultati.invalidaCampo(TabellaUtenteModel.nomeCampo(campo));
+                    }
+                    if (campo == CampoUtente.MATRICOLA) {
+                        ricollega(p -> p.getUtente() == u); // l'indice per matricola ha ancora la vecchia chiave
+                        richiediSalvataggio(); // i prestiti sono salvati per matricola
+                    }
+                });
+            }
+            if (modelLibri != null) {
+                modelLibri.aggiungiOsservatore((l, campo) -> {
+                    if (campo == CampoLibro.TITOLO || campo == CampoLibro.ISBN) {
+                        risultati.invalidaCampo(TabellaLibroModel.nomeCampo(campo));
+                    }
+                    if (campo == CampoLibro.ISBN) {
+                        ricollega(p -> p.getLibro() == l); // l'indice per ISBN ha ancora la vecchia chiave
+                        richiediSalvataggio(); // i prestiti sono salvati per ISBN
+                    }
+                });
+            }
             try{
                 caricaDaBinario();
             }
@@ -73,6 +216,52 @@ public class TabellaPrestitoModel {
         //
     }
 
+ /**
+ * @brief Metodo getter della vista filtrata e ordinata
+ *
+ * La vista segue la lista dei prestiti: aggiunte, rimozioni e modifiche compaiono subito;
+ * il filtro si cambia con filtra() e l'ordinamento con OrdinamentoTabella, che imposta
+ * l'ordine della vista a partire dalle colonne ordinate della tabella.
+ *
+ * @return La vista da mostrare nella tabella
+ */
+    public VistaOrdinata<Prestito> getVista() {
+        return vista;
+    }
+
+ /**
+ * @brief Chiavi di collazione con cui ordinare la tabella per un campo
+ *
+ * @param[in] campo Il nome del campo della colonna ("nome", "cognome" o "titolo")
+ *
+ * @return Le chiavi del campo, null per gli altri campi
+ */
+    public ChiaviCollazione<Prestito> chiaviOrdinamento(String campo) {
+        return chiaviOrdinamento.get(campo);
+    }
+
+ /**
+ * @brief Imposta il filtro della vista
+ *
+ * @param[in] filtro Il predicato che un prestito deve soddisfare per essere mostrato, null per mostrarli tutti
+ *
+ * @return void
+ */
+    public void filtra(Predicate<? super Prestito> filtro) {
+        filtrati.setPredicate(filtro);
+    }
+
+     /**
+ * @brief Metodo getter dello scadenzario
+ *
+ * Lo scadenzario segue i prestiti del model e, una volta avviato, pubblica quelli scaduti
+ *
+ * @return Lo scadenzario dei prestiti
+ */
+    public ScadenzarioPrestiti getScadenzario() {
+        return scadenzario;
+    }
+
      /**
  * @brief Metodo che permette di aggiungere un prestito
  *
@@ -109,43 +298,452 @@ public class TabellaPrestitoModel {
     public void rimuoviPrestito(Prestito p) { 
         prestiti.remove(p);
     }
+    /**
+     * @brief Aggiorna gli indici dopo la modifica di un prestito (o dell'utente o del libro a cui fa riferimento)
+     * 
+     * @param[in] p Il prestito modificato
+     * 
+     * @return void
+     */
+    public void aggiornaIndici(Prestito p) {
+        suggeritoreNomi.aggiorna(p);
+        suggeritoreTitoli.aggiorna(p);
+        prestitiPerMatricola.aggiorna(p);
+        prestitiPerIsbn.aggiorna(p);
+        risultati.modificato(p, null);
+    }
+
+    /**
+     * @brief Aggiorna gli indici dei prestiti di un utente o di un libro che ha cambiato chiave
+     * 
+     * Gli indici per matricola e per ISBN non si possono interrogare con la nuova chiave,
+     * quindi i prestiti interessati vengono cercati scorrendo la lista
+     * 
+     * @param[in] collegato Riconosce i prestiti dell'utente o del libro modificato
+     * 
+     * @return void
+     */
+    private void ricollega(Predicate<Prestito> collegato) {
+        for (Prestito p : prestiti) {
+            if (collegato.test(p)) {
+                aggiornaIndici(p);
+            }
+        }
+    }
+
+    /**
+     * @brief Metodo che modifica la data di scadenza di un prestito e aggiorna l'indice delle scadenze
+     * 
+     * @param[in] p Il prestito da modificare
+     * @param[in] scadenza La nuova data di scadenza
+     * 
+     * @return False se la data è null (il prestito non viene modificato)
+     */
+    public boolean modificaScadenza(Prestito p, LocalDate scadenza) {
+        if (scadenza == null) {
+            return false;
+        }
+        p.setDataDiScadenza(scadenza);
+        prestitiPerScadenza.aggiorna(p);
+        scadenzario.aggiorna(p);
+        risultati.modificato(p, "scadenza");
+        return true;
+    }
+
+    /**
+     * @brief Metodo che restituisce i prestiti di un utente con l'indice delle matricole
+     * 
+     * @param[in] matricola La matricola dell'utente (spazi e maiuscole non contano)
+     * 
+     * @return I prestiti dell'utente, in ordine di inserimento
+     */
+    public List<Prestito> prestitiDi(String matricola) {
+        return prestitiPerMatricola.cerca(TabellaUtenteModel.normalizzaMatricola(matricola));
+    }
+
+    /**
+     * @brief Metodo che conta i prestiti di un utente senza scorrerli, per il controllo del limite
+     * 
+     * @param[in] matricola La matricola dell'utente
+     * 
+     * @return Il numero di prestiti dell'utente
+     */
+    public int numeroPrestiti(String matricola) {
+        return prestitiPerMatricola.conta(TabellaUtenteModel.normalizzaMatricola(matricola));
+    }
+
+    /**
+     * @brief Metodo che indica se un utente ha raggiunto il numero massimo di prestiti
+     * 
+     * @param[in] u L'utente
+     * 
+     * @return True se l'utente ha già MASSIMO_PRESTITI prestiti
+     */
+    public boolean limiteRaggiunto(Utente u) {
+        return numeroPrestiti(u.getMatricola()) >= MASSIMO_PRESTITI;
+    }
+
+    /**
+     * @brief Metodo che restituisce i prestiti di un libro con l'indice degli ISBN
+     * 
+     * @param[in] isbn L'ISBN del libro (trattini e spazi non contano)
+     * 
+     * @return I prestiti del libro, in ordine di inserimento
+     */
+    public List<Prestito> prestitiDelLibro(String isbn) {
+        return prestitiPerIsbn.cerca(TabellaLibroModel.normalizzaIsbn(isbn));
+    }
+
+    /**
+     * @brief Metodo che conta i prestiti di un libro, cioè le copie attualmente in prestito
+     * 
+     * @param[in] isbn L'ISBN del libro
+     * 
+     * @return Il numero di prestiti del libro
+     */
+    public int numeroPrestitiDelLibro(String isbn) {
+        return prestitiPerIsbn.conta(TabellaLibroModel.normalizzaIsbn(isbn));
+    }
+
+    /**
+     * @brief Metodo che restituisce i prestiti con scadenza compresa tra due date
+     * 
+     * @param[in] da La prima data, inclusa
+     * @param[in] a L'ultima data, inclusa
+     * 
+     * @return I prestiti trovati, dalla scadenza più vicina
+     */
+    public List<Prestito> prestitiInScadenza(LocalDate da, LocalDate a) {
+        return prestitiPerScadenza.cerca(new Intervallo(da.toEpochDay(), true, a.toEpochDay(), true));
+    }
+
+    /**
+     * @brief Metodo che restituisce i prestiti già scaduti
+     * 
+     * @param[in] oggi La data di oggi
+     * 
+     * @return I prestiti con scadenza precedente a oggi, dal più vecchio
+     */
+    public List<Prestito> prestitiScaduti(LocalDate oggi) {
+        return prestitiPerScadenza.cerca(new Intervallo(Double.NEGATIVE_INFINITY, false, oggi.toEpochDay(), false));
+    }
+
+    /**
+     * @brief Metodo che conta i prestiti già scaduti senza copiarli
+     * 
+     * @param[in] oggi La data di oggi
+     * 
+     * @return Il numero di prestiti con scadenza precedente a oggi
+     */
+    public int numeroPrestitiScaduti(LocalDate oggi) {
+        return prestitiPerScadenza.conta(new Intervallo(Double.NEGATIVE_INFINITY, false, oggi.toEpochDay(), false));
+    }
+
+    /**
+     * @brief Metodo che restituisce tutti i prestiti ordinati per scadenza
+     * 
+     * L'ordine viene dall'indice delle scadenze, che ordina i giorni come array di primitivi
+     * 
+     * @return I prestiti, dalla scadenza più vecchia
+     */
+    public List<Prestito> prestitiPerScadenza() {
+        return prestitiPerScadenza.ordinati();
+    }
+
+    /**
+     * @brief Metodo che cerca i prestiti per scadenza espressa in giorni da oggi (es. "<0", "0..7")
+     * 
+     * @param[in] giorni L'intervallo in giorni rispetto a oggi, eventualmente null
+     * @param[in] oggi La data di oggi
+     * 
+     * @return I prestiti trovati, dalla scadenza più vicina; nessuno se l'intervallo è null
+     */
+    private List<Prestito> cercaPerScadenza(Intervallo giorni, LocalDate oggi) {
+        if (giorni == null) {
+            return Collections.emptyList();
+        }
+        long base = oggi.toEpochDay();
+        return prestitiPerScadenza.cerca(new Intervallo(giorni.getMinimo() + base, giorni.isMinimoIncluso(),
+                giorni.getMassimo() + base, giorni.isMassimoIncluso()));
+    }
+
+    /**
+     * @brief Metodo che indica se un testo di ricerca è un'interrogazione composta
+     * 
+     * @param[in] q L'interrogazione analizzata (vedi Interrogazione.analizza)
+     * 
+     * @return True se usa almeno un campo riconosciuto (nome, cognome, matricola, titolo, isbn, scadenza in giorni da oggi)
+     */
+    public boolean usaCampi(Interrogazione q) {
+        return motore.usaCampi(q);
+    }
+
+    /**
+     * @brief Metodo che prepara un'interrogazione composta (es. "cognome:rossi titolo:rosa")
+     * 
+     * Va chiamato sul thread JavaFX: i valori vengono validati e i prestiti fotografati subito,
+     * mentre la ricerca restituita può essere eseguita su un altro thread
+     * 
+     * @param[in] q L'interrogazione analizzata
+     * 
+     * @return La ricerca, che restituisce i prestiti trovati
+     * 
+     * @throws IllegalArgumentException se un valore non è valido
+     */
+    public Supplier<List<Prestito>> preparaInterrogazione(Interrogazione q) {
+        Set<String> campi = motore.campi(q);
+        String chiave = "?" + q + (campi.contains("scadenza") ? "@" + LocalDate.now() : ""); // i giorni sono contati da oggi
+        List<Prestito> inCache = risultati.cerca(chiave);
+        if (inCache != null) {
+            return () -> inCache;
+        }
+        return risultati.conserva(chiave, campi, motore.verifica(q), motore.prepara(q, new ArrayList<>(prestiti)));
+    }
+
+    /**
+     * @brief Metodo che fa passare una ricerca semplice dalla cache dei risultati
+     * 
+     * Va chiamato sul thread JavaFX. Senza un predicato esatto, la voce viene invalidata da ogni
+     * aggiunta e da ogni modifica dei campi indicati.
+     * 
+     * @param[in] chiave La chiave della ricerca (es. criterio e testo cercato)
+     * @param[in] ricerca La ricerca da eseguire se non è in cache
+     * @param[in] campi I campi da cui dipende la ricerca ("nome", "titolo", ...)
+     * 
+     * @return La ricerca, che restituisce i prestiti trovati
+     */
+    public Supplier<List<Prestito>> inCache(String chiave, Supplier<List<Prestito>> ricerca, String... campi) {
+        List<Prestito> inCache = risultati.cerca(chiave);
+        if (inCache != null) {
+            return () -> inCache;
+        }
+        return risultati.conserva(chiave, Set.of(campi), null, ricerca);
+    }
+
+    /**
+     * @brief Metodo getter della cache dei risultati, per leggerne i contatori
+     * 
+     * @return La cache dei risultati delle ricerche
+     */
+    public CacheRisultati<Prestito> getCacheRisultati() {
+        return risultati;
+    }
+
+    /**
+     * @brief Metodo che esegue subito un'interrogazione composta
+     * 
+     * @param[in] testo Il testo dell'interrogazione
+     * 
+     * @return I prestiti trovati
+     * 
+     * @throws IllegalArgumentException se il testo è malformato o un valore non è valido
+     */
+    public List<Prestito> interroga(String testo) {
+        return preparaInterrogazione(Interrogazione.analizza(testo)).get();
+    }
+
+    /**
+     * @brief Metodo che restituisce una pagina dei prestiti che soddisfano un filtro
+     * 
+     * Va chiamato sul thread JavaFX: i prestiti vengono scorsi senza copiarne la lista. L'ordine
+     * è stabile anche tra una pagina e l'altra se nel frattempo vengono aggiunti o rimossi prestiti,
+     * perché la pagina successiva riparte dall'ultimo elemento letto (vedi Pagina).
+     * 
+     * @param[in] filtro Il filtro, null per accettarli tutti
+     * @param[in] ordine L'ordinamento, null per l'ordine per matricola, ISBN e scadenza; va riusato per le pagine successive
+     * @param[in] dopo Il cursore restituito dalla pagina precedente, null per la prima pagina
+     * @param[in] limite Il numero massimo di elementi nella pagina
+     * 
+     * @return La pagina
+     * 
+     * @throws IllegalArgumentException se il limite non è positivo o il cursore è di un altro ordinamento
+     */
+    public Pagina<Prestito> pagina(Predicate<? super Prestito> filtro, Comparator<? super Prestito> ordine, Pagina.Cursore<Prestito> dopo, int limite) {
+        return Pagina.estrai(prestiti, filtro, ordine, TabellaPrestitoModel::chiaveUnica, dopo, limite);
+    }
+
+    /**
+     * @brief Metodo che restituisce una pagina dei risultati di un'interrogazione composta
+     * 
+     * I candidati vengono dagli indici (e dalla cache dei risultati), come per interroga().
+     * 
+     * @param[in] q L'interrogazione
+     * @param[in] ordine L'ordinamento, null per l'ordine per matricola, ISBN e scadenza; va riusato per le pagine successive
+     * @param[in] dopo Il cursore restituito dalla pagina precedente, null per la prima pagina
+     * @param[in] limite Il numero massimo di elementi nella pagina
+     * 
+     * @return La pagina
+     * 
+     * @throws IllegalArgumentException se un valore dell'interrogazione non è valido, il limite non è positivo
+     *         o il cursore è di un altro ordinamento
+     */
+    public Pagina<Prestito> paginaInterrogazione(Interrogazione q, Comparator<? super Prestito> ordine, Pagina.Cursore<Prestito> dopo, int limite) {
+        return Pagina.estrai(preparaInterrogazione(q).get(), null, ordine, TabellaPrestitoModel::chiaveUnica, dopo, limite);
+    }
+
+    /**
+     * @brief Chiave che distingue un prestito dagli altri nella paginazione
+     * 
+     * @param[in] p Il prestito
+     * 
+     * @return Matricola, ISBN e scadenza del prestito
+     */
+    private static String chiaveUnica(Prestito p) {
+        return TabellaUtenteModel.normalizzaMatricola(p.getUtente().getMatricola()) + "|"
+                + TabellaLibroModel.normalizzaIsbn(p.getIsbn()) + "|" + p.getGiornoScadenza();
+    }
+
+    /**
+     * @brief Metodo che restituisce i nomi più frequenti tra i prestiti che iniziano con il testo digitato
+     * 
+     * @param[in] prefisso Il testo digitato
+     * @param[in] massimo Il numero massimo di suggerimenti
+     * 
+     * @return I nomi suggeriti
+     */
+    public List<String> suggerisciNomi(String prefisso, int massimo) {
+        return suggeritoreNomi.suggerisci(prefisso, massimo);
+    }
+
+    /**
+     * @brief Metodo che restituisce i titoli più prestati che iniziano con il testo digitato
+     * 
+     * @param[in] prefisso Il testo digitato
+     * @param[in] massimo Il numero massimo di suggerimenti
+     * 
+     * @return I titoli suggeriti
+     */
+    public List<String> suggerisciTitoli(String prefisso, int massimo) {
+        return suggeritoreTitoli.suggerisci(prefisso, massimo);
+    }
+
         /**
-     * @brief Salvataggio su file binario tramite ObjectOutputStream.
-     * Viene salvata una List<Prestito>.
+     * @brief Salvataggio su file binario nel formato compatto (vedi ArchivioBinario e CodecPrestito).
+     *  Viene salvata una List<Prestito>.
+     * 
+     * @return void
+     */
+    public void salvaSuBinario() {
+        preparaSalvataggio().run();
+    }
+
+    /**
+     * @brief Segnala che i prestiti sono stati modificati e vanno salvati.
+     *  Se è stato impostato un SalvataggioDifferito le richieste vengono accorpate e scritte
+     *  in background, altrimenti il salvataggio è immediato.
+     * 
+     * @return void
+     */
+    public void richiediSalvataggio() {
+        if (salvataggio == null) {
+            salvaSuBinario();
+        } else {
+            salvataggio.segnala(this);
+        }
+    }
+
+    /**
+     * @brief Imposta lo scheduler dei salvataggi in background
+     * 
+     * @param[in] salvataggio Lo scheduler condiviso, o null per salvare in modo sincrono
      * 
      * @return void
      */
-    public void salvaSuBinario()  {
-        List<Prestito> lista = new ArrayList<>(prestiti);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(FILE_BINARIO))) {
-            out.writeObject(lista);
+    public void setSalvataggioDifferito(SalvataggioDifferito salvataggio) {
+        this.salvataggio = salvataggio;
+    }
+
+    /**
+     * @brief Codifica subito la lista, sul thread che la possiede, e restituisce la scrittura su disco.
+     * 
+     * @return La scrittura su disco
+     */
+    @Override
+    public Runnable preparaSalvataggio() {
+        try {
+            byte[] contenuto = archivio.codifica(new ArrayList<>(prestiti));
+            return () -> {
+                try {
+                    archivio.scrivi(contenuto);
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                }
+            };
         } catch (IOException e) {
             System.out.println(e.getMessage());
+            return () -> { };
         }
     }
-        /**
+    
+    /**
      * @brief Caricamento da file binario.
-     * Formato atteso: una List<Prestito> serializzata.
+     * Formato atteso: una List<Prestito> nel formato binario compatto, con ogni prestito salvato
+     * come matricola, ISBN e scadenza. Il caricamento è un join su due indici hash (matricola -> utente,
+     * ISBN -> libro) costruiti dai model collegati. I file nel vecchio formato serializzato o con
+     * le copie complete di utente e libro vengono collegati agli oggetti vivi e riscritti.
      * 
      * @return void
      */
     public void caricaDaBinario() throws IOException, ClassNotFoundException {
-        File file = new File(FILE_BINARIO);
-        if (!file.exists()) {
-            throw new FileNotFoundException("File binario non trovato: " + FILE_BINARIO);
+        Map<String, Utente> perNomeCognome = new HashMap<>();
+        if (modelUtenti != null) {
+            for (Utente u : modelUtenti.getPersone()) {
+                if (u.getMatricola() != null && !u.getMatricola().isEmpty()) {
+                    perMatricola.putIfAbsent(u.getMatricola(), u);
+                }
+                perNomeCognome.putIfAbsent(u.getNome() + '\u0000' + u.getCognome(), u);
+            }
         }
-
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-
-            Object obj = in.readObject();
-
-            List<Prestito> lista = (List<Prestito>) obj;
-            for (Object o : lista) {
-                if (o instanceof Prestito) {
-                    prestiti.add((Prestito) o);
+        if (modelLibri != null) {
+            for (Libro l : modelLibri.getLibri()) {
+                perIsbn.putIfAbsent(l.getIsbn(), l);
+            }
+        }
+        boolean formatoPrecedente = archivio.isFormatoPrecedente();
+        try {
+            List<Prestito> caricati = archivio.carica();
+            boolean ricollegati = false;
+            int nonRisolti = 0;
+            for (int i = 0; i < caricati.size(); i++) {
+                Prestito p = caricati.get(i);
+                Utente u = perMatricola.get(p.getUtente().getMatricola());
+                if (u == null) {
+                    u = perNomeCognome.get(p.getNome() + '\u0000' + p.getCognome());
                 }
+                Libro l = perIsbn.get(p.getIsbn());
+                if (u == null || l == null) {
+                    nonRisolti++;
+                }
+                if ((u != null && u != p.getUtente()) || (l != null && l != p.getLibro())) {
+                    caricati.set(i, new Prestito(u != null ? u : p.getUtente(), l != null ? l : p.getLibro(), p.getDataDiScadenza()));
+                    ricollegati = true;
+                }
+            }
+            inCaricamento = true;
+            try {
+                prestiti.addAll(caricati);
+            } finally {
+                inCaricamento = false;
+            }
+            suggeritoreNomi.ricostruisci(prestiti);
+            suggeritoreTitoli.ricostruisci(prestiti);
+            prestitiPerMatricola.ricostruisci(prestiti);
+            prestitiPerIsbn.ricostruisci(prestiti);
+            prestitiPerScadenza.ricostruisci(prestiti);
+            scadenzario.ricostruisci(prestiti);
+            risultati.svuota();
+            for (ChiaviCollazione<Prestito> k : chiaviOrdinamento.values()) {
+                k.svuota();
+            }
+            if (nonRisolti > 0 && (modelUtenti != null || modelLibri != null)) {
+                System.out.println(nonRisolti + " prestiti fanno riferimento a utenti o libri non presenti");
+            }
+            if (ricollegati || formatoPrecedente) {
+                salvaSuBinario(); // file con copie complete: riscritto per riferimento
             }
-       
+        } finally {
+            perMatricola.clear();
+            perIsbn.clear();
         }
     }
 }
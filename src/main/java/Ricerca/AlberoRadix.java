@@ -0,0 +1,300 @@
+/**
+ * @file AlberoRadix.java
+ * @brief Questo file contiene l'albero radix (trie compresso) usato per i suggerimenti di completamento
+ *
+ * Ogni arco dell'albero è etichettato con una sottostringa, così che le catene di nodi con un solo
+ * figlio vengano compresse in un unico nodo. Ogni chiave ha una popolarità (il numero di elementi
+ * che hanno quel valore) e ogni nodo ricorda la popolarità massima del proprio sottoalbero: i
+ * completamenti più popolari di un prefisso vengono così trovati con una visita best-first che
+ * esplora solo i rami promettenti e che può essere interrotta allo scadere di un budget di tempo.
+ *
+ * @author Gruppo 27
+ * @date 12 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class AlberoRadix {
+
+    private final Nodo radice = new Nodo(""); ///@brief Radice dell'albero, con etichetta vuota
+    private int chiavi; ///@brief Numero di chiavi distinte presenti
+
+   /**
+ * @brief Nodo dell'albero
+ */
+    private static class Nodo {
+        String etichetta;   ///@brief Sottostringa dell'arco che arriva al nodo
+        final List<Nodo> figli = new ArrayList<>(2); ///@brief Figli ordinati per primo carattere dell'etichetta
+        String testo;       ///@brief Testo da mostrare se il nodo termina una chiave
+        int popolarita;     ///@brief Numero di elementi con questa chiave (0 se il nodo non termina una chiave)
+        int massimo;        ///@brief Popolarità massima nel sottoalbero
+
+        Nodo(String etichetta) {
+            this.etichetta = etichetta;
+        }
+
+        int indiceFiglio(char c) {
+            int lo = 0;
+            int hi = figli.size() - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = figli.get(mid).etichetta.charAt(0);
+                if (m < c) {
+                    lo = mid + 1;
+                } else if (m > c) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        void ricalcolaMassimo() {
+            int m = popolarita;
+            for (Nodo f : figli) {
+                m = Math.max(m, f.massimo);
+            }
+            massimo = m;
+        }
+    }
+
+   /**
+ * @brief Numero di chiavi distinte presenti nell'albero
+ *
+ * @return Il numero di chiavi
+ */
+    public int dimensione() {
+        return chiavi;
+    }
+
+   /**
+ * @brief Aggiunge un'occorrenza di una chiave, aumentandone la popolarità
+ *
+ * @param[in] chiave La chiave normalizzata
+ * @param[in] testo Il testo da suggerire per la chiave (viene mantenuto il primo inserito)
+ *
+ * @return void
+ */
+    public void aggiungi(String chiave, String testo) {
+        List<Nodo> percorso = new ArrayList<>();
+        Nodo nodo = radice;
+        int i = 0;
+        while (true) {
+            percorso.add(nodo);
+            if (i == chiave.length()) {
+                break;
+            }
+            int k = nodo.indiceFiglio(chiave.charAt(i));
+            if (k < 0) {
+                Nodo foglia = new Nodo(chiave.substring(i));
+                nodo.figli.add(-k - 1, foglia);
+                nodo = foglia;
+                percorso.add(nodo);
+                break;
+            }
+            Nodo figlio = nodo.figli.get(k);
+            int comune = prefissoComune(figlio.etichetta, chiave, i);
+            if (comune < figlio.etichetta.length()) {
+                Nodo intermedio = new Nodo(figlio.etichetta.substring(0, comune));
+                figlio.etichetta = figlio.etichetta.substring(comune);
+                intermedio.figli.add(figlio);
+                intermedio.massimo = figlio.massimo;
+                nodo.figli.set(k, intermedio);
+                figlio = intermedio;
+            }
+            nodo = figlio;
+            i += comune;
+        }
+        if (nodo.popolarita == 0) {
+            nodo.testo = testo;
+            chiavi++;
+        }
+        nodo.popolarita++;
+        for (Nodo n : percorso) {
+            n.massimo = Math.max(n.massimo, nodo.popolarita);
+        }
+    }
+
+   /**
+ * @brief Rimuove un'occorrenza di una chiave; a popolarità zero la chiave sparisce
+ *
+ * @param[in] chiave La chiave normalizzata
+ *
+ * @return void
+ */
+    public void rimuovi(String chiave) {
+        List<Nodo> percorso = new ArrayList<>();
+        Nodo nodo = radice;
+        int i = 0;
+        percorso.add(nodo);
+        while (i < chiave.length()) {
+            int k = nodo.indiceFiglio(chiave.charAt(i));
+            if (k < 0) {
+                return;
+            }
+            Nodo figlio = nodo.figli.get(k);
+            if (!chiave.startsWith(figlio.etichetta, i)) {
+                return;
+            }
+            nodo = figlio;
+            i += figlio.etichetta.length();
+            percorso.add(nodo);
+        }
+        if (nodo.popolarita == 0) {
+            return;
+        }
+        nodo.popolarita--;
+        if (nodo.popolarita == 0) {
+            nodo.testo = null;
+            chiavi--;
+            compatta(percorso);
+        }
+        for (int j = percorso.size() - 1; j >= 0; j--) {
+            percorso.get(j).ricalcolaMassimo();
+        }
+    }
+
+   /**
+ * @brief Elimina il nodo finale del percorso se è diventato inutile e fonde i nodi con un solo figlio
+ *
+ * @param[in] percorso I nodi dalla radice al nodo che non termina più una chiave
+ *
+ * @return void
+ */
+    private void compatta(List<Nodo> percorso) {
+        int ultimo = percorso.size() - 1;
+        Nodo nodo = percorso.get(ultimo);
+        if (nodo == radice) {
+            return;
+        }
+        Nodo padre = percorso.get(ultimo - 1);
+        if (nodo.figli.isEmpty()) {
+            padre.figli.remove(padre.indiceFiglio(nodo.etichetta.charAt(0)));
+            percorso.remove(ultimo);
+            if (padre != radice && padre.popolarita == 0 && padre.figli.size() == 1) {
+                fondi(padre);
+            }
+        } else if (nodo.figli.size() == 1) {
+            fondi(nodo);
+        }
+    }
+
+   /**
+ * @brief Fonde un nodo che non termina una chiave con il suo unico figlio
+ *
+ * @param[in] nodo Il nodo da fondere
+ *
+ * @return void
+ */
+    private void fondi(Nodo nodo) {
+        Nodo figlio = nodo.figli.remove(0);
+        nodo.etichetta = nodo.etichetta + figlio.etichetta;
+        nodo.testo = figlio.testo;
+        nodo.popolarita = figlio.popolarita;
+        nodo.figli.addAll(figlio.figli);
+        nodo.ricalcolaMassimo();
+    }
+
+   /**
+ * @brief Restituisce i completamenti più popolari di un prefisso
+ *
+ * @param[in] prefisso Il prefisso normalizzato
+ * @param[in] massimo Il numero massimo di completamenti
+ * @param[in] budgetNanos Il tempo massimo della visita in nanosecondi; allo scadere vengono
+ *                        restituiti i completamenti trovati fino a quel momento
+ *
+ * @return I testi dei completamenti, dal più popolare (a parità l'ordine è deterministico)
+ */
+    public List<String> suggerisci(String prefisso, int massimo, long budgetNanos) {
+        List<String> risultati = new ArrayList<>();
+        Nodo nodo = radice;
+        int i = 0;
+        while (i < prefisso.length()) {
+            int k = nodo.indiceFiglio(prefisso.charAt(i));
+            if (k < 0) {
+                return risultati;
+            }
+            Nodo figlio = nodo.figli.get(k);
+            int comune = prefissoComune(figlio.etichetta, prefisso, i);
+            if (comune < figlio.etichetta.length() && i + comune < prefisso.length()) {
+                return risultati;
+            }
+            nodo = figlio;
+            i += comune;
+        }
+
+        long inizio = System.nanoTime();
+        long[] contatore = {0};
+        PriorityQueue<Voce> coda = new PriorityQueue<>();
+        coda.add(new Voce(nodo, false, nodo.massimo, contatore[0]++));
+        int estratti = 0;
+        while (!coda.isEmpty() && risultati.size() < massimo) {
+            if ((++estratti & 63) == 0 && System.nanoTime() - inizio > budgetNanos) {
+                break;
+            }
+            Voce v = coda.poll();
+            if (v.chiave) {
+                risultati.add(v.nodo.testo);
+                continue;
+            }
+            if (v.nodo.popolarita > 0) {
+                coda.add(new Voce(v.nodo, true, v.nodo.popolarita, contatore[0]++));
+            }
+            for (Nodo f : v.nodo.figli) {
+                coda.add(new Voce(f, false, f.massimo, contatore[0]++));
+            }
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Elemento della coda di priorità della visita best-first
+ */
+    private static class Voce implements Comparable<Voce> {
+        final Nodo nodo;        ///@brief Il nodo
+        final boolean chiave;   ///@brief True se rappresenta la chiave del nodo, false il suo sottoalbero
+        final int priorita;     ///@brief Popolarità della chiave o massimo del sottoalbero
+        final long ordine;      ///@brief Ordine di inserimento, per rendere deterministico l'ordine a parità di priorità
+
+        Voce(Nodo nodo, boolean chiave, int priorita, long ordine) {
+            this.nodo = nodo;
+            this.chiave = chiave;
+            this.priorita = priorita;
+            this.ordine = ordine;
+        }
+
+        @Override
+        public int compareTo(Voce o) {
+            if (priorita != o.priorita) {
+                return Integer.compare(o.priorita, priorita);
+            }
+            if (chiave != o.chiave) {
+                return chiave ? -1 : 1;
+            }
+            return Long.compare(ordine, o.ordine);
+        }
+    }
+
+   /**
+ * @brief Lunghezza del prefisso comune tra un'etichetta e una stringa a partire da una posizione
+ *
+ * @param[in] etichetta L'etichetta dell'arco
+ * @param[in] s La stringa
+ * @param[in] da La posizione di partenza in s
+ *
+ * @return Il numero di caratteri in comune
+ */
+    private static int prefissoComune(String etichetta, String s, int da) {
+        int n = Math.min(etichetta.length(), s.length() - da);
+        int i = 0;
+        while (i < n && etichetta.charAt(i) == s.charAt(da + i)) {
+            i++;
+        }
+        return i;
+    }
+}
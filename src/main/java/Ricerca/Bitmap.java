@@ -0,0 +1,513 @@
+/**
+ * @file Bitmap.java
+ * @brief Questo file contiene una bitmap compressa di interi non negativi, organizzata come una roaring bitmap
+ *
+ * Gli interi sono divisi in blocchi di 65536 valori in base ai 16 bit alti. Ogni blocco è un
+ * contenitore: finché contiene al più 4096 valori è un array ordinato dei 16 bit bassi (2 byte per
+ * valore), oltre diventa una bitmap di 1024 long (8 KB fissi). Le operazioni AND e OR lavorano
+ * blocco per blocco e, tra due bitmap, parola per parola; il conteggio dell'intersezione
+ * (andCardinalita) non costruisce il risultato.
+ * Le bitmap restituite da and() e or() sono nuove; quelle di partenza non vengono modificate.
+ *
+ * @author Gruppo 27
+ * @date 16 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public final class Bitmap {
+
+    private static final int SOGLIA_ARRAY = 4096; ///@brief Numero massimo di valori di un contenitore ad array
+
+    private char[] chiavi = new char[4];  ///@brief 16 bit alti dei blocchi presenti, ordinati
+    private Contenitore[] contenitori = new Contenitore[4]; ///@brief Contenitore di ciascun blocco
+    private int n;  ///@brief Numero di blocchi presenti
+
+   /**
+ * @brief Aggiunge un valore
+ *
+ * @param[in] x Il valore, non negativo
+ *
+ * @return void
+ */
+    public void aggiungi(int x) {
+        char alta = (char) (x >>> 16);
+        int i = cerca(alta);
+        if (i < 0) {
+            i = -i - 1;
+            inserisci(i, alta, new ContenitoreArray());
+        }
+        contenitori[i] = contenitori[i].aggiungi((char) x);
+    }
+
+   /**
+ * @brief Rimuove un valore
+ *
+ * @param[in] x Il valore
+ *
+ * @return void
+ */
+    public void rimuovi(int x) {
+        int i = cerca((char) (x >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Contenitore c = contenitori[i].rimuovi((char) x);
+        if (c.cardinalita() == 0) {
+            System.arraycopy(chiavi, i + 1, chiavi, i, n - i - 1);
+            System.arraycopy(contenitori, i + 1, contenitori, i, n - i - 1);
+            contenitori[--n] = null;
+        } else {
+            contenitori[i] = c;
+        }
+    }
+
+   /**
+ * @brief Indica se un valore è presente
+ *
+ * @param[in] x Il valore
+ *
+ * @return True se il valore è presente
+ */
+    public boolean contiene(int x) {
+        int i = cerca((char) (x >>> 16));
+        return i >= 0 && contenitori[i].contiene((char) x);
+    }
+
+   /**
+ * @brief Numero di valori presenti
+ *
+ * @return La cardinalità della bitmap
+ */
+    public int cardinalita() {
+        int totale = 0;
+        for (int i = 0; i < n; i++) {
+            totale += contenitori[i].cardinalita();
+        }
+        return totale;
+    }
+
+   /**
+ * @brief Intersezione con un'altra bitmap
+ *
+ * @param[in] altra L'altra bitmap
+ *
+ * @return Una nuova bitmap con i valori presenti in entrambe
+ */
+    public Bitmap and(Bitmap altra) {
+        Bitmap r = new Bitmap();
+        int i = 0;
+        int j = 0;
+        while (i < n && j < altra.n) {
+            if (chiavi[i] < altra.chiavi[j]) {
+                i++;
+            } else if (chiavi[i] > altra.chiavi[j]) {
+                j++;
+            } else {
+                Contenitore c = contenitori[i].and(altra.contenitori[j]);
+                if (c.cardinalita() > 0) {
+                    r.inserisci(r.n, chiavi[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return r;
+    }
+
+   /**
+ * @brief Cardinalità dell'intersezione con un'altra bitmap, senza costruirla
+ *
+ * @param[in] altra L'altra bitmap
+ *
+ * @return Il numero di valori presenti in entrambe
+ */
+    public int andCardinalita(Bitmap altra) {
+        int totale = 0;
+        int i = 0;
+        int j = 0;
+        while (i < n && j < altra.n) {
+            if (chiavi[i] < altra.chiavi[j]) {
+                i++;
+            } else if (chiavi[i] > altra.chiavi[j]) {
+                j++;
+            } else {
+                totale += contenitori[i].andCardinalita(altra.contenitori[j]);
+                i++;
+                j++;
+            }
+        }
+        return totale;
+    }
+
+   /**
+ * @brief Unione con un'altra bitmap
+ *
+ * @param[in] altra L'altra bitmap
+ *
+ * @return Una nuova bitmap con i valori presenti in almeno una delle due
+ */
+    public Bitmap or(Bitmap altra) {
+        Bitmap r = new Bitmap();
+        int i = 0;
+        int j = 0;
+        while (i < n || j < altra.n) {
+            if (j == altra.n || (i < n && chiavi[i] < altra.chiavi[j])) {
+                r.inserisci(r.n, chiavi[i], contenitori[i].copia());
+                i++;
+            } else if (i == n || chiavi[i] > altra.chiavi[j]) {
+                r.inserisci(r.n, altra.chiavi[j], altra.contenitori[j].copia());
+                j++;
+            } else {
+                r.inserisci(r.n, chiavi[i], contenitori[i].or(altra.contenitori[j]));
+                i++;
+                j++;
+            }
+        }
+        return r;
+    }
+
+   /**
+ * @brief Visita i valori presenti in ordine crescente
+ *
+ * @param[in] azione L'azione da eseguire per ogni valore
+ *
+ * @return void
+ */
+    public void perOgni(IntConsumer azione) {
+        for (int i = 0; i < n; i++) {
+            contenitori[i].perOgni(chiavi[i] << 16, azione);
+        }
+    }
+
+   /**
+ * @brief Cerca un blocco per i suoi 16 bit alti
+ *
+ * @param[in] alta I 16 bit alti
+ *
+ * @return L'indice del blocco, oppure -(punto di inserimento) - 1
+ */
+    private int cerca(char alta) {
+        int lo = 0;
+        int hi = n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chiavi[mid] < alta) {
+                lo = mid + 1;
+            } else if (chiavi[mid] > alta) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+   /**
+ * @brief Inserisce un blocco nella posizione indicata
+ *
+ * @param[in] i La posizione
+ * @param[in] alta I 16 bit alti del blocco
+ * @param[in] c Il contenitore del blocco
+ *
+ * @return void
+ */
+    private void inserisci(int i, char alta, Contenitore c) {
+        if (n == chiavi.length) {
+            chiavi = Arrays.copyOf(chiavi, n * 2);
+            contenitori = Arrays.copyOf(contenitori, n * 2);
+        }
+        System.arraycopy(chiavi, i, chiavi, i + 1, n - i);
+        System.arraycopy(contenitori, i, contenitori, i + 1, n - i);
+        chiavi[i] = alta;
+        contenitori[i] = c;
+        n++;
+    }
+
+   /**
+ * @brief Contenitore dei 16 bit bassi di un blocco
+ */
+    private abstract static class Contenitore {
+        abstract Contenitore aggiungi(char x);
+        abstract Contenitore rimuovi(char x);
+        abstract boolean contiene(char x);
+        abstract int cardinalita();
+        abstract Contenitore and(Contenitore altro);
+        abstract int andCardinalita(Contenitore altro);
+        abstract Contenitore or(Contenitore altro);
+        abstract Contenitore copia();
+        abstract void perOgni(int base, IntConsumer azione);
+    }
+
+   /**
+ * @brief Contenitore poco popolato: array ordinato dei valori
+ */
+    private static final class ContenitoreArray extends Contenitore {
+        char[] valori = new char[4]; ///@brief I valori ordinati
+        int n;  ///@brief Numero di valori validi
+
+        int posizione(char x) {
+            return Arrays.binarySearch(valori, 0, n, x);
+        }
+
+        @Override
+        Contenitore aggiungi(char x) {
+            int p = posizione(x);
+            if (p >= 0) {
+                return this;
+            }
+            if (n == SOGLIA_ARRAY) {
+                return inBitmap().aggiungi(x);
+            }
+            p = -p - 1;
+            if (n == valori.length) {
+                valori = Arrays.copyOf(valori, Math.min(n * 2, SOGLIA_ARRAY));
+            }
+            System.arraycopy(valori, p, valori, p + 1, n - p);
+            valori[p] = x;
+            n++;
+            return this;
+        }
+
+        @Override
+        Contenitore rimuovi(char x) {
+            int p = posizione(x);
+            if (p >= 0) {
+                System.arraycopy(valori, p + 1, valori, p, n - p - 1);
+                n--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contiene(char x) {
+            return posizione(x) >= 0;
+        }
+
+        @Override
+        int cardinalita() {
+            return n;
+        }
+
+        @Override
+        Contenitore and(Contenitore altro) {
+            ContenitoreArray r = new ContenitoreArray();
+            r.valori = new char[Math.max(1, n)];
+            if (altro instanceof ContenitoreBitmap) {
+                for (int i = 0; i < n; i++) {
+                    if (altro.contiene(valori[i])) {
+                        r.valori[r.n++] = valori[i];
+                    }
+                }
+                return r;
+            }
+            ContenitoreArray a = (ContenitoreArray) altro;
+            int i = 0;
+            int j = 0;
+            while (i < n && j < a.n) {
+                if (valori[i] < a.valori[j]) {
+                    i++;
+                } else if (valori[i] > a.valori[j]) {
+                    j++;
+                } else {
+                    r.valori[r.n++] = valori[i];
+                    i++;
+                    j++;
+                }
+            }
+            return r;
+        }
+
+        @Override
+        int andCardinalita(Contenitore altro) {
+            int totale = 0;
+            if (altro instanceof ContenitoreBitmap) {
+                for (int i = 0; i < n; i++) {
+                    if (altro.contiene(valori[i])) {
+                        totale++;
+                    }
+                }
+                return totale;
+            }
+            ContenitoreArray a = (ContenitoreArray) altro;
+            int i = 0;
+            int j = 0;
+            while (i < n && j < a.n) {
+                if (valori[i] < a.valori[j]) {
+                    i++;
+                } else if (valori[i] > a.valori[j]) {
+                    j++;
+                } else {
+                    totale++;
+                    i++;
+                    j++;
+                }
+            }
+            return totale;
+        }
+
+        @Override
+        Contenitore or(Contenitore altro) {
+            if (altro instanceof ContenitoreBitmap) {
+                return altro.or(this);
+            }
+            ContenitoreArray a = (ContenitoreArray) altro;
+            if (n + a.n > SOGLIA_ARRAY) {
+                return inBitmap().or(a);
+            }
+            ContenitoreArray r = new ContenitoreArray();
+            r.valori = new char[Math.max(1, n + a.n)];
+            int i = 0;
+            int j = 0;
+            while (i < n || j < a.n) {
+                if (j == a.n || (i < n && valori[i] < a.valori[j])) {
+                    r.valori[r.n++] = valori[i++];
+                } else if (i == n || valori[i] > a.valori[j]) {
+                    r.valori[r.n++] = a.valori[j++];
+                } else {
+                    r.valori[r.n++] = valori[i];
+                    i++;
+                    j++;
+                }
+            }
+            return r;
+        }
+
+        @Override
+        Contenitore copia() {
+            ContenitoreArray r = new ContenitoreArray();
+            r.valori = Arrays.copyOf(valori, Math.max(1, n));
+            r.n = n;
+            return r;
+        }
+
+        @Override
+        void perOgni(int base, IntConsumer azione) {
+            for (int i = 0; i < n; i++) {
+                azione.accept(base | valori[i]);
+            }
+        }
+
+        ContenitoreBitmap inBitmap() {
+            ContenitoreBitmap b = new ContenitoreBitmap();
+            for (int i = 0; i < n; i++) {
+                b.parole[valori[i] >>> 6] |= 1L << valori[i];
+            }
+            b.cardinalita = n;
+            return b;
+        }
+    }
+
+   /**
+ * @brief Contenitore molto popolato: bitmap di 65536 bit
+ */
+    private static final class ContenitoreBitmap extends Contenitore {
+        long[] parole = new long[1024]; ///@brief I bit del blocco
+        int cardinalita;    ///@brief Numero di bit a uno
+
+        @Override
+        Contenitore aggiungi(char x) {
+            long prima = parole[x >>> 6];
+            parole[x >>> 6] = prima | (1L << x);
+            if (prima != parole[x >>> 6]) {
+                cardinalita++;
+            }
+            return this;
+        }
+
+        @Override
+        Contenitore rimuovi(char x) {
+            long prima = parole[x >>> 6];
+            parole[x >>> 6] = prima & ~(1L << x);
+            if (prima != parole[x >>> 6]) {
+                cardinalita--;
+            }
+            return cardinalita <= SOGLIA_ARRAY ? inArray() : this;
+        }
+
+        @Override
+        boolean contiene(char x) {
+            return (parole[x >>> 6] & (1L << x)) != 0;
+        }
+
+        @Override
+        int cardinalita() {
+            return cardinalita;
+        }
+
+        @Override
+        Contenitore and(Contenitore altro) {
+            if (altro instanceof ContenitoreArray) {
+                return altro.and(this);
+            }
+            ContenitoreBitmap b = (ContenitoreBitmap) altro;
+            ContenitoreBitmap r = new ContenitoreBitmap();
+            for (int i = 0; i < 1024; i++) {
+                r.parole[i] = parole[i] & b.parole[i];
+                r.cardinalita += Long.bitCount(r.parole[i]);
+            }
+            return r.cardinalita <= SOGLIA_ARRAY ? r.inArray() : r;
+        }
+
+        @Override
+        int andCardinalita(Contenitore altro) {
+            if (altro instanceof ContenitoreArray) {
+                return altro.andCardinalita(this);
+            }
+            ContenitoreBitmap b = (ContenitoreBitmap) altro;
+            int totale = 0;
+            for (int i = 0; i < 1024; i++) {
+                totale += Long.bitCount(parole[i] & b.parole[i]);
+            }
+            return totale;
+        }
+
+        @Override
+        Contenitore or(Contenitore altro) {
+            ContenitoreBitmap r = (ContenitoreBitmap) copia();
+            if (altro instanceof ContenitoreArray) {
+                ContenitoreArray a = (ContenitoreArray) altro;
+                for (int i = 0; i < a.n; i++) {
+                    r.aggiungi(a.valori[i]);
+                }
+                return r;
+            }
+            ContenitoreBitmap b = (ContenitoreBitmap) altro;
+            r.cardinalita = 0;
+            for (int i = 0; i < 1024; i++) {
+                r.parole[i] |= b.parole[i];
+                r.cardinalita += Long.bitCount(r.parole[i]);
+            }
+            return r;
+        }
+
+        @Override
+        Contenitore copia() {
+            ContenitoreBitmap r = new ContenitoreBitmap();
+            r.parole = parole.clone();
+            r.cardinalita = cardinalita;
+            return r;
+        }
+
+        @Override
+        void perOgni(int base, IntConsumer azione) {
+            for (int i = 0; i < 1024; i++) {
+                long parola = parole[i];
+                while (parola != 0) {
+                    azione.accept(base | (i << 6) | Long.numberOfTrailingZeros(parola));
+                    parola &= parola - 1;
+                }
+            }
+        }
+
+        ContenitoreArray inArray() {
+            ContenitoreArray a = new ContenitoreArray();
+            a.valori = new char[Math.max(1, cardinalita)];
+            perOgni(0, x -> a.valori[a.n++] = (char) x);
+            return a;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/**
+ * @file CacheRisultati.java
+ * @brief Questo file contiene la cache LRU dei risultati delle ricerche
+ *
+ * Ogni voce ricorda, oltre ai risultati, i campi da cui la ricerca dipende e, se disponibile,
+ * il predicato esatto della ricerca. Le modifiche ai dati invalidano solo le voci toccate:
+ * - un elemento aggiunto invalida le voci il cui predicato lo accetta (tutte, se il predicato manca);
+ * - un elemento rimosso invalida le voci che lo contengono;
+ * - la modifica di un campo invalida le voci che dipendono da quel campo e che contengono
+ *   l'elemento o il cui predicato ora lo accetta.
+ * Una ricerca preparata prima di una modifica e terminata dopo non viene messa in cache, così
+ * che un risultato calcolato su dati vecchi non possa sopravvivere all'invalidazione.
+ * I contatori di successi, mancati, invalidazioni e scarti servono a dimensionare la cache.
+ * I metodi pubblici sono sincronizzati: le ricerche possono terminare su un thread di lavoro.
+ *
+ * @author Gruppo 27
+ * @date 21 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public class CacheRisultati<T> {
+
+    public static final int DIMENSIONE_PREDEFINITA = 64; ///@brief Numero di ricerche conservate se non indicato altrimenti
+
+   /**
+ * @brief Risultati di una ricerca con le informazioni per invalidarli
+ */
+    private static final class Voce<T> {
+        final List<T> risultati; ///@brief Risultati nell'ordine restituito dalla ricerca
+        final Set<T> contenuti; ///@brief Gli stessi risultati, per identità
+        final Set<String> campi; ///@brief Campi da cui dipende la ricerca
+        final Predicate<T> verifica; ///@brief Predicato esatto della ricerca, null se non disponibile
+
+        Voce(List<T> risultati, Set<String> campi, Predicate<T> verifica) {
+            this.risultati = new ArrayList<>(risultati);
+            this.contenuti = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.contenuti.addAll(risultati);
+            this.campi = campi;
+            this.verifica = verifica;
+        }
+    }
+
+    private final int capacita; ///@brief Numero massimo di voci
+    private final Map<String, Voce<T>> voci; ///@brief Chiave della ricerca -> voce, in ordine di accesso (LRU)
+    private long versione; ///@brief Numero di modifiche notificate, per scartare i risultati calcolati su dati vecchi
+    private long successi; ///@brief Ricerche servite dalla cache
+    private long mancati; ///@brief Ricerche eseguite perché assenti dalla cache
+    private long invalidate; ///@brief Voci tolte da una modifica ai dati
+    private long scartate; ///@brief Voci tolte per fare posto (LRU)
+
+   /**
+ * @brief Costruttore della cache
+ *
+ * @param[in] capacita Il numero massimo di ricerche conservate; 0 disattiva la cache
+ */
+    public CacheRisultati(int capacita) {
+        this.capacita = Math.max(0, capacita);
+        this.voci = new LinkedHashMap<String, Voce<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Voce<T>> piuVecchia) {
+                if (size() > CacheRisultati.this.capacita) {
+                    scartate++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+   /**
+ * @brief Cerca i risultati di una ricerca in cache
+ *
+ * @param[in] chiave La chiave che identifica la ricerca
+ *
+ * @return Una copia dei risultati, oppure null se la ricerca non è in cache
+ */
+    public synchronized List<T> cerca(String chiave) {
+        Voce<T> voce = voci.get(chiave);
+        if (voce == null) {
+            mancati++;
+            return null;
+        }
+        successi++;
+        return new ArrayList<>(voce.risultati);
+    }
+
+   /**
+ * @brief Avvolge una ricerca assente dalla cache in modo che ne conservi i risultati
+ *
+ * Va chiamato sul thread che modifica i dati, quando la ricerca viene preparata: se i dati
+ * cambiano prima che la ricerca termini, i risultati non vengono conservati.
+ *
+ * @param[in] chiave La chiave che identifica la ricerca
+ * @param[in] campi I campi da cui dipende la ricerca
+ * @param[in] verifica Il predicato esatto della ricerca, null se non disponibile
+ * @param[in] ricerca La ricerca da eseguire
+ *
+ * @return La ricerca avvolta, eseguibile anche su un altro thread
+ */
+    public synchronized Supplier<List<T>> conserva(String chiave, Set<String> campi, Predicate<T> verifica, Supplier<List<T>> ricerca) {
+        long preparata = versione;
+        return () -> {
+            List<T> risultati = ricerca.get();
+            metti(chiave, risultati, campi, verifica, preparata);
+            return risultati;
+        };
+    }
+
+   /**
+ * @brief Notifica l'aggiunta di un elemento
+ *
+ * @param[in] elemento L'elemento aggiunto
+ *
+ * @return void
+ */
+    public synchronized void aggiunto(T elemento) {
+        versione++;
+        Iterator<Voce<T>> it = voci.values().iterator();
+        while (it.hasNext()) {
+            Voce<T> v = it.next();
+            if (v.verifica == null || v.verifica.test(elemento)) {
+                it.remove();
+                invalidate++;
+            }
+        }
+    }
+
+   /**
+ * @brief Notifica la rimozione di un elemento
+ *
+ * @param[in] elemento L'elemento rimosso
+ *
+ * @return void
+ */
+    public synchronized void rimosso(T elemento) {
+        versione++;
+        Iterator<Voce<T>> it = voci.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().contenuti.contains(elemento)) {
+                it.remove();
+                invalidate++;
+            }
+        }
+    }
+
+   /**
+ * @brief Notifica la modifica di un campo di un elemento
+ *
+ * @param[in] elemento L'elemento modificato
+ * @param[in] campo Il campo modificato, null se non è noto (vale come modifica di tutti i campi)
+ *
+ * @return void
+ */
+    public synchronized void modificato(T elemento, String campo) {
+        versione++;
+        Iterator<Voce<T>> it = voci.values().iterator();
+        while (it.hasNext()) {
+            Voce<T> v = it.next();
+            if ((campo == null || v.campi.contains(campo))
+                    && (v.contenuti.contains(elemento) || v.verifica == null || v.verifica.test(elemento))) {
+                it.remove();
+                invalidate++;
+            }
+        }
+    }
+
+   /**
+ * @brief Invalida le ricerche che dipendono da un campo, per modifiche a dati esterni alla collezione
+ *
+ * @param[in] campo Il campo modificato
+ *
+ * @return void
+ */
+    public synchronized void invalidaCampo(String campo) {
+        versione++;
+        Iterator<Voce<T>> it = voci.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().campi.contains(campo)) {
+                it.remove();
+                invalidate++;
+            }
+        }
+    }
+
+   /**
+ * @brief Svuota la cache (ad esempio dopo un caricamento)
+ *
+ * @return void
+ */
+    public synchronized void svuota() {
+        versione++;
+        invalidate += voci.size();
+        voci.clear();
+    }
+
+   /**
+ * @brief Numero di ricerche in cache
+ *
+ * @return Il numero di voci
+ */
+    public synchronized int dimensione() {
+        return voci.size();
+    }
+
+   /**
+ * @brief Numero massimo di ricerche in cache
+ *
+ * @return La capacità
+ */
+    public int getCapacita() {
+        return capacita;
+    }
+
+   /**
+ * @brief Numero di ricerche servite dalla cache
+ *
+ * @return I successi
+ */
+    public synchronized long getSuccessi() {
+        return successi;
+    }
+
+   /**
+ * @brief Numero di ricerche eseguite perché assenti dalla cache
+ *
+ * @return I mancati
+ */
+    public synchronized long getMancati() {
+        return mancati;
+    }
+
+   /**
+ * @brief Numero di voci tolte da modifiche ai dati
+ *
+ * @return Le invalidazioni
+ */
+    public synchronized long getInvalidate() {
+        return invalidate;
+    }
+
+   /**
+ * @brief Numero di voci tolte per fare posto a quelle nuove
+ *
+ * @return Gli scarti
+ */
+    public synchronized long getScartate() {
+        return scartate;
+    }
+
+   /**
+ * @brief Riassunto dei contatori, per il dimensionamento
+ *
+ * @return Il testo con dimensione, capacità, successi, mancati, invalidazioni e scarti
+ */
+    @Override
+    public synchronized String toString() {
+        long totale = successi + mancati;
+        return "CacheRisultati{voci=" + voci.size() + "/" + capacita
+                + ", successi=" + successi + ", mancati=" + mancati
+                + ", percentualeSuccessi=" + (totale == 0 ? 0 : 100 * successi / totale) + "%"
+                + ", invalidate=" + invalidate + ", scartate=" + scartate + '}';
+    }
+
+   /**
+ * @brief Conserva i risultati di una ricerca, se i dati non sono cambiati dalla preparazione
+ *
+ * @param[in] chiave La chiave della ricerca
+ * @param[in] risultati I risultati
+ * @param[in] campi I campi da cui dipende la ricerca
+ * @param[in] verifica Il predicato esatto, null se non disponibile
+ * @param[in] preparata La versione dei dati quando la ricerca è stata preparata
+ *
+ * @return void
+ */
+    private synchronized void metti(String chiave, List<T> risultati, Set<String> campi, Predicate<T> verifica, long preparata) {
+        if (preparata != versione || capacita == 0) {
+            return;
+        }
+        voci.put(chiave, new Voce<>(risultati, campi, verifica));
+    }
+}
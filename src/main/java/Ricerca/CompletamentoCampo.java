@@ -0,0 +1,97 @@
+/**
+ * @file CompletamentoCampo.java
+ * @brief Questo file contiene il menu di suggerimenti mostrato sotto un campo di ricerca mentre si digita
+ *
+ * A ogni modifica del testo il campo chiede i suggerimenti alla sorgente indicata (tipicamente
+ * un Suggeritore del model, che risponde entro il budget di un fotogramma) e li mostra in un
+ * ContextMenu; scegliendo un suggerimento il testo viene completato e viene avviata la ricerca.
+ *
+ * @author Gruppo 27
+ * @date 12 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+
+public class CompletamentoCampo {
+
+    public static final int NUMERO_SUGGERIMENTI = 8; ///@brief Numero massimo di suggerimenti mostrati
+
+    private final TextField campo;  ///@brief Il campo di ricerca
+    private final Function<String, List<String>> sorgente; ///@brief Restituisce i suggerimenti per il testo digitato
+    private final Consumer<String> allaScelta; ///@brief Azione eseguita quando si sceglie un suggerimento
+    private final ContextMenu menu = new ContextMenu(); ///@brief Il menu dei suggerimenti
+    private boolean inCompletamento; ///@brief Evita di richiedere suggerimenti per il testo appena completato
+
+   /**
+ * @brief Costruttore: collega il menu dei suggerimenti al campo
+ *
+ * @param[in] campo Il campo di ricerca
+ * @param[in] sorgente La funzione testo digitato -> suggerimenti
+ * @param[in] allaScelta L'azione da eseguire con il suggerimento scelto
+ */
+    public CompletamentoCampo(TextField campo, Function<String, List<String>> sorgente, Consumer<String> allaScelta) {
+        this.campo = campo;
+        this.sorgente = sorgente;
+        this.allaScelta = allaScelta;
+        campo.textProperty().addListener((oss, vecchio, nuovo) -> aggiorna(nuovo));
+        campo.focusedProperty().addListener((oss, vecchio, attivo) -> {
+            if (!attivo) {
+                menu.hide();
+            }
+        });
+    }
+
+   /**
+ * @brief Aggiorna il menu per il testo digitato
+ *
+ * @param[in] testo Il testo corrente del campo
+ *
+ * @return void
+ */
+    private void aggiorna(String testo) {
+        if (inCompletamento) {
+            return;
+        }
+        List<String> suggerimenti = testo == null || testo.trim().isEmpty() ? new ArrayList<>() : sorgente.apply(testo.trim());
+        if (suggerimenti.isEmpty()) {
+            menu.hide();
+            return;
+        }
+        List<MenuItem> voci = new ArrayList<>();
+        for (String s : suggerimenti) {
+            MenuItem voce = new MenuItem(s);
+            voce.setMnemonicParsing(false);
+            voce.setOnAction(e -> scegli(s));
+            voci.add(voce);
+        }
+        menu.getItems().setAll(voci);
+        if (!menu.isShowing() && campo.getScene() != null && campo.getScene().getWindow() != null) {
+            menu.show(campo, Side.BOTTOM, 0, 0);
+        }
+    }
+
+   /**
+ * @brief Completa il campo con il suggerimento scelto e avvia la ricerca
+ *
+ * @param[in] suggerimento Il suggerimento scelto
+ *
+ * @return void
+ */
+    private void scegli(String suggerimento) {
+        inCompletamento = true;
+        campo.setText(suggerimento);
+        campo.positionCaret(suggerimento.length());
+        inCompletamento = false;
+        menu.hide();
+        allaScelta.accept(suggerimento);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * @file Distanza.java
+ * @brief Questo file contiene il calcolo della distanza di edit (Levenshtein) limitata a una soglia
+ *
+ * Quando interessa solo sapere se due termini distano al più k modifiche, basta calcolare la
+ * diagonale della matrice di programmazione dinamica allargata di k celle per lato (banda):
+ * il costo scende da O(n*m) a O(k*n) e il calcolo si interrompe appena tutta la banda supera k.
+ *
+ * @author Gruppo 27
+ * @date 13 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+public final class Distanza {
+
+    private Distanza() {
+    }
+
+   /**
+ * @brief Distanza di edit massima ammessa per un termine della ricerca approssimata
+ *
+ * I termini brevi tollerano meno errori, altrimenti quasi ogni parola corta sarebbe simile.
+ *
+ * @param[in] termine Il termine normalizzato
+ *
+ * @return 0 fino a 2 caratteri, 1 fino a 5, 2 oltre
+ */
+    public static int ammessa(String termine) {
+        if (termine.length() <= 2) {
+            return 0;
+        }
+        return termine.length() <= 5 ? 1 : 2;
+    }
+
+   /**
+ * @brief Distanza di Levenshtein tra due stringhe, calcolata solo entro una soglia
+ *
+ * @param[in] a La prima stringa
+ * @param[in] b La seconda stringa
+ * @param[in] massimo La distanza massima che interessa
+ *
+ * @return La distanza se non supera massimo, altrimenti massimo + 1
+ */
+    public static int levenshtein(String a, String b, int massimo) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > massimo) {
+            return massimo + 1;
+        }
+        if (n > m) {
+            String t = a;
+            a = b;
+            b = t;
+            n = a.length();
+            m = b.length();
+        }
+        int fuori = massimo + 1; // valore delle celle esterne alla banda
+        int[] precedente = new int[m + 1];
+        int[] corrente = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            precedente[j] = j <= massimo ? j : fuori;
+        }
+        for (int i = 1; i <= n; i++) {
+            int da = Math.max(1, i - massimo);
+            int fino = Math.min(m, i + massimo);
+            corrente[0] = i <= massimo ? i : fuori;
+            if (da > 1) {
+                corrente[da - 1] = fuori;
+            }
+            int minimoRiga = corrente[0];
+            char c = a.charAt(i - 1);
+            for (int j = da; j <= fino; j++) {
+                int costo = c == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(precedente[j - 1] + costo, Math.min(precedente[j], corrente[j - 1]) + 1);
+                corrente[j] = Math.min(v, fuori);
+                minimoRiga = Math.min(minimoRiga, corrente[j]);
+            }
+            if (fino < m) {
+                corrente[fino + 1] = fuori;
+            }
+            if (minimoRiga > massimo) {
+                return fuori;
+            }
+            int[] t = precedente;
+            precedente = corrente;
+            corrente = t;
+        }
+        return Math.min(precedente[m], fuori);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * @file Fonetica.java
+ * @brief Questo file contiene la chiave fonetica dei nomi, pensata per l'ortografia italiana
+ *
+ * Due nomi che si pronunciano allo stesso modo hanno la stessa chiave, così che chi scrive
+ * un cognome sentito allo sportello ("Ciccarelli", "Cicarelli") trovi l'utente giusto.
+ * Sul testo normalizzato (minuscolo e senza accenti, vedi Normalizzatore) vengono applicate
+ * nell'ordine queste regole:
+ * - le lettere doppie diventano semplici ("Ciccio" = "Cicio");
+ * - "gli" davanti a vocale e "gn" (con la "i" muta davanti a vocale) diventano un unico suono;
+ * - "sc" dolce ("sce", "sci"), "c" e "g" dolci ("ce", "ci", "ge", "gi") diventano un unico suono,
+ *   e la "i" muta davanti a vocale ("cia", "gio", "scia") viene eliminata;
+ * - "c" dura, "ch", "q", "k" diventano "k"; "gh" diventa "g"; la "h" muta viene eliminata;
+ * - "ph" diventa "f", "x" diventa "ks", "j" e "y" diventano "i", "w" diventa "v";
+ * - la "n" davanti a "b" e "p" diventa "m" ("Sanpietro" = "Sampietro"), e i suoni ripetuti si fondono.
+ * Spazi, apostrofi e trattini vengono ignorati ("D'Amico" = "Damico", "De Luca" = "Deluca").
+ *
+ * @author Gruppo 27
+ * @date 22 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+public final class Fonetica {
+
+    private Fonetica() {
+    }
+
+   /**
+ * @brief Calcola la chiave fonetica di un nome
+ *
+ * @param[in] testo Il nome, eventualmente null
+ *
+ * @return La chiave fonetica (stringa vuota se il testo non contiene lettere)
+ */
+    public static String chiave(String testo) {
+        String normale = Normalizzatore.normalizza(testo);
+        StringBuilder lettere = new StringBuilder(normale.length());
+        for (int i = 0; i < normale.length(); i++) {
+            char ch = normale.charAt(i);
+            if (ch >= 'a' && ch <= 'z' && (lettere.length() == 0 || lettere.charAt(lettere.length() - 1) != ch)) {
+                lettere.append(ch);
+            }
+        }
+        String s = lettere.toString();
+        StringBuilder suoni = new StringBuilder(s.length());
+        int i = 0;
+        while (i < s.length()) {
+            char ch = s.charAt(i);
+            char dopo = lettera(s, i + 1);
+            switch (ch) {
+                case 'g':
+                    if (s.startsWith("gli", i) && vocale(lettera(s, i + 3))) {
+                        suoni.append('L');
+                        i += 3;
+                    } else if (dopo == 'n') {
+                        suoni.append('N');
+                        i += vocale(lettera(s, i + 3)) && lettera(s, i + 2) == 'i' ? 3 : 2;
+                    } else if (dopo == 'e' || dopo == 'i') {
+                        suoni.append('G');
+                        i += dopo == 'i' && vocale(lettera(s, i + 2)) ? 2 : 1;
+                    } else {
+                        suoni.append('g');
+                        i += dopo == 'h' ? 2 : 1;
+                    }
+                    break;
+                case 's':
+                    if (dopo == 'c' && (lettera(s, i + 2) == 'e' || lettera(s, i + 2) == 'i')) {
+                        suoni.append('S');
+                        i += lettera(s, i + 2) == 'i' && vocale(lettera(s, i + 3)) ? 3 : 2;
+                    } else {
+                        suoni.append('s');
+                        i++;
+                    }
+                    break;
+                case 'c':
+                    if (dopo == 'e' || dopo == 'i') {
+                        suoni.append('C');
+                        i += dopo == 'i' && vocale(lettera(s, i + 2)) ? 2 : 1;
+                    } else {
+                        suoni.append('k');
+                        i += dopo == 'h' ? 2 : 1;
+                    }
+                    break;
+                case 'q':
+                case 'k':
+                    suoni.append('k');
+                    i++;
+                    break;
+                case 'h':
+                    i++; // muta
+                    break;
+                case 'p':
+                    suoni.append(dopo == 'h' ? 'f' : 'p');
+                    i += dopo == 'h' ? 2 : 1;
+                    break;
+                case 'x':
+                    suoni.append("ks");
+                    i++;
+                    break;
+                case 'j':
+                case 'y':
+                    suoni.append('i');
+                    i++;
+                    break;
+                case 'w':
+                    suoni.append('v');
+                    i++;
+                    break;
+                case 'n':
+                    suoni.append(dopo == 'b' || dopo == 'p' ? 'm' : 'n');
+                    i++;
+                    break;
+                default:
+                    suoni.append(ch);
+                    i++;
+            }
+        }
+        StringBuilder chiave = new StringBuilder(suoni.length());
+        for (int j = 0; j < suoni.length(); j++) {
+            if (j == 0 || suoni.charAt(j) != suoni.charAt(j - 1)) {
+                chiave.append(suoni.charAt(j));
+            }
+        }
+        return chiave.toString();
+    }
+
+   /**
+ * @brief Lettera in una posizione, senza uscire dal testo
+ *
+ * @param[in] s Il testo
+ * @param[in] i La posizione
+ *
+ * @return La lettera, oppure il carattere NUL oltre la fine
+ */
+    private static char lettera(String s, int i) {
+        return i < s.length() ? s.charAt(i) : '\0';
+    }
+
+   /**
+ * @brief Indica se una lettera è una vocale
+ *
+ * @param[in] ch La lettera
+ *
+ * @return True per a, e, i, o, u
+ */
+    private static boolean vocale(char ch) {
+        return ch == 'a' || ch == 'e' || ch == 'i' || ch == 'o' || ch == 'u';
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * @file IndiceBitmap.java
+ * @brief Questo file contiene l'indice a bitmap per le ricerche a faccette
+ *
+ * Ogni elemento riceve un identificativo intero (riusato dopo le rimozioni, così gli identificativi
+ * restano compatti); per ogni faccetta (es. usura, disponibilità, decennio) e per ogni suo valore
+ * l'indice mantiene la Bitmap degli elementi con quel valore. Una selezione si combina con OR tra
+ * i valori della stessa faccetta e con AND tra faccette diverse; i conteggi di ciascun valore sono
+ * la cardinalità dell'AND tra la sua bitmap e il filtro delle altre faccette, così che ogni voce
+ * indichi quanti elementi si otterrebbero selezionandola.
+ * I metodi pubblici sono sincronizzati per poter interrogare l'indice da un thread di lavoro.
+ *
+ * @author Gruppo 27
+ * @date 16 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class IndiceBitmap<T> {
+
+    private final Map<String, Function<T, String>> faccette = new LinkedHashMap<>(); ///@brief Nome della faccetta -> estrattore del valore
+    private final Map<String, TreeMap<String, Bitmap>> bitmap = new LinkedHashMap<>(); ///@brief Faccetta -> valore -> elementi con quel valore
+    private final Map<T, Integer> ids = new IdentityHashMap<>(); ///@brief Elemento -> identificativo
+    private final List<T> documenti = new ArrayList<>(); ///@brief Identificativo -> elemento (null se libero)
+    private final List<String[]> valoriDocumento = new ArrayList<>(); ///@brief Identificativo -> valore indicizzato per ogni faccetta
+    private final Deque<Integer> liberi = new ArrayDeque<>(); ///@brief Identificativi liberati dalle rimozioni
+    private Bitmap tutti = new Bitmap(); ///@brief Identificativi di tutti gli elementi indicizzati
+
+   /**
+ * @brief Aggiunge una faccetta all'indice
+ *
+ * Le faccette vanno definite prima di indicizzare gli elementi
+ *
+ * @param[in] nome Il nome della faccetta
+ * @param[in] estrattore La funzione che restituisce il valore della faccetta per un elemento
+ *
+ * @return L'indice stesso, per concatenare le chiamate
+ */
+    public IndiceBitmap<T> aggiungiFaccetta(String nome, Function<T, String> estrattore) {
+        faccette.put(nome, estrattore);
+        bitmap.put(nome, new TreeMap<>());
+        return this;
+    }
+
+   /**
+ * @brief Numero di elementi indicizzati
+ *
+ * @return Il numero di elementi
+ */
+    public synchronized int dimensione() {
+        return ids.size();
+    }
+
+   /**
+ * @brief Indicizza un elemento; se era già indicizzato lo aggiorna
+ *
+ * @param[in] elemento L'elemento da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void aggiungi(T elemento) {
+        Integer id = ids.get(elemento);
+        if (id == null) {
+            id = liberi.isEmpty() ? documenti.size() : liberi.pop();
+            if (id == documenti.size()) {
+                documenti.add(elemento);
+                valoriDocumento.add(null);
+            } else {
+                documenti.set(id, elemento);
+            }
+            ids.put(elemento, id);
+            tutti.aggiungi(id);
+        } else {
+            togli(id);
+        }
+        String[] valori = new String[faccette.size()];
+        int f = 0;
+        for (Map.Entry<String, Function<T, String>> faccetta : faccette.entrySet()) {
+            valori[f] = faccetta.getValue().apply(elemento);
+            bitmap.get(faccetta.getKey()).computeIfAbsent(valori[f], k -> new Bitmap()).aggiungi(id);
+            f++;
+        }
+        valoriDocumento.set(id, valori);
+    }
+
+   /**
+ * @brief Rimuove un elemento dall'indice
+ *
+ * @param[in] elemento L'elemento da rimuovere
+ *
+ * @return void
+ */
+    public synchronized void rimuovi(T elemento) {
+        Integer id = ids.remove(elemento);
+        if (id == null) {
+            return;
+        }
+        togli(id);
+        tutti.rimuovi(id);
+        documenti.set(id, null);
+        valoriDocumento.set(id, null);
+        liberi.push(id);
+    }
+
+   /**
+ * @brief Reindicizza un elemento dopo la modifica di un campo
+ *
+ * @param[in] elemento L'elemento modificato
+ *
+ * @return void
+ */
+    public synchronized void aggiorna(T elemento) {
+        if (ids.containsKey(elemento)) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Ricostruisce l'indice da zero
+ *
+ * @param[in] elementi Gli elementi da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void ricostruisci(Collection<? extends T> elementi) {
+        for (TreeMap<String, Bitmap> valori : bitmap.values()) {
+            valori.clear();
+        }
+        ids.clear();
+        documenti.clear();
+        valoriDocumento.clear();
+        liberi.clear();
+        tutti = new Bitmap();
+        for (T elemento : elementi) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Restituisce la bitmap degli elementi che soddisfano una selezione
+ *
+ * @param[in] selezione Faccetta -> valori selezionati; i valori di una faccetta sono in OR,
+ *            le faccette in AND. Le faccette assenti o senza valori non filtrano
+ *
+ * @return La bitmap degli identificativi selezionati
+ */
+    public synchronized Bitmap filtro(Map<String, ? extends Collection<String>> selezione) {
+        return filtro(selezione, null);
+    }
+
+   /**
+ * @brief Conta gli elementi per ogni valore di ogni faccetta
+ *
+ * Il conteggio di un valore tiene conto della selezione sulle altre faccette e
+ * dell'eventuale insieme di partenza, non della selezione sulla sua stessa faccetta
+ *
+ * @param[in] selezione La selezione corrente, come per filtro()
+ * @param[in] base Gli elementi tra cui contare (es. i risultati di una ricerca), null per tutti
+ *
+ * @return Faccetta -> valore -> numero di elementi, con i valori in ordine alfabetico
+ */
+    public synchronized Map<String, Map<String, Integer>> conteggi(Map<String, ? extends Collection<String>> selezione,
+            Collection<? extends T> base) {
+        Bitmap partenza = base == null ? null : bitmapDi(base);
+        Map<String, Map<String, Integer>> risultato = new LinkedHashMap<>();
+        for (Map.Entry<String, TreeMap<String, Bitmap>> faccetta : bitmap.entrySet()) {
+            Bitmap altre = filtro(selezione, faccetta.getKey());
+            if (partenza != null) {
+                altre = altre.and(partenza);
+            }
+            Map<String, Integer> perValore = new LinkedHashMap<>();
+            for (Map.Entry<String, Bitmap> valore : faccetta.getValue().entrySet()) {
+                perValore.put(valore.getKey(), valore.getValue().andCardinalita(altre));
+            }
+            risultato.put(faccetta.getKey(), perValore);
+        }
+        return risultato;
+    }
+
+   /**
+ * @brief Restituisce gli elementi di una bitmap
+ *
+ * @param[in] selezionati La bitmap degli identificativi
+ *
+ * @return Gli elementi, in ordine di identificativo
+ */
+    public synchronized List<T> elementi(Bitmap selezionati) {
+        List<T> risultati = new ArrayList<>(selezionati.cardinalita());
+        selezionati.perOgni(id -> {
+            if (id < documenti.size() && documenti.get(id) != null) {
+                risultati.add(documenti.get(id));
+            }
+        });
+        return risultati;
+    }
+
+   /**
+ * @brief Restituisce gli elementi che hanno un certo valore di una faccetta
+ *
+ * @param[in] faccetta Il nome della faccetta
+ * @param[in] valore Il valore cercato
+ *
+ * @return Gli elementi, in ordine di identificativo
+ */
+    public synchronized List<T> elementi(String faccetta, String valore) {
+        TreeMap<String, Bitmap> valori = bitmap.get(faccetta);
+        Bitmap b = valori == null ? null : valori.get(valore);
+        return b == null ? new ArrayList<>() : elementi(b);
+    }
+
+   /**
+ * @brief Predicato che accetta gli elementi di una selezione, da usare come filtro di una vista
+ *
+ * @param[in] selezione La selezione, come per filtro()
+ *
+ * @return Il predicato
+ */
+    public Predicate<T> predicato(Map<String, ? extends Collection<String>> selezione) {
+        Bitmap selezionati = filtro(selezione);
+        return elemento -> {
+            synchronized (this) {
+                Integer id = ids.get(elemento);
+                return id != null && selezionati.contiene(id);
+            }
+        };
+    }
+
+   /**
+ * @brief Combina la selezione in una bitmap, escludendo eventualmente una faccetta
+ *
+ * @param[in] selezione La selezione
+ * @param[in] esclusa La faccetta da ignorare, null per nessuna
+ *
+ * @return La bitmap degli identificativi selezionati
+ */
+    private Bitmap filtro(Map<String, ? extends Collection<String>> selezione, String esclusa) {
+        Bitmap risultato = tutti;
+        for (Map.Entry<String, ? extends Collection<String>> scelta : selezione.entrySet()) {
+            TreeMap<String, Bitmap> valori = bitmap.get(scelta.getKey());
+            if (valori == null || scelta.getValue().isEmpty() || scelta.getKey().equals(esclusa)) {
+                continue;
+            }
+            Bitmap unione = new Bitmap();
+            for (String valore : scelta.getValue()) {
+                Bitmap b = valori.get(valore);
+                if (b != null) {
+                    unione = unione.or(b);
+                }
+            }
+            risultato = risultato.and(unione);
+        }
+        return risultato == tutti ? tutti.or(new Bitmap()) : risultato;
+    }
+
+   /**
+ * @brief Bitmap degli identificativi di una collezione di elementi indicizzati
+ *
+ * @param[in] elementi Gli elementi
+ *
+ * @return La bitmap; gli elementi non indicizzati sono ignorati
+ */
+    private Bitmap bitmapDi(Collection<? extends T> elementi) {
+        Bitmap b = new Bitmap();
+        for (T elemento : elementi) {
+            Integer id = ids.get(elemento);
+            if (id != null) {
+                b.aggiungi(id);
+            }
+        }
+        return b;
+    }
+
+   /**
+ * @brief Toglie un identificativo dalle bitmap dei valori con cui era indicizzato
+ *
+ * @param[in] id L'identificativo
+ *
+ * @return void
+ */
+    private void togli(int id) {
+        String[] valori = valoriDocumento.get(id);
+        if (valori == null) {
+            return;
+        }
+        int f = 0;
+        for (TreeMap<String, Bitmap> perValore : bitmap.values()) {
+            Bitmap b = perValore.get(valori[f]);
+            b.rimuovi(id);
+            if (b.cardinalita() == 0) {
+                perValore.remove(valori[f]);
+            }
+            f++;
+        }
+    }
+}
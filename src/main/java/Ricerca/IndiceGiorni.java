@@ -0,0 +1,238 @@
+/**
+ * @file IndiceGiorni.java
+ * @brief Questo file contiene l'indice ordinato per le ricerche per intervallo su una data espressa in giorni
+ *
+ * È la variante di IndiceIntervalli per le date conservate come giorni dall'epoca (int): invece
+ * di una mappa ordinata di Double con una lista per valore, gli elementi sono tenuti in due array
+ * paralleli ordinati per giorno (int[] dei giorni e array degli elementi). Una ricerca per
+ * intervallo trova il primo giorno utile con una ricerca binaria e scorre l'array fino all'ultimo.
+ * Aggiunte, rimozioni e modifiche aggiornano solo la mappa elemento -> giorno e segnano gli array
+ * come da riordinare: vengono ricostruiti alla ricerca successiva, ordinando un long[] in cui
+ * ogni voce contiene il giorno (nei 32 bit alti) e la posizione dell'elemento (nei 32 bassi).
+ * È adatto a molte ricerche tra poche modifiche, come le scadenze dei prestiti.
+ * I metodi pubblici sono sincronizzati per poter cercare da un thread di lavoro.
+ *
+ * @author Gruppo 27
+ * @date 28 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+public class IndiceGiorni<T> {
+
+    private final ToIntFunction<T> estrattore; ///@brief Legge il giorno indicizzato
+    private final Map<T, Integer> giornoDi = new IdentityHashMap<>(); ///@brief Giorno con cui ogni elemento è indicizzato
+    private int[] giorni = new int[0]; ///@brief Giorni degli elementi, in ordine crescente
+    private Object[] elementi = new Object[0]; ///@brief Elementi, nello stesso ordine dei giorni
+    private boolean ordinato = true; ///@brief False se la mappa è cambiata dall'ultima ricostruzione degli array
+
+   /**
+ * @brief Costruttore dell'indice
+ *
+ * @param[in] estrattore La funzione che legge il giorno (giorni dall'epoca)
+ */
+    public IndiceGiorni(ToIntFunction<T> estrattore) {
+        this.estrattore = estrattore;
+    }
+
+   /**
+ * @brief Numero di elementi indicizzati
+ *
+ * @return Il numero di elementi
+ */
+    public synchronized int dimensione() {
+        return giornoDi.size();
+    }
+
+   /**
+ * @brief Indicizza un elemento; se era già indicizzato lo aggiorna
+ *
+ * @param[in] elemento L'elemento da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void aggiungi(T elemento) {
+        giornoDi.put(elemento, estrattore.applyAsInt(elemento));
+        ordinato = false;
+    }
+
+   /**
+ * @brief Rimuove un elemento dall'indice
+ *
+ * @param[in] elemento L'elemento da rimuovere
+ *
+ * @return void
+ */
+    public synchronized void rimuovi(T elemento) {
+        if (giornoDi.remove(elemento) != null) {
+            ordinato = false;
+        }
+    }
+
+   /**
+ * @brief Reindicizza un elemento dopo la modifica del giorno
+ *
+ * @param[in] elemento L'elemento modificato
+ *
+ * @return void
+ */
+    public synchronized void aggiorna(T elemento) {
+        if (giornoDi.containsKey(elemento)) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Ricostruisce l'indice da zero
+ *
+ * @param[in] nuovi Gli elementi da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void ricostruisci(Collection<? extends T> nuovi) {
+        giornoDi.clear();
+        for (T elemento : nuovi) {
+            giornoDi.put(elemento, estrattore.applyAsInt(elemento));
+        }
+        ordinato = false;
+    }
+
+   /**
+ * @brief Restituisce gli elementi il cui giorno cade nell'intervallo
+ *
+ * @param[in] intervallo L'intervallo cercato, in giorni dall'epoca
+ *
+ * @return Gli elementi trovati, in ordine crescente di giorno
+ */
+    public synchronized List<T> cerca(Intervallo intervallo) {
+        ordina();
+        int da = primo(intervallo);
+        int a = dopoUltimo(intervallo);
+        List<T> risultati = new ArrayList<>(Math.max(0, a - da));
+        for (int i = da; i < a; i++) {
+            risultati.add(elemento(i));
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Conta gli elementi il cui giorno cade nell'intervallo, senza copiarli
+ *
+ * @param[in] intervallo L'intervallo cercato, in giorni dall'epoca
+ *
+ * @return Il numero di elementi
+ */
+    public synchronized int conta(Intervallo intervallo) {
+        ordina();
+        return Math.max(0, dopoUltimo(intervallo) - primo(intervallo));
+    }
+
+   /**
+ * @brief Restituisce tutti gli elementi in ordine di giorno
+ *
+ * @return Gli elementi, dal giorno più vecchio
+ */
+    public synchronized List<T> ordinati() {
+        ordina();
+        List<T> risultati = new ArrayList<>(elementi.length);
+        for (int i = 0; i < elementi.length; i++) {
+            risultati.add(elemento(i));
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Ricostruisce gli array ordinati se la mappa è cambiata
+ *
+ * @return void
+ */
+    private void ordina() {
+        if (ordinato) {
+            return;
+        }
+        int n = giornoDi.size();
+        Object[] inOrdineDiMappa = new Object[n];
+        long[] chiavi = new long[n];
+        int i = 0;
+        for (Map.Entry<T, Integer> e : giornoDi.entrySet()) {
+            inOrdineDiMappa[i] = e.getKey();
+            chiavi[i] = ((long) e.getValue() << 32) | i; // il giorno con segno nei bit alti mantiene l'ordine
+            i++;
+        }
+        Arrays.sort(chiavi);
+        giorni = new int[n];
+        elementi = new Object[n];
+        for (i = 0; i < n; i++) {
+            giorni[i] = (int) (chiavi[i] >> 32);
+            elementi[i] = inOrdineDiMappa[(int) chiavi[i]];
+        }
+        ordinato = true;
+    }
+
+   /**
+ * @brief Posizione del primo elemento con giorno non inferiore al minimo dell'intervallo
+ *
+ * @param[in] intervallo L'intervallo
+ *
+ * @return La posizione
+ */
+    private int primo(Intervallo intervallo) {
+        double minimo = intervallo.getMinimo();
+        long giorno = intervallo.isMinimoIncluso() ? (long) Math.ceil(minimo) : (long) Math.floor(minimo) + 1;
+        return inizioDi(giorno);
+    }
+
+   /**
+ * @brief Posizione successiva all'ultimo elemento con giorno non superiore al massimo dell'intervallo
+ *
+ * @param[in] intervallo L'intervallo
+ *
+ * @return La posizione
+ */
+    private int dopoUltimo(Intervallo intervallo) {
+        double massimo = intervallo.getMassimo();
+        long giorno = intervallo.isMassimoIncluso() ? (long) Math.floor(massimo) : (long) Math.ceil(massimo) - 1;
+        return giorno == Long.MAX_VALUE ? giorni.length : inizioDi(giorno + 1);
+    }
+
+   /**
+ * @brief Ricerca binaria del primo elemento con giorno maggiore o uguale a quello indicato
+ *
+ * @param[in] giorno Il giorno (anche fuori dall'intervallo degli int, per gli estremi infiniti)
+ *
+ * @return La posizione, giorni.length se tutti i giorni sono minori
+ */
+    private int inizioDi(long giorno) {
+        int basso = 0;
+        int alto = giorni.length;
+        while (basso < alto) {
+            int medio = (basso + alto) >>> 1;
+            if (giorni[medio] < giorno) {
+                basso = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return basso;
+    }
+
+   /**
+ * @brief Elemento in una posizione degli array ordinati
+ *
+ * @param[in] i La posizione
+ *
+ * @return L'elemento
+ */
+    @SuppressWarnings("unchecked")
+    private T elemento(int i) {
+        return (T) elementi[i];
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * @file IndiceIntervalli.java
+ * @brief Questo file contiene l'indice ordinato per le ricerche per intervallo su un campo numerico
+ *
+ * Gli elementi sono raggruppati per valore del campo in una mappa ordinata: una ricerca per
+ * intervallo individua il primo valore utile in O(log n) e poi scorre solo i k elementi trovati.
+ * L'indice ricorda il valore con cui ogni elemento è stato inserito, così che dopo una modifica
+ * del campo l'elemento possa essere tolto dal gruppo vecchio e messo in quello nuovo.
+ * I metodi pubblici sono sincronizzati per poter cercare da un thread di lavoro.
+ *
+ * @author Gruppo 27
+ * @date 15 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+public class IndiceIntervalli<T> {
+
+    private final ToDoubleFunction<T> estrattore; ///@brief Legge il valore del campo indicizzato
+    private final NavigableMap<Double, List<T>> perValore = new TreeMap<>(); ///@brief Valore -> elementi con quel valore
+    private final Map<T, Double> valori = new IdentityHashMap<>(); ///@brief Valore con cui ogni elemento è indicizzato
+
+   /**
+ * @brief Costruttore dell'indice
+ *
+ * @param[in] estrattore La funzione che legge il campo numerico
+ */
+    public IndiceIntervalli(ToDoubleFunction<T> estrattore) {
+        this.estrattore = estrattore;
+    }
+
+   /**
+ * @brief Numero di elementi indicizzati
+ *
+ * @return Il numero di elementi
+ */
+    public synchronized int dimensione() {
+        return valori.size();
+    }
+
+   /**
+ * @brief Indicizza un elemento; se era già indicizzato lo aggiorna
+ *
+ * @param[in] elemento L'elemento da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void aggiungi(T elemento) {
+        togli(elemento);
+        double valore = estrattore.applyAsDouble(elemento);
+        valori.put(elemento, valore);
+        perValore.computeIfAbsent(valore, k -> new ArrayList<>(1)).add(elemento);
+    }
+
+   /**
+ * @brief Rimuove un elemento dall'indice
+ *
+ * @param[in] elemento L'elemento da rimuovere
+ *
+ * @return void
+ */
+    public synchronized void rimuovi(T elemento) {
+        togli(elemento);
+    }
+
+   /**
+ * @brief Reindicizza un elemento dopo la modifica del campo
+ *
+ * @param[in] elemento L'elemento modificato
+ *
+ * @return void
+ */
+    public synchronized void aggiorna(T elemento) {
+        if (valori.containsKey(elemento)) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Ricostruisce l'indice da zero
+ *
+ * @param[in] elementi Gli elementi da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void ricostruisci(Collection<? extends T> elementi) {
+        perValore.clear();
+        valori.clear();
+        for (T elemento : elementi) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Restituisce gli elementi il cui valore cade nell'intervallo
+ *
+ * @param[in] intervallo L'intervallo cercato
+ *
+ * @return Gli elementi trovati, in ordine crescente di valore
+ */
+    public synchronized List<T> cerca(Intervallo intervallo) {
+        List<T> risultati = new ArrayList<>();
+        if (intervallo.getMinimo() > intervallo.getMassimo()) {
+            return risultati;
+        }
+        for (List<T> gruppo : perValore.subMap(intervallo.getMinimo(), intervallo.isMinimoIncluso(),
+                intervallo.getMassimo(), intervallo.isMassimoIncluso()).values()) {
+            risultati.addAll(gruppo);
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Toglie un elemento dal gruppo del valore con cui era indicizzato
+ *
+ * @param[in] elemento L'elemento da togliere
+ *
+ * @return void
+ */
+    private void togli(T elemento) {
+        Double valore = valori.remove(elemento);
+        if (valore == null) {
+            return;
+        }
+        List<T> gruppo = perValore.get(valore);
+        for (int i = 0; i < gruppo.size(); i++) {
+            if (gruppo.get(i) == elemento) {
+                gruppo.set(i, gruppo.get(gruppo.size() - 1));
+                gruppo.remove(gruppo.size() - 1);
+                break;
+            }
+        }
+        if (gruppo.isEmpty()) {
+            perValore.remove(valore);
+        }
+    }
+}
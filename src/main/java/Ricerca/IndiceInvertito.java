@@ -0,0 +1,426 @@
+/**
+ * @file IndiceInvertito.java
+ * @brief Questo file contiene l'indice invertito per la ricerca testuale con risultati ordinati per rilevanza
+ *
+ * Ogni elemento indicizzato riceve un identificativo intero. Per ogni termine normalizzato
+ * (vedi Normalizzatore) l'indice mantiene la lista ordinata degli identificativi che lo contengono
+ * (posting list); ogni voce porta anche la maschera dei campi in cui il termine compare, così che
+ * la ricerca possa essere limitata a un campo e pesare diversamente i campi.
+ * I termini della query vengono trattati come prefissi: "manz" trova "manzoni". I risultati
+ * devono contenere tutti i termini e sono ordinati per punteggio: somma, per ogni termine, di
+ * idf * peso del campo, dimezzata se il termine è solo un prefisso.
+ * La ricerca approssimata (cercaSimili) sostituisce ai prefissi i termini del vocabolario entro
+ * una piccola distanza di edit, trovati tramite l'indice dei trigrammi (vedi IndiceTrigrammi).
+ * I metodi pubblici sono sincronizzati, così che le ricerche possano girare su un thread di lavoro
+ * mentre il thread JavaFX aggiorna l'indice.
+ *
+ * @author Gruppo 27
+ * @date 11 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+public class IndiceInvertito<T> {
+
+    private static final int BIT_CAMPI = 3; ///@brief Bit riservati alla maschera dei campi in ogni voce
+    public static final int TUTTI_I_CAMPI = (1 << BIT_CAMPI) - 1; ///@brief Maschera che comprende tutti i campi
+
+    private final List<Function<T, String>> campi = new ArrayList<>(); ///@brief Estrattori dei campi indicizzati
+    private final List<Double> pesi = new ArrayList<>(); ///@brief Peso di ciascun campo nel punteggio
+    private final NavigableMap<String, ListaVoci> posting = new TreeMap<>(); ///@brief Termine -> voci (id << BIT_CAMPI | maschera)
+    private final Map<T, Integer> ids = new IdentityHashMap<>(); ///@brief Elemento -> identificativo
+    private final List<T> documenti = new ArrayList<>(); ///@brief Identificativo -> elemento (null se libero)
+    private final List<String[]> terminiDocumento = new ArrayList<>(); ///@brief Identificativo -> termini indicizzati
+    private final Deque<Integer> liberi = new ArrayDeque<>(); ///@brief Identificativi liberati dalle rimozioni
+    private final IndiceTrigrammi vocabolario = new IndiceTrigrammi(); ///@brief Trigrammi dei termini presenti, per la ricerca approssimata
+
+   /**
+ * @brief Aggiunge un campo da indicizzare
+ *
+ * @pre L'indice deve essere ancora vuoto e avere meno di tre campi
+ *
+ * @param[in] estrattore La funzione che legge il campo dall'elemento
+ * @param[in] peso Il peso del campo nel punteggio
+ *
+ * @return L'indice stesso, per concatenare le chiamate
+ */
+    public IndiceInvertito<T> aggiungiCampo(Function<T, String> estrattore, double peso) {
+        if (campi.size() == BIT_CAMPI) {
+            throw new IllegalStateException("Un indice invertito supporta al massimo " + BIT_CAMPI + " campi");
+        }
+        campi.add(estrattore);
+        pesi.add(peso);
+        return this;
+    }
+
+   /**
+ * @brief Numero di elementi indicizzati
+ *
+ * @return Il numero di elementi
+ */
+    public synchronized int dimensione() {
+        return ids.size();
+    }
+
+   /**
+ * @brief Numero di termini distinti presenti nell'indice
+ *
+ * @return Il numero di termini
+ */
+    public synchronized int numeroTermini() {
+        return posting.size();
+    }
+
+   /**
+ * @brief Indicizza un elemento; se era già indicizzato lo aggiorna
+ *
+ * @param[in] elemento L'elemento da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void aggiungi(T elemento) {
+        if (ids.containsKey(elemento)) {
+            rimuovi(elemento);
+        }
+        Map<String, Integer> maschere = new LinkedHashMap<>();
+        for (int c = 0; c < campi.size(); c++) {
+            for (String termine : Normalizzatore.termini(campi.get(c).apply(elemento))) {
+                maschere.merge(termine, 1 << c, (a, b) -> a | b);
+            }
+        }
+        int id = liberi.isEmpty() ? documenti.size() : liberi.pop();
+        if (id == documenti.size()) {
+            documenti.add(elemento);
+            terminiDocumento.add(null);
+        } else {
+            documenti.set(id, elemento);
+        }
+        terminiDocumento.set(id, maschere.keySet().toArray(new String[0]));
+        ids.put(elemento, id);
+        for (Map.Entry<String, Integer> e : maschere.entrySet()) {
+            posting.computeIfAbsent(e.getKey(), k -> {
+                vocabolario.aggiungi(k);
+                return new ListaVoci();
+            }).inserisci((id << BIT_CAMPI) | e.getValue());
+        }
+    }
+
+   /**
+ * @brief Rimuove un elemento dall'indice
+ *
+ * @param[in] elemento L'elemento da rimuovere
+ *
+ * @return void
+ */
+    public synchronized void rimuovi(T elemento) {
+        Integer id = ids.remove(elemento);
+        if (id == null) {
+            return;
+        }
+        for (String termine : terminiDocumento.get(id)) {
+            ListaVoci voci = posting.get(termine);
+            voci.rimuovi(id);
+            if (voci.dimensione() == 0) {
+                posting.remove(termine);
+                vocabolario.rimuovi(termine);
+            }
+        }
+        documenti.set(id, null);
+        terminiDocumento.set(id, null);
+        liberi.push(id);
+    }
+
+   /**
+ * @brief Reindicizza un elemento dopo la modifica di un campo indicizzato
+ *
+ * @param[in] elemento L'elemento modificato
+ *
+ * @return void
+ */
+    public synchronized void aggiorna(T elemento) {
+        if (ids.containsKey(elemento)) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Ricostruisce l'indice da zero
+ *
+ * @param[in] elementi Gli elementi da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void ricostruisci(Collection<? extends T> elementi) {
+        posting.clear();
+        vocabolario.svuota();
+        ids.clear();
+        documenti.clear();
+        terminiDocumento.clear();
+        liberi.clear();
+        for (T elemento : elementi) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Cerca gli elementi che contengono tutti i termini della query, in qualunque campo
+ *
+ * @param[in] query Il testo cercato
+ * @param[in] massimo Il numero massimo di risultati
+ *
+ * @return Gli elementi trovati, dal più rilevante
+ */
+    public List<T> cerca(String query, int massimo) {
+        return cerca(query, TUTTI_I_CAMPI, massimo);
+    }
+
+   /**
+ * @brief Cerca gli elementi che contengono tutti i termini della query nei campi indicati
+ *
+ * @param[in] query Il testo cercato
+ * @param[in] maschera I campi in cui cercare (bit i = i-esimo campo aggiunto)
+ * @param[in] massimo Il numero massimo di risultati
+ *
+ * @return Gli elementi trovati, dal più rilevante
+ */
+    public synchronized List<T> cerca(String query, int maschera, int massimo) {
+        List<String> termini = Normalizzatore.termini(query);
+        List<T> risultati = new ArrayList<>();
+        if (termini.isEmpty() || massimo <= 0) {
+            return risultati;
+        }
+
+        // per ogni termine: le posting list dei termini dell'indice che iniziano con esso
+        List<Espansione> espansioni = new ArrayList<>();
+        for (String termine : new LinkedHashSet<>(termini)) {
+            Espansione e = new Espansione(termine, posting.subMap(termine, true, termine + Character.MAX_VALUE, false), null);
+            if (e.voci == 0) {
+                return risultati;
+            }
+            espansioni.add(e);
+        }
+        return interseca(espansioni, maschera, massimo);
+    }
+
+   /**
+ * @brief Cerca gli elementi che contengono, nei campi indicati, un termine simile a ogni termine della query
+ *
+ * Ogni termine della query viene espanso nei termini del vocabolario entro la distanza ammessa
+ * (vedi Distanza.ammessa); il punteggio di un termine simile è l'idf diviso per (1 + distanza).
+ *
+ * @param[in] query Il testo cercato, anche con errori di battitura
+ * @param[in] maschera I campi in cui cercare (bit i = i-esimo campo aggiunto)
+ * @param[in] massimo Il numero massimo di risultati
+ *
+ * @return Gli elementi trovati, dal più rilevante
+ */
+    public synchronized List<T> cercaSimili(String query, int maschera, int massimo) {
+        List<String> termini = Normalizzatore.termini(query);
+        if (termini.isEmpty() || massimo <= 0) {
+            return new ArrayList<>();
+        }
+        List<Espansione> espansioni = new ArrayList<>();
+        for (String termine : new LinkedHashSet<>(termini)) {
+            Map<String, Integer> distanze = vocabolario.simili(termine, Distanza.ammessa(termine));
+            Map<String, ListaVoci> liste = new LinkedHashMap<>();
+            for (String simile : distanze.keySet()) {
+                liste.put(simile, posting.get(simile));
+            }
+            Espansione e = new Espansione(termine, liste, distanze);
+            if (e.voci == 0) {
+                return new ArrayList<>();
+            }
+            espansioni.add(e);
+        }
+        return interseca(espansioni, maschera, massimo);
+    }
+
+   /**
+ * @brief Interseca le espansioni dei termini della query e ordina i risultati per punteggio
+ *
+ * @param[in] espansioni Un'espansione per ogni termine distinto della query
+ * @param[in] maschera I campi in cui cercare
+ * @param[in] massimo Il numero massimo di risultati
+ *
+ * @return Gli elementi trovati, dal più rilevante
+ */
+    private List<T> interseca(List<Espansione> espansioni, int maschera, int massimo) {
+        List<T> risultati = new ArrayList<>();
+        espansioni.sort((a, b) -> Long.compare(a.voci, b.voci));
+
+        // intersezione partendo dal termine più selettivo
+        Map<Integer, Double> punteggi = null;
+        for (Espansione e : espansioni) {
+            Map<Integer, Double> nuovi = new HashMap<>();
+            if (punteggi == null || (long) punteggi.size() * e.liste.size() > e.voci) {
+                for (Map.Entry<String, ListaVoci> lista : e.liste.entrySet()) {
+                    double base = punteggioBase(e, lista);
+                    ListaVoci voci = lista.getValue();
+                    for (int i = 0; i < voci.dimensione(); i++) {
+                        int voce = voci.get(i);
+                        int id = voce >>> BIT_CAMPI;
+                        if ((voce & maschera) == 0 || (punteggi != null && !punteggi.containsKey(id))) {
+                            continue;
+                        }
+                        nuovi.merge(id, base * peso(voce & maschera), Math::max);
+                    }
+                }
+            } else {
+                for (Integer id : punteggi.keySet()) {
+                    for (Map.Entry<String, ListaVoci> lista : e.liste.entrySet()) {
+                        int campiVoce = lista.getValue().campi(id) & maschera;
+                        if (campiVoce != 0) {
+                            nuovi.merge(id, punteggioBase(e, lista) * peso(campiVoce), Math::max);
+                        }
+                    }
+                }
+            }
+            if (punteggi != null) {
+                for (Map.Entry<Integer, Double> n : nuovi.entrySet()) {
+                    n.setValue(n.getValue() + punteggi.get(n.getKey()));
+                }
+            }
+            punteggi = nuovi;
+            if (punteggi.isEmpty()) {
+                return risultati;
+            }
+        }
+
+        List<Map.Entry<Integer, Double>> ordinati = new ArrayList<>(punteggi.entrySet());
+        ordinati.sort((a, b) -> {
+            int c = Double.compare(b.getValue(), a.getValue());
+            return c != 0 ? c : Integer.compare(a.getKey(), b.getKey());
+        });
+        for (int i = 0; i < ordinati.size() && i < massimo; i++) {
+            risultati.add(documenti.get(ordinati.get(i).getKey()));
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Punteggio di un termine dell'indice per un termine della query, prima del peso del campo
+ *
+ * @param[in] e L'espansione del termine della query
+ * @param[in] lista Il termine dell'indice e le sue voci
+ *
+ * @return idf del termine, dimezzato se il termine della query ne è solo un prefisso o diviso
+ *         per (1 + distanza) se è un termine simile
+ */
+    private double punteggioBase(Espansione e, Map.Entry<String, ListaVoci> lista) {
+        double idf = Math.log(1.0 + (double) ids.size() / lista.getValue().dimensione());
+        if (e.distanze != null) {
+            return idf / (1 + e.distanze.get(lista.getKey()));
+        }
+        return lista.getKey().equals(e.termine) ? idf : idf / 2;
+    }
+
+   /**
+ * @brief Peso massimo tra i campi di una maschera
+ *
+ * @param[in] maschera I campi in cui compare il termine
+ *
+ * @return Il peso del campo più importante
+ */
+    private double peso(int maschera) {
+        double massimo = 0;
+        for (int c = 0; c < campi.size(); c++) {
+            if ((maschera & (1 << c)) != 0) {
+                massimo = Math.max(massimo, pesi.get(c));
+            }
+        }
+        return massimo;
+    }
+
+   /**
+ * @brief Termine della query con le posting list dei termini che lo estendono o che gli sono simili
+ */
+    private static class Espansione {
+        final String termine;   ///@brief Il termine della query
+        final Map<String, ListaVoci> liste; ///@brief Termini dell'indice che iniziano con il termine o gli sono simili
+        final Map<String, Integer> distanze; ///@brief Distanza di edit di ogni termine simile (null per i prefissi)
+        final long voci;    ///@brief Numero totale di voci nelle liste
+
+        Espansione(String termine, Map<String, ListaVoci> liste, Map<String, Integer> distanze) {
+            this.termine = termine;
+            this.liste = liste;
+            this.distanze = distanze;
+            long n = 0;
+            for (ListaVoci l : liste.values()) {
+                n += l.dimensione();
+            }
+            this.voci = n;
+        }
+    }
+
+   /**
+ * @brief Posting list: array di interi ordinato (id << BIT_CAMPI | maschera) senza boxing
+ */
+    private static class ListaVoci {
+        private int[] voci = new int[2]; ///@brief Le voci ordinate
+        private int n;  ///@brief Numero di voci valide
+
+        int dimensione() {
+            return n;
+        }
+
+        int get(int i) {
+            return voci[i];
+        }
+
+        void inserisci(int voce) {
+            int pos = n;
+            if (n > 0 && voci[n - 1] > voce) {
+                pos = posizione(voce >>> BIT_CAMPI);
+            }
+            if (n == voci.length) {
+                voci = Arrays.copyOf(voci, n * 2);
+            }
+            System.arraycopy(voci, pos, voci, pos + 1, n - pos);
+            voci[pos] = voce;
+            n++;
+        }
+
+        void rimuovi(int id) {
+            int pos = posizione(id);
+            if (pos < n && voci[pos] >>> BIT_CAMPI == id) {
+                System.arraycopy(voci, pos + 1, voci, pos, n - pos - 1);
+                n--;
+            }
+        }
+
+        int campi(int id) {
+            int pos = posizione(id);
+            return pos < n && voci[pos] >>> BIT_CAMPI == id ? voci[pos] & TUTTI_I_CAMPI : 0;
+        }
+
+        private int posizione(int id) {
+            int chiave = id << BIT_CAMPI;
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (voci[mid] < chiave) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
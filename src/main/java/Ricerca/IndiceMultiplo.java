@@ -0,0 +1,150 @@
+/**
+ * @file IndiceMultiplo.java
+ * @brief Questo file contiene l'indice hash a chiave ripetuta (una chiave -> più elementi)
+ *
+ * Gli elementi sono raggruppati per chiave in una mappa hash: la ricerca di una chiave costa O(1)
+ * più il numero k di elementi trovati, e il conteggio costa O(1). Come IndiceIntervalli, l'indice
+ * ricorda la chiave con cui ogni elemento è stato inserito, così che dopo una modifica l'elemento
+ * possa essere spostato dal gruppo vecchio a quello nuovo. Gli elementi sono confrontati per
+ * identità. I metodi pubblici sono sincronizzati per poter cercare da un thread di lavoro.
+ *
+ * @author Gruppo 27
+ * @date 19 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class IndiceMultiplo<T> {
+
+    private final Function<T, String> estrattore; ///@brief Legge la chiave (già normalizzata) dell'elemento
+    private final Map<String, List<T>> perChiave = new HashMap<>(); ///@brief Chiave -> elementi con quella chiave
+    private final Map<T, String> chiavi = new IdentityHashMap<>(); ///@brief Chiave con cui ogni elemento è indicizzato
+
+   /**
+ * @brief Costruttore dell'indice
+ *
+ * @param[in] estrattore La funzione che legge la chiave; gli elementi con chiave vuota o null non sono indicizzati
+ */
+    public IndiceMultiplo(Function<T, String> estrattore) {
+        this.estrattore = estrattore;
+    }
+
+   /**
+ * @brief Numero di elementi indicizzati
+ *
+ * @return Il numero di elementi
+ */
+    public synchronized int dimensione() {
+        return chiavi.size();
+    }
+
+   /**
+ * @brief Indicizza un elemento; se era già indicizzato lo aggiorna
+ *
+ * @param[in] elemento L'elemento da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void aggiungi(T elemento) {
+        togli(elemento);
+        String chiave = estrattore.apply(elemento);
+        if (chiave == null || chiave.isEmpty()) {
+            return;
+        }
+        chiavi.put(elemento, chiave);
+        perChiave.computeIfAbsent(chiave, k -> new ArrayList<>(2)).add(elemento);
+    }
+
+   /**
+ * @brief Rimuove un elemento dall'indice
+ *
+ * @param[in] elemento L'elemento da rimuovere
+ *
+ * @return void
+ */
+    public synchronized void rimuovi(T elemento) {
+        togli(elemento);
+    }
+
+   /**
+ * @brief Reindicizza un elemento dopo la modifica della chiave
+ *
+ * @param[in] elemento L'elemento modificato
+ *
+ * @return void
+ */
+    public synchronized void aggiorna(T elemento) {
+        aggiungi(elemento);
+    }
+
+   /**
+ * @brief Ricostruisce l'indice da zero
+ *
+ * @param[in] elementi Gli elementi da indicizzare
+ *
+ * @return void
+ */
+    public synchronized void ricostruisci(Collection<? extends T> elementi) {
+        perChiave.clear();
+        chiavi.clear();
+        for (T elemento : elementi) {
+            aggiungi(elemento);
+        }
+    }
+
+   /**
+ * @brief Restituisce gli elementi indicizzati con una chiave
+ *
+ * @param[in] chiave La chiave cercata, già normalizzata come quelle dell'estrattore
+ *
+ * @return Una copia degli elementi trovati, in ordine di inserimento
+ */
+    public synchronized List<T> cerca(String chiave) {
+        List<T> gruppo = perChiave.get(chiave);
+        return gruppo == null ? new ArrayList<>() : new ArrayList<>(gruppo);
+    }
+
+   /**
+ * @brief Conta gli elementi indicizzati con una chiave, senza copiarli
+ *
+ * @param[in] chiave La chiave cercata
+ *
+ * @return Il numero di elementi
+ */
+    public synchronized int conta(String chiave) {
+        List<T> gruppo = perChiave.get(chiave);
+        return gruppo == null ? 0 : gruppo.size();
+    }
+
+   /**
+ * @brief Toglie un elemento dal gruppo della chiave con cui era indicizzato
+ *
+ * @param[in] elemento L'elemento da togliere
+ *
+ * @return void
+ */
+    private void togli(T elemento) {
+        String chiave = chiavi.remove(elemento);
+        if (chiave == null) {
+            return;
+        }
+        List<T> gruppo = perChiave.get(chiave);
+        for (int i = 0; i < gruppo.size(); i++) {
+            if (gruppo.get(i) == elemento) {
+                gruppo.remove(i); // mantiene l'ordine di inserimento
+                break;
+            }
+        }
+        if (gruppo.isEmpty()) {
+            perChiave.remove(chiave);
+        }
+    }
+}
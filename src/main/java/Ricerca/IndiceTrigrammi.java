@@ -0,0 +1,193 @@
+/**
+ * @file IndiceTrigrammi.java
+ * @brief Questo file contiene l'indice dei trigrammi usato per trovare i termini simili a un termine dato
+ *
+ * Ogni termine del vocabolario viene scomposto nei suoi trigrammi, con due spazi in testa e uno in
+ * coda ("eco" -> "  e", " ec", "eco", "co "), e per ogni trigramma l'indice mantiene la lista dei
+ * termini che lo contengono. Una modifica di un carattere distrugge al più tre trigrammi, per cui
+ * un termine a distanza di edit k deve condividerne almeno |trigrammi| - 3k con il termine cercato:
+ * solo i candidati che superano questa soglia vengono verificati con la distanza di Levenshtein.
+ *
+ * @author Gruppo 27
+ * @date 13 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class IndiceTrigrammi {
+
+    private final Map<String, ListaTermini> perTrigramma = new HashMap<>(); ///@brief Trigramma -> identificativi dei termini
+    private final Map<String, Integer> ids = new HashMap<>(); ///@brief Termine -> identificativo
+    private final List<String> termini = new ArrayList<>(); ///@brief Identificativo -> termine (null se libero)
+    private final Deque<Integer> liberi = new ArrayDeque<>(); ///@brief Identificativi liberati dalle rimozioni
+
+   /**
+ * @brief Numero di termini presenti
+ *
+ * @return Il numero di termini
+ */
+    public int dimensione() {
+        return ids.size();
+    }
+
+   /**
+ * @brief Aggiunge un termine al vocabolario
+ *
+ * @param[in] termine Il termine normalizzato
+ *
+ * @return void
+ */
+    public void aggiungi(String termine) {
+        if (ids.containsKey(termine)) {
+            return;
+        }
+        int id = liberi.isEmpty() ? termini.size() : liberi.pop();
+        if (id == termini.size()) {
+            termini.add(termine);
+        } else {
+            termini.set(id, termine);
+        }
+        ids.put(termine, id);
+        for (String t : trigrammi(termine)) {
+            perTrigramma.computeIfAbsent(t, k -> new ListaTermini()).aggiungi(id);
+        }
+    }
+
+   /**
+ * @brief Rimuove un termine dal vocabolario
+ *
+ * @param[in] termine Il termine normalizzato
+ *
+ * @return void
+ */
+    public void rimuovi(String termine) {
+        Integer id = ids.remove(termine);
+        if (id == null) {
+            return;
+        }
+        for (String t : trigrammi(termine)) {
+            ListaTermini lista = perTrigramma.get(t);
+            lista.rimuovi(id);
+            if (lista.n == 0) {
+                perTrigramma.remove(t);
+            }
+        }
+        termini.set(id, null);
+        liberi.push(id);
+    }
+
+   /**
+ * @brief Svuota l'indice
+ *
+ * @return void
+ */
+    public void svuota() {
+        perTrigramma.clear();
+        ids.clear();
+        termini.clear();
+        liberi.clear();
+    }
+
+   /**
+ * @brief Trova i termini del vocabolario entro una distanza di edit
+ *
+ * @param[in] termine Il termine normalizzato cercato
+ * @param[in] massimo La distanza di edit massima
+ *
+ * @return Termine -> distanza, dal più vicino (a parità di distanza in ordine alfabetico)
+ */
+    public Map<String, Integer> simili(String termine, int massimo) {
+        Map<String, Integer> risultati = new LinkedHashMap<>();
+        Set<String> trigrammiTermine = trigrammi(termine);
+        int soglia = Math.max(1, trigrammiTermine.size() - 3 * massimo);
+
+        // conta i trigrammi in comune con ogni termine che ne condivide almeno uno
+        int[] comuni = new int[termini.size()];
+        int[] toccati = new int[16];
+        int nToccati = 0;
+        for (String t : trigrammiTermine) {
+            ListaTermini lista = perTrigramma.get(t);
+            if (lista == null) {
+                continue;
+            }
+            for (int i = 0; i < lista.n; i++) {
+                int id = lista.ids[i];
+                if (comuni[id]++ == 0) {
+                    if (nToccati == toccati.length) {
+                        toccati = Arrays.copyOf(toccati, nToccati * 2);
+                    }
+                    toccati[nToccati++] = id;
+                }
+            }
+        }
+
+        // verifica con la distanza limitata solo i candidati sopra soglia
+        List<int[]> trovati = new ArrayList<>();
+        for (int i = 0; i < nToccati; i++) {
+            int id = toccati[i];
+            if (comuni[id] < soglia) {
+                continue;
+            }
+            int d = Distanza.levenshtein(termine, termini.get(id), massimo);
+            if (d <= massimo) {
+                trovati.add(new int[]{id, d});
+            }
+        }
+        trovati.sort((a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : termini.get(a[0]).compareTo(termini.get(b[0])));
+        for (int[] t : trovati) {
+            risultati.put(termini.get(t[0]), t[1]);
+        }
+        return risultati;
+    }
+
+   /**
+ * @brief Trigrammi distinti di un termine, con due spazi in testa e uno in coda
+ *
+ * @param[in] termine Il termine normalizzato
+ *
+ * @return L'insieme dei trigrammi
+ */
+    static Set<String> trigrammi(String termine) {
+        String s = "  " + termine + " ";
+        Set<String> risultato = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            risultato.add(s.substring(i, i + 3));
+        }
+        return risultato;
+    }
+
+   /**
+ * @brief Lista non ordinata di identificativi di termini, senza boxing
+ */
+    private static class ListaTermini {
+        int[] ids = new int[4]; ///@brief Gli identificativi
+        int n;  ///@brief Numero di identificativi validi
+
+        void aggiungi(int id) {
+            if (n == ids.length) {
+                ids = Arrays.copyOf(ids, n * 2);
+            }
+            ids[n++] = id;
+        }
+
+        void rimuovi(int id) {
+            for (int i = 0; i < n; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--n];
+                    return;
+                }
+            }
+        }
+    }
+}
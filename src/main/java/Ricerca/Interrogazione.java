@@ -0,0 +1,285 @@
+/**
+ * @file Interrogazione.java
+ * @brief Questo file contiene l'albero di un'interrogazione composta e il suo analizzatore
+ *
+ * Un'interrogazione si scrive nel campo di ricerca come sequenza di condizioni, ad esempio
+ * autore:eco anno:>1980 usura:buono
+ * Ogni condizione è "campo:valore" oppure un valore senza campo (cercato nel campo predefinito);
+ * i valori con spazi vanno tra virgolette (titolo:"nome della rosa"). Le condizioni affiancate
+ * sono in AND, la parola OR (o il simbolo |) le mette in alternativa, il segno - davanti a una
+ * condizione la nega e le parentesi raggruppano. L'AND lega più dell'OR.
+ * Gli alberi già analizzati sono conservati in una piccola cache LRU, così che le ricerche
+ * ripetute (ad esempio mentre si digita) non rianalizzino lo stesso testo; gli alberi sono
+ * immutabili e possono essere condivisi tra thread.
+ *
+ * @author Gruppo 27
+ * @date 17 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class Interrogazione {
+
+   /**
+ * @brief Tipo di nodo dell'albero
+ */
+    public enum Tipo {
+        E,  ///< Tutti i figli devono valere
+        O,  ///< Almeno un figlio deve valere
+        NON,    ///< Il figlio non deve valere
+        CONDIZIONE  ///< Foglia campo:valore
+    }
+
+    public static final int DIMENSIONE_CACHE = 128; ///@brief Numero di interrogazioni analizzate conservate
+
+    ///@brief Testo -> albero analizzato, in ordine di accesso (LRU)
+    private static final Map<String, Interrogazione> CACHE = new LinkedHashMap<String, Interrogazione>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Interrogazione> piuVecchia) {
+            return size() > DIMENSIONE_CACHE;
+        }
+    };
+
+    private final Tipo tipo;    ///@brief Tipo del nodo
+    private final List<Interrogazione> figli; ///@brief Sottoalberi (vuota per le condizioni)
+    private final String campo; ///@brief Campo della condizione in minuscolo, null se assente
+    private final String valore;    ///@brief Valore della condizione
+
+   /**
+ * @brief Costruttore di un nodo
+ *
+ * @param[in] tipo Il tipo del nodo
+ * @param[in] figli I sottoalberi
+ * @param[in] campo Il campo della condizione
+ * @param[in] valore Il valore della condizione
+ */
+    private Interrogazione(Tipo tipo, List<Interrogazione> figli, String campo, String valore) {
+        this.tipo = tipo;
+        this.figli = Collections.unmodifiableList(figli);
+        this.campo = campo;
+        this.valore = valore;
+    }
+
+   /**
+ * @brief Tipo del nodo
+ *
+ * @return Il tipo
+ */
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+   /**
+ * @brief Sottoalberi del nodo
+ *
+ * @return La lista immutabile dei figli
+ */
+    public List<Interrogazione> getFigli() {
+        return figli;
+    }
+
+   /**
+ * @brief Campo della condizione
+ *
+ * @return Il campo in minuscolo, null se la condizione non indica un campo
+ */
+    public String getCampo() {
+        return campo;
+    }
+
+   /**
+ * @brief Valore della condizione
+ *
+ * @return Il valore, senza virgolette
+ */
+    public String getValore() {
+        return valore;
+    }
+
+   /**
+ * @brief Analizza il testo di un'interrogazione, usando la cache se possibile
+ *
+ * @param[in] testo Il testo scritto nel campo di ricerca
+ *
+ * @return L'albero dell'interrogazione
+ *
+ * @throws IllegalArgumentException se il testo è vuoto o malformato (parentesi o virgolette
+ *         non chiuse, OR senza operandi)
+ */
+    public static Interrogazione analizza(String testo) {
+        String chiave = testo.trim();
+        synchronized (CACHE) {
+            Interrogazione q = CACHE.get(chiave);
+            if (q != null) {
+                return q;
+            }
+        }
+        Interrogazione q = new Analizzatore(simboli(chiave)).analizza();
+        synchronized (CACHE) {
+            CACHE.put(chiave, q);
+        }
+        return q;
+    }
+
+   /**
+ * @brief Numero di interrogazioni nella cache
+ *
+ * @return La dimensione della cache
+ */
+    public static int dimensioneCache() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+   /**
+ * @brief Rappresentazione testuale dell'albero, con le parentesi esplicite
+ *
+ * @return Il testo dell'albero
+ */
+    @Override
+    public String toString() {
+        switch (tipo) {
+            case CONDIZIONE:
+                return (campo == null ? "" : campo + ":") + valore;
+            case NON:
+                return "-" + figli.get(0);
+            default:
+                List<String> parti = new ArrayList<>();
+                for (Interrogazione f : figli) {
+                    parti.add(f.toString());
+                }
+                return "(" + String.join(tipo == Tipo.E ? " " : " OR ", parti) + ")";
+        }
+    }
+
+   /**
+ * @brief Suddivide il testo in simboli: parentesi, OR, segni di negazione e condizioni
+ *
+ * Le condizioni sono restituite come "campo:valore" o "valore" con le virgolette già tolte;
+ * un carattere NUL iniziale distingue le condizioni dagli operatori.
+ *
+ * @param[in] testo Il testo da suddividere
+ *
+ * @return I simboli nell'ordine in cui compaiono
+ */
+    private static List<String> simboli(String testo) {
+        List<String> simboli = new ArrayList<>();
+        int i = 0;
+        while (i < testo.length()) {
+            char ch = testo.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                i++;
+            } else if (ch == '(' || ch == ')' || ch == '|') {
+                simboli.add(String.valueOf(ch));
+                i++;
+            } else if (ch == '-' && i + 1 < testo.length() && !Character.isWhitespace(testo.charAt(i + 1))) {
+                // all'inizio di una parola il segno meno è una negazione; dentro ("1990-2000") resta nel valore
+                simboli.add("-");
+                i++;
+            } else {
+                StringBuilder sb = new StringBuilder();
+                while (i < testo.length()) {
+                    ch = testo.charAt(i);
+                    if (ch == '"') {
+                        int fine = testo.indexOf('"', i + 1);
+                        if (fine < 0) {
+                            throw new IllegalArgumentException("Virgolette non chiuse");
+                        }
+                        sb.append(testo, i + 1, fine);
+                        i = fine + 1;
+                    } else if (Character.isWhitespace(ch) || ch == '(' || ch == ')' || ch == '|') {
+                        break;
+                    } else {
+                        sb.append(ch);
+                        i++;
+                    }
+                }
+                String parola = sb.toString();
+                simboli.add(parola.equals("OR") ? "|" : "\u0000" + parola);
+            }
+        }
+        return simboli;
+    }
+
+   /**
+ * @brief Analizzatore a discesa ricorsiva
+ *
+ * espressione := congiunzione ( "|" congiunzione )*
+ * congiunzione := unario+
+ * unario := "-" unario | "(" espressione ")" | condizione
+ */
+    private static final class Analizzatore {
+        private final List<String> simboli;  ///@brief Simboli da analizzare
+        private int pos;    ///@brief Posizione del prossimo simbolo
+
+        Analizzatore(List<String> simboli) {
+            this.simboli = simboli;
+        }
+
+        Interrogazione analizza() {
+            if (simboli.isEmpty()) {
+                throw new IllegalArgumentException("Interrogazione vuota");
+            }
+            Interrogazione q = espressione();
+            if (pos < simboli.size()) {
+                throw new IllegalArgumentException("Parentesi chiusa senza parentesi aperta");
+            }
+            return q;
+        }
+
+        private Interrogazione espressione() {
+            List<Interrogazione> alternative = new ArrayList<>();
+            alternative.add(congiunzione());
+            while (pos < simboli.size() && simboli.get(pos).equals("|")) {
+                pos++;
+                alternative.add(congiunzione());
+            }
+            return alternative.size() == 1 ? alternative.get(0) : new Interrogazione(Tipo.O, alternative, null, null);
+        }
+
+        private Interrogazione congiunzione() {
+            List<Interrogazione> condizioni = new ArrayList<>();
+            while (pos < simboli.size() && !simboli.get(pos).equals("|") && !simboli.get(pos).equals(")")) {
+                condizioni.add(unario());
+            }
+            if (condizioni.isEmpty()) {
+                throw new IllegalArgumentException("OR senza condizioni da confrontare");
+            }
+            return condizioni.size() == 1 ? condizioni.get(0) : new Interrogazione(Tipo.E, condizioni, null, null);
+        }
+
+        private Interrogazione unario() {
+            String s = simboli.get(pos++);
+            if (s.equals("-")) {
+                if (pos == simboli.size()) {
+                    throw new IllegalArgumentException("Negazione senza condizione");
+                }
+                List<Interrogazione> figlio = new ArrayList<>();
+                figlio.add(unario());
+                return new Interrogazione(Tipo.NON, figlio, null, null);
+            }
+            if (s.equals("(")) {
+                Interrogazione q = espressione();
+                if (pos == simboli.size() || !simboli.get(pos).equals(")")) {
+                    throw new IllegalArgumentException("Parentesi non chiusa");
+                }
+                pos++;
+                return q;
+            }
+            String parola = s.substring(1);
+            int duepunti = parola.indexOf(':');
+            if (duepunti <= 0) {
+                return new Interrogazione(Tipo.CONDIZIONE, new ArrayList<>(), null, parola);
+            }
+            return new Interrogazione(Tipo.CONDIZIONE, new ArrayList<>(),
+                    Normalizzatore.normalizza(parola.substring(0, duepunti)), parola.substring(duepunti + 1));
+        }
+    }
+}
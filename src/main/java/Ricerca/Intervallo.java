@@ -0,0 +1,135 @@
+/**
+ * @file Intervallo.java
+ * @brief Questo file contiene l'intervallo numerico usato dalle ricerche per anno e per prezzo
+ *
+ * L'intervallo si scrive nel campo di ricerca in una delle forme "1990-2000", "1990..2000",
+ * "<15", "<=15", ">2000", ">=2000" oppure con un solo valore ("1990"). Il separatore decimale
+ * può essere il punto o la virgola e il simbolo dell'euro viene ignorato.
+ *
+ * @author Gruppo 27
+ * @date 15 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+public final class Intervallo {
+
+    private final double minimo;    ///@brief Estremo inferiore (-infinito se assente)
+    private final boolean minimoIncluso; ///@brief Se l'estremo inferiore fa parte dell'intervallo
+    private final double massimo;   ///@brief Estremo superiore (+infinito se assente)
+    private final boolean massimoIncluso; ///@brief Se l'estremo superiore fa parte dell'intervallo
+
+   /**
+ * @brief Costruttore dell'intervallo
+ *
+ * @param[in] minimo L'estremo inferiore
+ * @param[in] minimoIncluso Se l'estremo inferiore è incluso
+ * @param[in] massimo L'estremo superiore
+ * @param[in] massimoIncluso Se l'estremo superiore è incluso
+ */
+    public Intervallo(double minimo, boolean minimoIncluso, double massimo, boolean massimoIncluso) {
+        this.minimo = minimo;
+        this.minimoIncluso = minimoIncluso;
+        this.massimo = massimo;
+        this.massimoIncluso = massimoIncluso;
+    }
+
+   /**
+ * @brief Estremo inferiore dell'intervallo
+ *
+ * @return L'estremo inferiore, -infinito se assente
+ */
+    public double getMinimo() {
+        return minimo;
+    }
+
+   /**
+ * @brief Indica se l'estremo inferiore è incluso
+ *
+ * @return True se l'estremo inferiore fa parte dell'intervallo
+ */
+    public boolean isMinimoIncluso() {
+        return minimoIncluso;
+    }
+
+   /**
+ * @brief Estremo superiore dell'intervallo
+ *
+ * @return L'estremo superiore, +infinito se assente
+ */
+    public double getMassimo() {
+        return massimo;
+    }
+
+   /**
+ * @brief Indica se l'estremo superiore è incluso
+ *
+ * @return True se l'estremo superiore fa parte dell'intervallo
+ */
+    public boolean isMassimoIncluso() {
+        return massimoIncluso;
+    }
+
+   /**
+ * @brief Indica se un valore appartiene all'intervallo
+ *
+ * @param[in] valore Il valore da verificare
+ *
+ * @return True se il valore è compreso tra gli estremi
+ */
+    public boolean contiene(double valore) {
+        boolean sopra = minimoIncluso ? valore >= minimo : valore > minimo;
+        boolean sotto = massimoIncluso ? valore <= massimo : valore < massimo;
+        return sopra && sotto;
+    }
+
+   /**
+ * @brief Interpreta il testo scritto nel campo di ricerca
+ *
+ * @param[in] testo Il testo da interpretare
+ *
+ * @return L'intervallo, oppure null se il testo non è in una delle forme ammesse o se
+ *         l'estremo inferiore supera quello superiore
+ */
+    public static Intervallo interpreta(String testo) {
+        String s = testo.replace("€", "").replace(" ", "").replace(',', '.');
+        if (s.isEmpty()) {
+            return null;
+        }
+        try {
+            if (s.startsWith("<=") || s.startsWith("≤")) {
+                return new Intervallo(Double.NEGATIVE_INFINITY, false, numero(s.substring(s.startsWith("≤") ? 1 : 2)), true);
+            }
+            if (s.startsWith("<")) {
+                return new Intervallo(Double.NEGATIVE_INFINITY, false, numero(s.substring(1)), false);
+            }
+            if (s.startsWith(">=") || s.startsWith("≥")) {
+                return new Intervallo(numero(s.substring(s.startsWith("≥") ? 1 : 2)), true, Double.POSITIVE_INFINITY, false);
+            }
+            if (s.startsWith(">")) {
+                return new Intervallo(numero(s.substring(1)), false, Double.POSITIVE_INFINITY, false);
+            }
+            String[] estremi = s.split("\\.\\.|-|–", 2);
+            double da = numero(estremi[0]);
+            double a = estremi.length == 2 ? numero(estremi[1]) : da;
+            return da <= a ? new Intervallo(da, true, a, true) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+   /**
+ * @brief Converte un estremo, rifiutando valori non finiti
+ *
+ * @param[in] s Il testo dell'estremo
+ *
+ * @return Il valore
+ */
+    private static double numero(String s) {
+        double v = Double.parseDouble(s);
+        if (Double.isNaN(v) || Double.isInfinite(v)) {
+            throw new NumberFormatException(s);
+        }
+        return v;
+    }
+}
@@ -0,0 +1,412 @@
+/**
+ * @file MotoreInterrogazioni.java
+ * @brief Questo file contiene il pianificatore che esegue le interrogazioni composte sugli indici
+ *
+ * Ogni campo interrogabile registra una verifica (il predicato esatto "l'elemento soddisfa
+ * campo:valore") e, se esiste, un indice che restituisce direttamente gli elementi che la
+ * soddisfano. Per un AND il pianificatore interroga gli indici applicabili, parte dal risultato
+ * più piccolo e lo interseca con i successivi in ordine di dimensione, fermandosi appena
+ * l'intersezione è vuota; le condizioni senza indice vengono poi verificate solo sui candidati
+ * rimasti. Un OR usa gli indici solo se tutte le alternative ne hanno uno (unione dei risultati).
+ * Solo quando nessun indice è applicabile (ad esempio un'interrogazione fatta solo di negazioni
+ * o di campi non indicizzati) l'intera collezione viene scorsa con la verifica.
+ * La preparazione, che valida i valori, va fatta sul thread che possiede i dati; l'esecuzione
+ * restituita può girare su un thread di lavoro (gli indici sono sincronizzati).
+ *
+ * @author Gruppo 27
+ * @date 17 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+public class MotoreInterrogazioni<T> {
+
+    private final Map<String, Campo<T>> campi = new HashMap<>(); ///@brief Nome o alias normalizzato -> campo
+    private Campo<T> predefinito; ///@brief Campo delle condizioni senza nome di campo
+
+   /**
+ * @brief Registra un campo interrogabile
+ *
+ * @param[in] nome Il nome del campo, usato come "nome:valore"
+ * @param[in] verifica Dato il valore, il predicato esatto; lancia IllegalArgumentException se il valore non è valido
+ * @param[in] indice Dato il valore, gli elementi che soddisfano la condizione; null se il campo non è indicizzato
+ * @param[in] alias Altri nomi accettati per il campo
+ *
+ * @return Il motore stesso, per concatenare le chiamate
+ */
+    public MotoreInterrogazioni<T> aggiungiCampo(String nome, Function<String, Predicate<T>> verifica,
+            Function<String, List<T>> indice, String... alias) {
+        Campo<T> campo = new Campo<>(nome, verifica, indice, Collections.singleton(nome));
+        campi.put(Normalizzatore.normalizza(nome), campo);
+        for (String a : alias) {
+            campi.put(Normalizzatore.normalizza(a), campo);
+        }
+        return this;
+    }
+
+   /**
+ * @brief Imposta il campo usato dalle condizioni scritte senza nome di campo
+ *
+ * @param[in] verifica Dato il valore, il predicato esatto
+ * @param[in] indice Dato il valore, gli elementi che soddisfano la condizione; null se non indicizzato
+ * @param[in] dipendenze I nomi dei campi letti dal campo predefinito
+ *
+ * @return Il motore stesso, per concatenare le chiamate
+ */
+    public MotoreInterrogazioni<T> campoPredefinito(Function<String, Predicate<T>> verifica, Function<String, List<T>> indice,
+            String... dipendenze) {
+        predefinito = new Campo<>("", verifica, indice, new HashSet<>(Arrays.asList(dipendenze)));
+        return this;
+    }
+
+   /**
+ * @brief Restituisce i campi da cui dipende un'interrogazione
+ *
+ * Le condizioni senza campo (o con un campo non registrato) dipendono dai campi del campo predefinito
+ *
+ * @param[in] q L'interrogazione analizzata
+ *
+ * @return I nomi dei campi, come registrati con aggiungiCampo
+ */
+    public Set<String> campi(Interrogazione q) {
+        Set<String> usati = new HashSet<>();
+        raccogliCampi(q, usati);
+        return usati;
+    }
+
+   /**
+ * @brief Restituisce il predicato esatto di un'interrogazione
+ *
+ * @param[in] q L'interrogazione analizzata
+ *
+ * @return Il predicato che un elemento deve soddisfare
+ *
+ * @throws IllegalArgumentException se un valore non è valido per il suo campo
+ */
+    public Predicate<T> verifica(Interrogazione q) {
+        return pianifica(q).verifica;
+    }
+
+   /**
+ * @brief Indica se l'interrogazione usa almeno un campo registrato
+ *
+ * Un testo senza campi riconosciuti (ad esempio un titolo che contiene i due punti) va
+ * cercato con la ricerca semplice
+ *
+ * @param[in] q L'interrogazione analizzata
+ *
+ * @return True se almeno una condizione indica un campo registrato
+ */
+    public boolean usaCampi(Interrogazione q) {
+        if (q.getTipo() == Interrogazione.Tipo.CONDIZIONE) {
+            return q.getCampo() != null && campi.containsKey(q.getCampo());
+        }
+        for (Interrogazione f : q.getFigli()) {
+            if (usaCampi(f)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+   /**
+ * @brief Pianifica un'interrogazione e restituisce la ricerca da eseguire
+ *
+ * I valori vengono validati subito; gli indici e la scansione vengono usati solo
+ * quando la ricerca restituita viene eseguita
+ *
+ * @param[in] q L'interrogazione analizzata
+ * @param[in] tutti Gli elementi da scorrere se nessun indice è applicabile (una copia, se la ricerca gira su un altro thread)
+ *
+ * @return La ricerca, che restituisce gli elementi trovati
+ *
+ * @throws IllegalArgumentException se un valore non è valido per il suo campo
+ */
+    public Supplier<List<T>> prepara(Interrogazione q, List<T> tutti) {
+        Piano<T> piano = pianifica(q);
+        return () -> {
+            List<T> trovati = piano.risolvi();
+            if (trovati != null) {
+                return trovati;
+            }
+            trovati = new ArrayList<>();
+            for (T elemento : tutti) {
+                if (piano.verifica.test(elemento)) {
+                    trovati.add(elemento);
+                }
+            }
+            return trovati;
+        };
+    }
+
+   /**
+ * @brief Verifica per i campi di testo: ogni parola del valore deve essere l'inizio di una parola del campo
+ *
+ * Corrisponde alla ricerca dell'indice invertito ("manz" trova "Manzoni")
+ *
+ * @param[in] campo L'estrattore del campo
+ *
+ * @return La fabbrica dei predicati
+ */
+    public static <T> Function<String, Predicate<T>> perParole(Function<T, String> campo) {
+        return valore -> {
+            List<String> cercati = Normalizzatore.termini(valore);
+            return elemento -> {
+                List<String> presenti = Normalizzatore.termini(campo.apply(elemento), true);
+                for (String cercato : cercati) {
+                    boolean trovato = false;
+                    for (int i = 0; i < presenti.size() && !trovato; i++) {
+                        trovato = presenti.get(i).startsWith(cercato);
+                    }
+                    if (!trovato) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        };
+    }
+
+   /**
+ * @brief Verifica per i campi numerici: il valore è un intervallo (vedi Intervallo)
+ *
+ * @param[in] campo L'estrattore del campo
+ *
+ * @return La fabbrica dei predicati
+ */
+    public static <T> Function<String, Predicate<T>> perIntervallo(ToDoubleFunction<T> campo) {
+        return valore -> {
+            Intervallo intervallo = Intervallo.interpreta(valore);
+            if (intervallo == null) {
+                throw new IllegalArgumentException("Intervallo non valido: " + valore);
+            }
+            return elemento -> intervallo.contiene(campo.applyAsDouble(elemento));
+        };
+    }
+
+   /**
+ * @brief Verifica per i campi da confrontare per intero, senza distinguere maiuscole e accenti
+ *
+ * @param[in] campo L'estrattore del campo
+ *
+ * @return La fabbrica dei predicati
+ */
+    public static <T> Function<String, Predicate<T>> perUguaglianza(Function<T, String> campo) {
+        return valore -> {
+            String cercato = Normalizzatore.normalizza(valore.trim());
+            return elemento -> Normalizzatore.normalizza(campo.apply(elemento)).trim().equals(cercato);
+        };
+    }
+
+   /**
+ * @brief Costruisce il piano di un sottoalbero
+ *
+ * @param[in] q Il sottoalbero
+ *
+ * @return Il piano
+ */
+    private Piano<T> pianifica(Interrogazione q) {
+        switch (q.getTipo()) {
+            case CONDIZIONE: {
+                Campo<T> campo = q.getCampo() == null ? null : campi.get(q.getCampo());
+                String valore = q.getValore();
+                if (campo == null) {
+                    campo = predefinito;
+                    if (q.getCampo() != null) {
+                        valore = q.getCampo() + ":" + valore; // "java:" non è un campo: resta testo
+                    }
+                }
+                if (campo == null) {
+                    throw new IllegalArgumentException("Indicare il campo di \"" + valore + "\"");
+                }
+                if (valore.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Valore mancante per " + campo.nome);
+                }
+                String v = valore;
+                Function<String, List<T>> indice = campo.indice;
+                return new Piano<>(campo.verifica.apply(v), indice == null ? null : () -> indice.apply(v));
+            }
+            case NON: {
+                Piano<T> figlio = pianifica(q.getFigli().get(0));
+                return new Piano<>(figlio.verifica.negate(), null);
+            }
+            default: {
+                List<Piano<T>> figli = new ArrayList<>();
+                for (Interrogazione f : q.getFigli()) {
+                    figli.add(pianifica(f));
+                }
+                return q.getTipo() == Interrogazione.Tipo.E ? Piano.e(figli) : Piano.o(figli);
+            }
+        }
+    }
+
+   /**
+ * @brief Aggiunge i campi usati da un sottoalbero
+ *
+ * @param[in] q Il sottoalbero
+ * @param[in] usati I campi trovati finora
+ *
+ * @return void
+ */
+    private void raccogliCampi(Interrogazione q, Set<String> usati) {
+        if (q.getTipo() != Interrogazione.Tipo.CONDIZIONE) {
+            for (Interrogazione f : q.getFigli()) {
+                raccogliCampi(f, usati);
+            }
+            return;
+        }
+        Campo<T> campo = q.getCampo() == null ? null : campi.get(q.getCampo());
+        if (campo == null) {
+            campo = predefinito;
+        }
+        if (campo != null) {
+            usati.addAll(campo.dipendenze);
+        }
+    }
+
+   /**
+ * @brief Campo interrogabile
+ */
+    private static final class Campo<T> {
+        final String nome;  ///@brief Nome del campo
+        final Function<String, Predicate<T>> verifica; ///@brief Valore -> predicato esatto
+        final Function<String, List<T>> indice; ///@brief Valore -> elementi trovati dall'indice, null se assente
+        final Set<String> dipendenze; ///@brief Nomi dei campi letti dalla verifica
+
+        Campo(String nome, Function<String, Predicate<T>> verifica, Function<String, List<T>> indice, Set<String> dipendenze) {
+            this.nome = nome;
+            this.verifica = verifica;
+            this.indice = indice;
+            this.dipendenze = dipendenze;
+        }
+    }
+
+   /**
+ * @brief Nodo del piano di esecuzione
+ */
+    private static class Piano<T> {
+        final Predicate<T> verifica; ///@brief Predicato esatto del sottoalbero
+        private final Supplier<List<T>> indice; ///@brief Ricerca sull'indice della condizione, null se assente
+
+        Piano(Predicate<T> verifica, Supplier<List<T>> indice) {
+            this.verifica = verifica;
+            this.indice = indice;
+        }
+
+       /**
+ * @brief Elementi che soddisfano il sottoalbero, ottenuti dagli indici
+ *
+ * @return Gli elementi, oppure null se servirebbe una scansione
+ */
+        List<T> risolvi() {
+            return indice == null ? null : indice.get();
+        }
+
+        static <T> Piano<T> e(List<Piano<T>> figli) {
+            Predicate<T> tutti = elemento -> {
+                for (Piano<T> f : figli) {
+                    if (!f.verifica.test(elemento)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+            return new Piano<T>(tutti, null) {
+                @Override
+                List<T> risolvi() {
+                    List<List<T>> indicizzati = new ArrayList<>();
+                    List<Piano<T>> residui = new ArrayList<>();
+                    for (Piano<T> f : figli) {
+                        List<T> r = f.risolvi();
+                        if (r == null) {
+                            residui.add(f);
+                        } else if (r.isEmpty()) {
+                            return r; // una condizione senza risultati svuota l'AND
+                        } else {
+                            indicizzati.add(r);
+                        }
+                    }
+                    if (indicizzati.isEmpty()) {
+                        return null;
+                    }
+                    indicizzati.sort(Comparator.comparingInt(List::size));
+                    List<T> candidati = indicizzati.get(0);
+                    for (int i = 1; i < indicizzati.size() && !candidati.isEmpty(); i++) {
+                        Set<T> altro = Collections.newSetFromMap(new IdentityHashMap<>());
+                        altro.addAll(indicizzati.get(i));
+                        List<T> comuni = new ArrayList<>();
+                        for (T c : candidati) {
+                            if (altro.contains(c)) {
+                                comuni.add(c);
+                            }
+                        }
+                        candidati = comuni;
+                    }
+                    if (residui.isEmpty()) {
+                        return candidati;
+                    }
+                    List<T> trovati = new ArrayList<>();
+                    for (T c : candidati) {
+                        boolean ok = true;
+                        for (int i = 0; i < residui.size() && ok; i++) {
+                            ok = residui.get(i).verifica.test(c);
+                        }
+                        if (ok) {
+                            trovati.add(c);
+                        }
+                    }
+                    return trovati;
+                }
+            };
+        }
+
+        static <T> Piano<T> o(List<Piano<T>> figli) {
+            Predicate<T> almenoUno = elemento -> {
+                for (Piano<T> f : figli) {
+                    if (f.verifica.test(elemento)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+            return new Piano<T>(almenoUno, null) {
+                @Override
+                List<T> risolvi() {
+                    List<List<T>> alternative = new ArrayList<>();
+                    for (Piano<T> f : figli) {
+                        List<T> r = f.risolvi();
+                        if (r == null) {
+                            return null; // un'alternativa senza indice richiede la scansione
+                        }
+                        alternative.add(r);
+                    }
+                    Set<T> visti = Collections.newSetFromMap(new IdentityHashMap<>());
+                    List<T> unione = new ArrayList<>();
+                    for (List<T> r : alternative) {
+                        for (T elemento : r) {
+                            if (visti.add(elemento)) {
+                                unione.add(elemento);
+                            }
+                        }
+                    }
+                    return unione;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * @file Normalizzatore.java
+ * @brief Questo file contiene la normalizzazione e la suddivisione in termini dei testi da indicizzare
+ *
+ * I testi vengono portati in minuscolo con le regole della lingua italiana, privati degli accenti
+ * ("perché" -> "perche") e suddivisi in termini sui caratteri che non sono lettere o cifre,
+ * così che anche l'apostrofo separi le parole ("dell'amore" -> "dell", "amore").
+ *
+ * @author Gruppo 27
+ * @date 11 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class Normalizzatore {
+
+    private static final Locale ITALIANO = Locale.ITALIAN; ///@brief Locale usato per il minuscolo
+
+    ///@brief Parole troppo frequenti per essere utili nella ricerca
+    private static final Set<String> PAROLE_VUOTE = new HashSet<>(Arrays.asList(
+            "il", "lo", "la", "i", "gli", "le", "l", "un", "uno", "una",
+            "di", "a", "da", "in", "con", "su", "per", "tra", "fra", "e", "ed", "o",
+            "del", "dello", "della", "dei", "degli", "delle", "dell",
+            "al", "allo", "alla", "ai", "agli", "alle", "all",
+            "dal", "dallo", "dalla", "dai", "dagli", "dalle", "dall",
+            "nel", "nello", "nella", "nei", "negli", "nelle", "nell",
+            "sul", "sullo", "sulla", "sui", "sugli", "sulle", "sull"));
+
+    private Normalizzatore() {
+    }
+
+   /**
+ * @brief Porta un testo in minuscolo e rimuove gli accenti
+ *
+ * @param[in] testo Il testo da normalizzare, eventualmente null
+ *
+ * @return Il testo normalizzato (stringa vuota se null)
+ */
+    public static String normalizza(String testo) {
+        if (testo == null) {
+            return "";
+        }
+        boolean ascii = true;
+        for (int i = 0; i < testo.length() && ascii; i++) {
+            ascii = testo.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return testo.toLowerCase(ITALIANO);
+        }
+        String scomposto = Normalizer.normalize(testo, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(scomposto.length());
+        for (int i = 0; i < scomposto.length(); i++) {
+            char ch = scomposto.charAt(i);
+            if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+                sb.append(ch);
+            }
+        }
+        return sb.toString().toLowerCase(ITALIANO);
+    }
+
+   /**
+ * @brief Suddivide un testo in termini normalizzati
+ *
+ * @param[in] testo Il testo da suddividere
+ * @param[in] conParoleVuote Se false articoli e preposizioni vengono scartati
+ *
+ * @return La lista dei termini, nell'ordine in cui compaiono
+ */
+    public static List<String> termini(String testo, boolean conParoleVuote) {
+        String normale = normalizza(testo);
+        List<String> termini = new ArrayList<>();
+        int inizio = -1;
+        for (int i = 0; i <= normale.length(); i++) {
+            boolean parola = i < normale.length() && Character.isLetterOrDigit(normale.charAt(i));
+            if (parola && inizio < 0) {
+                inizio = i;
+            } else if (!parola && inizio >= 0) {
+                String termine = normale.substring(inizio, i);
+                if (conParoleVuote || !PAROLE_VUOTE.contains(termine)) {
+                    termini.add(termine);
+                }
+                inizio = -1;
+            }
+        }
+        return termini;
+    }
+
+   /**
+ * @brief Suddivide un testo in termini normalizzati, scartando articoli e preposizioni
+ *
+ * @param[in] testo Il testo da suddividere
+ *
+ * @return La lista dei termini
+ */
+    public static List<String> termini(String testo) {
+        return termini(testo, false);
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * @file OrdinamentoTabella.java
+ * @brief Questo file contiene la politica di ordinamento delle tabelle con le chiavi di collazione
+ *
+ * L'ordinamento predefinito di una TableView confronta i valori delle celle, che per ogni confronto
+ * vengono letti con la PropertyValueFactory (per riflessione) e confrontati come String: l'ordine
+ * non rispetta gli accenti italiani ed è lento su liste grandi. Questa politica sostituisce il
+ * comparatore delle colonne testuali con quello delle ChiaviCollazione del model, calcolando prima
+ * in parallelo le chiavi mancanti, e lascia le altre colonne al loro comparatore. Per le colonne i
+ * cui valori sono costosi da costruire (ad esempio le date, conservate come giorni) si può indicare
+ * un comparatore diretto delle righe, che confronta i campi primitivi senza leggere le celle.
+ * Se la prima colonna di ordinamento è testuale la vista riceve anche le chiavi di quella colonna,
+ * con cui ordina le righe decorate in parallelo (vedi VistaOrdinata).
+ *
+ * @author Gruppo 27
+ * @date 23 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+public final class OrdinamentoTabella {
+
+    private OrdinamentoTabella() {
+    }
+
+   /**
+ * @brief Collega l'ordinamento della tabella alla vista ordinata del model
+ *
+ * A ogni cambio delle colonne di ordinamento la vista riceve il comparatore costruito da
+ * comparatore() e, se la prima colonna è testuale, le sue chiavi di collazione.
+ *
+ * @param[in] tabella La tabella
+ * @param[in] vista La vista ordinata mostrata dalla tabella
+ * @param[in] chiavi Le colonne testuali con le rispettive chiavi di collazione
+ *
+ * @return void
+ */
+    public static <T> void collega(TableView<T> tabella, VistaOrdinata<T> vista, Map<TableColumn<T, ?>, ChiaviCollazione<T>> chiavi) {
+        collega(tabella, vista, chiavi, Map.of());
+    }
+
+   /**
+ * @brief Collega l'ordinamento della tabella alla vista ordinata del model, con comparatori diretti per alcune colonne
+ *
+ * @param[in] tabella La tabella
+ * @param[in] vista La vista ordinata mostrata dalla tabella
+ * @param[in] chiavi Le colonne testuali con le rispettive chiavi di collazione
+ * @param[in] diretti Le colonne con il comparatore delle righe da usare al posto dei valori delle celle
+ *
+ * @return void
+ */
+    public static <T> void collega(TableView<T> tabella, VistaOrdinata<T> vista, Map<TableColumn<T, ?>, ChiaviCollazione<T>> chiavi,
+            Map<TableColumn<T, ?>, Comparator<T>> diretti) {
+        tabella.setSortPolicy(t -> {
+            Comparator<T> c = comparatore(t, vista, chiavi, diretti);
+            List<TableColumn<T, ?>> ordine = t.getSortOrder();
+            ChiaviCollazione<T> prima = ordine.isEmpty() ? null : chiavi.get(ordine.get(0));
+            if (prima == null) {
+                vista.setComparator(c);
+            } else {
+                vista.ordina(c, prima::chiave, ordine.get(0).getSortType() == TableColumn.SortType.DESCENDING);
+            }
+            return true;
+        });
+    }
+
+   /**
+ * @brief Costruisce il comparatore delle righe secondo le colonne di ordinamento della tabella
+ *
+ * @param[in] tabella La tabella
+ * @param[in] vista La vista ordinata, le cui righe servono a precalcolare le chiavi
+ * @param[in] chiavi Le colonne testuali con le rispettive chiavi di collazione
+ * @param[in] diretti Le colonne con il comparatore delle righe da usare al posto dei valori delle celle
+ *
+ * @return Il comparatore, null se la tabella non è ordinata
+ */
+    public static <T> Comparator<T> comparatore(TableView<T> tabella, VistaOrdinata<T> vista, Map<TableColumn<T, ?>, ChiaviCollazione<T>> chiavi,
+            Map<TableColumn<T, ?>, Comparator<T>> diretti) {
+        Comparator<T> risultato = null;
+        for (TableColumn<T, ?> colonna : tabella.getSortOrder()) {
+            Comparator<T> c;
+            ChiaviCollazione<T> k = chiavi.get(colonna);
+            if (k != null) {
+                k.precalcola(vista.getSource());
+                c = k.comparatore();
+            } else if (diretti.containsKey(colonna)) {
+                c = diretti.get(colonna);
+            } else {
+                c = perCella(colonna);
+            }
+            if (colonna.getSortType() == TableColumn.SortType.DESCENDING) {
+                c = c.reversed();
+            }
+            risultato = risultato == null ? c : risultato.thenComparing(c);
+        }
+        return risultato;
+    }
+
+   /**
+ * @brief Comparatore predefinito di una colonna, sui valori delle celle
+ *
+ * @param[in] colonna La colonna
+ *
+ * @return Il comparatore delle righe
+ */
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<T> perCella(TableColumn<T, ?> colonna) {
+        Comparator<Object> valori = (Comparator<Object>) colonna.getComparator();
+        return (a, b) -> valori.compare(colonna.getCellData(a), colonna.getCellData(b));
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * @file Pagina.java
+ * @brief Questo file contiene una pagina di risultati e il cursore per leggere la successiva
+ *
+ * Chi deve scorrere molti elementi (esportazioni, resoconti) li legge a pagine di dimensione fissa
+ * invece di copiare l'intera lista. La paginazione è per chiave (keyset): il cursore ricorda
+ * l'ultimo elemento restituito e la pagina successiva contiene gli elementi che nell'ordinamento
+ * vengono dopo di lui. Per questo l'ordine resta stabile anche se nel frattempo vengono aggiunti
+ * o rimossi elementi: nessun elemento già letto viene ripetuto e nessuno di quelli rimasti viene
+ * saltato; un elemento aggiunto compare solo se si colloca dopo il cursore.
+ * L'ordinamento viene reso totale aggiungendo la chiave univoca degli elementi (ISBN, matricola...)
+ * e, come ultima risorsa, l'identità. Ogni pagina costa O(n log k) con n candidati e k elementi
+ * per pagina: i candidati non vengono ordinati né copiati, si tiene solo un heap di k elementi.
+ *
+ * @author Gruppo 27
+ * @date 24 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public final class Pagina<T> {
+
+   /**
+ * @brief Posizione raggiunta nella lettura a pagine, da passare alla richiesta successiva
+ */
+    public static final class Cursore<T> {
+        private final T ultimo; ///@brief Ultimo elemento della pagina letta
+        private final Comparator<? super T> ordine; ///@brief L'ordinamento richiesto da chi legge, per riconoscere i cursori di un'altra lettura
+
+        private Cursore(T ultimo, Comparator<? super T> ordine) {
+            this.ultimo = ultimo;
+            this.ordine = ordine;
+        }
+    }
+
+    private final List<T> elementi; ///@brief Gli elementi della pagina, in ordine
+    private final Cursore<T> successiva; ///@brief Il cursore della pagina successiva, null se questa è l'ultima
+
+    private Pagina(List<T> elementi, Cursore<T> successiva) {
+        this.elementi = Collections.unmodifiableList(elementi);
+        this.successiva = successiva;
+    }
+
+   /**
+ * @brief Elementi della pagina
+ *
+ * @return Gli elementi, nell'ordine richiesto (lista non modificabile)
+ */
+    public List<T> getElementi() {
+        return elementi;
+    }
+
+   /**
+ * @brief Cursore con cui chiedere la pagina successiva
+ *
+ * @return Il cursore, null se non ci sono altri elementi
+ */
+    public Cursore<T> getSuccessiva() {
+        return successiva;
+    }
+
+   /**
+ * @brief Indica se questa è l'ultima pagina
+ *
+ * @return True se non ci sono altri elementi dopo questa pagina
+ */
+    public boolean isUltima() {
+        return successiva == null;
+    }
+
+   /**
+ * @brief Estrae una pagina dai candidati
+ *
+ * @param[in] candidati Gli elementi tra cui cercare (ad esempio i risultati di un indice)
+ * @param[in] filtro Il filtro da applicare ai candidati, null per accettarli tutti
+ * @param[in] ordine L'ordinamento, null per l'ordine della chiave univoca; le pagine successive
+ *            vanno chieste con lo stesso oggetto Comparator
+ * @param[in] chiaveUnica La chiave che distingue gli elementi a parità di ordinamento
+ * @param[in] dopo Il cursore della pagina precedente, null per la prima pagina
+ * @param[in] limite Il numero massimo di elementi della pagina
+ *
+ * @return La pagina
+ *
+ * @throws IllegalArgumentException se il limite non è positivo o il cursore appartiene a un altro ordinamento
+ */
+    public static <T> Pagina<T> estrai(Iterable<? extends T> candidati, Predicate<? super T> filtro, Comparator<? super T> ordine,
+            Function<? super T, String> chiaveUnica, Cursore<T> dopo, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("Il numero di elementi per pagina deve essere positivo");
+        }
+        if (dopo != null && dopo.ordine != ordine) {
+            throw new IllegalArgumentException("Il cursore appartiene a un altro ordinamento");
+        }
+        Comparator<T> totale = ordinamentoTotale(ordine, chiaveUnica);
+        PriorityQueue<T> migliori = new PriorityQueue<>(limite + 2, totale.reversed()); // in cima il peggiore tenuto
+        for (T e : candidati) {
+            if ((filtro != null && !filtro.test(e)) || (dopo != null && totale.compare(e, dopo.ultimo) <= 0)) {
+                continue;
+            }
+            if (migliori.size() <= limite) {
+                migliori.add(e);
+            } else if (totale.compare(e, migliori.peek()) < 0) {
+                migliori.poll();
+                migliori.add(e);
+            }
+        }
+        boolean altri = migliori.size() > limite;
+        if (altri) {
+            migliori.poll();
+        }
+        List<T> elementi = new ArrayList<>(migliori);
+        elementi.sort(totale);
+        Cursore<T> successiva = altri ? new Cursore<>(elementi.get(elementi.size() - 1), ordine) : null;
+        return new Pagina<>(elementi, successiva);
+    }
+
+   /**
+ * @brief Completa un ordinamento con la chiave univoca e l'identità, così che due elementi distinti non siano mai pari
+ *
+ * @param[in] ordine L'ordinamento richiesto, eventualmente null
+ * @param[in] chiaveUnica La chiave univoca degli elementi
+ *
+ * @return L'ordinamento totale
+ */
+    private static <T> Comparator<T> ordinamentoTotale(Comparator<? super T> ordine, Function<? super T, String> chiaveUnica) {
+        Comparator<T> perChiave = Comparator.comparing(chiaveUnica::apply, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+        Comparator<T> totale = ordine == null ? perChiave : ((Comparator<T>) ordine::compare).thenComparing(perChiave);
+        return totale.thenComparingInt(System::identityHashCode);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * @file RicercaDifferita.java
+ * @brief Questo file contiene la ricerca mentre si digita, eseguita in background con debounce
+ *
+ * A ogni modifica del testo viene riavviata una breve attesa (debounce); allo scadere la ricerca
+ * precedente ancora in corso viene annullata e la nuova viene preparata sul thread JavaFX (dove si
+ * leggono i controlli e si fotografano i dati necessari) ed eseguita su un thread di lavoro.
+ * Il risultato viene pubblicato sul thread JavaFX con un'unica operazione, solo se nel frattempo
+ * non è partita una ricerca più recente. Per ogni ricerca viene misurato il tempo tra l'ultima modifica
+ * del testo e la pubblicazione, cioè l'attesa vista da chi digita; se supera il debounce di più di un
+ * fotogramma (60 Hz) viene segnalato.
+ *
+ * @author Gruppo 27
+ * @date 14 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+public class RicercaDifferita<T> {
+
+    public static final long RITARDO_PREDEFINITO = 120; ///@brief Attesa dopo l'ultimo tasto prima di cercare, in millisecondi
+    public static final long BUDGET_FOTOGRAMMA = 16_666_667L; ///@brief Durata di un fotogramma a 60 Hz, in nanosecondi
+
+    ///@brief Thread condiviso dalle ricerche di tutti i campi
+    private static final ExecutorService ESECUTORE = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ricerca-differita");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Function<String, Callable<List<T>>> preparazione; ///@brief Prepara sul thread JavaFX la ricerca da eseguire in background
+    private final Consumer<List<T>> pubblicazione; ///@brief Mostra i risultati (sul thread JavaFX)
+    private final Runnable azzeramento; ///@brief Ripristina la vista completa quando il testo è vuoto
+    private final PauseTransition attesa; ///@brief Debounce dei tasti
+    private final long ritardo; ///@brief Durata del debounce, in nanosecondi
+    private long ultimaModifica; ///@brief Istante dell'ultima modifica del testo, da System.nanoTime()
+    private Task<List<T>> inCorso; ///@brief Ultima ricerca avviata
+    private long ultimaLatenza = -1; ///@brief Tempo tra la modifica del testo e la pubblicazione dell'ultima ricerca, in nanosecondi
+
+   /**
+ * @brief Costruttore: collega la ricerca differita al campo
+ *
+ * @param[in] campo Il campo di ricerca
+ * @param[in] ritardo L'attesa dopo l'ultimo tasto, in millisecondi
+ * @param[in] preparazione Dato il testo (non vuoto), restituisce la ricerca da eseguire in background;
+ *            può lanciare IllegalArgumentException se il testo non è valido
+ * @param[in] pubblicazione L'azione che mostra i risultati
+ * @param[in] azzeramento L'azione eseguita quando il testo viene svuotato
+ */
+    public RicercaDifferita(TextField campo, long ritardo, Function<String, Callable<List<T>>> preparazione,
+            Consumer<List<T>> pubblicazione, Runnable azzeramento) {
+        this.preparazione = preparazione;
+        this.pubblicazione = pubblicazione;
+        this.azzeramento = azzeramento;
+        this.attesa = new PauseTransition(Duration.millis(ritardo));
+        this.ritardo = ritardo * 1_000_000L;
+        attesa.setOnFinished(e -> avvia(campo.getText().trim()));
+        campo.textProperty().addListener((oss, vecchio, nuovo) -> {
+            ultimaModifica = System.nanoTime();
+            if (nuovo == null || nuovo.trim().isEmpty()) {
+                attesa.stop();
+                annulla();
+                azzeramento.run();
+            } else {
+                attesa.playFromStart();
+            }
+        });
+    }
+
+   /**
+ * @brief Annulla la ricerca in corso, se c'è
+ *
+ * @return void
+ */
+    public void annulla() {
+        if (inCorso != null) {
+            inCorso.cancel(true);
+            inCorso = null;
+        }
+    }
+
+   /**
+ * @brief Tempo impiegato dall'ultima ricerca pubblicata, dalla modifica del testo alla pubblicazione
+ *
+ * Comprende il debounce, la preparazione sul thread JavaFX e l'esecuzione in background.
+ *
+ * @return La latenza in nanosecondi, -1 se nessuna ricerca è stata pubblicata
+ */
+    public long getUltimaLatenza() {
+        return ultimaLatenza;
+    }
+
+   /**
+ * @brief Avvia la ricerca per il testo, annullando la precedente
+ *
+ * @param[in] testo Il testo da cercare
+ *
+ * @return void
+ */
+    private void avvia(String testo) {
+        annulla();
+        if (testo.isEmpty()) {
+            azzeramento.run();
+            return;
+        }
+        long inizio = ultimaModifica;
+        Callable<List<T>> ricerca;
+        try {
+            ricerca = preparazione.apply(testo);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage()); // testo non ancora valido mentre si digita
+            return;
+        }
+        Task<List<T>> task = new Task<List<T>>() {
+            @Override
+            protected List<T> call() throws Exception {
+                return ricerca.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (task != inCorso) {
+                return; // superata da una ricerca più recente
+            }
+            inCorso = null;
+            pubblicazione.accept(task.getValue());
+            ultimaLatenza = System.nanoTime() - inizio;
+            if (ultimaLatenza > ritardo + BUDGET_FOTOGRAMMA) {
+                System.out.println("Ricerca \"" + testo + "\" lenta: " + ultimaLatenza / 1_000_000 + " ms");
+            }
+        });
+        task.setOnFailed(e -> System.out.println(task.getException().getMessage()));
+        inCorso = task;
+        ESECUTORE.execute(task);
+    }
+}
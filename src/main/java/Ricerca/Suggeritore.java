@@ -0,0 +1,215 @@
+/**
+ * @file Suggeritore.java
+ * @brief Questo file contiene il servizio di suggerimenti di completamento su un campo degli elementi di un model
+ *
+ * Il suggeritore mantiene un AlberoRadix con i valori normalizzati del campo; la popolarità di un
+ * valore è il numero di elementi che lo hanno. Gli aggiornamenti incrementali (aggiunte, rimozioni,
+ * modifiche) arrivano dal thread del model; la ricostruzione completa avviene invece su un thread in
+ * background su una copia dell'albero, e le modifiche arrivate nel frattempo vengono riapplicate
+ * prima di sostituire il vecchio albero, così che il thread JavaFX non resti mai bloccato.
+ *
+ * @author Gruppo 27
+ * @date 12 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+public class Suggeritore<T> {
+
+    public static final long BUDGET_FOTOGRAMMA = 4_000_000L; ///@brief Budget predefinito di una richiesta (4 ms, un quarto di fotogramma a 60 Hz)
+
+    ///@brief Thread condiviso dalle ricostruzioni di tutti i suggeritori
+    private static final ExecutorService RICOSTRUZIONE = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ricostruzione-suggerimenti");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final int AGGIUNTA = 0;      ///@brief Operazione registrata durante una ricostruzione
+    private static final int RIMOZIONE = 1;     ///@brief Operazione registrata durante una ricostruzione
+    private static final int AGGIORNAMENTO = 2; ///@brief Operazione registrata durante una ricostruzione
+
+    private final Function<T, String> estrattore; ///@brief Legge il campo da suggerire
+    private AlberoRadix albero = new AlberoRadix(); ///@brief Albero corrente
+    private Map<T, String> valori = new IdentityHashMap<>(); ///@brief Valore indicizzato per ogni elemento
+    private List<Object[]> inAttesa; ///@brief Operazioni arrivate durante la ricostruzione (null se nessuna è in corso)
+    private int generazione; ///@brief Numero dell'ultima ricostruzione richiesta
+
+   /**
+ * @brief Costruttore del suggeritore
+ *
+ * @param[in] estrattore La funzione che legge il campo da suggerire
+ */
+    public Suggeritore(Function<T, String> estrattore) {
+        this.estrattore = estrattore;
+    }
+
+   /**
+ * @brief Registra un elemento aggiunto al model
+ *
+ * @param[in] elemento L'elemento aggiunto
+ *
+ * @return void
+ */
+    public synchronized void aggiungi(T elemento) {
+        togli(albero, valori, elemento);
+        inserisci(albero, valori, elemento);
+        registra(AGGIUNTA, elemento);
+    }
+
+   /**
+ * @brief Registra un elemento rimosso dal model
+ *
+ * @param[in] elemento L'elemento rimosso
+ *
+ * @return void
+ */
+    public synchronized void rimuovi(T elemento) {
+        togli(albero, valori, elemento);
+        registra(RIMOZIONE, elemento);
+    }
+
+   /**
+ * @brief Registra la modifica del campo di un elemento del model
+ *
+ * @param[in] elemento L'elemento modificato
+ *
+ * @return void
+ */
+    public synchronized void aggiorna(T elemento) {
+        if (valori.containsKey(elemento)) {
+            togli(albero, valori, elemento);
+            inserisci(albero, valori, elemento);
+        }
+        registra(AGGIORNAMENTO, elemento);
+    }
+
+   /**
+ * @brief Ricostruisce l'albero in background a partire dagli elementi indicati
+ *
+ * La lista viene copiata sul thread chiamante; le modifiche registrate prima che la
+ * ricostruzione termini vengono riapplicate al nuovo albero.
+ *
+ * @param[in] elementi Tutti gli elementi del model
+ *
+ * @return Il Future della ricostruzione, completato quando il nuovo albero è in uso
+ */
+    public Future<?> ricostruisci(Collection<? extends T> elementi) {
+        List<T> copia = new ArrayList<>(elementi);
+        int numero;
+        synchronized (this) {
+            numero = ++generazione;
+            inAttesa = new ArrayList<>();
+        }
+        return RICOSTRUZIONE.submit(() -> {
+            AlberoRadix nuovo = new AlberoRadix();
+            Map<T, String> nuoviValori = new IdentityHashMap<>();
+            for (T elemento : copia) {
+                inserisci(nuovo, nuoviValori, elemento);
+            }
+            synchronized (this) {
+                if (numero != generazione) {
+                    return; // superata da una ricostruzione più recente
+                }
+                for (Object[] operazione : inAttesa) {
+                    @SuppressWarnings("unchecked")
+                    T elemento = (T) operazione[1];
+                    int tipo = (Integer) operazione[0];
+                    if (tipo == AGGIORNAMENTO && !nuoviValori.containsKey(elemento)) {
+                        continue;
+                    }
+                    togli(nuovo, nuoviValori, elemento);
+                    if (tipo != RIMOZIONE) {
+                        inserisci(nuovo, nuoviValori, elemento);
+                    }
+                }
+                albero = nuovo;
+                valori = nuoviValori;
+                inAttesa = null;
+            }
+        });
+    }
+
+   /**
+ * @brief Restituisce i valori più popolari che iniziano con il prefisso, entro il budget di un fotogramma
+ *
+ * @param[in] prefisso Il testo digitato
+ * @param[in] massimo Il numero massimo di suggerimenti
+ *
+ * @return I suggerimenti, dal più popolare
+ */
+    public List<String> suggerisci(String prefisso, int massimo) {
+        return suggerisci(prefisso, massimo, BUDGET_FOTOGRAMMA);
+    }
+
+   /**
+ * @brief Restituisce i valori più popolari che iniziano con il prefisso
+ *
+ * @param[in] prefisso Il testo digitato
+ * @param[in] massimo Il numero massimo di suggerimenti
+ * @param[in] budgetNanos Il tempo massimo della ricerca in nanosecondi
+ *
+ * @return I suggerimenti, dal più popolare
+ */
+    public synchronized List<String> suggerisci(String prefisso, int massimo, long budgetNanos) {
+        return albero.suggerisci(Normalizzatore.normalizza(prefisso), massimo, budgetNanos);
+    }
+
+   /**
+ * @brief Numero di valori distinti suggeribili
+ *
+ * @return Il numero di valori
+ */
+    public synchronized int dimensione() {
+        return albero.dimensione();
+    }
+
+   /**
+ * @brief Registra un'operazione se è in corso una ricostruzione
+ *
+ * @param[in] tipo Il tipo di operazione
+ * @param[in] elemento L'elemento interessato
+ *
+ * @return void
+ */
+    private void registra(int tipo, T elemento) {
+        if (inAttesa != null) {
+            inAttesa.add(new Object[]{tipo, elemento});
+        }
+    }
+
+   /**
+ * @brief Inserisce il valore corrente di un elemento (un valore vuoto rende l'elemento noto ma non suggeribile)
+ *
+ * @return void
+ */
+    private void inserisci(AlberoRadix a, Map<T, String> v, T elemento) {
+        String valore = estrattore.apply(elemento);
+        valore = valore == null ? "" : valore.trim();
+        if (v.putIfAbsent(elemento, valore) == null && !valore.isEmpty()) {
+            a.aggiungi(Normalizzatore.normalizza(valore), valore);
+        }
+    }
+
+   /**
+ * @brief Toglie il valore indicizzato di un elemento
+ *
+ * @return void
+ */
+    private void togli(AlberoRadix a, Map<T, String> v, T elemento) {
+        String valore = v.remove(elemento);
+        if (valore != null && !valore.isEmpty()) {
+            a.rimuovi(Normalizzatore.normalizza(valore));
+        }
+    }
+}
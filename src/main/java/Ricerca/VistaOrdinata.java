@@ -0,0 +1,374 @@
+/**
+ * @file VistaOrdinata.java
+ * @brief Questo file contiene la vista ordinata delle tabelle, che applica un ordine calcolato in parallelo
+ *
+ * La SortedList di JavaFX accetta solo un comparatore e ordina da sola con Arrays.sort: con le
+ * chiavi di collazione ogni confronto deve cercare le due chiavi nella cache (ChiaviCollazione),
+ * e su 500.000 righe i circa dieci milioni di ricerche costano più di un secondo. Questa vista
+ * tiene, come la SortedList, l'indice nella lista sorgente di ogni riga mostrata, ma un
+ * ordinamento completo può ricevere anche la chiave in byte del primo criterio: le righe vengono
+ * allora decorate con la loro chiave, letta una volta sola per riga, e ordinate con
+ * Arrays.parallelSort oltre ChiaviCollazione.SOGLIA_PARALLELA righe; il comparatore completo
+ * serve solo a parità di chiave. L'ordine ottenuto viene applicato alla vista con un'unica
+ * permutazione.
+ * Le modifiche successive della sorgente vengono applicate in modo incrementale: le righe
+ * rimosse escono dalla vista, quelle aggiunte o aggiornate vengono collocate con una ricerca
+ * binaria (o, se sono molte, ordinate e fuse con le altre). Senza comparatore la vista segue
+ * l'ordine della sorgente. Come la lista del model, va usata dal thread JavaFX.
+ *
+ * @author Gruppo 27
+ * @date 23 Gennaio 2026
+ * @version 1.0
+ */
+package Ricerca;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.TransformationList;
+
+public class VistaOrdinata<T> extends TransformationList<T, T> {
+
+    private static final int SOGLIA_FUSIONE = 16; ///@brief Righe aggiunte insieme oltre le quali vengono ordinate e fuse invece che inserite una per una
+
+   /**
+ * @brief Riga della sorgente decorata con la chiave del primo criterio di ordinamento
+ */
+    private static final class Riga<T> {
+        final T elemento; ///@brief L'elemento della riga
+        final int sorgente; ///@brief L'indice della riga nella sorgente
+        final byte[] chiave; ///@brief La chiave del primo criterio, null se non c'è
+
+        Riga(T elemento, int sorgente, byte[] chiave) {
+            this.elemento = elemento;
+            this.sorgente = sorgente;
+            this.chiave = chiave;
+        }
+    }
+
+    private Comparator<? super T> comparatore; ///@brief L'ordinamento della vista, null per l'ordine della sorgente
+    private int[] indici; ///@brief Indice nella sorgente di ogni riga della vista
+    private int righe; ///@brief Numero di righe della vista (uguale a quello della sorgente)
+
+   /**
+ * @brief Costruttore della vista, inizialmente nell'ordine della sorgente
+ *
+ * @param[in] sorgente La lista da mostrare ordinata
+ */
+    public VistaOrdinata(ObservableList<? extends T> sorgente) {
+        super(sorgente);
+        righe = sorgente.size();
+        indici = new int[Math.max(16, righe)];
+        for (int i = 0; i < righe; i++) {
+            indici[i] = i;
+        }
+    }
+
+   /**
+ * @brief Comparatore con cui è ordinata la vista
+ *
+ * @return Il comparatore, null se la vista segue l'ordine della sorgente
+ */
+    public Comparator<? super T> getComparator() {
+        return comparatore;
+    }
+
+   /**
+ * @brief Ordina la vista con un comparatore
+ *
+ * @param[in] comparatore Il comparatore, null per tornare all'ordine della sorgente
+ *
+ * @return void
+ */
+    public void setComparator(Comparator<? super T> comparatore) {
+        ordina(comparatore, null, false);
+    }
+
+   /**
+ * @brief Ordina la vista con un comparatore il cui primo criterio è una chiave in byte
+ *
+ * Le chiavi vengono lette una volta per riga e le righe decorate ordinate confrontando le
+ * chiavi senza segno, in parallelo se sono molte; il comparatore viene usato solo a parità di
+ * chiave e per collocare le righe aggiunte in seguito. Il comparatore deve quindi confrontare
+ * per primo la stessa chiave, nello stesso verso.
+ *
+ * @param[in] comparatore Il comparatore completo, null per tornare all'ordine della sorgente
+ * @param[in] chiave La chiave del primo criterio (ad esempio ChiaviCollazione::chiave), null se non c'è
+ * @param[in] decrescente True se il primo criterio è in ordine decrescente
+ *
+ * @return void
+ */
+    public void ordina(Comparator<? super T> comparatore, Function<? super T, byte[]> chiave, boolean decrescente) {
+        this.comparatore = comparatore;
+        List<? extends T> sorgente = getSource();
+        @SuppressWarnings("unchecked")
+        Riga<T>[] decorate = new Riga[righe];
+        for (int k = 0; k < righe; k++) {
+            T e = sorgente.get(indici[k]);
+            decorate[k] = new Riga<>(e, indici[k], chiave == null || comparatore == null ? null : chiave.apply(e));
+        }
+        Comparator<Riga<T>> ordine;
+        if (comparatore == null) {
+            ordine = Comparator.comparingInt(r -> r.sorgente);
+        } else if (chiave == null) {
+            ordine = (a, b) -> comparatore.compare(a.elemento, b.elemento);
+        } else {
+            ordine = (a, b) -> {
+                int c = Arrays.compareUnsigned(a.chiave, b.chiave);
+                if (c != 0) {
+                    return decrescente ? -c : c;
+                }
+                return comparatore.compare(a.elemento, b.elemento);
+            };
+        }
+        if (righe >= ChiaviCollazione.SOGLIA_PARALLELA) {
+            Arrays.parallelSort(decorate, ordine);
+        } else {
+            Arrays.sort(decorate, ordine);
+        }
+
+        int[] vecchiaPosizione = new int[sorgente.size()];
+        for (int k = 0; k < righe; k++) {
+            vecchiaPosizione[indici[k]] = k;
+        }
+        int[] permutazione = new int[righe];
+        for (int k = 0; k < righe; k++) {
+            indici[k] = decorate[k].sorgente;
+            permutazione[vecchiaPosizione[indici[k]]] = k;
+        }
+        if (righe > 0) {
+            beginChange();
+            nextPermutation(0, righe, permutazione);
+            endChange();
+        }
+    }
+
+    @Override
+    public T get(int indice) {
+        if (indice < 0 || indice >= righe) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        return getSource().get(indici[indice]);
+    }
+
+    @Override
+    public int size() {
+        return righe;
+    }
+
+    @Override
+    public int getSourceIndex(int indice) {
+        if (indice < 0 || indice >= righe) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        return indici[indice];
+    }
+
+    @Override
+    public int getViewIndex(int indice) {
+        for (int k = 0; k < righe; k++) {
+            if (indici[k] == indice) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    protected void sourceChanged(ListChangeListener.Change<? extends T> c) {
+        beginChange();
+        while (c.next()) {
+            if (comparatore == null) {
+                inOrdineSorgente(c);
+            } else if (c.wasPermutated()) {
+                for (int k = 0; k < righe; k++) {
+                    if (indici[k] >= c.getFrom() && indici[k] < c.getTo()) {
+                        indici[k] = c.getPermutation(indici[k]);
+                    }
+                }
+            } else if (c.wasUpdated()) {
+                for (int s = c.getFrom(); s < c.getTo(); s++) {
+                    ricolloca(s);
+                }
+            } else {
+                rimuovi(c);
+                aggiungi(c.getFrom(), c.getAddedSize());
+            }
+        }
+        endChange();
+    }
+
+   /**
+ * @brief Applica una modifica della sorgente quando la vista ne segue l'ordine
+ *
+ * @param[in] c La modifica, posizionata sulla parte da applicare
+ *
+ * @return void
+ */
+    private void inOrdineSorgente(ListChangeListener.Change<? extends T> c) {
+        righe = getSource().size();
+        if (indici.length < righe) {
+            indici = new int[Math.max(righe, indici.length * 2)];
+        }
+        for (int i = 0; i < righe; i++) {
+            indici[i] = i;
+        }
+        if (c.wasPermutated()) {
+            int[] permutazione = new int[c.getTo() - c.getFrom()];
+            for (int i = 0; i < permutazione.length; i++) {
+                permutazione[i] = c.getPermutation(c.getFrom() + i);
+            }
+            nextPermutation(c.getFrom(), c.getTo(), permutazione);
+        } else if (c.wasUpdated()) {
+            for (int i = c.getFrom(); i < c.getTo(); i++) {
+                nextUpdate(i);
+            }
+        } else {
+            if (c.wasRemoved()) {
+                nextRemove(c.getFrom(), c.getRemoved());
+            }
+            if (c.wasAdded()) {
+                nextAdd(c.getFrom(), c.getTo());
+            }
+        }
+    }
+
+   /**
+ * @brief Toglie dalla vista le righe rimosse dalla sorgente e aggiorna gli indici delle altre
+ *
+ * @param[in] c La modifica, posizionata sulla parte da applicare
+ *
+ * @return void
+ */
+    private void rimuovi(ListChangeListener.Change<? extends T> c) {
+        int da = c.getFrom();
+        int rimosse = c.getRemovedSize();
+        int spostamento = c.getAddedSize() - rimosse;
+        int n = 0;
+        for (int k = 0; k < righe; k++) {
+            int s = indici[k];
+            if (s >= da && s < da + rimosse) {
+                nextRemove(n, c.getRemoved().get(s - da));
+            } else {
+                indici[n++] = s >= da + rimosse ? s + spostamento : s;
+            }
+        }
+        righe = n;
+    }
+
+   /**
+ * @brief Colloca nella vista le righe aggiunte alla sorgente
+ *
+ * Poche righe vengono inserite una per una con una ricerca binaria; molte righe vengono
+ * ordinate tra loro e fuse con quelle già presenti.
+ *
+ * @param[in] da L'indice nella sorgente della prima riga aggiunta
+ * @param[in] aggiunte Il numero di righe aggiunte
+ *
+ * @return void
+ */
+    private void aggiungi(int da, int aggiunte) {
+        if (aggiunte == 0) {
+            return;
+        }
+        List<? extends T> sorgente = getSource();
+        if (aggiunte < SOGLIA_FUSIONE) {
+            for (int s = da; s < da + aggiunte; s++) {
+                inserisci(s, posizione(sorgente.get(s)));
+            }
+            return;
+        }
+        Integer[] nuove = new Integer[aggiunte];
+        for (int i = 0; i < aggiunte; i++) {
+            nuove[i] = da + i;
+        }
+        Comparator<Integer> ordine = (a, b) -> comparatore.compare(sorgente.get(a), sorgente.get(b));
+        if (aggiunte >= ChiaviCollazione.SOGLIA_PARALLELA) {
+            Arrays.parallelSort(nuove, ordine);
+        } else {
+            Arrays.sort(nuove, ordine);
+        }
+        int[] fusi = new int[Math.max(indici.length, righe + aggiunte)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < righe || j < aggiunte) {
+            if (j == aggiunte || (i < righe && comparatore.compare(sorgente.get(indici[i]), sorgente.get(nuove[j])) <= 0)) {
+                fusi[k++] = indici[i++];
+            } else {
+                fusi[k] = nuove[j++];
+                nextAdd(k, k + 1);
+                k++;
+            }
+        }
+        indici = fusi;
+        righe = k;
+    }
+
+   /**
+ * @brief Ricolloca una riga aggiornata nella sorgente
+ *
+ * @param[in] s L'indice della riga nella sorgente
+ *
+ * @return void
+ */
+    private void ricolloca(int s) {
+        int vecchia = getViewIndex(s);
+        T e = getSource().get(s);
+        System.arraycopy(indici, vecchia + 1, indici, vecchia, righe - vecchia - 1);
+        righe--;
+        int nuova = posizione(e);
+        System.arraycopy(indici, nuova, indici, nuova + 1, righe - nuova);
+        indici[nuova] = s;
+        righe++;
+        if (nuova == vecchia) {
+            nextUpdate(nuova);
+        } else {
+            nextRemove(vecchia, e);
+            nextAdd(nuova, nuova + 1);
+        }
+    }
+
+   /**
+ * @brief Inserisce una riga della sorgente nella vista
+ *
+ * @param[in] s L'indice della riga nella sorgente
+ * @param[in] k La posizione nella vista
+ *
+ * @return void
+ */
+    private void inserisci(int s, int k) {
+        if (righe == indici.length) {
+            indici = Arrays.copyOf(indici, righe * 2);
+        }
+        System.arraycopy(indici, k, indici, k + 1, righe - k);
+        indici[k] = s;
+        righe++;
+        nextAdd(k, k + 1);
+    }
+
+   /**
+ * @brief Posizione in cui collocare un elemento, dopo quelli uguali
+ *
+ * @param[in] e L'elemento
+ *
+ * @return La posizione nella vista
+ */
+    private int posizione(T e) {
+        List<? extends T> sorgente = getSource();
+        int basso = 0;
+        int alto = righe;
+        while (basso < alto) {
+            int medio = (basso + alto) >>> 1;
+            if (comparatore.compare(sorgente.get(indici[medio]), e) <= 0) {
+                basso = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return basso;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * @file CampoUtente.java
+ * @brief Questo file contiene l'enumerazione dei campi modificabili della classe Utente
+ *
+ * Ogni costante sa leggere e impostare il proprio attributo su un oggetto Utente, in modo che
+ * il model possa applicare una modifica e aggiornare gli indici del solo campo interessato.
+ *
+ * @author Gruppo 27
+ * @date 18 Gennaio 2026
+ * @version 1.0
+ */
+package Utente;
+
+public enum CampoUtente {
+
+    NOME {
+        @Override
+        public String leggi(Utente u) {
+            return u.getNome();
+        }
+
+        @Override
+        public void imposta(Utente u, String valore) {
+            u.setNome(valore);
+        }
+    },
+    COGNOME {
+        @Override
+        public String leggi(Utente u) {
+            return u.getCognome();
+        }
+
+        @Override
+        public void imposta(Utente u, String valore) {
+            u.setCognome(valore);
+        }
+    },
+    MATRICOLA {
+        @Override
+        public String leggi(Utente u) {
+            return u.getMatricola();
+        }
+
+        @Override
+        public void imposta(Utente u, String valore) {
+            u.setMatricola(valore);
+        }
+    },
+    EMAIL {
+        @Override
+        public String leggi(Utente u) {
+            return u.getEmail();
+        }
+
+        @Override
+        public void imposta(Utente u, String valore) {
+            u.setEmail(valore);
+        }
+    };
+
+   /**
+ * @brief Legge il valore attuale del campo dall'utente
+ *
+ * @param[in] u L'utente da cui leggere il campo
+ *
+ * @return Il valore del campo
+ */
+    public abstract String leggi(Utente u);
+
+   /**
+ * @brief Imposta il valore del campo sull'utente
+ *
+ * @post Il campo dell'utente assume il nuovo valore
+ *
+ * @param[in] u L'utente da modificare
+ * @param[in] valore Il nuovo valore del campo
+ *
+ * @return void
+ */
+    public abstract void imposta(Utente u, String valore);
+}
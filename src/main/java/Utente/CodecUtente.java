@@ -0,0 +1,58 @@
+/**
+ * @file CodecUtente.java
+ * @brief Questo file contiene il codec binario compatto della classe Utente
+ *
+ * Il codec scrive i campi dell'utente uno per uno: stringhe UTF-8 con lunghezza, data di
+ * iscrizione come giorni dall'epoca e numero di libri in prestito come varint. Nome e cognome
+ * letti vengono condivisi tramite PoolStringhe.
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+package Utente;
+
+import Persistenza.Codec;
+import Persistenza.LettoreBinario;
+import Persistenza.PoolStringhe;
+import Persistenza.ScrittoreBinario;
+import java.io.IOException;
+
+public class CodecUtente implements Codec<Utente> {
+
+    public static final int VERSIONE = 1; ///@brief Versione corrente del formato dei record Utente
+
+    @Override
+    public byte identificativo() {
+        return 'U';
+    }
+
+    @Override
+    public int versione() {
+        return VERSIONE;
+    }
+
+    @Override
+    public Class<Utente> tipo() {
+        return Utente.class;
+    }
+
+    @Override
+    public void scrivi(ScrittoreBinario out, Utente u) throws IOException {
+        out.scriviStringa(u.getNome());
+        out.scriviStringa(u.getCognome());
+        out.scriviStringa(u.getMatricola());
+        out.scriviStringa(u.getEmail());
+        out.scriviData(u.getIscrizione());
+        out.scriviIntero(u.getLibriInPrestito());
+    }
+
+    @Override
+    public Utente leggi(LettoreBinario in, int versione) throws IOException {
+        String nome = PoolStringhe.COMUNE.condividi(in.leggiStringa());
+        String cognome = PoolStringhe.COMUNE.condividi(in.leggiStringa());
+        Utente u = new Utente(nome, cognome, in.leggiStringa(), in.leggiStringa(), in.leggiData());
+        u.setLibriInPrestito(in.leggiIntero());
+        return u;
+    }
+}
@@ -14,6 +14,10 @@
     package Utente;
 
     import Libro.Libro;
+    import Ricerca.CompletamentoCampo;
+    import Ricerca.Interrogazione;
+    import Ricerca.OrdinamentoTabella;
+    import Ricerca.RicercaDifferita;
     import javafx.fxml.FXML;
     import javafx.scene.control.Button;
     import javafx.scene.control.TextField;
@@ -21,8 +25,17 @@
     import javafx.scene.control.TableColumn;
     import java.time.LocalDate;
     import java.time.format.DateTimeFormatter;
+    import java.util.ArrayList;
+    import java.util.Collections;
+    import java.util.IdentityHashMap;
+    import java.util.List;
+    import java.util.Map;
+    import java.util.Set;
     import java.util.Optional;
+    import java.util.concurrent.Callable;
+    import javafx.application.Platform;
     import javafx.collections.FXCollections;
+    import javafx.collections.ListChangeListener;
     import javafx.collections.ObservableList;
     import javafx.fxml.FXMLLoader;
     import javafx.scene.Parent;
@@ -60,7 +73,7 @@
         private Button X; ///@brief Bottone che ci permette di cancellare il campo di ricerca
 
         @FXML
-        private Button searchType; ///@brief Bottone che ci permette di cambiare il criterio di ricerca (nome, cognome, matricola)
+        private Button searchType; ///@brief Bottone che ci permette di cambiare il criterio di ricerca (nome, cognome, matricola, suono)
 
         @FXML
         private TextField cercaField; ///@brief TextField che permette di cercare un utente
@@ -103,6 +116,17 @@
         private Stage principale;///@brief Stage unico dell'applicazione
 
         private Scene scenaPrincipale;///@brief Scena iniziale dell'applicazione
+
+
+        private RicercaDifferita<Utente> ricercaDifferita; ///@brief Ricerca eseguita in background mentre si digita
+
+        private String testoRicerca; ///@brief Testo della ricerca mostrata, null se non c'è una ricerca
+
+        private String modoRicerca; ///@brief Criterio della ricerca mostrata
+
+        private String[] ricercaPreparata; ///@brief Testo e criterio dell'ultima ricerca preparata, non ancora mostrata
+
+        private boolean aggiornamentoProgrammato; ///@brief True se la ricerca va già ripetuta al prossimo giro del thread JavaFX
         /**
         * @brief Metodo di inizializzazione chiamato automaticamente dal JavaFX Loader
         *
@@ -142,8 +166,8 @@
                 Utente U = event.getRowValue();
                 String nuovoNome = event.getNewValue();
                 if (nuovoNome != null && !nuovoNome.trim().isEmpty()) {
-                    U.setNome(nuovoNome.trim());
-                    tabellaUtenteModel.salvaSuBinario();
+                    tabellaUtenteModel.modificaUtente(U, CampoUtente.NOME, nuovoNome.trim());
+                    tabellaUtenteModel.richiediSalvataggio();
                 } else {
                     mostraErrore("Nome non valido", "Il Nome non può essere vuoto.");
                     tabella.refresh();
@@ -155,8 +179,8 @@
                 Utente U = event.getRowValue();
                 String nuovoCognome = event.getNewValue();
                 if (nuovoCognome != null && !nuovoCognome.trim().isEmpty()) {
-                    U.setNome(nuovoCognome.trim());
-                    tabellaUtenteModel.salvaSuBinario();
+                    tabellaUtenteModel.modificaUtente(U, CampoUtente.COGNOME, nuovoCognome.trim());
+                    tabellaUtenteModel.richiediSalvataggio();
                 } else {
                     mostraErrore("Cognome non valido", "Il Cognome non può essere vuoto.");
                     tabella.refresh();
@@ -168,8 +192,12 @@
                 Utente U = event.getRowValue();
                 String nuovaMatricola = event.getNewValue();
                 if (nuovaMatricola != null && !nuovaMatricola.trim().isEmpty()) {
-                    U.setNome(nuovaMatricola.trim());
-                    tabellaUtenteModel.salvaSuBinario();
+                    if (tabellaUtenteModel.modificaUtente(U, CampoUtente.MATRICOLA, nuovaMatricola.trim())) {
+                        tabellaUtenteModel.richiediSalvataggio();
+                    } else {
+                        mostraErrore("Matricola non valida", "Esiste già un utente con questa matricola.");
+                        tabella.refresh();
+                    }
                 } else {
                     mostraErrore("Matricola non valida", "La matricola non può essere vuota.");
                     tabella.refresh();
@@ -181,8 +209,12 @@
                 Utente U = event.getRowValue();
                 String nuovaEmail = event.getNewValue();
                 if (nuovaEmail != null && !nuovaEmail.trim().isEmpty()) {
-                    U.setNome(nuovaEmail.trim());
-                    tabellaUtenteModel.salvaSuBinario();
+                    if (tabellaUtenteModel.modificaUtente(U, CampoUtente.EMAIL, nuovaEmail.trim())) {
+                        tabellaUtenteModel.richiediSalvataggio();
+                    } else {
+                        mostraErrore("Email non valida", "Esiste già un utente con questa email.");
+                        tabella.refresh();
+                    }
                 } else {
                     mostraErrore("Email non valida", "L'email non può essere vuota.");
                     tabella.refresh();
@@ -209,7 +241,26 @@
             this.tabellaUtenteModel = model;
             this.principale = principale;
             this.scenaPrincipale = scenaPrincipale;
-            tabella.setItems(model.getPersone());
+            tabella.setItems(model.getVista());
+            OrdinamentoTabella.collega(tabella, model.getVista(), Map.of(
+                    nomeCol, model.chiaviOrdinamento(CampoUtente.NOME),
+                    cognomeCol, model.chiaviOrdinamento(CampoUtente.COGNOME)));
+            if (cercaField != null) {
+                new CompletamentoCampo(cercaField, prefisso -> {
+                    if (searchType.getText().equals("C")) {
+                        return model.suggerisciCognomi(prefisso, CompletamentoCampo.NUMERO_SUGGERIMENTI);
+                    }
+                    if (searchType.getText().equals("M")) {
+                        return model.suggerisciMatricole(prefisso, CompletamentoCampo.NUMERO_SUGGERIMENTI);
+                    }
+                    return Collections.emptyList();
+                }, scelto -> onCerca());
+                ricercaDifferita = new RicercaDifferita<>(cercaField, RicercaDifferita.RITARDO_PREDEFINITO,
+                        this::preparaRicerca, this::mostraRisultati, this::mostraTutti);
+            }
+            // la ricerca mostrata viene ripetuta dopo aggiunte, rimozioni e modifiche degli utenti
+            model.getPersone().addListener((ListChangeListener<Utente>) c -> programmaAggiornamento());
+            model.aggiungiOsservatore((u, campo) -> programmaAggiornamento());
         }
 
         /**
@@ -267,7 +318,7 @@
             // controllo finale e rimozione
             if (risultato.isPresent() && risultato.get() == ButtonType.OK) {
                 tabellaUtenteModel.rimuoviPersona(utenteSelezionato);
-                tabellaUtenteModel.salvaSuBinario();
+                tabellaUtenteModel.richiediSalvataggio();
             }
         }
 
@@ -289,6 +340,9 @@
                 searchType.setText("M"); 
             }
             else if(searchType.getText().compareTo("M") == 0){
+                searchType.setText("S"); 
+            }
+            else if(searchType.getText().compareTo("S") == 0){
                 searchType.setText("N"); 
             }
         }
@@ -306,42 +360,190 @@
 
         @FXML
         private void onCerca() {
-            ObservableList<Utente> ricercaUtenti = FXCollections.observableArrayList();
                     String contenuto = cercaField.getText().trim();
                     if(contenuto.isEmpty())
                     {
                         mostraErrore("Attenzione!", "Inserire dei parametri di ricerca");
                         return;
                     }
-                    if(searchType.getText().compareTo("N") == 0){
-                            for(Utente U : tabellaUtenteModel.getPersone()){
-                                    if(U.getNome().compareTo(contenuto)== 0){
-                                        ricercaUtenti.add(U);
-                                    }
-                            }
-                    }
-                    if(searchType.getText().compareTo("C") == 0){
-                            for(Utente U : tabellaUtenteModel.getPersone()){
-                                    if(U.getCognome().compareTo(contenuto)== 0){
-                                        ricercaUtenti.add(U);
-                                    }
-                            }
+                    if (ricercaDifferita != null) {
+                        ricercaDifferita.annulla();
                     }
-                    if(searchType.getText().compareTo("M") == 0){
-                            for(Utente U : tabellaUtenteModel.getPersone()){
-                                    if(U.getMatricola().compareTo(contenuto)== 0){
-                                        ricercaUtenti.add(U);
-                                    }
-                            }
+                    List<Utente> trovati;
+                    try {
+                        trovati = preparaRicerca(contenuto).call();
+                    } catch (IllegalArgumentException e) {
+                        mostraErrore("Attenzione!", e.getMessage());
+                        return;
+                    } catch (Exception e) {
+                        System.out.println(e.getMessage());
+                        return;
                     }
-                    if (!ricercaUtenti.isEmpty()) {
-                    tabella.setItems(ricercaUtenti);
+                    if (!trovati.isEmpty()) {
+                    mostraRisultati(trovati);
                     }
                     else {
                     mostraErrore("Attenzione!", "Nessun utente trovato");
                     }
         }
 
+        /**
+        * @brief Prepara la ricerca secondo il criterio selezionato in 'searchType'
+        *
+        * Va chiamato sul thread JavaFX: il criterio viene letto subito, mentre la ricerca
+        * restituita, che usa gli indici per nome, cognome e matricola del model, può essere
+        * eseguita su un altro thread.
+        * Se non ci sono corrispondenze esatte per nome o cognome viene riprovata tollerando
+        * errori di battitura. Le ricerche ripetute sono servite dalla cache dei risultati del model.
+        * Il criterio "S" cerca nome e cognome per come suonano, tramite gli indici fonetici del model.
+        * Un'interrogazione composta (es. "cognome:rossi prestiti:>0") ignora il criterio selezionato.
+        *
+        * @param[in] contenuto Il testo da cercare
+        *
+        * @return La ricerca da eseguire
+        *
+        * @throws IllegalArgumentException se un valore dell'interrogazione composta non è valido
+        */
+        private Callable<List<Utente>> preparaRicerca(String contenuto) {
+            String modo = searchType.getText();
+            Callable<List<Utente>> ricerca = preparaRicerca(contenuto, modo);
+            ricercaPreparata = new String[] {contenuto, modo};
+            return ricerca;
+        }
+
+        /**
+        * @brief Prepara la ricerca secondo il criterio indicato
+        *
+        * @param[in] contenuto Il testo da cercare
+        * @param[in] modo Il criterio ("N", "C", "M" o "S"), ignorato dalle interrogazioni composte
+        *
+        * @return La ricerca da eseguire
+        *
+        * @throws IllegalArgumentException se un valore dell'interrogazione composta non è valido
+        */
+        private Callable<List<Utente>> preparaRicerca(String contenuto, String modo) {
+            Interrogazione q = interrogazione(contenuto);
+            if (q != null) {
+                return tabellaUtenteModel.preparaInterrogazione(q)::get;
+            }
+            TabellaUtenteModel model = tabellaUtenteModel;
+            if(modo.compareTo("S") == 0){
+                return model.inCache(modo + "|" + contenuto, () -> model.findBySuono(contenuto), "nome", "cognome")::get;
+            }
+            String campo = modo.compareTo("N") == 0 ? "nome" : modo.compareTo("C") == 0 ? "cognome" : "matricola";
+            return model.inCache(modo + "|" + contenuto, () -> {
+                List<Utente> trovati = new ArrayList<>();
+                if(modo.compareTo("N") == 0){
+                        trovati.addAll(model.findByNome(contenuto));
+                }
+                else if(modo.compareTo("C") == 0){
+                        trovati.addAll(model.findByCognome(contenuto));
+                }
+                else{
+                        Utente U = model.findByMatricola(contenuto);
+                        if(U != null){
+                            trovati.add(U);
+                        }
+                }
+                if(trovati.isEmpty() && modo.compareTo("M") != 0){
+                        // nessuna corrispondenza esatta: riprova tollerando errori di battitura
+                        int maschera = modo.compareTo("N") == 0 ? TabellaUtenteModel.CAMPO_NOME : TabellaUtenteModel.CAMPO_COGNOME;
+                        trovati.addAll(model.cercaUtentiSimili(contenuto, maschera, Integer.MAX_VALUE));
+                }
+                return trovati;
+            }, campo)::get;
+        }
+
+        /**
+        * @brief Riconosce un'interrogazione composta
+        *
+        * @param[in] contenuto Il testo da cercare
+        *
+        * @return L'interrogazione analizzata, oppure null se il testo va cercato con il criterio selezionato
+        */
+        private Interrogazione interrogazione(String contenuto) {
+            if (contenuto.indexOf(':') < 0) {
+                return null;
+            }
+            try {
+                Interrogazione q = Interrogazione.analizza(contenuto);
+                return tabellaUtenteModel.usaCampi(q) ? q : null;
+            } catch (IllegalArgumentException e) {
+                return null; // non è un'interrogazione ben formata: resta una ricerca semplice
+            }
+        }
+
+        /**
+        * @brief Mostra nella tabella gli utenti trovati, cambiando solo il filtro della vista
+        *
+        * @param[in] trovati Gli utenti da mostrare
+        *
+        * @return void
+        */
+        private void mostraRisultati(List<Utente> trovati) {
+            if (ricercaPreparata != null) {
+                testoRicerca = ricercaPreparata[0];
+                modoRicerca = ricercaPreparata[1];
+            }
+            applicaRisultati(trovati);
+        }
+
+        /**
+        * @brief Imposta come filtro della vista l'insieme degli utenti trovati
+        *
+        * @param[in] trovati Gli utenti da mostrare
+        *
+        * @return void
+        */
+        private void applicaRisultati(List<Utente> trovati) {
+            Set<Utente> insieme = Collections.newSetFromMap(new IdentityHashMap<>());
+            insieme.addAll(trovati);
+            tabellaUtenteModel.filtra(insieme::contains);
+            if (tabella.getItems() != tabellaUtenteModel.getVista()) {
+                tabella.setItems(tabellaUtenteModel.getVista());
+            }
+        }
+
+        /**
+        * @brief Rimuove il filtro della ricerca e mostra nella tabella tutti gli utenti
+        *
+        * @return void
+        */
+        private void mostraTutti() {
+            testoRicerca = null;
+            tabellaUtenteModel.filtra(null);
+            if (tabella.getItems() != tabellaUtenteModel.getVista()) {
+                tabella.setItems(tabellaUtenteModel.getVista());
+            }
+        }
+
+        /**
+        * @brief Programma la ripetizione della ricerca mostrata dopo una modifica agli utenti
+        *
+        * Il filtro della ricerca è l'insieme degli utenti trovati: un utente aggiunto che corrisponde
+        * alla ricerca, o modificato in modo da non corrispondere più, richiede di ripetere la ricerca.
+        * Le modifiche arrivate nello stesso giro del thread JavaFX vengono accorpate.
+        *
+        * @return void
+        */
+        private void programmaAggiornamento() {
+            if (aggiornamentoProgrammato || testoRicerca == null) {
+                return;
+            }
+            aggiornamentoProgrammato = true;
+            Platform.runLater(() -> {
+                aggiornamentoProgrammato = false;
+                if (testoRicerca == null) {
+                    return;
+                }
+                try {
+                    applicaRisultati(preparaRicerca(testoRicerca, modoRicerca).call());
+                } catch (Exception e) {
+                    System.out.println(e.getMessage());
+                }
+            });
+        }
+
         /**
         * @brief Gestisce l'azione del pulsante 'modifica'
         *
@@ -425,8 +627,11 @@
             }
 
             //Aggiunta e salvataggio su file di testo dell'utente
-            tabellaUtenteModel.aggiungiPersona(strNome, strCognome, strMatricola, strEmail, LocalDate.now());
-            tabellaUtenteModel.salvaSuBinario();
+            if (!tabellaUtenteModel.aggiungiPersona(strNome, strCognome, strMatricola, strEmail, LocalDate.now())) {
+                mostraErrore("Attenzione!", "Esiste già un utente con questa matricola o questa email");
+                return;
+            }
+            tabellaUtenteModel.richiediSalvataggio();
 
             //Puliamo i campi di utente
             nome.clear();
@@ -455,7 +660,7 @@
         @FXML
         private void onCancellaCerca() {
             cercaField.clear();
-            tabella.setItems(tabellaUtenteModel.getPersone());
+            mostraTutti();
         }
 
         /**
@@ -2,7 +2,15 @@
  * @file TabellaUtenteModel.java
  * @brief Questo file contiene il model della tabella che gestisce gli utenti iscritti alla libreria
  *
- * Questo model permette di aggiungere e rimuovere gli utenti
+ * Questo model permette di aggiungere e rimuovere gli utenti e di cercarli anche con
+ * interrogazioni composte (vedi Interrogazione e MotoreInterrogazioni).
+ * Due indici hash univoci matricola -> utente ed email -> utente e un indice cognome -> utenti,
+ * aggiornati dal listener della lista e da modificaUtente, permettono di trovare un utente in
+ * tempo costante (ad esempio allo sportello dei prestiti) e di rifiutare matricole ed email duplicate.
+ * Due indici fonetici (chiave fonetica -> utenti, vedi Fonetica) su cognome e nome trovano in
+ * tempo costante gli utenti il cui nome suona come quello scritto ("Cicarelli" trova "Ciccarelli").
+ * I risultati delle ricerche sono conservati in una CacheRisultati invalidata campo per campo.
+ * Nome e cognome hanno le loro ChiaviCollazione, con cui la tabella ordina secondo l'alfabeto italiano.
  *
  * @author Gruppo 27
  * @date 8 dicembre 2025
@@ -11,22 +19,81 @@
 package Utente;
 
 import Utente.Utente;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import Persistenza.ArchivioBinario;
+import Persistenza.PoolStringhe;
+import Persistenza.Salvabile;
+import Persistenza.SalvataggioDifferito;
+import Ricerca.CacheRisultati;
+import Ricerca.ChiaviCollazione;
+import Ricerca.Fonetica;
+import Ricerca.IndiceInvertito;
+import Ricerca.Interrogazione;
+import Ricerca.MotoreInterrogazioni;
+import Ricerca.Normalizzatore;
+import Ricerca.Pagina;
+import Ricerca.Suggeritore;
+import Ricerca.VistaOrdinata;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 
-public class TabellaUtenteModel {
+public class TabellaUtenteModel implements Salvabile {
         private ObservableList<Utente> utenti; /// @brief Questa ObservableList è una lista che contiene tutti gli utenti
+        private FilteredList<Utente> filtrati; /// @brief Vista dei utenti che soddisfano il filtro di ricerca corrente
+        private VistaOrdinata<Utente> vista; /// @brief Vista filtrata e ordinata mostrata nella tabella
         private final String FILE_BINARIO = "utenti.bin";
+        private final ArchivioBinario<Utente> archivio = new ArchivioBinario<>(FILE_BINARIO, new CodecUtente()); /// @brief File dei utenti nel formato binario compatto
+        private SalvataggioDifferito salvataggio; /// @brief Scheduler dei salvataggi in background, null per salvare subito
+        private final Suggeritore<Utente> suggeritoreCognomi = new Suggeritore<>(Utente::getCognome); /// @brief Completamenti dei cognomi
+        private final Suggeritore<Utente> suggeritoreMatricole = new Suggeritore<>(Utente::getMatricola); /// @brief Completamenti delle matricole
+        private final IndiceInvertito<Utente> indiceNomi = new IndiceInvertito<Utente>()
+                .aggiungiCampo(Utente::getNome, 1.0)
+                .aggiungiCampo(Utente::getCognome, 2.0); /// @brief Indice testuale su nome e cognome
+        public static final int CAMPO_NOME = 1; /// @brief Maschera dell'indice per cercare solo nei nomi
+        public static final int CAMPO_COGNOME = 2; /// @brief Maschera dell'indice per cercare solo nei cognomi
+        private boolean inCaricamento = false; /// @brief Sospende l'aggiornamento incrementale degli indici durante il caricamento
+        private final Map<String, Utente> perMatricola = new ConcurrentHashMap<>(); /// @brief Indice univoco matricola normalizzata -> utente
+        private final Map<String, Utente> perEmail = new ConcurrentHashMap<>(); /// @brief Indice univoco email normalizzata -> utente
+        private final Map<String, List<Utente>> perCognome = new HashMap<>(); /// @brief Indice cognome normalizzato -> utenti (accesso sincronizzato su se stesso)
+        private final Map<String, List<Utente>> perSuonoCognome = new HashMap<>(); /// @brief Indice chiave fonetica del cognome -> utenti (accesso sincronizzato su se stesso)
+        private final Map<String, List<Utente>> perSuonoNome = new HashMap<>(); /// @brief Indice chiave fonetica del nome -> utenti (accesso sincronizzato su se stesso)
+        private final Map<Utente, String[]> chiavi = Collections.synchronizedMap(new IdentityHashMap<>()); /// @brief Chiavi (matricola, email, cognome, suono del cognome, suono del nome) con cui ogni utente è indicizzato
+        private final MotoreInterrogazioni<Utente> motore = new MotoreInterrogazioni<Utente>()
+                .campoPredefinito(MotoreInterrogazioni.perParole(u -> u.getNome() + " " + u.getCognome()),
+                        v -> indiceNomi.cerca(v, CAMPO_NOME | CAMPO_COGNOME, Integer.MAX_VALUE), "nome", "cognome")
+                .aggiungiCampo("nome", MotoreInterrogazioni.perParole(Utente::getNome),
+                        v -> indiceNomi.cerca(v, CAMPO_NOME, Integer.MAX_VALUE), "n")
+                .aggiungiCampo("cognome", MotoreInterrogazioni.perParole(Utente::getCognome),
+                        v -> indiceNomi.cerca(v, CAMPO_COGNOME, Integer.MAX_VALUE), "c")
+                .aggiungiCampo("matricola", v -> u -> normalizzaMatricola(u.getMatricola()).equals(normalizzaMatricola(v)),
+                        v -> comeLista(findByMatricola(v)), "m")
+                .aggiungiCampo("email", v -> u -> normalizzaEmail(u.getEmail()).equals(normalizzaEmail(v)),
+                        v -> comeLista(findByEmail(v)), "e")
+                .aggiungiCampo("prestiti", MotoreInterrogazioni.perIntervallo(Utente::getLibriInPrestito), null); /// @brief Esecuzione delle interrogazioni composte
+        private final CacheRisultati<Utente> risultati = new CacheRisultati<>(
+                Integer.getInteger("libreria.dimensioneCache", CacheRisultati.DIMENSIONE_PREDEFINITA)); /// @brief Cache LRU dei risultati delle ricerche
+        private final List<BiConsumer<Utente, CampoUtente>> osservatori = new CopyOnWriteArrayList<>(); /// @brief Avvisati dopo ogni modifica di un utente
+        private final ChiaviCollazione<Utente> chiaviNome = new ChiaviCollazione<>(Utente::getNome); /// @brief Chiavi di ordinamento dei nomi
+        private final ChiaviCollazione<Utente> chiaviCognome = new ChiaviCollazione<>(Utente::getCognome); /// @brief Chiavi di ordinamento dei cognomi
         
         /**
  * @brief Costruttore della classe TabellaUtenteModel
@@ -39,6 +106,34 @@ public class TabellaUtenteModel {
  */
         public TabellaUtenteModel(){
             utenti = FXCollections.observableArrayList();
+            filtrati = new FilteredList<>(utenti);
+            vista = new VistaOrdinata<>(filtrati);
+            utenti.addListener((ListChangeListener<Utente>) c -> {
+                if (inCaricamento) {
+                    return; // gli indici vengono ricostruiti al termine del caricamento
+                }
+                while (c.next()) {
+                    if (c.wasPermutated()) {
+                        continue;
+                    }
+                    for (Utente u : c.getRemoved()) {
+                        togliChiavi(u);
+                        indiceNomi.rimuovi(u);
+                        suggeritoreCognomi.rimuovi(u);
+                        suggeritoreMatricole.rimuovi(u);
+                        risultati.rimosso(u);
+                        chiaviNome.invalida(u);
+                        chiaviCognome.invalida(u);
+                    }
+                    for (Utente u : c.getAddedSubList()) {
+                        mettiChiavi(u);
+                        indiceNomi.aggiungi(u);
+                        suggeritoreCognomi.aggiungi(u);
+                        suggeritoreMatricole.aggiungi(u);
+                        risultati.aggiunto(u);
+                    }
+                }
+            });
             try{
                 caricaDaBinario();
             }
@@ -63,6 +158,41 @@ public class TabellaUtenteModel {
         return utenti;
     }
 
+ /**
+ * @brief Metodo getter della vista filtrata e ordinata
+ *
+ * La vista segue la lista dei utenti: aggiunte, rimozioni e modifiche compaiono subito;
+ * il filtro si cambia con filtra() e l'ordinamento con OrdinamentoTabella, che imposta
+ * l'ordine della vista a partire dalle colonne ordinate della tabella.
+ *
+ * @return La vista da mostrare nella tabella
+ */
+    public VistaOrdinata<Utente> getVista() {
+        return vista;
+    }
+
+    /**
+     * @brief Chiavi di collazione con cui ordinare la tabella per un campo
+     * 
+     * @param[in] campo Il campo della colonna
+     * 
+     * @return Le chiavi del nome o del cognome, null per gli altri campi
+     */
+    public ChiaviCollazione<Utente> chiaviOrdinamento(CampoUtente campo) {
+        return campo == CampoUtente.NOME ? chiaviNome : campo == CampoUtente.COGNOME ? chiaviCognome : null;
+    }
+
+ /**
+ * @brief Imposta il filtro della vista
+ *
+ * @param[in] filtro Il predicato che un utente deve soddisfare per essere mostrato, null per mostrarli tutti
+ *
+ * @return void
+ */
+    public void filtra(Predicate<? super Utente> filtro) {
+        filtrati.setPredicate(filtro);
+    }
+
     
      /**
  * @brief Metodo che permette di aggiungere un utente
@@ -78,12 +208,14 @@ public class TabellaUtenteModel {
  * @param[in] email L'email dell'utente
  * @param[in] iscrizione La data di iscrizione dell'utente 
  * 
- * @return void
-
+ * @return True se l'utente è stato aggiunto, false se la matricola o l'email sono già usate
  */
-    public void aggiungiPersona(String nome, String cognome, String matricola, String email, LocalDate iscrizione) {
-        utenti.add(new Utente(nome, cognome, matricola, email, iscrizione));
-
+    public boolean aggiungiPersona(String nome, String cognome, String matricola, String email, LocalDate iscrizione) {
+        if (findByMatricola(matricola) != null || findByEmail(email) != null) {
+            return false;
+        }
+        utenti.add(new Utente(PoolStringhe.COMUNE.condividi(nome), PoolStringhe.COMUNE.condividi(cognome), matricola, email, iscrizione));
+        return true;
     }
 
   /**
@@ -104,42 +236,576 @@ public class TabellaUtenteModel {
     }
     
     /**
-     * @brief Salvataggio su file binario tramite ObjectOutputStream.
+     * @brief Aggiorna gli indici dopo la modifica di un utente fatta direttamente con i setter
+     * 
+     * @param[in] u L'utente modificato
+     * 
+     * @return void
+     */
+    public void aggiornaIndici(Utente u) {
+        if (chiavi.containsKey(u)) {
+            togliChiavi(u);
+            mettiChiavi(u);
+        }
+        indiceNomi.aggiorna(u);
+        suggeritoreCognomi.aggiorna(u);
+        suggeritoreMatricole.aggiorna(u);
+        risultati.modificato(u, null);
+        for (BiConsumer<Utente, CampoUtente> o : osservatori) {
+            o.accept(u, null);
+        }
+    }
+
+    /**
+     * @brief Metodo che permette di modificare un campo di un utente
+     * 
+     * La modifica aggiorna solo gli indici del campo interessato; una matricola o un'email
+     * già usate da un altro utente vengono rifiutate
+     * 
+     * @pre L'utente deve essere presente nell'Observable List
+     * @post Il campo dell'utente assume il nuovo valore
+     * 
+     * @param[in] u L'utente da modificare
+     * @param[in] campo Il campo da modificare
+     * @param[in] valore Il nuovo valore del campo
+     * 
+     * @return True se la modifica è stata applicata, false se la matricola o l'email sono già usate
+     */
+    public boolean modificaUtente(Utente u, CampoUtente campo, String valore) {
+        Utente esistente = campo == CampoUtente.MATRICOLA ? findByMatricola(valore)
+                : campo == CampoUtente.EMAIL ? findByEmail(valore) : null;
+        if (esistente != null && esistente != u) {
+            return false;
+        }
+        if (campo == CampoUtente.NOME || campo == CampoUtente.COGNOME) {
+            valore = PoolStringhe.COMUNE.condividi(valore);
+        }
+        boolean indicizzato = chiavi.containsKey(u);
+        if (indicizzato) {
+            togliChiavi(u);
+        }
+        campo.imposta(u, valore);
+        if (indicizzato) {
+            mettiChiavi(u);
+        }
+        if (campo == CampoUtente.NOME) {
+            indiceNomi.aggiorna(u);
+            chiaviNome.invalida(u);
+        } else if (campo == CampoUtente.COGNOME) {
+            indiceNomi.aggiorna(u);
+            suggeritoreCognomi.aggiorna(u);
+            chiaviCognome.invalida(u);
+        } else if (campo == CampoUtente.MATRICOLA) {
+            suggeritoreMatricole.aggiorna(u);
+        }
+        risultati.modificato(u, nomeCampo(campo));
+        for (BiConsumer<Utente, CampoUtente> o : osservatori) {
+            o.accept(u, campo);
+        }
+        return true;
+    }
+
+    /**
+     * @brief Metodo che cerca un utente per matricola
+     * 
+     * La ricerca usa l'indice hash e ignora spazi e maiuscole/minuscole
+     * 
+     * @param[in] matricola La matricola da cercare
+     * 
+     * @return L'utente con quella matricola, o null se non presente
+     */
+    public Utente findByMatricola(String matricola) {
+        return perMatricola.get(normalizzaMatricola(matricola));
+    }
+
+    /**
+     * @brief Metodo che cerca un utente per email
+     * 
+     * @param[in] email L'email da cercare, senza distinguere maiuscole e minuscole
+     * 
+     * @return L'utente con quell'email, o null se non presente
+     */
+    public Utente findByEmail(String email) {
+        return perEmail.get(normalizzaEmail(email));
+    }
+
+    /**
+     * @brief Metodo che restituisce gli utenti con un certo cognome
+     * 
+     * @param[in] cognome Il cognome, senza distinguere maiuscole, minuscole e accenti
+     * 
+     * @return Gli utenti con quel cognome, nell'ordine in cui sono stati aggiunti
+     */
+    public List<Utente> findByCognome(String cognome) {
+        return leggi(perCognome, normalizzaCognome(cognome));
+    }
+
+    /**
+     * @brief Metodo che restituisce gli utenti il cui nome suona come il testo scritto
+     * 
+     * Il testo può essere un cognome (anche composto, "De Luca"), un nome, oppure nome e cognome
+     * in qualunque ordine ("Mario Ciccarelli", "Cicarelli Mario"). Ogni interpretazione è una
+     * lettura degli indici fonetici, quindi il costo non dipende dal numero di utenti.
+     * 
+     * @param[in] testo Il nome o cognome scritto come si sente
+     * 
+     * @return Gli utenti trovati: prima quelli che corrispondono per nome e cognome, poi per cognome, poi per nome
+     */
+    public List<Utente> findBySuono(String testo) {
+        Set<Utente> trovati = Collections.newSetFromMap(new LinkedHashMap<>());
+        String[] parole = testo == null ? new String[0] : testo.trim().split("\\s+");
+        for (int i = 1; i < parole.length; i++) {
+            String prima = String.join(" ", Arrays.asList(parole).subList(0, i));
+            String dopo = String.join(" ", Arrays.asList(parole).subList(i, parole.length));
+            trovati.addAll(perNomeECognome(prima, dopo));
+            trovati.addAll(perNomeECognome(dopo, prima));
+        }
+        String chiave = Fonetica.chiave(testo);
+        if (!chiave.isEmpty()) {
+            trovati.addAll(leggi(perSuonoCognome, chiave));
+            trovati.addAll(leggi(perSuonoNome, chiave));
+        }
+        return new ArrayList<>(trovati);
+    }
+
+    /**
+     * @brief Utenti il cui nome e cognome suonano come quelli indicati
+     * 
+     * @param[in] nome Il nome scritto come si sente
+     * @param[in] cognome Il cognome scritto come si sente
+     * 
+     * @return Gli utenti trovati
+     */
+    private List<Utente> perNomeECognome(String nome, String cognome) {
+        String suonoNome = Fonetica.chiave(nome);
+        List<Utente> trovati = new ArrayList<>();
+        for (Utente u : leggi(perSuonoCognome, Fonetica.chiave(cognome))) {
+            String[] k = chiavi.get(u);
+            if (k != null && k[4].equals(suonoNome)) {
+                trovati.add(u);
+            }
+        }
+        return trovati;
+    }
+
+    /**
+     * @brief Metodo che restituisce gli utenti con un certo nome
+     * 
+     * I candidati vengono presi dall'indice dei nomi e confrontati per intero
+     * 
+     * @param[in] nome Il nome, senza distinguere maiuscole, minuscole e accenti
+     * 
+     * @return Gli utenti con quel nome
+     */
+    public List<Utente> findByNome(String nome) {
+        String cercato = normalizzaCognome(nome);
+        List<Utente> trovati = new ArrayList<>();
+        for (Utente u : indiceNomi.cerca(nome, CAMPO_NOME, Integer.MAX_VALUE)) {
+            if (normalizzaCognome(u.getNome()).equals(cercato)) {
+                trovati.add(u);
+            }
+        }
+        return trovati;
+    }
+
+    /**
+     * @brief Normalizza una matricola per l'indice: rimuove gli spazi e porta in maiuscolo
+     * 
+     * @param[in] matricola La matricola da normalizzare
+     * 
+     * @return La matricola normalizzata (stringa vuota se null)
+     */
+    public static String normalizzaMatricola(String matricola) {
+        return matricola == null ? "" : matricola.replaceAll("\\s", "").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @brief Normalizza un'email per l'indice: senza spazi ai bordi e in minuscolo
+     * 
+     * @param[in] email L'email da normalizzare
+     * 
+     * @return L'email normalizzata (stringa vuota se null)
+     */
+    public static String normalizzaEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @brief Normalizza un nome o un cognome: senza spazi ai bordi, minuscolo e senza accenti
+     * 
+     * @param[in] cognome Il testo da normalizzare
+     * 
+     * @return Il testo normalizzato
+     */
+    private static String normalizzaCognome(String cognome) {
+        return Normalizzatore.normalizza(cognome == null ? null : cognome.trim());
+    }
+
+    /**
+     * @brief Inserisce un utente negli indici hash, ricordando le chiavi usate
+     * 
+     * @param[in] u L'utente da indicizzare
+     * 
+     * @return void
+     */
+    private void mettiChiavi(Utente u) {
+        String[] k = { normalizzaMatricola(u.getMatricola()), normalizzaEmail(u.getEmail()), normalizzaCognome(u.getCognome()),
+                Fonetica.chiave(u.getCognome()), Fonetica.chiave(u.getNome()) };
+        if (perMatricola.putIfAbsent(k[0], u) != null) {
+            System.out.println("Matricola duplicata: " + u.getMatricola());
+        }
+        if (perEmail.putIfAbsent(k[1], u) != null) {
+            System.out.println("Email duplicata: " + u.getEmail());
+        }
+        metti(perCognome, k[2], u);
+        metti(perSuonoCognome, k[3], u);
+        metti(perSuonoNome, k[4], u);
+        chiavi.put(u, k);
+    }
+
+    /**
+     * @brief Toglie un utente dagli indici hash usando le chiavi con cui era stato inserito
+     * 
+     * @param[in] u L'utente da togliere
+     * 
+     * @return void
+     */
+    private void togliChiavi(Utente u) {
+        String[] k = chiavi.remove(u);
+        if (k == null) {
+            return;
+        }
+        perMatricola.remove(k[0], u);
+        perEmail.remove(k[1], u);
+        togli(perCognome, k[2], u);
+        togli(perSuonoCognome, k[3], u);
+        togli(perSuonoNome, k[4], u);
+    }
+
+    /**
+     * @brief Aggiunge un utente a un indice a chiave ripetuta
+     * 
+     * @param[in] indice L'indice, sincronizzato su se stesso
+     * @param[in] chiave La chiave dell'utente
+     * @param[in] u L'utente
+     * 
+     * @return void
+     */
+    private static void metti(Map<String, List<Utente>> indice, String chiave, Utente u) {
+        synchronized (indice) {
+            indice.computeIfAbsent(chiave, x -> new ArrayList<>(1)).add(u);
+        }
+    }
+
+    /**
+     * @brief Toglie un utente da un indice a chiave ripetuta
+     * 
+     * @param[in] indice L'indice, sincronizzato su se stesso
+     * @param[in] chiave La chiave con cui l'utente era stato inserito
+     * @param[in] u L'utente
+     * 
+     * @return void
+     */
+    private static void togli(Map<String, List<Utente>> indice, String chiave, Utente u) {
+        synchronized (indice) {
+            List<Utente> gruppo = indice.get(chiave);
+            if (gruppo != null) {
+                gruppo.removeIf(x -> x == u);
+                if (gruppo.isEmpty()) {
+                    indice.remove(chiave);
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Copia degli utenti di un indice a chiave ripetuta
+     * 
+     * @param[in] indice L'indice, sincronizzato su se stesso
+     * @param[in] chiave La chiave cercata
+     * 
+     * @return Gli utenti con quella chiave, nell'ordine in cui sono stati aggiunti
+     */
+    private static List<Utente> leggi(Map<String, List<Utente>> indice, String chiave) {
+        synchronized (indice) {
+            List<Utente> gruppo = indice.get(chiave);
+            return gruppo == null ? new ArrayList<>() : new ArrayList<>(gruppo);
+        }
+    }
+
+    /**
+     * @brief Lista con al più un utente, per usare gli indici univoci nelle interrogazioni
+     * 
+     * @param[in] u L'utente, eventualmente null
+     * 
+     * @return La lista vuota o con il solo utente
+     */
+    private static List<Utente> comeLista(Utente u) {
+        return u == null ? Collections.<Utente>emptyList() : Collections.singletonList(u);
+    }
+
+    /**
+     * @brief Metodo che permette di cercare gli utenti per nome o cognome tollerando errori di battitura
+     * 
+     * Ogni parola trova anche i nomi che differiscono di uno o due caratteri ("Rosi" trova "Rossi")
+     * 
+     * @param[in] query Le parole da cercare
+     * @param[in] campi CAMPO_NOME, CAMPO_COGNOME o la loro unione
+     * @param[in] massimo Il numero massimo di risultati
+     * 
+     * @return Gli utenti trovati, dal più simile
+     */
+    public List<Utente> cercaUtentiSimili(String query, int campi, int massimo) {
+        return indiceNomi.cercaSimili(query, campi, massimo);
+    }
+
+    /**
+     * @brief Metodo che indica se un testo di ricerca è un'interrogazione composta
+     * 
+     * @param[in] q L'interrogazione analizzata (vedi Interrogazione.analizza)
+     * 
+     * @return True se usa almeno un campo riconosciuto (nome, cognome, matricola, email, prestiti)
+     */
+    public boolean usaCampi(Interrogazione q) {
+        return motore.usaCampi(q);
+    }
+
+    /**
+     * @brief Metodo che prepara un'interrogazione composta (es. "cognome:rossi prestiti:>0")
+     * 
+     * Va chiamato sul thread JavaFX: i valori vengono validati e gli utenti fotografati subito,
+     * mentre la ricerca restituita può essere eseguita su un altro thread
+     * 
+     * @param[in] q L'interrogazione analizzata
+     * 
+     * @return La ricerca, che restituisce gli utenti trovati
+     * 
+     * @throws IllegalArgumentException se un valore non è valido
+     */
+    public Supplier<List<Utente>> preparaInterrogazione(Interrogazione q) {
+        String chiave = "?" + q;
+        List<Utente> inCache = risultati.cerca(chiave);
+        if (inCache != null) {
+            return () -> inCache;
+        }
+        return risultati.conserva(chiave, motore.campi(q), motore.verifica(q), motore.prepara(q, new ArrayList<>(utenti)));
+    }
+
+    /**
+     * @brief Metodo che fa passare una ricerca semplice dalla cache dei risultati
+     * 
+     * Va chiamato sul thread JavaFX. Senza un predicato esatto, la voce viene invalidata da ogni
+     * aggiunta e da ogni modifica dei campi indicati.
+     * 
+     * @param[in] chiave La chiave della ricerca (es. criterio e testo cercato)
+     * @param[in] ricerca La ricerca da eseguire se non è in cache
+     * @param[in] campi I campi da cui dipende la ricerca ("nome", "cognome", "matricola", "email")
+     * 
+     * @return La ricerca, che restituisce gli utenti trovati
+     */
+    public Supplier<List<Utente>> inCache(String chiave, Supplier<List<Utente>> ricerca, String... campi) {
+        List<Utente> inCache = risultati.cerca(chiave);
+        if (inCache != null) {
+            return () -> inCache;
+        }
+        return risultati.conserva(chiave, Set.of(campi), null, ricerca);
+    }
+
+    /**
+     * @brief Metodo getter della cache dei risultati, per leggerne i contatori
+     * 
+     * @return La cache dei risultati delle ricerche
+     */
+    public CacheRisultati<Utente> getCacheRisultati() {
+        return risultati;
+    }
+
+    /**
+     * @brief Registra chi deve essere avvisato dopo ogni modifica di un utente
+     * 
+     * @param[in] osservatore Riceve l'utente modificato e il campo (null se non è noto quale campo è cambiato)
+     * 
+     * @return void
+     */
+    public void aggiungiOsservatore(BiConsumer<Utente, CampoUtente> osservatore) {
+        osservatori.add(osservatore);
+    }
+
+    /**
+     * @brief Nome di un campo come usato dalle interrogazioni e dalla cache
+     * 
+     * @param[in] campo Il campo dell'utente
+     * 
+     * @return Il nome in minuscolo (es. "cognome")
+     */
+    public static String nomeCampo(CampoUtente campo) {
+        return campo.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @brief Metodo che esegue subito un'interrogazione composta
+     * 
+     * @param[in] testo Il testo dell'interrogazione
+     * 
+     * @return Gli utenti trovati
+     * 
+     * @throws IllegalArgumentException se il testo è malformato o un valore non è valido
+     */
+    public List<Utente> interroga(String testo) {
+        return preparaInterrogazione(Interrogazione.analizza(testo)).get();
+    }
+
+    /**
+     * @brief Metodo che restituisce una pagina degli utenti che soddisfano un filtro
+     * 
+     * Va chiamato sul thread JavaFX: i utenti vengono scorsi senza copiarne la lista. L'ordine
+     * è stabile anche tra una pagina e l'altra se nel frattempo vengono aggiunti o rimossi utenti,
+     * perché la pagina successiva riparte dall'ultimo elemento letto (vedi Pagina).
+     * 
+     * @param[in] filtro Il filtro, null per accettarli tutti
+     * @param[in] ordine L'ordinamento, null per l'ordine per matricola; va riusato per le pagine successive
+     * @param[in] dopo Il cursore restituito dalla pagina precedente, null per la prima pagina
+     * @param[in] limite Il numero massimo di elementi nella pagina
+     * 
+     * @return La pagina
+     * 
+     * @throws IllegalArgumentException se il limite non è positivo o il cursore è di un altro ordinamento
+     */
+    public Pagina<Utente> pagina(Predicate<? super Utente> filtro, Comparator<? super Utente> ordine, Pagina.Cursore<Utente> dopo, int limite) {
+        return Pagina.estrai(utenti, filtro, ordine, u -> normalizzaMatricola(u.getMatricola()), dopo, limite);
+    }
+
+    /**
+     * @brief Metodo che restituisce una pagina dei risultati di un'interrogazione composta
+     * 
+     * I candidati vengono dagli indici (e dalla cache dei risultati), come per interroga().
+     * 
+     * @param[in] q L'interrogazione
+     * @param[in] ordine L'ordinamento, null per l'ordine per matricola; va riusato per le pagine successive
+     * @param[in] dopo Il cursore restituito dalla pagina precedente, null per la prima pagina
+     * @param[in] limite Il numero massimo di elementi nella pagina
+     * 
+     * @return La pagina
+     * 
+     * @throws IllegalArgumentException se un valore dell'interrogazione non è valido, il limite non è positivo
+     *         o il cursore è di un altro ordinamento
+     */
+    public Pagina<Utente> paginaInterrogazione(Interrogazione q, Comparator<? super Utente> ordine, Pagina.Cursore<Utente> dopo, int limite) {
+        return Pagina.estrai(preparaInterrogazione(q).get(), null, ordine, u -> normalizzaMatricola(u.getMatricola()), dopo, limite);
+    }
+
+    /**
+     * @brief Metodo che restituisce i cognomi più frequenti che iniziano con il testo digitato
+     * 
+     * @param[in] prefisso Il testo digitato
+     * @param[in] massimo Il numero massimo di suggerimenti
+     * 
+     * @return I cognomi suggeriti
+     */
+    public List<String> suggerisciCognomi(String prefisso, int massimo) {
+        return suggeritoreCognomi.suggerisci(prefisso, massimo);
+    }
+
+    /**
+     * @brief Metodo che restituisce le matricole che iniziano con il testo digitato
+     * 
+     * @param[in] prefisso Il testo digitato
+     * @param[in] massimo Il numero massimo di suggerimenti
+     * 
+     * @return Le matricole suggerite
+     */
+    public List<String> suggerisciMatricole(String prefisso, int massimo) {
+        return suggeritoreMatricole.suggerisci(prefisso, massimo);
+    }
+
+    /**
+     * @brief Salvataggio su file binario nel formato compatto (vedi ArchivioBinario e CodecUtente).
      *  Viene salvata una List<Utente>.
      * 
      * @return void
      */
     public void salvaSuBinario() {
-        List<Utente> lista = new ArrayList<>(utenti);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(FILE_BINARIO))) {
-            out.writeObject(lista);
+        preparaSalvataggio().run();
+    }
+
+    /**
+     * @brief Segnala che gli utenti sono stati modificati e vanno salvati.
+     *  Se è stato impostato un SalvataggioDifferito le richieste vengono accorpate e scritte
+     *  in background, altrimenti il salvataggio è immediato.
+     * 
+     * @return void
+     */
+    public void richiediSalvataggio() {
+        if (salvataggio == null) {
+            salvaSuBinario();
+        } else {
+            salvataggio.segnala(this);
+        }
+    }
+
+    /**
+     * @brief Imposta lo scheduler dei salvataggi in background
+     * 
+     * @param[in] salvataggio Lo scheduler condiviso, o null per salvare in modo sincrono
+     * 
+     * @return void
+     */
+    public void setSalvataggioDifferito(SalvataggioDifferito salvataggio) {
+        this.salvataggio = salvataggio;
+    }
+
+    /**
+     * @brief Codifica subito la lista, sul thread che la possiede, e restituisce la scrittura su disco.
+     * 
+     * @return La scrittura su disco
+     */
+    @Override
+    public Runnable preparaSalvataggio() {
+        try {
+            byte[] contenuto = archivio.codifica(new ArrayList<>(utenti));
+            return () -> {
+                try {
+                    archivio.scrivi(contenuto);
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                }
+            };
         } catch (IOException e) {
             System.out.println(e.getMessage());
+            return () -> { };
         }
     }
     
     /**
      * @brief Caricamento da file binario.
-     * Formato atteso: una List<Utente> serializzata.
+     * Formato atteso: una List<Utente> nel formato binario compatto. I file nel vecchio formato
+     * serializzato con ObjectOutputStream vengono letti e migrati al nuovo formato.
+     * Viene stampata la stima dei byte risparmiati condividendo nomi e cognomi (vedi PoolStringhe).
      * 
      * @return void
      */
-     public void caricaDaBinario() throws IOException, ClassNotFoundException {
-        File file = new File(FILE_BINARIO);
-        if (!file.exists()) {
-            throw new FileNotFoundException("File binario non trovato: " + FILE_BINARIO);
+    public void caricaDaBinario() throws IOException, ClassNotFoundException {
+        archivio.migra();
+        long risparmiati = PoolStringhe.COMUNE.getByteRisparmiati();
+        inCaricamento = true;
+        try {
+            utenti.addAll(archivio.carica());
+        } finally {
+            inCaricamento = false;
         }
-
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-
-            Object obj = in.readObject();
-
-            List<Utente> lista = (List<Utente>) obj;
-            for (Object o : lista) {
-                if (o instanceof Utente) {
-                    utenti.add((Utente) o);
-                }
-            }
+        System.out.println("Caricati " + utenti.size() + " utenti, " + (PoolStringhe.COMUNE.getByteRisparmiati() - risparmiati)
+                + " byte risparmiati condividendo i testi ripetuti");
+        for (Utente u : new ArrayList<>(chiavi.keySet())) {
+            togliChiavi(u);
+        }
+        for (Utente u : utenti) {
+            mettiChiavi(u);
         }
+        indiceNomi.ricostruisci(utenti);
+        suggeritoreCognomi.ricostruisci(utenti);
+        suggeritoreMatricole.ricostruisci(utenti);
+        risultati.svuota();
+        chiaviNome.svuota();
+        chiaviCognome.svuota();
     }
 }
@@ -5,25 +5,45 @@
  * Questa classe permette di istanziare un oggetto Utente, i metodi setter e getter permettono di
  * ottenere e modificare informazioni relative agli attributi, inoltre il metodo toString permette di stampare 
  * le informazioni relative alla classe Utente.
+ * La data di iscrizione è conservata come giorni dall'epoca (un int); nella forma serializzata
+ * resta un LocalDate, come nei file .bin meno recenti (vedi serialPersistentFields).
  *
  * @author Gruppo 27
  * @date 8 Dicembre 2025
  * @version 1.0
  */
 package Utente;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.time.LocalDate;
 
 
 public class Utente implements Serializable{
 
+    private static final long serialVersionUID = 9078412449453306382L; ///@brief Identificativo di serializzazione, fissato per poter leggere i file .bin nel vecchio formato
+
     private String nome;    ///@brief Il nome dell'utente
     private String cognome;     ///@brief Il cognome dell'utente
     private String matricola;   ///@brief La matricola dell'utente
     private String email;   ///@brief L'email dell'utente
-    private LocalDate iscrizione;   ///@brief La data di iscrizione dell'utente
+    public static final int NESSUNA_DATA = Integer.MIN_VALUE; ///@brief Giorno che indica una data assente
+
+    private int iscrizione;   ///@brief La data di iscrizione dell'utente, in giorni dall'epoca (NESSUNA_DATA se assente)
     private int libriInPrestito;    ///@brief Il numero di libri in prestito presi dell'utente
 
+    ///@brief Campi della forma serializzata, uguali a quelli delle versioni precedenti (iscrizione come LocalDate)
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("nome", String.class),
+        new ObjectStreamField("cognome", String.class),
+        new ObjectStreamField("matricola", String.class),
+        new ObjectStreamField("email", String.class),
+        new ObjectStreamField("iscrizione", LocalDate.class),
+        new ObjectStreamField("libriInPrestito", int.class)
+    };
+
   /**
  * @brief Costruttore per creare un nuovo oggetto Utente
  *
@@ -44,7 +64,7 @@ public class Utente implements Serializable{
         this.cognome = cognome;
         this.matricola = matricola;
         this.email = email;
-        this.iscrizione = iscrizione;
+        this.iscrizione = giorno(iscrizione);
         this.libriInPrestito = 0;
     }
 
@@ -95,6 +115,16 @@ public class Utente implements Serializable{
  */
     
     public LocalDate getIscrizione() {
+        return iscrizione == NESSUNA_DATA ? null : LocalDate.ofEpochDay(iscrizione);
+    }
+
+  /**
+ * @brief Metodo che permette di ottenere la data di iscrizione dell'utente senza creare un LocalDate
+ * 
+ * @return La data di iscrizione in giorni dall'epoca, NESSUNA_DATA se assente
+ */
+    
+    public int getGiornoIscrizione() {
         return iscrizione;
     }
 
@@ -165,7 +195,7 @@ public class Utente implements Serializable{
  */
     
     public void setIscrizione(LocalDate iscrizione) {
-        this.iscrizione = iscrizione;
+        this.iscrizione = giorno(iscrizione);
     }
 
   /**
@@ -195,7 +225,7 @@ public class Utente implements Serializable{
                 ", cognome='" + cognome + '\'' +
                 ", matricola='" + matricola + '\'' +
                 ", email='" + email + '\'' +
-                ", iscrizione=" + iscrizione +
+                ", iscrizione=" + getIscrizione() +
                 ", libriInPrestito=" + libriInPrestito +
                 '}';
     }
@@ -223,5 +253,51 @@ public class Utente implements Serializable{
             return false;
         return this.getNome().equals(((Utente)obj).getNome());
     }
+
+  /**
+ * @brief Converte una data in giorni dall'epoca
+ *
+ * @param[in] data La data, eventualmente null
+ * 
+ * @return I giorni dall'epoca, NESSUNA_DATA se la data è null
+ */
+    private static int giorno(LocalDate data) {
+        return data == null ? NESSUNA_DATA : Math.toIntExact(data.toEpochDay());
+    }
+
+  /**
+ * @brief Scrive l'utente nella forma serializzata, con la data di iscrizione come LocalDate
+ *
+ * @param[in] out Lo stream di serializzazione
+ * 
+ * @return void
+ */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField campi = out.putFields();
+        campi.put("nome", nome);
+        campi.put("cognome", cognome);
+        campi.put("matricola", matricola);
+        campi.put("email", email);
+        campi.put("iscrizione", getIscrizione());
+        campi.put("libriInPrestito", libriInPrestito);
+        out.writeFields();
+    }
+
+  /**
+ * @brief Legge un utente serializzato, convertendo la data di iscrizione in giorni dall'epoca
+ *
+ * @param[in] in Lo stream di deserializzazione
+ * 
+ * @return void
+ */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campi = in.readFields();
+        nome = (String) campi.get("nome", null);
+        cognome = (String) campi.get("cognome", null);
+        matricola = (String) campi.get("matricola", null);
+        email = (String) campi.get("email", null);
+        iscrizione = giorno((LocalDate) campi.get("iscrizione", null));
+        libriInPrestito = campi.get("libriInPrestito", 0);
+    }
 }
 
@@ -19,6 +19,7 @@ import Libro.*;
 import Utente.*;
 import Prestito.*;
 import java.net.URL;
+import Persistenza.SalvataggioDifferito;
 
 /**
  * @file LibreriaMainApp.java
@@ -29,6 +30,9 @@ import java.net.URL;
  */
 public class LibreriaMainApp extends Application {
 
+    private SalvataggioDifferito salvataggio; ///@brief Scheduler dei salvataggi in background condiviso dai tre model
+    private ScadenzarioPrestiti scadenzario; ///@brief Scadenzario dei prestiti scaduti mostrato nella schermata principale
+
     /**
      * @brief Metodo di avvio dell'applicazione JavaFX.
      * Esegue le seguenti operazioni:
@@ -50,7 +54,14 @@ public class LibreriaMainApp extends Application {
         // Inizializzazione dei modelli (Model) per la gestione dei dati persistenti
         TabellaUtenteModel tabUtenteMod = new TabellaUtenteModel();
         TabellaLibroModel tabLibroMod = new TabellaLibroModel();
-        TabellaPrestitoModel tabPrestitoMod = new TabellaPrestitoModel();
+        TabellaPrestitoModel tabPrestitoMod = new TabellaPrestitoModel(tabUtenteMod, tabLibroMod);
+        scadenzario = tabPrestitoMod.getScadenzario();
+
+        // Salvataggi accorpati e scritti in background (finestra configurabile con -Dlibreria.finestraSalvataggio=ms)
+        salvataggio = new SalvataggioDifferito(Long.getLong("libreria.finestraSalvataggio", SalvataggioDifferito.FINESTRA_PREDEFINITA));
+        tabUtenteMod.setSalvataggioDifferito(salvataggio);
+        tabLibroMod.setSalvataggioDifferito(salvataggio);
+        tabPrestitoMod.setSalvataggioDifferito(salvataggio);
 
         //Caricamento dell'interfaccia principale (Menu)
         FXMLLoader mainLoader = new FXMLLoader(getClass().getResource("Interfaccia_Main.fxml"));
@@ -85,6 +96,8 @@ public class LibreriaMainApp extends Application {
 
         //Configurazione della navigazione nel MainController (passaggio delle scene)
         mainController.associaStage(stage, sceneUtente, sceneLibro, scenePrestito);
+        mainController.setSalvataggioDifferito(salvataggio);
+        mainController.setScadenzario(tabPrestitoMod.getScadenzario()); // scatto all'avvio e poi ogni giorno
         
         //Iniezione delle dipendenze: Collegamento dei Controller ai relativi Model e allo Stage per la navigazione inversa
         utController.setModel(tabUtenteMod, stage, scenePrincipale);
@@ -99,6 +112,22 @@ public class LibreriaMainApp extends Application {
         stage.show();
     }
 
+    /**
+     * @brief Metodo chiamato da JavaFX alla chiusura dell'applicazione (es. chiusura della finestra).
+     * Ferma lo scadenzario dei prestiti e scrive su disco i salvataggi ancora in attesa.
+     * 
+     * @return void
+     */
+    @Override
+    public void stop() {
+        if (scadenzario != null) {
+            scadenzario.chiudi();
+        }
+        if (salvataggio != null) {
+            salvataggio.chiudi();
+        }
+    }
+
     /**
      * @brief Metodo main standard per l'avvio dell'applicazione.
      * 
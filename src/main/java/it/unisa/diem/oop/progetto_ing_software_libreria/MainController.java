@@ -10,12 +10,18 @@
  */
 package it.unisa.diem.oop.progetto_ing_software_libreria;
 
+import Persistenza.SalvataggioDifferito;
+import Prestito.Prestito;
+import Prestito.ScadenzarioPrestiti;
 import java.net.URL;
 import java.util.ResourceBundle;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
 
@@ -39,11 +45,19 @@ public class MainController implements Initializable {
     @FXML
     private Button esci;     ///@brief Questo bottone serve per chiudere l'applicazione
 
+    @FXML
+    private Label contatoreScaduti; ///@brief Etichetta con il numero dei prestiti scaduti
+
+    @FXML
+    private ListView<Prestito> listaScaduti; ///@brief Elenco dei prestiti scaduti, nell'ordine in cui sono scaduti
+
     
     private Stage mainStage;     ///@brief Riferimento allo stage (finestra) principale dell'applicazione
     private Scene sceneUtente;   ///@brief Riferimento alla scena che contiene l'interfaccia di gestione Utenti
     private Scene sceneLibro;    ///@brief Riferimento alla scena che contiene l'interfaccia di gestione Libri
     private Scene scenePrestito; ///@brief Riferimento alla scena che contiene l'interfaccia di gestione Prestiti
+    private SalvataggioDifferito salvataggio; ///@brief Scheduler dei salvataggi in background, da svuotare prima dell'uscita
+    private ScadenzarioPrestiti scadenzario; ///@brief Scadenzario dei prestiti, da fermare prima dell'uscita
 
     /**
      * @brief Metodo di inizializzazione chiamato automaticamente da JavaFX.
@@ -77,6 +91,44 @@ public class MainController implements Initializable {
         this.scenePrestito = prestito;
     }
 
+    /**
+     * @brief Imposta lo scheduler dei salvataggi condiviso dai model.
+     * 
+     * @param[in] salvataggio Lo scheduler da svuotare prima della chiusura
+     * 
+     * @return void
+     */
+    void setSalvataggioDifferito(SalvataggioDifferito salvataggio) {
+        this.salvataggio = salvataggio;
+    }
+
+    /**
+     * @brief Collega lo scadenzario dei prestiti alla vista dei prestiti scaduti e lo avvia.
+     * Il contatore e l'elenco seguono lo scadenzario, che li aggiorna all'avvio e ogni giorno.
+     * 
+     * @param[in] scadenzario Lo scadenzario del model dei prestiti
+     * 
+     * @return void
+     */
+    void setScadenzario(ScadenzarioPrestiti scadenzario) {
+        this.scadenzario = scadenzario;
+        if (contatoreScaduti != null) {
+            contatoreScaduti.textProperty().bind(scadenzario.numeroScadutiProperty().asString("Prestiti scaduti: %d"));
+        }
+        if (listaScaduti != null) {
+            listaScaduti.setItems(scadenzario.getScaduti());
+            listaScaduti.setCellFactory(lista -> new ListCell<Prestito>() {
+                @Override
+                protected void updateItem(Prestito p, boolean vuota) {
+                    super.updateItem(p, vuota);
+                    setText(vuota || p == null ? null
+                            : p.getCognome() + " " + p.getNome() + " - " + p.getTitolo() + " (scaduto il " + p.getDataDiScadenza() + ")");
+                }
+            });
+        }
+        scadenzario.avvia();
+    }
+
     /**
      * @brief Gestisce il click sul bottone 'Gestione Utenti'.
      * Cambia la scena attuale dello stage principale visualizzando l'interfaccia Utenti.
@@ -119,15 +171,19 @@ public class MainController implements Initializable {
 
     /**
      * @brief Gestisce il click sul bottone 'Esci'.
-     * Esegue le operazioni di chiusura, come il salvataggio dei dati (se implementato)
-     * e termina l'esecuzione dell'applicazione.
+     * Scrive su disco i salvataggi ancora in attesa e termina l'esecuzione dell'applicazione.
      * 
      * @return void
      */
     @FXML
     private void onEsci() {
-        // DataManager.salvaTutto(); 
         System.out.println("Salvataggio dati e chiusura...");
+        if (scadenzario != null) {
+            scadenzario.chiudi();
+        }
+        if (salvataggio != null) {
+            salvataggio.chiudi();
+        }
         Platform.exit();
         System.exit(0);
     }
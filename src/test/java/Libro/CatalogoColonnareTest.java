@@ -0,0 +1,167 @@
+/**
+ * @file CatalogoColonnareTest.java
+ * @brief Questo file contiene i test unitari del catalogo dei libri memorizzato per colonne
+ *
+ * @author Gruppo 27
+ * @date 25 Gennaio 2026
+ * @version 1.0
+ */
+
+package Libro;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogoColonnareTest {
+
+    private CatalogoColonnare catalogo; /// @brief Catalogo con tre libri
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post Il catalogo contiene tre libri di due autori
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        catalogo = CatalogoColonnare.da(List.of(
+                new Libro("Il nome della rosa", "Umberto Eco", "111", 1980, 12.5, "Buono", 2),
+                new Libro("Perché leggere i classici", "Italo Calvino", "222", 1991, 10.0, "Nuovo", 1),
+                new Libro("Il pendolo di Foucault", "Umberto Eco", "333", 1988, 14.0, "Buono", 3)));
+    }
+
+    /**
+     * @brief Verifica che le viste restituiscano i valori dei libri copiati nelle colonne
+     *
+     * @return void
+     */
+    @Test
+    public void testLettura() {
+        System.out.println("testLettura");
+
+        assertEquals(3, catalogo.numeroRighe());
+        RigaLibro l = catalogo.riga(1);
+        assertEquals("Perché leggere i classici", l.getTitolo());
+        assertEquals("Italo Calvino", l.getAutore());
+        assertEquals("222", l.getIsbn());
+        assertEquals(1991, l.getAnnoPubblicazione());
+        assertEquals(10.0, l.getPrezzo());
+        assertEquals("Nuovo", l.getUsura());
+        assertEquals(1, l.getCopie());
+        assertEquals(new Libro("x", "y", "222", 0, 0, "z", 0).toString().contains("222"), l.toString().contains("222"));
+        assertEquals(catalogo.riga(2), catalogo.getRighe().get(2)); // viste diverse della stessa riga
+        assertEquals(catalogo.riga(2).hashCode(), catalogo.getRighe().get(2).hashCode());
+        assertNotEquals(catalogo.riga(1), catalogo.riga(2));
+        assertNotEquals(catalogo.riga(0), CatalogoColonnare.da(List.of(catalogo.copia(0))).riga(0)); // stessa riga di un altro catalogo
+        assertEquals(2, catalogo.riga(2).getRiga());
+        assertSame(catalogo.riga(0).getAutore(), catalogo.riga(2).getAutore()); // autore conservato una sola volta
+        assertThrows(IndexOutOfBoundsException.class, () -> catalogo.riga(3));
+    }
+
+    /**
+     * @brief Verifica che il catalogo sia una copia in sola lettura
+     *
+     * @return void
+     */
+    @Test
+    public void testSolaLettura() {
+        System.out.println("testSolaLettura");
+
+        Libro originale = new Libro("Lezioni americane", "Italo Calvino", "444", 1988, 9.0, "Nuovo", 1);
+        List<Libro> libri = new ArrayList<>(List.of(originale));
+        CatalogoColonnare copia = CatalogoColonnare.da(libri);
+        originale.setCopie(5);
+        libri.add(new Libro("Palomar", "Italo Calvino", "555", 1983, 8.0, "Buono", 1));
+        assertEquals(1, copia.numeroRighe());
+        assertEquals(1, copia.riga(0).getCopie());
+
+        assertThrows(UnsupportedOperationException.class, () -> catalogo.getRighe().add(catalogo.riga(0)));
+        assertThrows(UnsupportedOperationException.class, () -> catalogo.getRighe().remove(0));
+        Libro libro = catalogo.riga(0).copia();
+        libro.setAutore("U. Eco");
+        assertEquals("Umberto Eco", catalogo.riga(0).getAutore());
+        assertEquals(2, catalogo.copia(0).getCopie());
+    }
+
+    /**
+     * @brief Verifica che la copia di una riga sia un normale Libro serializzabile
+     *
+     * @return void
+     */
+    @Test
+    public void testSerializzazione() throws Exception {
+        System.out.println("testSerializzazione");
+
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(byteOut)) {
+            out.writeObject(catalogo.riga(0).copia());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(byteOut.toByteArray()))) {
+            Libro letto = (Libro) in.readObject();
+            assertEquals(Libro.class, letto.getClass());
+            assertEquals("Il nome della rosa", letto.getTitolo());
+            assertEquals(2, letto.getCopie());
+        }
+    }
+
+    /**
+     * @brief Confronta l'occupazione di memoria della lista di oggetti e del catalogo per colonne
+     *
+     * Il catalogo è una copia: finché la lista resta in memoria occupa memoria in più. Il
+     * confronto è fatto dopo aver lasciato la lista al garbage collector, che è il caso d'uso.
+     *
+     * @return void
+     */
+    @Test
+    public void testOccupazione() {
+        System.out.println("testOccupazione");
+
+        int n = 300_000;
+        String[] stati = {"Nuovo", "Buono", "Discreto", "Usurato"};
+        List<Libro> libri = new ArrayList<>(n);
+        long prima = memoriaUsata();
+        for (int i = 0; i < n; i++) {
+            // new String: come dopo la lettura da file, ogni libro ha le sue String
+            libri.add(new Libro("Titolo del libro numero " + i, new String("Autore " + (i % 5000)), "978" + (1_000_000_000L + i),
+                    1900 + i % 120, 5 + i % 40, new String(stati[i % 4]), 1 + i % 5));
+        }
+        long oggetti = memoriaUsata() - prima;
+        String ultimoTitolo = libri.get(n - 1).getTitolo();
+
+        CatalogoColonnare colonne = CatalogoColonnare.da(libri);
+        long entrambi = memoriaUsata() - prima;
+        Reference.reachabilityFence(libri); // la lista resta raggiungibile fino a qui
+        libri = null;
+        long colonnare = memoriaUsata() - prima;
+
+        System.out.println("Lista di oggetti: " + oggetti / n + " byte per libro");
+        System.out.println("Lista e copia per colonne: " + entrambi / n + " byte per libro");
+        System.out.println("Solo catalogo per colonne: " + colonnare / n + " byte per libro (stima " + colonne.occupazione() / n + ")");
+        assertEquals(n, colonne.numeroRighe());
+        assertEquals(ultimoTitolo, colonne.riga(n - 1).getTitolo());
+        assertTrue(entrambi > oggetti, "Finché la lista è in memoria la copia per colonne si aggiunge alla lista");
+        assertTrue(colonnare < oggetti, "Senza la lista il catalogo per colonne dovrebbe occupare meno della lista di oggetti");
+    }
+
+    /**
+     * @brief Memoria occupata dopo una raccolta dei rifiuti
+     *
+     * @return I byte usati nello heap
+     */
+    private long memoriaUsata() {
+        Runtime r = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return r.totalMemory() - r.freeMemory();
+    }
+}
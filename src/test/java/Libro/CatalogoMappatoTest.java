@@ -0,0 +1,180 @@
+/**
+ * @file CatalogoMappatoTest.java
+ * @brief Questo file contiene i test unitari del catalogo dei libri mappato in memoria
+ *
+ * @author Gruppo 27
+ * @date 29 Gennaio 2026
+ * @version 1.0
+ */
+
+package Libro;
+
+import Ricerca.Intervallo;
+import Ricerca.Pagina;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogoMappatoTest {
+
+    private final Path FILE_TEST = Path.of("catalogo_test.map"); /// @brief File del catalogo usato dai test
+
+    private CatalogoMappato catalogo; /// @brief Catalogo con quattro libri
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post Il catalogo contiene quattro libri, uno senza autore
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        CatalogoMappato.scrivi(List.of(
+                new Libro("Il nome della rosa", "Umberto Eco", "978-88-452-0", 1980, 12.5, "Buono", 2),
+                new Libro("Perché leggere i classici", "Italo Calvino", "222", 1991, 10.0, "Nuovo", 1),
+                new Libro("Il pendolo di Foucault", "Umberto Eco", "333", 1988, 14.0, "Usato", 0),
+                new Libro("Anonimo", null, "444", 1500, 99.99, "Danneggiato", 1)), FILE_TEST);
+        catalogo = CatalogoMappato.apri(FILE_TEST);
+    }
+
+    /**
+     * @brief Pulizia dell'ambiente dopo ogni test
+     *
+     * @return void
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        catalogo.close();
+        Files.deleteIfExists(FILE_TEST);
+    }
+
+    /**
+     * @brief Verifica che le viste restituiscano i valori scritti e non si possano modificare
+     *
+     * @return void
+     */
+    @Test
+    public void testLettura() throws Exception {
+        System.out.println("testLettura");
+
+        assertEquals(4, catalogo.numeroRighe());
+        Libro l = catalogo.riga(1);
+        assertEquals("Perché leggere i classici", l.getTitolo());
+        assertEquals("Italo Calvino", l.getAutore());
+        assertEquals("222", l.getIsbn());
+        assertEquals(1991, l.getAnnoPubblicazione());
+        assertEquals(10.0, l.getPrezzo());
+        assertEquals(StatoUsura.NUOVO, l.getStatoUsura());
+        assertEquals(1, l.getCopie());
+        assertNull(catalogo.riga(3).getAutore());
+        assertEquals(catalogo.riga(1), catalogo.riga(1));
+        assertEquals("Umberto Eco", catalogo.getRighe().get(2).getAutore());
+        assertEquals(4, catalogo.getRighe().size());
+
+        assertThrows(UnsupportedOperationException.class, () -> l.setCopie(5));
+        assertThrows(UnsupportedOperationException.class, () -> l.setUsura("Usato"));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalogo.riga(4));
+
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(byteOut)) {
+            out.writeObject(l);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(byteOut.toByteArray()))) {
+            Libro letto = (Libro) in.readObject();
+            assertEquals(Libro.class, letto.getClass());
+            assertEquals("222", letto.getIsbn());
+            assertEquals(StatoUsura.NUOVO, letto.getStatoUsura());
+        }
+    }
+
+    /**
+     * @brief Verifica le ricerche per ISBN, anno, prezzo e testo
+     *
+     * @return void
+     */
+    @Test
+    public void testRicerche() {
+        System.out.println("testRicerche");
+
+        assertEquals("Il nome della rosa", catalogo.findByIsbn("978 88 452 0").getTitolo());
+        assertEquals("444", catalogo.findByIsbn("444").getIsbn());
+        assertNull(catalogo.findByIsbn("999"));
+
+        List<String> anni = new ArrayList<>();
+        for (Libro l : catalogo.cercaPerAnno(new Intervallo(1980, true, 1991, false))) {
+            anni.add(l.getIsbn());
+        }
+        assertEquals(List.of("978-88-452-0", "333"), anni);
+        assertEquals(2, catalogo.cercaPerAnno(new Intervallo(1980, false, 1991, true)).size());
+
+        List<Libro> prezzi = catalogo.cercaPerPrezzo(new Intervallo(10.0, true, 14.0, true));
+        assertEquals(3, prezzi.size());
+        assertEquals(10.0, prezzi.get(0).getPrezzo());
+        assertEquals(14.0, prezzi.get(2).getPrezzo());
+        assertEquals(1, catalogo.cercaPerPrezzo(new Intervallo(50, true, Double.POSITIVE_INFINITY, true)).size());
+
+        assertEquals(2, catalogo.cercaLibri("umb").size());
+        assertEquals(1, catalogo.cercaLibri("eco pendolo").size());
+        assertEquals(2, catalogo.filtra(l -> l.getCopie() == 1).size());
+    }
+
+    /**
+     * @brief Verifica la paginazione per chiave e il rifiuto di un file che non è un catalogo mappato
+     *
+     * @return void
+     */
+    @Test
+    public void testPaginaEFileNonValido() throws IOException {
+        System.out.println("testPaginaEFileNonValido");
+
+        Pagina<Libro> prima = catalogo.pagina(null, null, null, 3);
+        assertEquals(3, prima.getElementi().size());
+        assertEquals("222", prima.getElementi().get(0).getIsbn());
+        Pagina<Libro> seconda = catalogo.pagina(null, null, prima.getSuccessiva(), 3);
+        assertEquals(1, seconda.getElementi().size());
+        assertEquals("978-88-452-0", seconda.getElementi().get(0).getIsbn());
+
+        Path altro = Path.of("catalogo_test.bin");
+        try {
+            Files.write(altro, new byte[100]);
+            assertThrows(IOException.class, () -> CatalogoMappato.apri(altro));
+        } finally {
+            Files.deleteIfExists(altro);
+        }
+    }
+
+    /**
+     * @brief Verifica che un catalogo grande venga scritto e interrogato con le ricerche binarie
+     *
+     * @return void
+     */
+    @Test
+    public void testCatalogoGrande() throws IOException {
+        System.out.println("testCatalogoGrande");
+
+        List<Libro> libri = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            libri.add(new Libro("Titolo " + i, "Autore " + (i % 100), "isbn" + i, 1900 + i % 120, 1 + (i % 500) / 10.0, "Buono", i % 3));
+        }
+        catalogo.close();
+        CatalogoMappato.scrivi(libri, FILE_TEST);
+        catalogo = CatalogoMappato.apri(FILE_TEST);
+
+        assertEquals(20000, catalogo.numeroRighe());
+        assertEquals("Titolo 12345", catalogo.findByIsbn("ISBN12345").getTitolo());
+        Intervallo anni = new Intervallo(1950, true, 1959, true);
+        Intervallo prezzi = new Intervallo(2.5, false, 7, true);
+        assertEquals(libri.stream().filter(l -> anni.contiene(l.getAnnoPubblicazione())).count(), catalogo.cercaPerAnno(anni).size());
+        assertEquals(libri.stream().filter(l -> prezzi.contiene(l.getPrezzo())).count(), catalogo.cercaPerPrezzo(prezzi).size());
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * @file StatoUsuraTest.java
+ * @brief Questo file contiene i test unitari degli stati di usura e della migrazione dei testi liberi
+ *
+ * @author Gruppo 27
+ * @date 27 Gennaio 2026
+ * @version 1.0
+ */
+
+package Libro;
+
+import Persistenza.LettoreBinario;
+import Persistenza.ScrittoreBinario;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.List;
+
+public class StatoUsuraTest {
+
+    /**
+     * @brief Verifica che i testi liberi vengano ricondotti al grado giusto
+     *
+     * @return void
+     */
+    @Test
+    public void testDaTesto() {
+        System.out.println("testDaTesto");
+
+        assertEquals(StatoUsura.BUONO, StatoUsura.da("  buono "));
+        assertEquals(StatoUsura.USATO, StatoUsura.da("USATO"));
+        assertEquals(StatoUsura.NON_INDICATO, StatoUsura.da("non indicato"));
+        assertEquals(StatoUsura.OTTIMO, StatoUsura.da("Come nuovo"));
+        assertEquals(StatoUsura.OTTIMO, StatoUsura.da("ottime condizioni"));
+        assertEquals(StatoUsura.DANNEGGIATO, StatoUsura.da("Copertina strappata"));
+        assertEquals(StatoUsura.USURATO, StatoUsura.da("Pagine consumate"));
+        assertEquals(StatoUsura.DISCRETO, StatoUsura.da("Stato medio"));
+        assertEquals(StatoUsura.NON_INDICATO, StatoUsura.da(""));
+        assertEquals(StatoUsura.NON_INDICATO, StatoUsura.da(null));
+        assertEquals(StatoUsura.NON_INDICATO, StatoUsura.da("???"));
+
+        for (StatoUsura s : StatoUsura.values()) {
+            assertEquals(s, StatoUsura.daCodice(s.getCodice()));
+            assertEquals(s, StatoUsura.da(s.getEtichetta()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> StatoUsura.daCodice(StatoUsura.values().length));
+    }
+
+    /**
+     * @brief Verifica che i record della versione 1, con l'usura come testo, vengano migrati
+     *
+     * @return void
+     */
+    @Test
+    public void testMigrazioneCodec() throws Exception {
+        System.out.println("testMigrazioneCodec");
+
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ScrittoreBinario out = new ScrittoreBinario(byteOut)) {
+            for (String usura : new String[] {"buone condizioni", "Rovinato"}) {
+                out.scriviStringa("Titolo");
+                out.scriviStringa("Autore");
+                out.scriviStringa(usura);
+                out.scriviIntero(2000);
+                out.scriviDecimale(10);
+                out.scriviStringa(usura);
+                out.scriviIntero(1);
+            }
+        }
+        CodecLibro codec = new CodecLibro();
+        try (LettoreBinario in = new LettoreBinario(new ByteArrayInputStream(byteOut.toByteArray()))) {
+            assertEquals(StatoUsura.BUONO, codec.leggi(in, 1).getStatoUsura());
+            assertEquals(StatoUsura.DANNEGGIATO, codec.leggi(in, 1).getStatoUsura());
+        }
+
+        byteOut.reset();
+        try (ScrittoreBinario out = new ScrittoreBinario(byteOut)) {
+            codec.scrivi(out, new Libro("T", "A", "1", 2000, 10, StatoUsura.USATO, 1));
+        }
+        try (LettoreBinario in = new LettoreBinario(new ByteArrayInputStream(byteOut.toByteArray()))) {
+            assertEquals("Usato", codec.leggi(in, CodecLibro.VERSIONE).getUsura());
+        }
+    }
+
+    /**
+     * @brief Verifica che la forma serializzata mantenga l'usura come testo, come nei file meno recenti
+     *
+     * @return void
+     */
+    @Test
+    public void testSerializzazione() throws Exception {
+        System.out.println("testSerializzazione");
+
+        assertEquals(String.class, ObjectStreamClass.lookup(Libro.class).getField("usura").getType());
+
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(byteOut)) {
+            out.writeObject(List.of(new Libro("Il nome della rosa", "Umberto Eco", "111", 1980, 12.5, "Discreto", 2)));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(byteOut.toByteArray()))) {
+            Libro letto = (Libro) ((List<?>) in.readObject()).get(0);
+            assertEquals(StatoUsura.DISCRETO, letto.getStatoUsura());
+            assertEquals("Il nome della rosa", letto.getTitolo());
+            assertEquals(1980, letto.getAnnoPubblicazione());
+            assertEquals(12.5, letto.getPrezzo());
+            assertEquals(2, letto.getCopie());
+        }
+    }
+}
@@ -9,16 +9,33 @@
 
 package Libro;
 
+import Persistenza.ScrittoreBinario;
+import Ricerca.CacheRisultati;
+import Ricerca.Interrogazione;
+import Ricerca.Intervallo;
+import Ricerca.Pagina;
 import javafx.collections.ObservableList;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class TabellaLibroModelTest {
     
     private TabellaLibroModel model; /// @brief Istanza del modello da testare
     private final String FILE_BINARIO = "libri.bin"; /// @brief Nome del file binario per il test di persistenza
+    private final String FILE_GIORNALE = "libri.log"; /// @brief Nome del file di giornale delle modifiche
     
     private final String TITOLO = "Test Book";          /// @brief Titolo del libro di test
     private final String AUTORE = "Test Author";        /// @brief Autore del libro di test
@@ -80,6 +97,10 @@ public class TabellaLibroModelTest {
         if (file.exists()) {
             file.delete(); 
         }
+        File giornale = new File(FILE_GIORNALE);
+        if (giornale.exists()) {
+            giornale.delete();
+        }
     }
     
     /**
@@ -144,6 +165,9 @@ public class TabellaLibroModelTest {
         assertNotNull(libroAggiunto, "Il libro con ISBN atteso non è stato trovato.");
         
         assertEquals(TITOLO, libroAggiunto.getTitolo());
+
+        assertTrue(model.aggiungiLibro("Secondo", AUTORE, "111", ANNO, PREZZO, StatoUsura.USATO, COPIE));
+        assertEquals(StatoUsura.USATO, model.findByIsbn("111").getStatoUsura());
     }
 
     /**
@@ -231,4 +255,557 @@ public class TabellaLibroModelTest {
         assertNotNull(modelSenzaFile.getLibri());
         assertTrue(modelSenzaFile.getLibri().isEmpty());
     }
-}
\ No newline at end of file
+    
+    /**
+     * @brief Test del salvataggio tramite giornale delle modifiche
+     *
+     * Verifica che, dopo la prima istantanea, aggiunte, modifiche e rimozioni vengano accodate
+     * al giornale senza riscrivere l'istantanea, e che una nuova istanza del modello
+     * ricostruisca lo stato corretto riapplicando il giornale.
+     *
+     * @pre Il modello contiene un libro salvato nell'istantanea
+     * @post Una nuova istanza del modello riflette tutte le modifiche registrate nel giornale
+     *
+     * @return void
+     */
+    @Test
+    public void testGiornaleModifiche() {
+        System.out.println("testGiornaleModifiche");
+        
+        model.aggiungiLibro(TITOLO, AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE);
+        model.salvaSuBinario();
+        long dimensioneIstantanea = new File(FILE_BINARIO).length();
+        
+        Libro libro = findLibroByIsbn(model.getLibri(), ISBN).orElseThrow();
+        model.modificaLibro(libro, CampoLibro.TITOLO, "Titolo Modificato");
+        model.modificaLibro(libro, CampoLibro.ISBN, "999-0000000000");
+        model.aggiungiLibro("Secondo", AUTORE, "111-1111111111", ANNO, PREZZO, USURA, COPIE);
+        model.aggiungiLibro("Terzo", AUTORE, "222-2222222222", ANNO, PREZZO, USURA, COPIE);
+        model.rimuoviLibro(findLibroByIsbn(model.getLibri(), "222-2222222222").orElseThrow());
+        model.salvaSuBinario();
+        
+        assertEquals(dimensioneIstantanea, new File(FILE_BINARIO).length(), "L'istantanea non deve essere riscritta.");
+        assertTrue(new File(FILE_GIORNALE).length() > 0, "Le modifiche devono essere accodate al giornale.");
+        
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+        
+        assertEquals(2, nuovoModel.getLibri().size());
+        Libro modificato = findLibroByIsbn(nuovoModel.getLibri(), "999-0000000000")
+                                .orElseThrow(() -> new AssertionError("La modifica dell'ISBN non è stata riapplicata."));
+        assertEquals("Titolo Modificato", modificato.getTitolo());
+        assertTrue(findLibroByIsbn(nuovoModel.getLibri(), "111-1111111111").isPresent());
+        assertFalse(findLibroByIsbn(nuovoModel.getLibri(), "222-2222222222").isPresent());
+    }
+    
+    /**
+     * @brief Test di un record del giornale con un codice di campo non valido
+     *
+     * Verifica che il record venga trattato come corrotto: le modifiche precedenti vengono
+     * riapplicate e il giornale viene compattato subito.
+     *
+     * @pre Il giornale contiene una modifica valida seguita da un record con il campo 99
+     * @post Il modello contiene la modifica valida e il giornale è vuoto
+     *
+     * @return void
+     */
+    @Test
+    public void testGiornaleCampoNonValido() throws IOException {
+        System.out.println("testGiornaleCampoNonValido");
+
+        model.aggiungiLibro(TITOLO, AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE);
+        model.salvaSuBinario();
+        model.modificaLibro(model.getLibri().get(0), CampoLibro.TITOLO, "Titolo Modificato");
+        model.salvaSuBinario();
+        try (ScrittoreBinario out = new ScrittoreBinario(new FileOutputStream(FILE_GIORNALE, true))) {
+            out.scriviByte(3); // modifica
+            out.scriviStringa(ISBN);
+            out.scriviByte(99);
+            out.scriviStringa("valore");
+        }
+
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+
+        assertEquals("Titolo Modificato", nuovoModel.getLibri().get(0).getTitolo());
+        assertEquals(0, new File(FILE_GIORNALE).length(), "Il giornale con il record corrotto deve essere compattato.");
+        assertEquals("Titolo Modificato", new TabellaLibroModel().getLibri().get(0).getTitolo());
+    }
+
+    /**
+     * @brief Test di un record del giornale di tipo sconosciuto
+     *
+     * Verifica che il record venga trattato come corrotto: gli indici seguono i libri caricati,
+     * il giornale viene compattato e i libri aggiunti dopo sopravvivono al riavvio.
+     *
+     * @pre Il giornale contiene una modifica valida seguita da un record di tipo 77
+     * @post Il modello trova il libro per ISBN e per titolo e conserva il libro aggiunto dopo
+     *
+     * @return void
+     */
+    @Test
+    public void testGiornaleRecordSconosciuto() throws IOException {
+        System.out.println("testGiornaleRecordSconosciuto");
+
+        model.aggiungiLibro(TITOLO, AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE);
+        model.salvaSuBinario();
+        model.modificaLibro(model.getLibri().get(0), CampoLibro.TITOLO, "Titolo Modificato");
+        model.salvaSuBinario();
+        try (ScrittoreBinario out = new ScrittoreBinario(new FileOutputStream(FILE_GIORNALE, true))) {
+            out.scriviByte(77);
+        }
+
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+
+        assertEquals("Titolo Modificato", nuovoModel.findByIsbn(ISBN).getTitolo());
+        assertEquals(1, nuovoModel.cercaLibri("modificato", CampoLibro.TITOLO, 10).size());
+        assertFalse(nuovoModel.aggiungiLibro("Doppione", AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE), "L'indice ISBN deve essere ricostruito.");
+        assertEquals(0, new File(FILE_GIORNALE).length(), "Il giornale con il record corrotto deve essere compattato.");
+
+        assertTrue(nuovoModel.aggiungiLibro("Secondo", AUTORE, "111", ANNO, PREZZO, USURA, COPIE));
+        nuovoModel.salvaSuBinario();
+        assertNotNull(new TabellaLibroModel().findByIsbn("111"), "Il libro aggiunto dopo il record corrotto deve essere conservato.");
+    }
+
+    /**
+     * @brief Test della compattazione del giornale
+     *
+     * Verifica che, superata la soglia di record, il salvataggio riscriva l'istantanea
+     * e svuoti il giornale.
+     *
+     * @pre Il giornale contiene più record della soglia di compattazione
+     * @post Il giornale è vuoto e l'istantanea contiene lo stato aggiornato
+     *
+     * @return void
+     */
+    @Test
+    public void testCompattazioneGiornale() {
+        System.out.println("testCompattazioneGiornale");
+        
+        model.aggiungiLibro(TITOLO, AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE);
+        model.salvaSuBinario();
+        
+        Libro libro = model.getLibri().get(0);
+        for (int i = 0; i < GiornaleLibri.SOGLIA_COMPATTAZIONE; i++) {
+            model.modificaLibro(libro, CampoLibro.COPIE, i);
+        }
+        model.salvaSuBinario();
+        assertTrue(new File(FILE_GIORNALE).length() > 0);
+        
+        model.modificaLibro(libro, CampoLibro.PREZZO, 5.0);
+        model.salvaSuBinario();
+        
+        assertEquals(0, new File(FILE_GIORNALE).length(), "Il giornale deve essere compattato nell'istantanea.");
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+        assertEquals(5.0, nuovoModel.getLibri().get(0).getPrezzo(), DELTA);
+        assertEquals(GiornaleLibri.SOGLIA_COMPATTAZIONE - 1, nuovoModel.getLibri().get(0).getCopie());
+    }
+
+    /**
+     * @brief Test dell'indice ISBN
+     *
+     * Verifica che findByIsbn trovi i libri ignorando trattini e spazi, che l'indice segua
+     * modifiche dell'ISBN e rimozioni e che gli ISBN duplicati vengano rifiutati.
+     *
+     * @pre Il modello contiene due libri
+     * @post L'indice è coerente con la lista dopo ogni operazione
+     *
+     * @return void
+     */
+    @Test
+    public void testIndiceIsbn() {
+        System.out.println("testIndiceIsbn");
+        
+        assertTrue(model.aggiungiLibro(TITOLO, AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE));
+        assertTrue(model.aggiungiLibro("Secondo", AUTORE, "111-1111111111", ANNO, PREZZO, USURA, COPIE));
+        Libro libro = model.getLibri().get(0);
+        
+        assertSame(libro, model.findByIsbn(ISBN));
+        assertSame(libro, model.findByIsbn(ISBN.replace("-", " ")));
+        assertNull(model.findByIsbn("000"));
+        
+        assertFalse(model.aggiungiLibro("Doppione", AUTORE, ISBN.replace("-", ""), ANNO, PREZZO, USURA, COPIE), "Un ISBN già presente deve essere rifiutato.");
+        assertEquals(2, model.getLibri().size());
+        
+        assertFalse(model.modificaLibro(libro, CampoLibro.ISBN, "1111111111111"), "Non si può assegnare l'ISBN di un altro libro.");
+        assertTrue(model.modificaLibro(libro, CampoLibro.ISBN, "999-0000000000"));
+        assertNull(model.findByIsbn(ISBN));
+        assertSame(libro, model.findByIsbn("9990000000000"));
+        
+        model.rimuoviLibro(libro);
+        assertNull(model.findByIsbn("999-0000000000"));
+        
+        model.getLibri().add(new Libro("Terzo", AUTORE, "222", ANNO, PREZZO, USURA, COPIE));
+        assertNotNull(model.findByIsbn("222"), "L'indice deve seguire anche le aggiunte dirette alla lista.");
+    }
+
+    /**
+     * @brief Test della ricerca testuale del model
+     *
+     * Verifica che la ricerca per parole segua aggiunte, modifiche e rimozioni e che
+     * l'indice venga ricostruito al caricamento.
+     *
+     * @pre Il modello contiene due libri
+     * @post La ricerca restituisce i libri aggiornati
+     *
+     * @return void
+     */
+    @Test
+    public void testCercaLibri() {
+        System.out.println("testCercaLibri");
+        
+        model.aggiungiLibro("La coscienza di Zeno", "Italo Svevo", "111", ANNO, PREZZO, USURA, COPIE);
+        model.aggiungiLibro(TITOLO, AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE);
+        Libro zeno = model.findByIsbn("111");
+        
+        assertEquals(1, model.cercaLibri("coscien").size());
+        assertEquals(1, model.cercaLibri("svevo", CampoLibro.AUTORE, 10).size());
+        assertTrue(model.cercaLibri("svevo", CampoLibro.TITOLO, 10).isEmpty());
+        
+        model.modificaLibro(zeno, CampoLibro.TITOLO, "Senilità");
+        assertTrue(model.cercaLibri("coscienza").isEmpty());
+        assertSame(zeno, model.cercaLibri("senilita").get(0));
+        model.salvaSuBinario();
+        
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+        assertEquals("111", nuovoModel.cercaLibri("senilita svevo").get(0).getIsbn());
+        
+        model.rimuoviLibro(zeno);
+        assertTrue(model.cercaLibri("senilita").isEmpty());
+    }
+
+    /**
+     * @brief Test della ricerca approssimata
+     *
+     * Verifica che la ricerca tolleri errori di battitura nel campo indicato e preferisca
+     * le parole più vicine.
+     *
+     * @pre Il modello contiene tre libri
+     * @post La ricerca approssimata restituisce i libri con parole simili
+     *
+     * @return void
+     */
+    @Test
+    public void testCercaLibriSimili() {
+        System.out.println("testCercaLibriSimili");
+        
+        model.aggiungiLibro("I promessi sposi", "Alessandro Manzoni", "111", ANNO, PREZZO, USURA, COPIE);
+        model.aggiungiLibro("Il nome della rosa", "Umberto Eco", "222", ANNO, PREZZO, USURA, COPIE);
+        model.aggiungiLibro("Rose e spine", "Anonimo", "333", ANNO, PREZZO, USURA, COPIE);
+        
+        assertTrue(model.cercaLibri("manzomi").isEmpty());
+        assertEquals("111", model.cercaLibriSimili("manzomi", CampoLibro.AUTORE, 10).get(0).getIsbn());
+        assertEquals("111", model.cercaLibriSimili("Alesandro Manzonni", null, 10).get(0).getIsbn());
+        assertTrue(model.cercaLibriSimili("manzomi", CampoLibro.TITOLO, 10).isEmpty());
+        
+        List<Libro> rose = model.cercaLibriSimili("rosa", CampoLibro.TITOLO, 10);
+        assertEquals(2, rose.size());
+        assertEquals("222", rose.get(0).getIsbn());
+        assertEquals("333", rose.get(1).getIsbn());
+    }
+
+    /**
+     * @brief Test della ricerca mentre si digita su un catalogo grande
+     *
+     * Con 100.000 libri la ricerca per parole e quella approssimata devono trovare i libri giusti.
+     * Il tempo medio viene solo stampato, da confrontare con un fotogramma (60 Hz): dipende dalla
+     * macchina e non viene verificato.
+     *
+     * @pre Il modello contiene 100.000 libri
+     * @post Entrambe le ricerche trovano i libri cercati
+     *
+     * @return void
+     */
+    @Test
+    public void testRicercaSuCatalogoGrande() {
+        System.out.println("testRicercaSuCatalogoGrande");
+        
+        String[] cognomi = {"Rossi", "Bianchi", "Verdi", "Esposito", "Romano", "Colombo", "Ricci", "Marino", "Greco", "Bruno"};
+        List<Libro> catalogo = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            catalogo.add(new Libro("Manuale di analisi volume" + i, cognomi[i % 10], "isbn" + i, ANNO, PREZZO, USURA, COPIE));
+        }
+        model.getLibri().addAll(catalogo);
+        
+        for (int i = 0; i < 100; i++) {
+            model.cercaLibri("volume" + i, CampoLibro.TITOLO, Integer.MAX_VALUE); // riscaldamento
+            model.cercaLibriSimili("espozito", CampoLibro.AUTORE, 10);
+        }
+        long inizio = System.nanoTime();
+        int ripetizioni = 50;
+        for (int i = 0; i < ripetizioni; i++) {
+            String parola = "volume" + (i * 1000 + 7); // anche prefisso di altri titoli, es. volume10070
+            List<Libro> trovati = model.cercaLibri(parola, CampoLibro.TITOLO, Integer.MAX_VALUE);
+            assertTrue(trovati.contains(catalogo.get(i * 1000 + 7)));
+            assertTrue(trovati.stream().allMatch(l -> l.getTitolo().contains(parola)));
+            assertEquals("Esposito", model.cercaLibriSimili("espozito", CampoLibro.AUTORE, 10).get(0).getAutore());
+        }
+        double millisecondi = (System.nanoTime() - inizio) / 1e6 / ripetizioni / 2;
+        System.out.println("Tempo medio per ricerca: " + millisecondi + " ms (un fotogramma: 16,6 ms)");
+    }
+
+    /**
+     * @brief Test della vista filtrata e ordinata
+     *
+     * Verifica che cambiare il filtro non copi i libri e che aggiunte, modifiche e rimozioni
+     * fatte mentre il filtro è attivo compaiano subito nella vista.
+     *
+     * @pre Il modello contiene due libri
+     * @post La vista riflette il filtro e la lista dei libri
+     *
+     * @return void
+     */
+    @Test
+    public void testVistaFiltrata() {
+        System.out.println("testVistaFiltrata");
+        
+        model.aggiungiLibro("La coscienza di Zeno", "Italo Svevo", "111", ANNO, PREZZO, USURA, COPIE);
+        model.aggiungiLibro(TITOLO, AUTORE, ISBN, ANNO, PREZZO, USURA, COPIE);
+        Libro zeno = model.findByIsbn("111");
+        assertEquals(2, model.getVista().size());
+        
+        model.filtra(l -> l.getAutore().equals("Italo Svevo"));
+        assertEquals(1, model.getVista().size());
+        assertSame(zeno, model.getVista().get(0));
+        
+        model.aggiungiLibro("Senilità", "Italo Svevo", "222", ANNO, PREZZO, USURA, COPIE);
+        assertEquals(2, model.getVista().size());
+        
+        model.modificaLibro(zeno, CampoLibro.TITOLO, "Una vita");
+        assertEquals("Una vita", model.getVista().get(0).getTitolo());
+        
+        model.getVista().setComparator((a, b) -> a.getTitolo().compareTo(b.getTitolo()));
+        assertEquals("Senilità", model.getVista().get(0).getTitolo());
+        
+        model.rimuoviLibro(zeno);
+        assertEquals(1, model.getVista().size());
+        
+        model.filtra(null);
+        assertEquals(model.getLibri().size(), model.getVista().size());
+    }
+
+    /**
+     * @brief Test delle ricerche per intervallo di anno e di prezzo
+     *
+     * Verifica che gli indici ordinati seguano aggiunte, modifiche e rimozioni e che vengano
+     * ricostruiti al caricamento.
+     *
+     * @pre Il modello contiene tre libri con anni e prezzi diversi
+     * @post Le ricerche per intervallo restituiscono i libri attesi
+     *
+     * @return void
+     */
+    @Test
+    public void testCercaPerIntervallo() {
+        System.out.println("testCercaPerIntervallo");
+        
+        model.aggiungiLibro("Vecchio", AUTORE, "111", 1985, 9.5, USURA, COPIE);
+        model.aggiungiLibro("Medio", AUTORE, "222", 1995, 14.99, USURA, COPIE);
+        model.aggiungiLibro("Nuovo", AUTORE, "333", 2015, 30.0, USURA, COPIE);
+        
+        assertEquals(1, model.cercaPerAnno(Intervallo.interpreta("1990-2000")).size());
+        assertEquals(2, model.cercaPerPrezzo(Intervallo.interpreta("<15")).size());
+        assertEquals("111", model.cercaPerPrezzo(Intervallo.interpreta("<15")).get(0).getIsbn());
+        
+        Libro nuovo = model.findByIsbn("333");
+        model.modificaLibro(nuovo, CampoLibro.ANNO, 1999);
+        model.modificaLibro(nuovo, CampoLibro.PREZZO, 12.0);
+        assertEquals(2, model.cercaPerAnno(Intervallo.interpreta("1990-2000")).size());
+        assertEquals(3, model.cercaPerPrezzo(Intervallo.interpreta("<15")).size());
+        model.salvaSuBinario();
+        
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+        assertEquals(2, nuovoModel.cercaPerAnno(Intervallo.interpreta("1990-2000")).size());
+        
+        model.rimuoviLibro(model.findByIsbn("222"));
+        assertEquals(Arrays.asList(nuovo), model.cercaPerAnno(Intervallo.interpreta("1990-2000")));
+    }
+
+    /**
+     * @brief Test della ricerca per prezzo esatto
+     *
+     * Un prezzo digitato come "12.99" deve essere trovato cercando "12.99", anche se arriva
+     * come float (come faceva il modulo di aggiunta) o è già salvato con quell'errore.
+     *
+     * @pre Il modello contiene due libri da 12.99, uno aggiunto e uno caricato con il prezzo di un float
+     * @post Le ricerche per prezzo esatto e per soglia li trovano entrambi
+     *
+     * @return void
+     */
+    @Test
+    public void testPrezzoAlCentesimo() {
+        System.out.println("testPrezzoAlCentesimo");
+
+        assertTrue(model.aggiungiLibro("Aggiunto", AUTORE, "111", ANNO, Float.parseFloat("12.99"), USURA, COPIE));
+        assertEquals(12.99, model.findByIsbn("111").getPrezzo());
+        model.getLibri().add(new Libro("Caricato", AUTORE, "222", ANNO, 12.99f, USURA, COPIE));
+        model.aggiungiLibro("Più caro", AUTORE, "333", ANNO, 13.0, USURA, COPIE);
+
+        assertEquals(2, model.cercaPerPrezzo(Intervallo.interpreta("12.99")).size());
+        assertEquals(3, model.cercaPerPrezzo(Intervallo.interpreta(">=12.99")).size());
+        assertEquals(List.of(model.findByIsbn("333")), model.cercaPerPrezzo(Intervallo.interpreta(">12.99")));
+        assertEquals(2, model.interroga("prezzo:12.99").size());
+    }
+
+    /**
+     * @brief Verifica conteggi e filtri delle faccette usura, disponibilità e decennio
+     *
+     * @return void
+     */
+    @Test
+    public void testFaccette() {
+        System.out.println("testFaccette");
+        
+        model.aggiungiLibro("Primo", AUTORE, "111", 1985, 9.5, "buono", 0);
+        model.aggiungiLibro("Due", AUTORE, "222", 1989, 14.99, " Buono ", 3);
+        model.aggiungiLibro("Tre", AUTORE, "333", 2015, 30.0, USURA, 1);
+        
+        Map<String, Set<String>> selezione = new HashMap<>();
+        Map<String, Map<String, Integer>> conteggi = model.conteggiFaccette(selezione, null);
+        assertEquals(Map.of("Buono", 2, "Ottimo", 1), conteggi.get(TabellaLibroModel.FACCETTA_USURA));
+        assertEquals(Map.of("Disponibile", 2, "Esaurito", 1), conteggi.get(TabellaLibroModel.FACCETTA_DISPONIBILITA));
+        assertEquals(Map.of("1980-1989", 2, "2010-2019", 1), conteggi.get(TabellaLibroModel.FACCETTA_DECENNIO));
+        
+        selezione.put(TabellaLibroModel.FACCETTA_DECENNIO, Set.of("1980-1989"));
+        selezione.put(TabellaLibroModel.FACCETTA_DISPONIBILITA, Set.of("Disponibile"));
+        model.filtra(model.filtroFaccette(selezione));
+        assertEquals(1, model.getVista().size());
+        assertEquals("222", model.getVista().get(0).getIsbn());
+        
+        model.modificaLibro(model.findByIsbn("111"), CampoLibro.COPIE, 4);
+        model.filtra(model.filtroFaccette(selezione));
+        assertEquals(2, model.getVista().size());
+        
+        model.rimuoviLibro(model.findByIsbn("222"));
+        conteggi = model.conteggiFaccette(selezione, model.cercaLibri("Primo"));
+        assertEquals(Map.of("Buono", 1, "Ottimo", 0), conteggi.get(TabellaLibroModel.FACCETTA_USURA));
+        model.salvaSuBinario();
+        
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+        assertEquals(Map.of("Disponibile", 2), nuovoModel.conteggiFaccette(new HashMap<String, Set<String>>(), null)
+                .get(TabellaLibroModel.FACCETTA_DISPONIBILITA));
+    }
+
+    /**
+     * @brief Verifica lo stato di usura codificato: modifica, giornale, conteggi e filtro
+     *
+     * @return void
+     */
+    @Test
+    public void testStatoUsura() {
+        System.out.println("testStatoUsura");
+        
+        model.aggiungiLibro("Primo", AUTORE, "111", ANNO, PREZZO, "buone condizioni", COPIE);
+        model.aggiungiLibro("Secondo", AUTORE, "222", ANNO, PREZZO, "Nuovo", COPIE);
+        model.aggiungiLibro("Terzo", AUTORE, "333", ANNO, PREZZO, "Nuovo", COPIE);
+        assertEquals(StatoUsura.BUONO, model.findByIsbn("111").getStatoUsura());
+        model.salvaSuBinario();
+        
+        assertTrue(model.modificaLibro(model.findByIsbn("222"), CampoLibro.USURA, StatoUsura.DANNEGGIATO));
+        model.salvaSuBinario(); // la modifica va nel giornale
+        
+        TabellaLibroModel nuovoModel = new TabellaLibroModel();
+        assertEquals(StatoUsura.DANNEGGIATO, nuovoModel.findByIsbn("222").getStatoUsura());
+        int[] conteggi = TabellaLibroModel.contaPerUsura(nuovoModel.getLibri());
+        assertEquals(1, conteggi[StatoUsura.BUONO.getCodice()]);
+        assertEquals(1, conteggi[StatoUsura.NUOVO.getCodice()]);
+        assertEquals(1, conteggi[StatoUsura.DANNEGGIATO.getCodice()]);
+        assertEquals(0, conteggi[StatoUsura.USATO.getCodice()]);
+        
+        nuovoModel.filtra(TabellaLibroModel.filtroUsura(EnumSet.of(StatoUsura.NUOVO, StatoUsura.BUONO)));
+        assertEquals(2, nuovoModel.getVista().size());
+        assertEquals(1, nuovoModel.interroga("usura:danneggiato").size());
+    }
+
+    /**
+     * @brief Verifica le interrogazioni composte sul catalogo
+     *
+     * @return void
+     */
+    @Test
+    public void testInterroga() {
+        System.out.println("testInterroga");
+        
+        model.aggiungiLibro("Il nome della rosa", "Umberto Eco", "111", 1980, 12.0, "buono", 2);
+        model.aggiungiLibro("Il pendolo di Foucault", "Umberto Eco", "222", 1988, 14.0, "Usurato", 0);
+        model.aggiungiLibro("Il barone rampante", "Italo Calvino", "333", 1957, 10.0, "Buono", 1);
+        
+        assertEquals(1, model.interroga("autore:eco anno:>1985").size());
+        assertEquals("222", model.interroga("autore:eco anno:>1985").get(0).getIsbn());
+        assertEquals(2, model.interroga("usura:BUONO").size());
+        assertEquals(1, model.interroga("usura:buono prezzo:<11").size());
+        assertEquals(2, model.interroga("copie:>0").size());
+        assertEquals(1, model.interroga("isbn:2-2-2 OR titolo:zzz").size());
+        assertEquals(2, model.interroga("eco -copie:0 | a:calvino").size());
+        assertTrue(model.usaCampi(Interrogazione.analizza("rosa anno:1980")));
+        assertFalse(model.usaCampi(Interrogazione.analizza("Java: guida")));
+        assertThrows(IllegalArgumentException.class, () -> model.interroga("anno:abc"));
+        
+        model.modificaLibro(model.findByIsbn("333"), CampoLibro.ANNO, 1990);
+        assertEquals(2, model.interroga("anno:>1985").size());
+    }
+
+    /**
+     * @brief Verifica la cache dei risultati: successi, mancati e invalidazioni per campo
+     *
+     * @return void
+     */
+    @Test
+    public void testCacheRisultati() {
+        System.out.println("testCacheRisultati");
+
+        model.aggiungiLibro("Il nome della rosa", "Umberto Eco", "111", 1980, 12.0, "Buono", 2);
+        model.aggiungiLibro("Il barone rampante", "Italo Calvino", "333", 1957, 10.0, "Buono", 1);
+        CacheRisultati<Libro> cache = model.getCacheRisultati();
+
+        assertEquals(1, model.interroga("autore:eco").size());
+        assertEquals(1, model.interroga("autore:eco").size());
+        assertEquals(1, cache.getSuccessi());
+        assertEquals(1, cache.getMancati());
+
+        model.modificaLibro(model.findByIsbn("333"), CampoLibro.PREZZO, 11.0); // l'autore non cambia: la voce resta
+        model.aggiungiLibro("Lezioni americane", "Italo Calvino", "444", 1988, 9.0, "Buono", 1); // non è di Eco
+        assertEquals(1, model.interroga("autore:eco").size());
+        assertEquals(2, cache.getSuccessi());
+
+        model.modificaLibro(model.findByIsbn("333"), CampoLibro.AUTORE, "Umberto Eco");
+        assertEquals(2, model.interroga("autore:eco").size());
+        assertEquals(2, cache.getMancati());
+
+        Supplier<List<Libro>> perAnno = model.inCache("Y|1950-1960", () -> model.cercaPerAnno(Intervallo.interpreta("1950-1960")), "anno");
+        assertEquals(1, perAnno.get().size());
+        model.modificaLibro(model.findByIsbn("333"), CampoLibro.ANNO, 1970);
+        assertEquals(0, model.inCache("Y|1950-1960", () -> model.cercaPerAnno(Intervallo.interpreta("1950-1960")), "anno").get().size());
+
+        model.rimuoviLibro(model.findByIsbn("111"));
+        assertEquals(1, model.interroga("autore:eco").size());
+    }
+
+    /**
+     * @brief Verifica la lettura a pagine del catalogo e dei risultati di un'interrogazione
+     *
+     * @return void
+     */
+    @Test
+    public void testPaginazione() {
+        System.out.println("testPaginazione");
+
+        model.aggiungiLibro("Il nome della rosa", "Umberto Eco", "111", 1980, 12.0, "Buono", 2);
+        model.aggiungiLibro("Il barone rampante", "Italo Calvino", "333", 1957, 10.0, "Buono", 1);
+        model.aggiungiLibro("Il pendolo di Foucault", "Umberto Eco", "222", 1988, 14.0, "Buono", 1);
+        Comparator<Libro> perAnno = Comparator.comparingInt(Libro::getAnnoPubblicazione);
+
+        Pagina<Libro> prima = model.pagina(null, perAnno, null, 2);
+        assertEquals(List.of("333", "111"), Arrays.asList(prima.getElementi().get(0).getIsbn(), prima.getElementi().get(1).getIsbn()));
+        model.aggiungiLibro("Lezioni americane", "Italo Calvino", "444", 1988, 9.0, "Buono", 1);
+        Pagina<Libro> seconda = model.pagina(null, perAnno, prima.getSuccessiva(), 2);
+        assertEquals(2, seconda.getElementi().size());
+        assertEquals("222", seconda.getElementi().get(0).getIsbn()); // a parità di anno decide l'ISBN
+        assertEquals("444", seconda.getElementi().get(1).getIsbn());
+        assertTrue(seconda.isUltima());
+
+        Pagina<Libro> diEco = model.paginaInterrogazione(Interrogazione.analizza("autore:eco"), null, null, 1);
+        assertEquals("111", diEco.getElementi().get(0).getIsbn());
+        diEco = model.paginaInterrogazione(Interrogazione.analizza("autore:eco"), null, diEco.getSuccessiva(), 1);
+        assertEquals("222", diEco.getElementi().get(0).getIsbn());
+        assertTrue(diEco.isUltima());
+    }
+}
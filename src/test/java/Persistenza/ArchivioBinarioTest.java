@@ -0,0 +1,212 @@
+/**
+ * @file ArchivioBinarioTest.java
+ * @brief Questo file contiene i test unitari del formato binario compatto e della migrazione dei file .bin
+ *
+ * @author Gruppo 27
+ * @date 9 Gennaio 2026
+ * @version 1.0
+ */
+
+package Persistenza;
+
+import Libro.CodecLibro;
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ArchivioBinarioTest {
+
+    private final String FILE_TEST = "archivio_test.bin"; /// @brief File binario usato dai test
+    private static final double DELTA = 0.001;          /// @brief Tolleranza per confronti double
+
+    private ArchivioBinario<Libro> archivio; /// @brief Archivio dei libri da testare
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessun file residuo deve interferire con il test
+     * @post L'archivio è pronto su un file inesistente
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        cleanupFile();
+        archivio = new ArchivioBinario<>(FILE_TEST, new CodecLibro());
+    }
+
+    /**
+     * @brief Pulizia dell'ambiente dopo ogni test
+     *
+     * @pre Il test è terminato
+     * @post Il file di test viene eliminato
+     *
+     * @return void
+     */
+    @AfterEach
+    public void tearDown() {
+        cleanupFile();
+    }
+
+    /**
+     * @brief Metodo helper privato per eliminare il file di test
+     *
+     * @return void
+     */
+    private void cleanupFile() {
+        File file = new File(FILE_TEST);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    /**
+     * @brief Metodo helper che crea una lista di libri di prova
+     *
+     * @param[in] n Il numero di libri da creare
+     *
+     * @return La lista dei libri
+     */
+    private List<Libro> creaLibri(int n) {
+        List<Libro> libri = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            libri.add(new Libro("Titolo " + i, "Autore è " + (i % 10), "978-" + i, 1900 + i % 120, 10.5 + i, "Buono", i % 4));
+        }
+        return libri;
+    }
+
+    /**
+     * @brief Test della codifica dei campi primitivi
+     *
+     * Verifica che varint, zig-zag, stringhe (anche null e non ASCII), double e date
+     * vengano riletti identici.
+     *
+     * @pre Nessuna
+     * @post Ogni valore scritto viene riletto uguale
+     *
+     * @return void
+     */
+    @Test
+    public void testCodificaCampi() throws Exception {
+        System.out.println("testCodificaCampi");
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ScrittoreBinario out = new ScrittoreBinario(buffer)) {
+            out.scriviVarInt(0);
+            out.scriviVarInt(Integer.MAX_VALUE);
+            out.scriviIntero(-1);
+            out.scriviIntero(Integer.MIN_VALUE);
+            out.scriviLungo(Long.MAX_VALUE);
+            out.scriviStringa(null);
+            out.scriviStringa("");
+            out.scriviStringa("Perché però àèìòù");
+            out.scriviDecimale(19.99);
+            out.scriviData(null);
+            out.scriviData(LocalDate.of(1965, 3, 1));
+        }
+
+        try (LettoreBinario in = new LettoreBinario(new ByteArrayInputStream(buffer.toByteArray()))) {
+            assertEquals(0, in.leggiVarInt());
+            assertEquals(Integer.MAX_VALUE, in.leggiVarInt());
+            assertEquals(-1, in.leggiIntero());
+            assertEquals(Integer.MIN_VALUE, in.leggiIntero());
+            assertEquals(Long.MAX_VALUE, in.leggiLungo());
+            assertNull(in.leggiStringa());
+            assertEquals("", in.leggiStringa());
+            assertEquals("Perché però àèìòù", in.leggiStringa());
+            assertEquals(19.99, in.leggiDecimale(), DELTA);
+            assertNull(in.leggiData());
+            assertEquals(LocalDate.of(1965, 3, 1), in.leggiData());
+            assertTrue(in.fine());
+        }
+    }
+
+    /**
+     * @brief Test di salvataggio e caricamento nel formato compatto
+     *
+     * @pre L'archivio non esiste
+     * @post Il file inizia con il magic e contiene gli stessi libri salvati
+     *
+     * @return void
+     */
+    @Test
+    public void testSalvaCarica() throws Exception {
+        System.out.println("testSalvaCarica");
+
+        List<Libro> libri = creaLibri(100);
+        archivio.salva(libri);
+
+        try (FileInputStream in = new FileInputStream(FILE_TEST)) {
+            assertArrayEquals(ArchivioBinario.MAGIC, in.readNBytes(ArchivioBinario.MAGIC.length));
+        }
+        assertFalse(archivio.isFormatoPrecedente());
+
+        List<Libro> caricati = archivio.carica();
+        assertEquals(libri.size(), caricati.size());
+        for (int i = 0; i < libri.size(); i++) {
+            assertEquals(libri.get(i).toString(), caricati.get(i).toString());
+        }
+    }
+
+    /**
+     * @brief Test della migrazione di un file nel vecchio formato serializzato
+     *
+     * Scrive una List<Libro> con ObjectOutputStream, come facevano le versioni precedenti,
+     * e verifica che venga letta, riscritta nel formato compatto e che il file si riduca.
+     *
+     * @pre Il file contiene una List<Libro> serializzata
+     * @post Il file è nel formato compatto, più piccolo, con gli stessi libri
+     *
+     * @return void
+     */
+    @Test
+    public void testMigrazioneFormatoPrecedente() throws Exception {
+        System.out.println("testMigrazioneFormatoPrecedente");
+
+        List<Libro> libri = creaLibri(1000);
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(FILE_TEST))) {
+            out.writeObject(new ArrayList<>(libri));
+        }
+        long dimensionePrecedente = new File(FILE_TEST).length();
+
+        assertTrue(archivio.isFormatoPrecedente());
+        assertEquals(libri.size(), archivio.carica().size());
+
+        assertTrue(archivio.migra());
+        assertFalse(archivio.isFormatoPrecedente());
+        assertFalse(archivio.migra(), "Un file già migrato non deve essere riscritto.");
+        assertTrue(new File(FILE_TEST).length() < dimensionePrecedente, "Il formato compatto deve occupare meno spazio.");
+
+        List<Libro> caricati = archivio.carica();
+        assertEquals(libri.size(), caricati.size());
+        assertEquals(libri.get(999).toString(), caricati.get(999).toString());
+    }
+
+    /**
+     * @brief Test del rifiuto di un file che contiene record di un altro tipo
+     *
+     * @pre Il file è stato scritto dal codec di un'altra entità
+     * @post Il caricamento solleva un'eccezione
+     *
+     * @return void
+     */
+    @Test
+    public void testTipoErrato() throws Exception {
+        System.out.println("testTipoErrato");
+
+        archivio.salva(creaLibri(1));
+        ArchivioBinario<Utente.Utente> archivioUtenti = new ArchivioBinario<>(FILE_TEST, new Utente.CodecUtente());
+
+        assertThrows(java.io.IOException.class, archivioUtenti::carica);
+    }
+}
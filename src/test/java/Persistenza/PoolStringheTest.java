@@ -0,0 +1,115 @@
+/**
+ * @file PoolStringheTest.java
+ * @brief Questo file contiene i test unitari del pool dei testi ripetuti
+ *
+ * @author Gruppo 27
+ * @date 26 Gennaio 2026
+ * @version 1.0
+ */
+
+package Persistenza;
+
+import Libro.CodecLibro;
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PoolStringheTest {
+
+    private final String FILE_TEST = "pool_test.bin"; /// @brief File binario usato dai test
+
+    private PoolStringhe pool; /// @brief Pool vuoto da testare
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post Il pool è vuoto
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        pool = new PoolStringhe();
+    }
+
+    /**
+     * @brief Pulizia dell'ambiente dopo ogni test
+     *
+     * @return void
+     */
+    @AfterEach
+    public void tearDown() {
+        new File(FILE_TEST).delete();
+    }
+
+    /**
+     * @brief Verifica che testi uguali restituiscano la stessa istanza e che il risparmio venga contato
+     *
+     * @return void
+     */
+    @Test
+    public void testCondividi() {
+        System.out.println("testCondividi");
+
+        String a = new String("Umberto Eco");
+        String b = new String("Umberto Eco");
+        assertSame(a, pool.condividi(a));
+        assertSame(a, pool.condividi(b));
+        assertSame(a, pool.condividi(a));
+        assertNull(pool.condividi(null));
+
+        assertEquals(1, pool.dimensione());
+        assertEquals(1, pool.getCondivisioni());
+        assertEquals(24 + 32, pool.getByteRisparmiati()); // oggetto String + array di 11 byte con intestazione, allineato
+    }
+
+    /**
+     * @brief Verifica che un testo non più usato da nessuno esca dal pool
+     *
+     * @return void
+     */
+    @Test
+    public void testRiferimentiDeboli() throws InterruptedException {
+        System.out.println("testRiferimentiDeboli");
+
+        String tenuto = pool.condividi(new String("Nuovo"));
+        pool.condividi(new String("Rovinato"));
+        for (int i = 0; i < 20 && pool.dimensione() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.dimensione());
+        assertSame(tenuto, pool.condividi(new String("Nuovo")));
+    }
+
+    /**
+     * @brief Verifica che il caricamento da file condivida gli autori
+     *
+     * @return void
+     */
+    @Test
+    public void testCaricamento() throws Exception {
+        System.out.println("testCaricamento");
+
+        List<Libro> libri = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            libri.add(new Libro("Titolo " + i, "Autore " + (i % 10), "isbn" + i, 2000, 10, i % 2 == 0 ? "Nuovo" : "Buono", 1));
+        }
+        ArchivioBinario<Libro> archivio = new ArchivioBinario<>(FILE_TEST, new CodecLibro());
+        archivio.salva(libri);
+
+        long prima = PoolStringhe.COMUNE.getByteRisparmiati();
+        List<Libro> letti = archivio.carica();
+        long risparmiati = PoolStringhe.COMUNE.getByteRisparmiati() - prima;
+        System.out.println("Byte risparmiati: " + risparmiati);
+
+        assertSame(letti.get(3).getAutore(), letti.get(13).getAutore());
+        assertEquals("Autore 3", letti.get(3).getAutore());
+        assertNotSame(letti.get(3).getTitolo(), letti.get(13).getTitolo());
+        assertTrue(risparmiati >= 990 * 40, "Risparmio troppo basso: " + risparmiati);
+    }
+}
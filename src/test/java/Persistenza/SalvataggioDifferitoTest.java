@@ -0,0 +1,127 @@
+/**
+ * @file SalvataggioDifferitoTest.java
+ * @brief Questo file contiene i test unitari dello scheduler dei salvataggi in background
+ *
+ * @author Gruppo 27
+ * @date 10 Gennaio 2026
+ * @version 1.0
+ */
+
+package Persistenza;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SalvataggioDifferitoTest {
+
+    private SalvataggioDifferito salvataggio; /// @brief Scheduler da testare
+    private ModelProva model;                 /// @brief Model fittizio che conta le fotografie e le scritture
+
+    /**
+     * @brief Model fittizio che conta quante volte viene fotografato e scritto
+     */
+    private static class ModelProva implements Salvabile {
+        final AtomicInteger fotografie = new AtomicInteger();
+        final AtomicInteger scritture = new AtomicInteger();
+        volatile String threadScrittura;
+
+        @Override
+        public Runnable preparaSalvataggio() {
+            fotografie.incrementAndGet();
+            return () -> {
+                threadScrittura = Thread.currentThread().getName();
+                scritture.incrementAndGet();
+            };
+        }
+    }
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post Lo scheduler usa il thread del test come thread proprietario
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        salvataggio = new SalvataggioDifferito(200, Runnable::run);
+        model = new ModelProva();
+    }
+
+    /**
+     * @brief Pulizia dell'ambiente dopo ogni test
+     *
+     * @return void
+     */
+    @AfterEach
+    public void tearDown() {
+        salvataggio.chiudi();
+    }
+
+    /**
+     * @brief Test dell'accorpamento delle segnalazioni
+     *
+     * @pre Il model viene segnalato molte volte entro la finestra
+     * @post svuota() esegue un solo salvataggio, sul thread di scrittura
+     *
+     * @return void
+     */
+    @Test
+    public void testAccorpamento() {
+        System.out.println("testAccorpamento");
+
+        for (int i = 0; i < 100; i++) {
+            salvataggio.segnala(model);
+        }
+        assertEquals(0, model.scritture.get(), "Nessuna scrittura prima dello scadere della finestra.");
+
+        salvataggio.svuota();
+
+        assertEquals(1, model.fotografie.get());
+        assertEquals(1, model.scritture.get());
+        assertEquals("salvataggio-differito", model.threadScrittura);
+    }
+
+    /**
+     * @brief Test del salvataggio allo scadere della finestra
+     *
+     * @pre Il model viene segnalato una volta
+     * @post Dopo la finestra il model è stato salvato senza chiamare svuota()
+     *
+     * @return void
+     */
+    @Test
+    public void testScadenzaFinestra() throws InterruptedException {
+        System.out.println("testScadenzaFinestra");
+
+        salvataggio.segnala(model);
+        long limite = System.currentTimeMillis() + 5000;
+        while (model.scritture.get() == 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(1, model.scritture.get());
+        salvataggio.svuota();
+        assertEquals(1, model.fotografie.get(), "Un model già salvato non deve essere salvato di nuovo.");
+    }
+
+    /**
+     * @brief Test delle segnalazioni dopo la chiusura
+     *
+     * @pre Lo scheduler è stato chiuso
+     * @post Le segnalazioni vengono salvate in modo sincrono
+     *
+     * @return void
+     */
+    @Test
+    public void testSegnalaDopoChiusura() {
+        System.out.println("testSegnalaDopoChiusura");
+
+        salvataggio.chiudi();
+        salvataggio.segnala(model);
+
+        assertEquals(1, model.scritture.get());
+    }
+}
@@ -11,6 +11,11 @@ package Prestito;
 
 import Libro.Libro;
 import Utente.Utente;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
 import java.time.LocalDate;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -247,4 +252,38 @@ public class PrestitoTest {
         
         assertEquals(expResult, result);
     }
-}
\ No newline at end of file
+
+    /**
+     * @brief Verifica che le date, conservate come giorni, restino LocalDate nella forma serializzata
+     *
+     * @pre Nessuna precondizione
+     * @post Il prestito letto ha le stesse date di quello scritto
+     *
+     * @return void
+     */
+    @Test
+    public void testSerializzazioneDate() throws Exception {
+        System.out.println("Test: serializzazione delle date");
+        
+        assertEquals(LocalDate.class, ObjectStreamClass.lookup(Prestito.class).getField("dataDiScadenza").getType());
+        assertEquals(LocalDate.class, ObjectStreamClass.lookup(Utente.class).getField("iscrizione").getType());
+        
+        Prestito istanza = creaTestPrestito(creaTestUtente(), creaTestLibro(), DATA_SCADENZA_TEST);
+        assertEquals(DATA_SCADENZA_TEST.toEpochDay(), istanza.getGiornoScadenza());
+        
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(byteOut)) {
+            out.writeObject(istanza);
+            out.writeObject(new Utente("Anna", "Bianchi", "M2", "anna@mail.it", null));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(byteOut.toByteArray()))) {
+            Prestito letto = (Prestito) in.readObject();
+            assertEquals(DATA_SCADENZA_TEST, letto.getDataDiScadenza());
+            assertEquals(ISCRIZIONE_UTENTE, letto.getUtente().getIscrizione());
+            assertEquals(ISBN_LIBRO, letto.getIsbn());
+            Utente senzaData = (Utente) in.readObject();
+            assertNull(senzaData.getIscrizione());
+            assertEquals(Utente.NESSUNA_DATA, senzaData.getGiornoIscrizione());
+        }
+    }
+}
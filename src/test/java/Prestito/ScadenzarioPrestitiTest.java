@@ -0,0 +1,93 @@
+/**
+ * @file ScadenzarioPrestitiTest.java
+ * @brief Questo file contiene i test unitari dello scadenzario dei prestiti
+ *
+ * @author Gruppo 27
+ * @date 20 Gennaio 2026
+ * @version 1.0
+ */
+
+package Prestito;
+
+import Libro.Libro;
+import Utente.Utente;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class ScadenzarioPrestitiTest {
+
+    private final LocalDate OGGI = LocalDate.of(2026, 1, 20); /// @brief Data del primo scatto
+
+    private ScadenzarioPrestiti scadenzario; /// @brief Scadenzario con gli scatti eseguiti sul thread del test
+    private Prestito ieri;      /// @brief Prestito scaduto ieri
+    private Prestito domani;    /// @brief Prestito che scade domani
+    private Prestito traUnaSettimana; /// @brief Prestito che scade tra una settimana
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post Lo scadenzario segue tre prestiti e non ha ancora eseguito scatti
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        Utente u = new Utente("Mario", "Rossi", "M111", "m.r@mail.it", LocalDate.of(2024, 1, 1));
+        Libro l = new Libro("Titolo", "Autore", "1", 2000, 10, "Nuovo", 3);
+        ieri = new Prestito(u, l, OGGI.minusDays(1));
+        domani = new Prestito(u, l, OGGI.plusDays(1));
+        traUnaSettimana = new Prestito(u, l, OGGI.plusDays(7));
+        scadenzario = new ScadenzarioPrestiti(Runnable::run);
+        scadenzario.ricostruisci(Arrays.asList(traUnaSettimana, domani, ieri));
+    }
+
+    /**
+     * @brief Verifica che ogni scatto segnali solo i prestiti scaduti dall'ultimo scatto
+     *
+     * @return void
+     */
+    @Test
+    public void testScatti() {
+        System.out.println("testScatti");
+
+        assertEquals(0, scadenzario.numeroScadutiProperty().get());
+        assertEquals(1, scadenzario.avanza(OGGI));
+        assertEquals(List.of(ieri), scadenzario.getScaduti());
+        assertEquals(0, scadenzario.avanza(OGGI));
+        assertEquals(0, scadenzario.avanza(OGGI.plusDays(1))); // scade domani: ancora valido per tutto il giorno
+        assertEquals(1, scadenzario.avanza(OGGI.plusDays(2)));
+        assertEquals(List.of(ieri, domani), scadenzario.getScaduti());
+        assertEquals(2, scadenzario.numeroScadutiProperty().get());
+    }
+
+    /**
+     * @brief Verifica rimozioni, modifiche della scadenza e prestiti aggiunti già scaduti
+     *
+     * @return void
+     */
+    @Test
+    public void testModifiche() {
+        System.out.println("testModifiche");
+
+        scadenzario.avanza(OGGI);
+        scadenzario.rimuovi(domani);
+        domani.setDataDiScadenza(OGGI.plusDays(30)); // non più seguito: la modifica è ignorata
+        scadenzario.aggiorna(domani);
+
+        ieri.setDataDiScadenza(OGGI.plusDays(3)); // prorogato: esce dagli scaduti
+        scadenzario.aggiorna(ieri);
+        assertTrue(scadenzario.getScaduti().isEmpty());
+
+        traUnaSettimana.setDataDiScadenza(OGGI.minusDays(3)); // anticipato a una data passata
+        scadenzario.aggiorna(traUnaSettimana);
+        assertEquals(List.of(traUnaSettimana), scadenzario.getScaduti());
+
+        assertEquals(1, scadenzario.avanza(OGGI.plusDays(10)));
+        assertEquals(List.of(traUnaSettimana, ieri), scadenzario.getScaduti());
+        assertEquals(2, scadenzario.numeroScadutiProperty().get());
+    }
+}
@@ -9,18 +9,24 @@
 
 package Prestito;
 
+import Libro.CampoLibro;
 import Libro.Libro;
+import Libro.TabellaLibroModel;
+import Utente.CampoUtente;
+import Utente.TabellaUtenteModel;
 import Utente.Utente;
 import javafx.collections.ObservableList;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
 import java.time.LocalDate;
+import java.util.List;
 
 public class TabellaPrestitoModelTest {
     
     private TabellaPrestitoModel model; /// @brief Istanza del modello da testare
     private final String FILE_BINARIO = "prestiti.bin"; /// @brief Nome del file binario per il test di persistenza
+    private final String[] FILE_COLLEGATI = {"utenti.bin", "libri.bin", "libri.log"}; /// @brief File dei model collegati
 
     // Costanti per i dati di test
     private final String NOME_UTENTE = "Mario";         /// @brief Nome dell'utente di test
@@ -97,6 +103,22 @@ public class TabellaPrestitoModelTest {
         if (file.exists()) {
             file.delete();
         }
+        for (String nome : FILE_COLLEGATI) {
+            new File(nome).delete();
+        }
+    }
+
+    /**
+     * @brief Metodo helper che crea i model di utenti e libri con l'utente e il libro di test
+     *
+     * @return Un array con il model degli utenti e il model dei libri
+     */
+    private Object[] creaModelCollegati() {
+        TabellaUtenteModel utenti = new TabellaUtenteModel();
+        utenti.getPersone().add(utenteTest);
+        TabellaLibroModel libri = new TabellaLibroModel();
+        libri.getLibri().add(libroTest);
+        return new Object[]{utenti, libri};
     }
 
     /**
@@ -196,7 +218,8 @@ public class TabellaPrestitoModelTest {
         
         assertTrue(new File(FILE_BINARIO).exists());
         
-        TabellaPrestitoModel nuovoModel = new TabellaPrestitoModel();
+        Object[] collegati = creaModelCollegati();
+        TabellaPrestitoModel nuovoModel = new TabellaPrestitoModel((TabellaUtenteModel) collegati[0], (TabellaLibroModel) collegati[1]);
         
         ObservableList<Prestito> prestitiCaricati = nuovoModel.getPrestiti();
         assertEquals(1, prestitiCaricati.size());
@@ -208,7 +231,130 @@ public class TabellaPrestitoModelTest {
         assertEquals(ISBN_LIBRO, prestitoCaricato.getIsbn());
         assertEquals(dataScadenzaTest, prestitoCaricato.getDataDiScadenza());
     }
+
+    /**
+     * @brief Test del collegamento dei prestiti caricati agli oggetti vivi dei model
+     *
+     * Verifica che un prestito ricaricato faccia riferimento proprio all'utente e al libro dei
+     * model, così che una modifica al libro si rifletta sul prestito.
+     *
+     * @pre Il file contiene un prestito dell'utente e del libro di test
+     * @post Il prestito caricato condivide utente e libro con i model collegati
+     *
+     * @return void
+     */
+    @Test
+    public void testRiferimentiRisolti() {
+        System.out.println("testRiferimentiRisolti");
+
+        model.aggiungiPrestito(utenteTest, libroTest, dataScadenzaTest);
+        model.salvaSuBinario();
+
+        Object[] collegati = creaModelCollegati();
+        TabellaUtenteModel utenti = (TabellaUtenteModel) collegati[0];
+        TabellaLibroModel libri = (TabellaLibroModel) collegati[1];
+        TabellaPrestitoModel nuovoModel = new TabellaPrestitoModel(utenti, libri);
+
+        Prestito prestitoCaricato = nuovoModel.getPrestiti().get(0);
+        assertSame(utenti.getPersone().get(0), prestitoCaricato.getUtente());
+        assertSame(libri.getLibri().get(0), prestitoCaricato.getLibro());
+
+        libri.modificaLibro(libri.getLibri().get(0), CampoLibro.TITOLO, "Titolo aggiornato");
+        assertEquals("Titolo aggiornato", prestitoCaricato.getTitolo());
+    }
+
+    /**
+     * @brief Test del caricamento di un prestito il cui libro non esiste più
+     *
+     * @pre Il file contiene un prestito di un libro assente dal model dei libri
+     * @post Il prestito viene caricato con un libro segnaposto che conserva l'ISBN
+     *
+     * @return void
+     */
+    @Test
+    public void testRiferimentoNonRisolto() {
+        System.out.println("testRiferimentoNonRisolto");
+
+        model.aggiungiPrestito(utenteTest, libroTest, dataScadenzaTest);
+        model.salvaSuBinario();
+
+        TabellaUtenteModel utenti = new TabellaUtenteModel();
+        utenti.getPersone().add(utenteTest);
+        TabellaPrestitoModel nuovoModel = new TabellaPrestitoModel(utenti, new TabellaLibroModel());
+
+        assertEquals(1, nuovoModel.getPrestiti().size());
+        Prestito prestitoCaricato = nuovoModel.getPrestiti().get(0);
+        assertSame(utenti.getPersone().get(0), prestitoCaricato.getUtente());
+        assertEquals(ISBN_LIBRO, prestitoCaricato.getIsbn());
+    }
     
+    /**
+     * @brief Test del salvataggio dei prestiti dopo la modifica di ISBN e matricola da altre schermate
+     *
+     * I prestiti sono salvati per matricola e ISBN: se il libro o l'utente cambiano chiave nei
+     * rispettivi model, il file dei prestiti va riscritto, altrimenti al riavvio i riferimenti
+     * non si risolvono più.
+     *
+     * @pre Il file contiene un prestito dell'utente e del libro di test
+     * @post Il prestito ricaricato fa riferimento all'utente e al libro con le nuove chiavi
+     *
+     * @return void
+     */
+    @Test
+    public void testSalvataggioDopoModificaChiavi() {
+        System.out.println("testSalvataggioDopoModificaChiavi");
+
+        Object[] collegati = creaModelCollegati();
+        TabellaUtenteModel utenti = (TabellaUtenteModel) collegati[0];
+        TabellaLibroModel libri = (TabellaLibroModel) collegati[1];
+        TabellaPrestitoModel collegato = new TabellaPrestitoModel(utenti, libri);
+        collegato.aggiungiPrestito(utenteTest, libroTest, dataScadenzaTest);
+        collegato.salvaSuBinario();
+
+        assertTrue(libri.modificaLibro(libroTest, CampoLibro.ISBN, "978-3333333333"));
+        assertTrue(utenti.modificaUtente(utenteTest, CampoUtente.MATRICOLA, "M999"));
+
+        TabellaPrestitoModel ricaricato = new TabellaPrestitoModel(utenti, libri);
+        assertEquals(1, ricaricato.getPrestiti().size());
+        Prestito p = ricaricato.getPrestiti().get(0);
+        assertSame(utenteTest, p.getUtente());
+        assertSame(libroTest, p.getLibro());
+        assertEquals(dataScadenzaTest, p.getDataDiScadenza());
+    }
+
+    /**
+     * @brief Verifica che gli indici per matricola e per ISBN seguano le modifiche fatte da altre schermate
+     *
+     * Un utente al limite dei prestiti deve restarci anche dopo il cambio di matricola, e i
+     * prestiti di un libro devono essere trovati con il nuovo ISBN.
+     *
+     * @return void
+     */
+    @Test
+    public void testIndiciDopoModificaChiavi() {
+        System.out.println("testIndiciDopoModificaChiavi");
+
+        Object[] collegati = creaModelCollegati();
+        TabellaUtenteModel utenti = (TabellaUtenteModel) collegati[0];
+        TabellaLibroModel libri = (TabellaLibroModel) collegati[1];
+        TabellaPrestitoModel collegato = new TabellaPrestitoModel(utenti, libri);
+        LocalDate oggi = LocalDate.now();
+        for (int i = 1; i <= TabellaPrestitoModel.MASSIMO_PRESTITI; i++) {
+            collegato.aggiungiPrestito(utenteTest, libroTest, oggi.plusDays(i));
+        }
+        assertTrue(collegato.limiteRaggiunto(utenteTest));
+
+        assertTrue(utenti.modificaUtente(utenteTest, CampoUtente.MATRICOLA, "M999"));
+        assertTrue(collegato.limiteRaggiunto(utenteTest));
+        assertEquals(0, collegato.numeroPrestiti(MATRICOLA_UTENTE));
+        assertEquals(TabellaPrestitoModel.MASSIMO_PRESTITI, collegato.prestitiDi("m999").size());
+
+        assertTrue(libri.modificaLibro(libroTest, CampoLibro.ISBN, "978-3333333333"));
+        assertEquals(TabellaPrestitoModel.MASSIMO_PRESTITI, collegato.numeroPrestitiDelLibro("9783333333333"));
+        assertEquals(0, collegato.numeroPrestitiDelLibro(ISBN_LIBRO));
+        assertEquals(TabellaPrestitoModel.MASSIMO_PRESTITI, collegato.interroga("isbn:978-3333333333 matricola:M999").size());
+    }
+
     /**
      * @brief Test del comportamento del costruttore in assenza di file di salvataggio
      *
@@ -231,4 +377,49 @@ public class TabellaPrestitoModelTest {
         assertNotNull(modelSenzaFile.getPrestiti());
         assertTrue(modelSenzaFile.getPrestiti().isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * @brief Verifica gli indici per matricola, per ISBN e per scadenza
+     *
+     * Gli indici seguono aggiunte, rimozioni e modifiche della scadenza e sono usati
+     * dalle interrogazioni composte sui campi matricola, isbn e scadenza.
+     *
+     * @return void
+     */
+    @Test
+    public void testIndiciPrestiti() {
+        System.out.println("testIndiciPrestiti");
+
+        LocalDate oggi = LocalDate.now();
+        Libro altroLibro = new Libro("Altro", AUTORE_LIBRO, "978-2222222222", ANNO_LIBRO, PREZZO_LIBRO, USURA_LIBRO, 1);
+        Utente altroUtente = new Utente("Luigi", "Verdi", "M222", "l.v@mail.it", ISCRIZIONE_UTENTE);
+        model.aggiungiPrestito(utenteTest, libroTest, oggi.plusDays(10));
+        model.aggiungiPrestito(utenteTest, altroLibro, oggi.minusDays(2));
+        model.aggiungiPrestito(altroUtente, libroTest, oggi.plusDays(3));
+        Prestito primo = model.getPrestiti().get(0);
+        Prestito scaduto = model.getPrestiti().get(1);
+        Prestito terzo = model.getPrestiti().get(2);
+
+        assertEquals(2, model.numeroPrestiti(" m111 "));
+        assertEquals(List.of(primo, scaduto), model.prestitiDi(MATRICOLA_UTENTE));
+        assertEquals(List.of(primo, terzo), model.prestitiDelLibro("9781111111111"));
+        assertEquals(1, model.numeroPrestitiDelLibro("978-2222222222"));
+        assertFalse(model.limiteRaggiunto(utenteTest));
+
+        assertEquals(List.of(scaduto), model.prestitiScaduti(oggi));
+        assertEquals(List.of(terzo, primo), model.prestitiInScadenza(oggi, oggi.plusDays(30)));
+
+        assertTrue(model.modificaScadenza(primo, oggi.minusDays(5)));
+        assertFalse(model.modificaScadenza(primo, null));
+        assertEquals(List.of(primo, scaduto), model.prestitiScaduti(oggi));
+        assertEquals(List.of(primo, scaduto), model.interroga("scadenza:<0"));
+        assertEquals(List.of(terzo), model.interroga("isbn:978-1111111111 matricola:m222"));
+
+        model.aggiungiPrestito(utenteTest, libroTest, oggi.plusDays(1));
+        assertTrue(model.limiteRaggiunto(utenteTest));
+        model.rimuoviPrestito(scaduto);
+        assertFalse(model.limiteRaggiunto(utenteTest));
+        assertEquals(List.of(primo), model.prestitiScaduti(oggi));
+        assertEquals(0, model.numeroPrestitiDelLibro("978-2222222222"));
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * @file AlberoRadixTest.java
+ * @brief Questo file contiene i test unitari dell'albero radix dei suggerimenti
+ *
+ * @author Gruppo 27
+ * @date 12 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.List;
+
+public class AlberoRadixTest {
+
+    private AlberoRadix albero; /// @brief Albero con alcune chiavi che condividono prefissi
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post L'albero contiene quattro chiavi con popolarità diverse
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        albero = new AlberoRadix();
+        albero.aggiungi("rosa", "Rosa");
+        albero.aggiungi("rossi", "Rossi");
+        albero.aggiungi("rossi", "Rossi");
+        albero.aggiungi("rossi", "Rossi");
+        albero.aggiungi("rossini", "Rossini");
+        albero.aggiungi("rossini", "Rossini");
+        albero.aggiungi("bianchi", "Bianchi");
+    }
+
+    /**
+     * @brief Verifica che i completamenti siano ordinati per popolarità
+     *
+     * @return void
+     */
+    @Test
+    public void testOrdinePopolarita() {
+        assertEquals(4, albero.dimensione());
+        assertEquals(Arrays.asList("Rossi", "Rossini", "Rosa"), albero.suggerisci("ro", 10, Long.MAX_VALUE));
+        assertEquals(Arrays.asList("Rossi"), albero.suggerisci("ro", 1, Long.MAX_VALUE));
+    }
+
+    /**
+     * @brief Verifica i prefissi che terminano a metà di un'etichetta e quelli senza completamenti
+     *
+     * @return void
+     */
+    @Test
+    public void testPrefisso() {
+        assertEquals(Arrays.asList("Rossini"), albero.suggerisci("rossin", 10, Long.MAX_VALUE));
+        assertEquals(Arrays.asList("Bianchi"), albero.suggerisci("bi", 10, Long.MAX_VALUE));
+        assertTrue(albero.suggerisci("verdi", 10, Long.MAX_VALUE).isEmpty());
+        assertTrue(albero.suggerisci("rossinis", 10, Long.MAX_VALUE).isEmpty());
+        assertEquals(4, albero.suggerisci("", 10, Long.MAX_VALUE).size());
+    }
+
+    /**
+     * @brief Verifica che la rimozione abbassi la popolarità e che a zero la chiave sparisca
+     *
+     * @return void
+     */
+    @Test
+    public void testRimozione() {
+        albero.rimuovi("rossi");
+        albero.rimuovi("rossi");
+        assertEquals(Arrays.asList("Rossini", "Rossi", "Rosa"), albero.suggerisci("ro", 10, Long.MAX_VALUE));
+
+        albero.rimuovi("rossi");
+        assertEquals(3, albero.dimensione());
+        assertEquals(Arrays.asList("Rossini", "Rosa"), albero.suggerisci("ro", 10, Long.MAX_VALUE));
+        assertEquals(Arrays.asList("Rossini"), albero.suggerisci("ross", 10, Long.MAX_VALUE));
+
+        albero.rimuovi("rossini");
+        albero.rimuovi("rossini");
+        albero.rimuovi("inesistente");
+        assertEquals(2, albero.dimensione());
+        assertEquals(Arrays.asList("Rosa"), albero.suggerisci("ro", 10, Long.MAX_VALUE));
+        albero.aggiungi("rossi", "Rossi");
+        assertEquals(Arrays.asList("Rosa", "Rossi"), albero.suggerisci("ro", 10, Long.MAX_VALUE));
+    }
+
+    /**
+     * @brief Verifica che allo scadere del budget vengano restituiti i completamenti già trovati
+     *
+     * @return void
+     */
+    @Test
+    public void testBudget() {
+        AlberoRadix grande = new AlberoRadix();
+        for (int i = 0; i < 10_000; i++) {
+            grande.aggiungi("titolo" + i, "Titolo " + i);
+        }
+        List<String> completi = grande.suggerisci("titolo", 1000, Long.MAX_VALUE);
+        assertEquals(1000, completi.size());
+        List<String> interrotti = grande.suggerisci("titolo", 1000, 0);
+        assertTrue(interrotti.size() < 1000);
+        assertEquals(completi.subList(0, interrotti.size()), interrotti);
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * @file BitmapTest.java
+ * @brief Questo file contiene i test unitari della bitmap compressa
+ *
+ * @author Gruppo 27
+ * @date 16 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class BitmapTest {
+
+    /**
+     * @brief Verifica aggiunte, rimozioni e visita in ordine su più blocchi
+     *
+     * @return void
+     */
+    @Test
+    public void testAggiungiRimuovi() {
+        System.out.println("testAggiungiRimuovi");
+
+        Bitmap b = new Bitmap();
+        b.aggiungi(70000);
+        b.aggiungi(3);
+        b.aggiungi(3);
+        b.aggiungi(65535);
+        assertEquals(3, b.cardinalita());
+        assertTrue(b.contiene(3) && b.contiene(65535) && b.contiene(70000));
+        assertFalse(b.contiene(4));
+
+        List<Integer> visitati = new ArrayList<>();
+        b.perOgni(visitati::add);
+        assertEquals(List.of(3, 65535, 70000), visitati);
+
+        b.rimuovi(70000);
+        b.rimuovi(12345);
+        assertEquals(2, b.cardinalita());
+        assertFalse(b.contiene(70000));
+    }
+
+    /**
+     * @brief Verifica il passaggio tra contenitore ad array e a bitmap, in entrambi i sensi
+     *
+     * @return void
+     */
+    @Test
+    public void testContenitoriDensi() {
+        System.out.println("testContenitoriDensi");
+
+        Bitmap b = new Bitmap();
+        for (int i = 0; i < 10000; i++) {
+            b.aggiungi(i * 2);
+        }
+        assertEquals(10000, b.cardinalita());
+        assertTrue(b.contiene(19998));
+        assertFalse(b.contiene(19999));
+        for (int i = 0; i < 9000; i++) {
+            b.rimuovi(i * 2);
+        }
+        assertEquals(1000, b.cardinalita());
+        assertTrue(b.contiene(18000));
+        assertFalse(b.contiene(17998));
+    }
+
+    /**
+     * @brief Confronta AND, OR e conteggio dell'intersezione con java.util.BitSet
+     *
+     * @return void
+     */
+    @Test
+    public void testOperazioniCasuali() {
+        System.out.println("testOperazioniCasuali");
+
+        Random r = new Random(27);
+        for (int prova = 0; prova < 6; prova++) {
+            int densitaA = prova % 2 == 0 ? 3 : 20000;
+            int densitaB = prova < 3 ? 5 : 30000;
+            Bitmap a = new Bitmap();
+            Bitmap b = new Bitmap();
+            BitSet sa = new BitSet();
+            BitSet sb = new BitSet();
+            for (int i = 0; i < 200000; i++) {
+                if (r.nextInt(65536) < densitaA) {
+                    a.aggiungi(i);
+                    sa.set(i);
+                }
+                if (r.nextInt(65536) < densitaB) {
+                    b.aggiungi(i);
+                    sb.set(i);
+                }
+            }
+            BitSet and = (BitSet) sa.clone();
+            and.and(sb);
+            BitSet or = (BitSet) sa.clone();
+            or.or(sb);
+
+            assertEquals(sa.cardinality(), a.cardinalita());
+            assertEquals(and.cardinality(), a.andCardinalita(b));
+            assertEquals(and, inBitSet(a.and(b)));
+            assertEquals(or, inBitSet(a.or(b)));
+            assertEquals(or, inBitSet(b.or(a)));
+            assertEquals(sa, inBitSet(a)); // gli operandi non cambiano
+        }
+    }
+
+    /**
+     * @brief Converte una bitmap in BitSet per il confronto
+     *
+     * @param[in] b La bitmap
+     *
+     * @return Il BitSet con gli stessi valori
+     */
+    private static BitSet inBitSet(Bitmap b) {
+        BitSet s = new BitSet();
+        b.perOgni(s::set);
+        return s;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * @file CacheRisultatiTest.java
+ * @brief Questo file contiene i test unitari della cache LRU dei risultati delle ricerche
+ *
+ * @author Gruppo 27
+ * @date 21 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class CacheRisultatiTest {
+
+    private CacheRisultati<Libro> cache; /// @brief Cache con due voci
+    private Libro eco;      /// @brief Libro di test
+    private Libro calvino;  /// @brief Libro di test
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post La cache è vuota
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        cache = new CacheRisultati<>(2);
+        eco = new Libro("A", "Eco", "1", 1980, 10, "Nuovo", 1);
+        calvino = new Libro("B", "Calvino", "2", 1957, 12, "Nuovo", 1);
+    }
+
+    /**
+     * @brief Conserva nella cache i risultati di una ricerca per autore
+     *
+     * @param[in] autore L'autore cercato, usato anche come chiave
+     * @param[in] risultati I risultati da conservare
+     *
+     * @return void
+     */
+    private void conserva(String autore, List<Libro> risultati) {
+        assertNull(cache.cerca(autore));
+        cache.conserva(autore, Set.of("autore"), l -> l.getAutore().equals(autore), () -> risultati).get();
+    }
+
+    /**
+     * @brief Verifica successi, mancati e scarti LRU
+     *
+     * @return void
+     */
+    @Test
+    public void testLru() {
+        System.out.println("testLru");
+
+        conserva("Eco", List.of(eco));
+        conserva("Calvino", List.of(calvino));
+        assertEquals(List.of(eco), cache.cerca("Eco")); // "Eco" diventa la più recente
+        conserva("Pavese", List.of());
+        assertNull(cache.cerca("Calvino"));
+        assertEquals(List.of(eco), cache.cerca("Eco"));
+
+        assertEquals(2, cache.getSuccessi());
+        assertEquals(4, cache.getMancati());
+        assertEquals(1, cache.getScartate());
+        assertEquals(2, cache.dimensione());
+    }
+
+    /**
+     * @brief Verifica che aggiunte, rimozioni e modifiche invalidino solo le voci toccate
+     *
+     * @return void
+     */
+    @Test
+    public void testInvalidazioni() {
+        System.out.println("testInvalidazioni");
+
+        conserva("Eco", List.of(eco));
+        conserva("Calvino", List.of(calvino));
+
+        cache.aggiunto(new Libro("C", "Eco", "3", 1988, 10, "Nuovo", 1));
+        assertNull(cache.cerca("Eco"));
+        assertNotNull(cache.cerca("Calvino"));
+
+        cache.modificato(calvino, "prezzo");
+        assertNotNull(cache.cerca("Calvino"));
+        cache.modificato(calvino, "autore");
+        assertNull(cache.cerca("Calvino"));
+
+        conserva("Eco", List.of(eco));
+        cache.rimosso(calvino);
+        assertNotNull(cache.cerca("Eco"));
+        cache.rimosso(eco);
+        assertNull(cache.cerca("Eco"));
+        assertEquals(3, cache.getInvalidate());
+    }
+
+    /**
+     * @brief Verifica che una ricerca preparata prima di una modifica non venga conservata
+     *
+     * @return void
+     */
+    @Test
+    public void testRicercaSuperata() {
+        System.out.println("testRicercaSuperata");
+
+        List<Libro> risultati = new ArrayList<>(List.of(eco));
+        Supplier<List<Libro>> ricerca = cache.conserva("Eco", Set.of("autore"), null, () -> risultati);
+        cache.modificato(calvino, "prezzo");
+        assertEquals(List.of(eco), ricerca.get());
+        assertNull(cache.cerca("Eco"));
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * @file ChiaviCollazioneTest.java
+ * @brief Questo file contiene i test unitari della cache delle chiavi di collazione
+ *
+ * @author Gruppo 27
+ * @date 23 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+public class ChiaviCollazioneTest {
+
+    private ChiaviCollazione<Libro> chiavi; /// @brief Chiavi sull'autore
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post La cache è vuota
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        chiavi = new ChiaviCollazione<>(Libro::getAutore);
+    }
+
+    /**
+     * @brief Verifica l'ordine alfabetico italiano con accenti e maiuscole
+     *
+     * @return void
+     */
+    @Test
+    public void testOrdineItaliano() {
+        System.out.println("testOrdineItaliano");
+
+        List<Libro> libri = new ArrayList<>();
+        for (String autore : new String[] {"zola", "Éluard", "eco", "Eluard", "Ávila", "Bassani"}) {
+            libri.add(new Libro("T", autore, autore, 2000, 10, "Nuovo", 1));
+        }
+        chiavi.precalcola(libri);
+        assertEquals(6, chiavi.dimensione());
+        libri.sort(chiavi.comparatore());
+
+        List<String> ordinati = new ArrayList<>();
+        for (Libro l : libri) {
+            ordinati.add(l.getAutore());
+        }
+        assertEquals(List.of("Ávila", "Bassani", "eco", "Eluard", "Éluard", "zola"), ordinati);
+    }
+
+    /**
+     * @brief Verifica che le chiavi seguano le modifiche, anche senza invalidazione esplicita
+     *
+     * @return void
+     */
+    @Test
+    public void testModifiche() {
+        System.out.println("testModifiche");
+
+        Libro a = new Libro("T", "Calvino", "1", 2000, 10, "Nuovo", 1);
+        Libro b = new Libro("T", "Pavese", "2", 2000, 10, "Nuovo", 1);
+        assertTrue(chiavi.comparatore().compare(a, b) < 0);
+
+        a.setAutore("Sciascia");
+        assertTrue(chiavi.comparatore().compare(a, b) > 0);
+
+        chiavi.invalida(a);
+        assertEquals(1, chiavi.dimensione());
+        chiavi.svuota();
+        assertEquals(0, chiavi.dimensione());
+    }
+
+    /**
+     * @brief Verifica il calcolo delle chiavi e l'ordinamento di un catalogo grande
+     *
+     * I tempi vengono solo stampati: dipendono dalla macchina e dal numero di processori.
+     *
+     * @return void
+     */
+    @Test
+    public void testCatalogoGrande() {
+        System.out.println("testCatalogoGrande");
+
+        String[] parole = {"storia", "guida", "manuale", "romanzo", "poesie", "lettere", "viaggio", "teoria", "analisi", "introduzione"};
+        ChiaviCollazione<Libro> titoli = new ChiaviCollazione<>(Libro::getTitolo);
+        ObservableList<Libro> libri = FXCollections.observableArrayList();
+        for (int i = 0; i < 500_000; i++) {
+            libri.add(new Libro(parole[(i * 7) % 10] + " " + parole[(i / 10) % 10] + " volume " + (i * 7919 % 500_000),
+                    "Autore", "isbn" + i, 2000, 10, "Nuovo", 1));
+        }
+
+        VistaOrdinata<Libro> vista = new VistaOrdinata<>(libri);
+
+        long inizio = System.nanoTime();
+        titoli.precalcola(libri);
+        long precalcolo = System.nanoTime();
+        vista.ordina(titoli.comparatore(), titoli::chiave, false);
+        long fine = System.nanoTime();
+        System.out.println("Ordinamento di 500000 titoli: " + (fine - inizio) / 1e6 + " ms (chiavi "
+                + (precalcolo - inizio) / 1e6 + " ms, " + Runtime.getRuntime().availableProcessors() + " processori)");
+
+        assertEquals(libri.size(), vista.size());
+        for (int i = 1; i < vista.size(); i++) {
+            assertTrue(titoli.comparatore().compare(vista.get(i - 1), vista.get(i)) <= 0);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * @file FoneticaTest.java
+ * @brief Questo file contiene i test unitari della chiave fonetica dei nomi
+ *
+ * @author Gruppo 27
+ * @date 22 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoneticaTest {
+
+    /**
+     * @brief Verifica che nomi pronunciati allo stesso modo abbiano la stessa chiave
+     *
+     * @return void
+     */
+    @Test
+    public void testStessoSuono() {
+        System.out.println("testStessoSuono");
+
+        assertEquals(Fonetica.chiave("Ciccarelli"), Fonetica.chiave("Cicarelli"));
+        assertEquals(Fonetica.chiave("Scianna"), Fonetica.chiave("Sciana"));
+        assertEquals(Fonetica.chiave("Gnocchi"), Fonetica.chiave("Gnochi"));
+        assertEquals(Fonetica.chiave("Giovanni"), Fonetica.chiave("Giovani"));
+        assertEquals(Fonetica.chiave("D'Amico"), Fonetica.chiave("Damico"));
+        assertEquals(Fonetica.chiave("De Luca"), Fonetica.chiave("Deluca"));
+        assertEquals(Fonetica.chiave("Sanpietro"), Fonetica.chiave("Sampietro"));
+        assertEquals(Fonetica.chiave("Nicolò"), Fonetica.chiave("Nicolo"));
+        assertEquals(Fonetica.chiave("Quaranta"), Fonetica.chiave("Kuaranta"));
+        assertEquals(Fonetica.chiave("Cecilia"), Fonetica.chiave("Ceccilia"));
+    }
+
+    /**
+     * @brief Verifica che suoni diversi restino distinti
+     *
+     * @return void
+     */
+    @Test
+    public void testSuoniDiversi() {
+        System.out.println("testSuoniDiversi");
+
+        assertNotEquals(Fonetica.chiave("Rossi"), Fonetica.chiave("Rosso"));
+        assertNotEquals(Fonetica.chiave("Cena"), Fonetica.chiave("Kena")); // "c" dolce e dura
+        assertNotEquals(Fonetica.chiave("Gelli"), Fonetica.chiave("Ghelli"));
+        assertNotEquals(Fonetica.chiave("Scena"), Fonetica.chiave("Schena"));
+        assertNotEquals(Fonetica.chiave("Giovanni"), Fonetica.chiave("Govanni"));
+        assertEquals("", Fonetica.chiave("  "));
+        assertEquals("", Fonetica.chiave(null));
+    }
+}
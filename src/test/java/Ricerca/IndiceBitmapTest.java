@@ -0,0 +1,115 @@
+/**
+ * @file IndiceBitmapTest.java
+ * @brief Questo file contiene i test unitari dell'indice a bitmap per le faccette
+ *
+ * @author Gruppo 27
+ * @date 16 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class IndiceBitmapTest {
+
+    private IndiceBitmap<Libro> indice; /// @brief Indice su usura e disponibilità
+    private Libro nuovo;    /// @brief Libro nuovo e disponibile
+    private Libro usato;    /// @brief Libro usato e disponibile
+    private Libro esaurito; /// @brief Libro usato senza copie
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post L'indice contiene tre libri
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        indice = new IndiceBitmap<Libro>()
+                .aggiungiFaccetta("usura", Libro::getUsura)
+                .aggiungiFaccetta("disponibile", l -> l.getCopie() > 0 ? "si" : "no");
+        nuovo = new Libro("A", "X", "1", 1980, 10, "Nuovo", 2);
+        usato = new Libro("B", "X", "2", 1995, 12, "Usato", 1);
+        esaurito = new Libro("C", "X", "3", 2010, 15, "Usato", 0);
+        indice.ricostruisci(Arrays.asList(nuovo, usato, esaurito));
+    }
+
+    /**
+     * @brief Verifica i filtri: OR tra valori della stessa faccetta, AND tra faccette
+     *
+     * @return void
+     */
+    @Test
+    public void testFiltro() {
+        System.out.println("testFiltro");
+
+        Map<String, Set<String>> selezione = new HashMap<>();
+        assertEquals(3, indice.filtro(selezione).cardinalita());
+
+        selezione.put("usura", Set.of("Usato"));
+        assertEquals(List.of(usato, esaurito), indice.elementi(indice.filtro(selezione)));
+
+        selezione.put("disponibile", Set.of("si"));
+        assertEquals(List.of(usato), indice.elementi(indice.filtro(selezione)));
+        assertTrue(indice.predicato(selezione).test(usato));
+        assertFalse(indice.predicato(selezione).test(nuovo));
+
+        selezione.put("usura", Set.of("Usato", "Nuovo"));
+        assertEquals(List.of(nuovo, usato), indice.elementi(indice.filtro(selezione)));
+    }
+
+    /**
+     * @brief Verifica i conteggi, che ignorano la selezione sulla propria faccetta
+     *
+     * @return void
+     */
+    @Test
+    public void testConteggi() {
+        System.out.println("testConteggi");
+
+        Map<String, Set<String>> selezione = new HashMap<>();
+        selezione.put("disponibile", Set.of("si"));
+        Map<String, Map<String, Integer>> c = indice.conteggi(selezione, null);
+        assertEquals(Map.of("Nuovo", 1, "Usato", 1), c.get("usura"));
+        assertEquals(Map.of("no", 1, "si", 2), c.get("disponibile"));
+
+        c = indice.conteggi(new HashMap<String, Set<String>>(), Arrays.asList(usato, esaurito));
+        assertEquals(Map.of("Nuovo", 0, "Usato", 2), c.get("usura"));
+    }
+
+    /**
+     * @brief Verifica che modifiche e rimozioni spostino gli elementi tra i valori
+     *
+     * @return void
+     */
+    @Test
+    public void testAggiornamenti() {
+        System.out.println("testAggiornamenti");
+
+        esaurito.setCopie(3);
+        indice.aggiorna(esaurito);
+        Map<String, Set<String>> selezione = new HashMap<>();
+        selezione.put("disponibile", Set.of("si"));
+        assertEquals(3, indice.filtro(selezione).cardinalita());
+        assertFalse(indice.conteggi(selezione, null).get("disponibile").containsKey("no"));
+
+        indice.rimuovi(nuovo);
+        indice.rimuovi(nuovo);
+        assertEquals(2, indice.dimensione());
+        assertFalse(indice.conteggi(selezione, null).get("usura").containsKey("Nuovo"));
+
+        Libro altro = new Libro("D", "X", "4", 2000, 10, "Nuovo", 0);
+        indice.aggiungi(altro); // riusa l'identificativo liberato
+        assertEquals(List.of(altro, usato, esaurito), indice.elementi(indice.filtro(new HashMap<String, Set<String>>())));
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * @file IndiceGiorniTest.java
+ * @brief Questo file contiene i test unitari dell'indice per intervalli di giorni
+ *
+ * @author Gruppo 27
+ * @date 28 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import Prestito.Prestito;
+import Utente.Utente;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class IndiceGiorniTest {
+
+    private final LocalDate OGGI = LocalDate.of(2026, 1, 28); /// @brief Data di riferimento dei test
+
+    private IndiceGiorni<Prestito> indice; /// @brief Indice sulla scadenza
+    private Prestito ieri;      /// @brief Prestito scaduto ieri
+    private Prestito oggi;      /// @brief Prestito che scade oggi
+    private Prestito oggiBis;   /// @brief Altro prestito che scade oggi
+    private Prestito traUnaSettimana; /// @brief Prestito che scade tra sette giorni
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post L'indice contiene quattro prestiti, due con la stessa scadenza
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        indice = new IndiceGiorni<>(Prestito::getGiornoScadenza);
+        ieri = prestito("1", OGGI.minusDays(1));
+        oggi = prestito("2", OGGI);
+        oggiBis = prestito("3", OGGI);
+        traUnaSettimana = prestito("4", OGGI.plusDays(7));
+        indice.ricostruisci(Arrays.asList(traUnaSettimana, oggi, ieri, oggiBis));
+    }
+
+    /**
+     * @brief Verifica le ricerche con estremi inclusi, esclusi e infiniti
+     *
+     * @return void
+     */
+    @Test
+    public void testCerca() {
+        System.out.println("testCerca");
+
+        long g = OGGI.toEpochDay();
+        assertEquals(Arrays.asList(ieri), indice.cerca(new Intervallo(Double.NEGATIVE_INFINITY, false, g, false)));
+        List<Prestito> diOggi = indice.cerca(new Intervallo(g, true, g, true));
+        assertEquals(2, diOggi.size());
+        assertTrue(diOggi.contains(oggi) && diOggi.contains(oggiBis));
+        assertEquals(Arrays.asList(traUnaSettimana), indice.cerca(new Intervallo(g, false, Double.POSITIVE_INFINITY, false)));
+        assertEquals(3, indice.conta(new Intervallo(g - 0.5, true, g + 7.5, true)));
+        assertEquals(0, indice.conta(new Intervallo(g + 1, true, g + 6, true)));
+        assertEquals(0, indice.cerca(new Intervallo(g + 7, false, g, false)).size());
+
+        List<Prestito> tutti = indice.ordinati();
+        assertEquals(ieri, tutti.get(0));
+        assertEquals(traUnaSettimana, tutti.get(3));
+    }
+
+    /**
+     * @brief Verifica che aggiunte, rimozioni e modifiche si riflettano nelle ricerche
+     *
+     * @return void
+     */
+    @Test
+    public void testModifiche() {
+        System.out.println("testModifiche");
+
+        long g = OGGI.toEpochDay();
+        Intervallo scaduti = new Intervallo(Double.NEGATIVE_INFINITY, false, g, false);
+        oggi.setDataDiScadenza(OGGI.minusDays(3));
+        indice.aggiorna(oggi);
+        assertEquals(Arrays.asList(oggi, ieri), indice.cerca(scaduti));
+
+        indice.rimuovi(ieri);
+        Prestito nuovo = prestito("5", OGGI.minusDays(10));
+        indice.aggiungi(nuovo);
+        indice.aggiorna(prestito("6", OGGI.minusDays(20))); // non indicizzato: ignorato
+        assertEquals(Arrays.asList(nuovo, oggi), indice.cerca(scaduti));
+        assertEquals(4, indice.dimensione());
+    }
+
+    /**
+     * @brief Verifica l'ordine per scadenza su molti prestiti
+     *
+     * @return void
+     */
+    @Test
+    public void testMoltiPrestiti() {
+        System.out.println("testMoltiPrestiti");
+
+        List<Prestito> prestiti = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            prestiti.add(prestito("isbn" + i, OGGI.plusDays((i * 7919L) % 1000 - 500)));
+        }
+        indice.ricostruisci(prestiti);
+        List<Prestito> ordinati = indice.ordinati();
+        for (int i = 1; i < ordinati.size(); i++) {
+            assertTrue(ordinati.get(i - 1).getGiornoScadenza() <= ordinati.get(i).getGiornoScadenza());
+        }
+        assertEquals(25_000, indice.conta(new Intervallo(Double.NEGATIVE_INFINITY, false, OGGI.toEpochDay(), false)));
+    }
+
+    /**
+     * @brief Crea un prestito di test
+     *
+     * @param[in] isbn L'ISBN del libro
+     * @param[in] scadenza La data di scadenza
+     *
+     * @return Il prestito
+     */
+    private Prestito prestito(String isbn, LocalDate scadenza) {
+        return new Prestito(new Utente("Mario", "Rossi", "M1", "m@mail.it", OGGI), new Libro("T", "A", isbn, 2000, 10, "Nuovo", 1), scadenza);
+    }
+}
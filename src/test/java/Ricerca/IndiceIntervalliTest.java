@@ -0,0 +1,115 @@
+/**
+ * @file IndiceIntervalliTest.java
+ * @brief Questo file contiene i test unitari dell'indice per intervalli e dell'interpretazione degli intervalli
+ *
+ * @author Gruppo 27
+ * @date 15 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.List;
+
+public class IndiceIntervalliTest {
+
+    private IndiceIntervalli<Libro> indice; /// @brief Indice sull'anno di pubblicazione
+    private Libro a1980;    /// @brief Libro di test
+    private Libro a1995;    /// @brief Libro di test
+    private Libro b1995;    /// @brief Libro di test
+    private Libro a2010;    /// @brief Libro di test
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post L'indice contiene quattro libri, due dello stesso anno
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        indice = new IndiceIntervalli<>(Libro::getAnnoPubblicazione);
+        a1980 = new Libro("A", "X", "1", 1980, 10, "Nuovo", 1);
+        a1995 = new Libro("B", "X", "2", 1995, 12, "Nuovo", 1);
+        b1995 = new Libro("C", "X", "3", 1995, 15, "Nuovo", 1);
+        a2010 = new Libro("D", "X", "4", 2010, 20, "Nuovo", 1);
+        indice.ricostruisci(Arrays.asList(a2010, a1995, a1980, b1995));
+    }
+
+    /**
+     * @brief Verifica l'interpretazione delle forme ammesse per gli intervalli
+     *
+     * @return void
+     */
+    @Test
+    public void testInterpreta() {
+        System.out.println("testInterpreta");
+
+        Intervallo i = Intervallo.interpreta("1990-2000");
+        assertTrue(i.contiene(1990) && i.contiene(2000) && !i.contiene(2001));
+        assertTrue(Intervallo.interpreta("1990 .. 2000").contiene(1995));
+        assertTrue(Intervallo.interpreta("1995").contiene(1995));
+        assertFalse(Intervallo.interpreta("1995").contiene(1996));
+
+        Intervallo sotto = Intervallo.interpreta("<15€");
+        assertTrue(sotto.contiene(14.99));
+        assertFalse(sotto.contiene(15));
+        assertTrue(Intervallo.interpreta("<= 15").contiene(15));
+        assertTrue(Intervallo.interpreta(">=12,50").contiene(12.5));
+        assertFalse(Intervallo.interpreta(">12,50").contiene(12.5));
+
+        assertNull(Intervallo.interpreta(""));
+        assertNull(Intervallo.interpreta("abc"));
+        assertNull(Intervallo.interpreta("2000-1990"));
+        assertNull(Intervallo.interpreta("<"));
+        assertNull(Intervallo.interpreta("NaN"));
+    }
+
+    /**
+     * @brief Verifica le ricerche per intervallo e il loro ordine
+     *
+     * @return void
+     */
+    @Test
+    public void testCerca() {
+        System.out.println("testCerca");
+
+        List<Libro> anni90 = indice.cerca(Intervallo.interpreta("1990-2000"));
+        assertEquals(2, anni90.size());
+        assertTrue(anni90.contains(a1995) && anni90.contains(b1995));
+        assertEquals(Arrays.asList(a1980, a1995, b1995, a2010).size(), indice.cerca(Intervallo.interpreta(">=0")).size());
+        assertEquals(a1980, indice.cerca(Intervallo.interpreta(">=0")).get(0));
+        assertEquals(a2010, indice.cerca(Intervallo.interpreta(">=0")).get(3));
+        assertEquals(Arrays.asList(a2010), indice.cerca(Intervallo.interpreta(">1995")));
+        assertTrue(indice.cerca(Intervallo.interpreta("1981-1994")).isEmpty());
+    }
+
+    /**
+     * @brief Verifica che modifiche e rimozioni spostino gli elementi tra i gruppi
+     *
+     * @return void
+     */
+    @Test
+    public void testAggiornamenti() {
+        System.out.println("testAggiornamenti");
+
+        a1995.setAnnoPubblicazione(2005);
+        indice.aggiorna(a1995);
+        assertEquals(Arrays.asList(b1995), indice.cerca(Intervallo.interpreta("1995")));
+        assertEquals(Arrays.asList(a1995), indice.cerca(Intervallo.interpreta("2000-2009")));
+
+        indice.rimuovi(b1995);
+        indice.rimuovi(b1995);
+        assertTrue(indice.cerca(Intervallo.interpreta("1995")).isEmpty());
+        assertEquals(3, indice.dimensione());
+
+        Libro esterno = new Libro("E", "X", "5", 1995, 10, "Nuovo", 1);
+        indice.aggiorna(esterno); // non indicizzato: ignorato
+        assertEquals(3, indice.dimensione());
+    }
+}
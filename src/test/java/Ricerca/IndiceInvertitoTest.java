@@ -0,0 +1,154 @@
+/**
+ * @file IndiceInvertitoTest.java
+ * @brief Questo file contiene i test unitari dell'indice invertito e della normalizzazione dei testi
+ *
+ * @author Gruppo 27
+ * @date 11 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.List;
+
+public class IndiceInvertitoTest {
+
+    private IndiceInvertito<Libro> indice; /// @brief Indice su titolo (peso 2) e autore (peso 1)
+    private Libro promessi;     /// @brief Libro di test
+    private Libro nome;         /// @brief Libro di test
+    private Libro perche;       /// @brief Libro di test
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post L'indice contiene tre libri
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        indice = new IndiceInvertito<Libro>()
+                .aggiungiCampo(Libro::getTitolo, 2.0)
+                .aggiungiCampo(Libro::getAutore, 1.0);
+        promessi = new Libro("I Promessi Sposi", "Alessandro Manzoni", "1", 1827, 10, "Nuovo", 1);
+        nome = new Libro("Il nome della rosa", "Umberto Eco", "2", 1980, 12, "Nuovo", 1);
+        perche = new Libro("Perché Manzoni", "Università di Salerno", "3", 2001, 15, "Nuovo", 1);
+        for (Libro l : Arrays.asList(promessi, nome, perche)) {
+            indice.aggiungi(l);
+        }
+    }
+
+    /**
+     * @brief Test della normalizzazione: minuscolo, accenti, apostrofi e parole vuote
+     *
+     * @return void
+     */
+    @Test
+    public void testNormalizzatore() {
+        System.out.println("testNormalizzatore");
+
+        assertEquals("perche citta", Normalizzatore.normalizza("PERCHÉ Città"));
+        assertEquals(Arrays.asList("amore", "tempi", "colera"), Normalizzatore.termini("L'amore ai tempi del colera"));
+        assertEquals(Arrays.asList("l", "amore"), Normalizzatore.termini("L'amore", true));
+    }
+
+    /**
+     * @brief Test della ricerca per parole parziali, senza accenti e in più campi
+     *
+     * @return void
+     */
+    @Test
+    public void testRicerca() {
+        System.out.println("testRicerca");
+
+        assertEquals(Arrays.asList(nome), indice.cerca("rosa", 10));
+        assertEquals(Arrays.asList(perche), indice.cerca("perche", 10), "Gli accenti devono essere ignorati.");
+        assertEquals(Arrays.asList(promessi), indice.cerca("promes spos", 10), "Le parole parziali devono essere trovate.");
+        assertEquals(Arrays.asList(perche), indice.cerca("manzoni universita", 10), "I termini possono stare in campi diversi.");
+        assertTrue(indice.cerca("manzoni eco", 10).isEmpty(), "Devono comparire tutti i termini.");
+        assertTrue(indice.cerca("della", 10).isEmpty(), "Le parole vuote non vengono indicizzate.");
+    }
+
+    /**
+     * @brief Test dell'ordinamento per rilevanza e della ricerca limitata a un campo
+     *
+     * @return void
+     */
+    @Test
+    public void testRilevanzaECampi() {
+        System.out.println("testRilevanzaECampi");
+
+        List<Libro> risultati = indice.cerca("manzoni", 10);
+        assertEquals(Arrays.asList(perche, promessi), risultati, "Il termine nel titolo pesa più che nell'autore.");
+
+        assertEquals(Arrays.asList(perche), indice.cerca("manzoni", 1, 10));
+        assertEquals(Arrays.asList(promessi), indice.cerca("manzoni", 2, 10));
+        assertEquals(1, indice.cerca("manzoni", 1).size());
+    }
+
+    /**
+     * @brief Test degli aggiornamenti incrementali
+     *
+     * @return void
+     */
+    @Test
+    public void testAggiornamenti() {
+        System.out.println("testAggiornamenti");
+
+        nome.setTitolo("Il pendolo di Foucault");
+        indice.aggiorna(nome);
+        assertTrue(indice.cerca("rosa", 10).isEmpty());
+        assertEquals(Arrays.asList(nome), indice.cerca("pendolo", 10));
+
+        indice.rimuovi(promessi);
+        assertEquals(Arrays.asList(perche), indice.cerca("manzoni", 10));
+        assertEquals(2, indice.dimensione());
+
+        Libro nuovo = new Libro("Storia della colonna infame", "Alessandro Manzoni", "4", 1840, 9, "Nuovo", 1);
+        indice.aggiungi(nuovo);
+        assertEquals(Arrays.asList(perche, nuovo), indice.cerca("manzoni", 10));
+    }
+
+    /**
+     * @brief Test della ricerca su un catalogo grande
+     *
+     * Il tempo medio per query viene solo stampato: dipende dalla macchina e non viene verificato.
+     *
+     * @pre L'indice contiene 200.000 libri
+     * @post Una query a più termini trova per primo il libro che corrisponde esattamente
+     *
+     * @return void
+     */
+    @Test
+    public void testCatalogoGrande() {
+        System.out.println("testCatalogoGrande");
+
+        String[] parole = {"storia", "guida", "manuale", "romanzo", "poesie", "lettere", "viaggio", "teoria", "analisi", "introduzione"};
+        String[] cognomi = {"Rossi", "Bianchi", "Verdi", "Esposito", "Romano", "Colombo", "Ricci", "Marino", "Greco", "Bruno"};
+        IndiceInvertito<Libro> grande = new IndiceInvertito<Libro>()
+                .aggiungiCampo(Libro::getTitolo, 2.0)
+                .aggiungiCampo(Libro::getAutore, 1.0);
+        for (int i = 0; i < 200_000; i++) {
+            grande.aggiungi(new Libro(parole[i % 10] + " " + parole[(i / 10) % 10] + " volume" + i,
+                    cognomi[(i / 100) % 10], "isbn" + i, 2000, 10, "Nuovo", 1));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            grande.cerca("volume" + i + " storia", 10); // riscaldamento
+        }
+        long inizio = System.nanoTime();
+        int ripetizioni = 100;
+        for (int i = 0; i < ripetizioni; i++) {
+            int n = i * 1000 + 7;
+            List<Libro> trovati = grande.cerca("volume" + n + " " + cognomi[(n / 100) % 10], 10);
+            assertEquals("isbn" + n, trovati.get(0).getIsbn(), "La corrispondenza esatta deve precedere i prefissi.");
+        }
+        double millisecondi = (System.nanoTime() - inizio) / 1e6 / ripetizioni;
+        System.out.println("Tempo medio per query: " + millisecondi + " ms");
+    }
+}
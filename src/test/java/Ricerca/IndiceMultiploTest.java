@@ -0,0 +1,83 @@
+/**
+ * @file IndiceMultiploTest.java
+ * @brief Questo file contiene i test unitari dell'indice hash a chiave ripetuta
+ *
+ * @author Gruppo 27
+ * @date 19 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.List;
+
+public class IndiceMultiploTest {
+
+    private IndiceMultiplo<Libro> indice; /// @brief Indice sull'autore
+    private Libro eco1;     /// @brief Libro di test
+    private Libro eco2;     /// @brief Libro di test
+    private Libro calvino;  /// @brief Libro di test
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post L'indice contiene tre libri di due autori
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        indice = new IndiceMultiplo<>(Libro::getAutore);
+        eco1 = new Libro("A", "Eco", "1", 1980, 10, "Nuovo", 1);
+        eco2 = new Libro("B", "Eco", "2", 1988, 12, "Nuovo", 1);
+        calvino = new Libro("C", "Calvino", "3", 1979, 15, "Nuovo", 1);
+        indice.ricostruisci(Arrays.asList(eco1, calvino, eco2));
+    }
+
+    /**
+     * @brief Verifica ricerca e conteggio per chiave
+     *
+     * @return void
+     */
+    @Test
+    public void testCerca() {
+        System.out.println("testCerca");
+
+        assertEquals(List.of(eco1, eco2), indice.cerca("Eco"));
+        assertEquals(1, indice.conta("Calvino"));
+        assertEquals(0, indice.conta("Pavese"));
+        assertTrue(indice.cerca("Pavese").isEmpty());
+
+        indice.cerca("Eco").clear(); // la ricerca restituisce una copia
+        assertEquals(2, indice.conta("Eco"));
+    }
+
+    /**
+     * @brief Verifica che modifiche e rimozioni spostino gli elementi tra le chiavi
+     *
+     * @return void
+     */
+    @Test
+    public void testAggiornamenti() {
+        System.out.println("testAggiornamenti");
+
+        eco2.setAutore("Calvino");
+        indice.aggiorna(eco2);
+        assertEquals(List.of(eco1), indice.cerca("Eco"));
+        assertEquals(List.of(calvino, eco2), indice.cerca("Calvino"));
+
+        indice.rimuovi(eco1);
+        indice.rimuovi(eco1);
+        assertEquals(0, indice.conta("Eco"));
+        assertEquals(2, indice.dimensione());
+
+        Libro anonimo = new Libro("D", "", "4", 2000, 10, "Nuovo", 1);
+        indice.aggiungi(anonimo); // chiave vuota: non indicizzato
+        assertEquals(2, indice.dimensione());
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * @file IndiceTrigrammiTest.java
+ * @brief Questo file contiene i test unitari dell'indice dei trigrammi e della distanza di edit limitata
+ *
+ * @author Gruppo 27
+ * @date 13 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class IndiceTrigrammiTest {
+
+    private IndiceTrigrammi indice; /// @brief Indice con alcuni cognomi
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post L'indice contiene cinque cognomi
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        indice = new IndiceTrigrammi();
+        for (String t : Arrays.asList("manzoni", "mazzoni", "marconi", "rossi", "rosi")) {
+            indice.aggiungi(t);
+        }
+    }
+
+    /**
+     * @brief Verifica la distanza di Levenshtein limitata
+     *
+     * @return void
+     */
+    @Test
+    public void testDistanza() {
+        System.out.println("testDistanza");
+
+        assertEquals(0, Distanza.levenshtein("manzoni", "manzoni", 2));
+        assertEquals(1, Distanza.levenshtein("manzomi", "manzoni", 2));
+        assertEquals(1, Distanza.levenshtein("rosi", "rossi", 2));
+        assertEquals(3, Distanza.levenshtein("alesandro", "alessandor", 3));
+        assertEquals(4, Distanza.levenshtein("gatto", "cane", 5));
+        assertEquals(3, Distanza.levenshtein("manzoni", "eco", 2)); // oltre la soglia: massimo + 1
+        assertEquals(2, Distanza.levenshtein("abcdef", "badcef", 1));
+        assertEquals(1, Distanza.levenshtein("", "a", 1));
+    }
+
+    /**
+     * @brief Verifica i termini simili, il loro ordine e la rimozione
+     *
+     * @return void
+     */
+    @Test
+    public void testSimili() {
+        System.out.println("testSimili");
+
+        Map<String, Integer> simili = indice.simili("manzomi", 2);
+        assertEquals(Arrays.asList("manzoni", "mazzoni"), new ArrayList<>(simili.keySet()));
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(simili.values()));
+        assertEquals(3, indice.simili("manzomi", 3).get("marconi"));
+
+        assertEquals(Arrays.asList("rosi", "rossi"), new ArrayList<>(indice.simili("rosi", 1).keySet()));
+
+        indice.rimuovi("rosi");
+        indice.rimuovi("rosi");
+        assertEquals(Arrays.asList("rossi"), new ArrayList<>(indice.simili("rosi", 1).keySet()));
+        assertEquals(4, indice.dimensione());
+        assertTrue(indice.simili("verdi", 1).isEmpty());
+    }
+
+    /**
+     * @brief Test della ricerca approssimata su un vocabolario grande
+     *
+     * Il tempo medio per ricerca viene solo stampato: dipende dalla macchina e non viene verificato.
+     *
+     * @pre L'indice contiene 200.000 termini casuali
+     * @post Una ricerca con un errore di battitura trova il termine
+     *
+     * @return void
+     */
+    @Test
+    public void testVocabolarioGrande() {
+        System.out.println("testVocabolarioGrande");
+
+        Random random = new Random(27);
+        IndiceTrigrammi grande = new IndiceTrigrammi();
+        List<String> termini = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int lunghezza = 6 + random.nextInt(5);
+            for (int j = 0; j < lunghezza; j++) {
+                sb.append((char) ('a' + random.nextInt(21)));
+            }
+            termini.add(sb.toString());
+            grande.aggiungi(sb.toString());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            grande.simili(termini.get(i), 2); // riscaldamento
+        }
+        long inizio = System.nanoTime();
+        int ripetizioni = 100;
+        for (int i = 0; i < ripetizioni; i++) {
+            String termine = termini.get(i * 1000 + 7);
+            String errato = termine.substring(0, 3) + 'z' + termine.substring(4);
+            assertTrue(grande.simili(errato, 2).containsKey(termine));
+        }
+        double millisecondi = (System.nanoTime() - inizio) / 1e6 / ripetizioni;
+        System.out.println("Tempo medio per ricerca approssimata: " + millisecondi + " ms");
+    }
+}
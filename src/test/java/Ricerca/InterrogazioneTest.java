@@ -0,0 +1,74 @@
+/**
+ * @file InterrogazioneTest.java
+ * @brief Questo file contiene i test unitari dell'analizzatore delle interrogazioni composte
+ *
+ * @author Gruppo 27
+ * @date 17 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterrogazioneTest {
+
+    /**
+     * @brief Verifica l'albero prodotto per condizioni, OR, negazioni e parentesi
+     *
+     * @return void
+     */
+    @Test
+    public void testAnalizza() {
+        System.out.println("testAnalizza");
+
+        Interrogazione q = Interrogazione.analizza("Autore:eco anno:>1980 usura:buono");
+        assertEquals(Interrogazione.Tipo.E, q.getTipo());
+        assertEquals(3, q.getFigli().size());
+        assertEquals("autore", q.getFigli().get(0).getCampo());
+        assertEquals(">1980", q.getFigli().get(1).getValore());
+
+        assertEquals("((autore:eco anno:1990-2000) OR titolo:nome della rosa)",
+                Interrogazione.analizza("autore:eco anno:1990-2000 OR titolo:\"nome della rosa\"").toString());
+        assertEquals("(-usura:buono (a:eco OR a:calvino))",
+                Interrogazione.analizza("-usura:buono (a:eco | a:calvino)").toString());
+        assertEquals("rosa", Interrogazione.analizza("  rosa ").toString());
+        assertNull(Interrogazione.analizza("rosa").getCampo());
+    }
+
+    /**
+     * @brief Verifica che i testi malformati vengano rifiutati
+     *
+     * @return void
+     */
+    @Test
+    public void testErrori() {
+        System.out.println("testErrori");
+
+        assertThrows(IllegalArgumentException.class, () -> Interrogazione.analizza(""));
+        assertThrows(IllegalArgumentException.class, () -> Interrogazione.analizza("(autore:eco"));
+        assertThrows(IllegalArgumentException.class, () -> Interrogazione.analizza("autore:eco)"));
+        assertThrows(IllegalArgumentException.class, () -> Interrogazione.analizza("titolo:\"rosa"));
+        assertThrows(IllegalArgumentException.class, () -> Interrogazione.analizza("OR autore:eco"));
+        assertThrows(IllegalArgumentException.class, () -> Interrogazione.analizza("autore:eco |"));
+    }
+
+    /**
+     * @brief Verifica che le interrogazioni ripetute vengano prese dalla cache
+     *
+     * @return void
+     */
+    @Test
+    public void testCache() {
+        System.out.println("testCache");
+
+        Interrogazione prima = Interrogazione.analizza("autore:cache anno:2000");
+        assertSame(prima, Interrogazione.analizza("autore:cache anno:2000 "));
+        for (int i = 0; i < Interrogazione.DIMENSIONE_CACHE + 10; i++) {
+            Interrogazione.analizza("titolo:t" + i);
+        }
+        assertEquals(Interrogazione.DIMENSIONE_CACHE, Interrogazione.dimensioneCache());
+        assertNotSame(prima, Interrogazione.analizza("autore:cache anno:2000"));
+    }
+}
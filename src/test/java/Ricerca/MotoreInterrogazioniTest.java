@@ -0,0 +1,140 @@
+/**
+ * @file MotoreInterrogazioniTest.java
+ * @brief Questo file contiene i test unitari del pianificatore delle interrogazioni composte
+ *
+ * @author Gruppo 27
+ * @date 17 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class MotoreInterrogazioniTest {
+
+    private List<Libro> libri;  /// @brief Catalogo di test
+    private MotoreInterrogazioni<Libro> motore; /// @brief Motore con autore e anno indicizzati, copie non indicizzate
+    private int scansioniAutore;    /// @brief Verifiche del campo autore eseguite
+    private int ricercheAutore; /// @brief Interrogazioni dell'indice degli autori
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post Il motore è pronto su quattro libri
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        libri = Arrays.asList(
+                new Libro("Il nome della rosa", "Umberto Eco", "1", 1980, 12, "Buono", 2),
+                new Libro("Il pendolo di Foucault", "Umberto Eco", "2", 1988, 14, "Usurato", 0),
+                new Libro("Il barone rampante", "Italo Calvino", "3", 1957, 10, "Buono", 1),
+                new Libro("Numero zero", "Umberto Eco", "4", 2015, 16, "Nuovo", 3));
+        IndiceIntervalli<Libro> anni = new IndiceIntervalli<>(Libro::getAnnoPubblicazione);
+        anni.ricostruisci(libri);
+        scansioniAutore = 0;
+        ricercheAutore = 0;
+        motore = new MotoreInterrogazioni<Libro>()
+                .campoPredefinito(MotoreInterrogazioni.perParole(Libro::getTitolo), null)
+                .aggiungiCampo("autore", v -> {
+                    Predicate<Libro> p = MotoreInterrogazioni.<Libro>perParole(Libro::getAutore).apply(v);
+                    return l -> {
+                        scansioniAutore++;
+                        return p.test(l);
+                    };
+                }, v -> {
+                    ricercheAutore++;
+                    List<Libro> r = new ArrayList<>();
+                    for (Libro l : libri) {
+                        if (MotoreInterrogazioni.<Libro>perParole(Libro::getAutore).apply(v).test(l)) {
+                            r.add(l);
+                        }
+                    }
+                    return r;
+                }, "a")
+                .aggiungiCampo("anno", MotoreInterrogazioni.perIntervallo(Libro::getAnnoPubblicazione),
+                        v -> anni.cerca(Intervallo.interpreta(v)))
+                .aggiungiCampo("copie", MotoreInterrogazioni.perIntervallo(Libro::getCopie), null)
+                .aggiungiCampo("usura", MotoreInterrogazioni.perUguaglianza(Libro::getUsura), null);
+    }
+
+    /**
+     * @brief Esegue un'interrogazione
+     *
+     * @param[in] testo Il testo dell'interrogazione
+     *
+     * @return Gli ISBN dei libri trovati
+     */
+    private List<String> esegui(String testo) {
+        List<String> isbn = new ArrayList<>();
+        for (Libro l : motore.prepara(Interrogazione.analizza(testo), libri).get()) {
+            isbn.add(l.getIsbn());
+        }
+        return isbn;
+    }
+
+    /**
+     * @brief Verifica i risultati di AND, OR, negazioni e campo predefinito
+     *
+     * @return void
+     */
+    @Test
+    public void testRisultati() {
+        System.out.println("testRisultati");
+
+        assertEquals(Arrays.asList("2"), esegui("autore:eco anno:1985-1990"));
+        assertEquals(Arrays.asList("1", "4"), esegui("a:eco copie:>0"));
+        assertEquals(Arrays.asList("3", "1"), esegui("anno:<1985 OR usura:nuovo anno:<1985"));
+        assertEquals(Arrays.asList("2", "4", "3"), esegui("anno:>1985 | a:calvino"));
+        assertEquals(Arrays.asList("2", "3"), esegui("-copie:>=2"));
+        assertEquals(Arrays.asList("1"), esegui("rosa a:umb"));
+        assertTrue(esegui("autore:eco anno:1900-1950").isEmpty());
+    }
+
+    /**
+     * @brief Verifica che il piano usi gli indici e scorra tutto solo quando nessun indice è applicabile
+     *
+     * @return void
+     */
+    @Test
+    public void testPiano() {
+        System.out.println("testPiano");
+
+        esegui("autore:eco anno:>2000");
+        assertEquals(1, ricercheAutore);
+        assertEquals(0, scansioniAutore); // risolto con l'intersezione degli indici
+
+        esegui("copie:>0 -autore:calvino");
+        assertEquals(1, ricercheAutore); // la negazione non usa l'indice
+        assertEquals(3, scansioniAutore); // scansione: l'autore è verificato solo dove copie > 0
+
+        scansioniAutore = 0;
+        esegui("anno:<1985 -autore:calvino");
+        assertEquals(2, scansioniAutore); // verifica solo i due candidati dell'indice degli anni
+    }
+
+    /**
+     * @brief Verifica il rifiuto dei valori non validi e il riconoscimento dei campi
+     *
+     * @return void
+     */
+    @Test
+    public void testValidazione() {
+        System.out.println("testValidazione");
+
+        assertThrows(IllegalArgumentException.class, () -> motore.prepara(Interrogazione.analizza("anno:abc"), libri));
+        assertThrows(IllegalArgumentException.class, () -> motore.prepara(Interrogazione.analizza("autore:"), libri));
+        assertTrue(motore.usaCampi(Interrogazione.analizza("rosa anno:1980")));
+        assertFalse(motore.usaCampi(Interrogazione.analizza("Java: guida")));
+        assertEquals(0, motore.prepara(Interrogazione.analizza("Java: guida"), libri).get().size());
+    }
+}
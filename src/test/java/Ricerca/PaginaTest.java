@@ -0,0 +1,119 @@
+/**
+ * @file PaginaTest.java
+ * @brief Questo file contiene i test unitari della paginazione per chiave
+ *
+ * @author Gruppo 27
+ * @date 24 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Libro.Libro;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+public class PaginaTest {
+
+    private final Function<Libro, String> ISBN = Libro::getIsbn; /// @brief Chiave univoca dei libri di test
+    private final Comparator<Libro> PER_AUTORE = Comparator.comparing(Libro::getAutore); /// @brief Ordinamento con molti pari merito
+
+    private List<Libro> libri; /// @brief Dieci libri di due autori, in ordine di inserimento sparso
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post La lista contiene dieci libri
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        libri = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int n = (i * 7) % 10;
+            libri.add(new Libro("T" + n, n % 2 == 0 ? "Eco" : "Calvino", "isbn" + n, 2000, 10, "Nuovo", 1));
+        }
+    }
+
+    /**
+     * @brief Verifica che le pagine coprano tutti gli elementi una volta sola, nell'ordine richiesto
+     *
+     * @return void
+     */
+    @Test
+    public void testScorrimento() {
+        System.out.println("testScorrimento");
+
+        List<String> letti = new ArrayList<>();
+        Pagina<Libro> p = Pagina.estrai(libri, null, PER_AUTORE, ISBN, null, 4);
+        int pagine = 1;
+        letti.addAll(isbn(p));
+        while (!p.isUltima()) {
+            p = Pagina.estrai(libri, null, PER_AUTORE, ISBN, p.getSuccessiva(), 4);
+            letti.addAll(isbn(p));
+            pagine++;
+        }
+        assertEquals(3, pagine);
+        assertEquals(List.of("isbn1", "isbn3", "isbn5", "isbn7", "isbn9", "isbn0", "isbn2", "isbn4", "isbn6", "isbn8"), letti);
+
+        Pagina<Libro> pari = Pagina.estrai(libri, l -> l.getAutore().equals("Eco"), null, ISBN, null, 5);
+        assertEquals(List.of("isbn0", "isbn2", "isbn4", "isbn6", "isbn8"), isbn(pari));
+        assertTrue(pari.isUltima());
+    }
+
+    /**
+     * @brief Verifica che aggiunte e rimozioni tra una pagina e l'altra non ripetano né saltino elementi
+     *
+     * @return void
+     */
+    @Test
+    public void testModificheTraLePagine() {
+        System.out.println("testModificheTraLePagine");
+
+        Pagina<Libro> prima = Pagina.estrai(libri, null, null, ISBN, null, 3);
+        assertEquals(List.of("isbn0", "isbn1", "isbn2"), isbn(prima));
+
+        libri.add(new Libro("Nuovo", "Eco", "isbn00", 2000, 10, "Nuovo", 1)); // prima del cursore: non compare
+        libri.add(new Libro("Nuovo", "Eco", "isbn35", 2000, 10, "Nuovo", 1)); // dopo il cursore: compare
+        libri.removeIf(l -> l.getIsbn().equals("isbn1") || l.getIsbn().equals("isbn4"));
+
+        Pagina<Libro> seconda = Pagina.estrai(libri, null, null, ISBN, prima.getSuccessiva(), 3);
+        assertEquals(List.of("isbn3", "isbn35", "isbn5"), isbn(seconda));
+    }
+
+    /**
+     * @brief Verifica i controlli su limite e cursore
+     *
+     * @return void
+     */
+    @Test
+    public void testErrori() {
+        System.out.println("testErrori");
+
+        assertThrows(IllegalArgumentException.class, () -> Pagina.estrai(libri, null, null, ISBN, null, 0));
+        Pagina<Libro> p = Pagina.estrai(libri, null, PER_AUTORE, ISBN, null, 2);
+        assertThrows(IllegalArgumentException.class, () -> Pagina.estrai(libri, null, null, ISBN, p.getSuccessiva(), 2));
+        assertTrue(Pagina.estrai(new ArrayList<Libro>(), null, null, ISBN, null, 2).getElementi().isEmpty());
+    }
+
+    /**
+     * @brief ISBN dei libri di una pagina
+     *
+     * @param[in] p La pagina
+     *
+     * @return Gli ISBN, nell'ordine della pagina
+     */
+    private List<String> isbn(Pagina<Libro> p) {
+        List<String> risultato = new ArrayList<>();
+        for (Libro l : p.getElementi()) {
+            risultato.add(l.getIsbn());
+        }
+        return risultato;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * @file SuggeritoreTest.java
+ * @brief Questo file contiene i test unitari del suggeritore con ricostruzione in background
+ *
+ * @author Gruppo 27
+ * @date 12 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import Utente.Utente;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SuggeritoreTest {
+
+    private Suggeritore<Utente> suggeritore; /// @brief Suggeritore dei cognomi
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post Il suggeritore è vuoto
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        suggeritore = new Suggeritore<>(Utente::getCognome);
+    }
+
+    /**
+     * @brief Verifica aggiunta, modifica e rimozione incrementali
+     *
+     * @return void
+     */
+    @Test
+    public void testAggiornamentiIncrementali() {
+        Utente mario = new Utente("Mario", "Rossi", "001", "m@x.it", null);
+        Utente luigi = new Utente("Luigi", "Rossi", "002", "l@x.it", null);
+        Utente anna = new Utente("Anna", "Rosati", "003", "a@x.it", null);
+        suggeritore.aggiungi(mario);
+        suggeritore.aggiungi(luigi);
+        suggeritore.aggiungi(anna);
+        assertEquals(Arrays.asList("Rossi", "Rosati"), suggeritore.suggerisci("RO", 5));
+
+        anna.setCognome("Verdi");
+        suggeritore.aggiorna(anna);
+        assertEquals(Arrays.asList("Rossi"), suggeritore.suggerisci("ro", 5));
+        assertEquals(Arrays.asList("Verdi"), suggeritore.suggerisci("ve", 5));
+
+        suggeritore.rimuovi(mario);
+        suggeritore.rimuovi(luigi);
+        assertTrue(suggeritore.suggerisci("ro", 5).isEmpty());
+        assertEquals(1, suggeritore.dimensione());
+    }
+
+    /**
+     * @brief Verifica che le modifiche arrivate durante una ricostruzione non vadano perse
+     *
+     * @return void
+     */
+    @Test
+    public void testRicostruzioneConModificheConcorrenti() throws Exception {
+        List<Utente> utenti = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            utenti.add(new Utente("Nome" + i, "Cognome" + (i % 100), String.valueOf(i), "", null));
+        }
+        Utente primo = utenti.get(0);
+        Future<?> ricostruzione = suggeritore.ricostruisci(utenti);
+        Utente nuovo = new Utente("Nuovo", "Zanetti", "x", "", null);
+        suggeritore.aggiungi(nuovo);
+        suggeritore.rimuovi(primo);
+        ricostruzione.get(30, TimeUnit.SECONDS);
+
+        assertEquals(101, suggeritore.dimensione());
+        assertEquals(Arrays.asList("Zanetti"), suggeritore.suggerisci("zan", 5));
+        assertEquals(Arrays.asList("Cognome0"), suggeritore.suggerisci("cognome0", 5));
+
+        Future<?> superata = suggeritore.ricostruisci(utenti);
+        Future<?> ultima = suggeritore.ricostruisci(Arrays.asList(nuovo));
+        superata.get(30, TimeUnit.SECONDS);
+        ultima.get(30, TimeUnit.SECONDS);
+        assertEquals(1, suggeritore.dimensione());
+    }
+}
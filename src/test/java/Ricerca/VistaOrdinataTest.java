@@ -0,0 +1,192 @@
+/**
+ * @file VistaOrdinataTest.java
+ * @brief Questo file contiene i test unitari della vista ordinata delle tabelle
+ *
+ * @author Gruppo 27
+ * @date 23 Gennaio 2026
+ * @version 1.0
+ */
+
+package Ricerca;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javafx.beans.Observable;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+
+public class VistaOrdinataTest {
+
+    private ObservableList<SimpleStringProperty> sorgente; /// @brief Lista sorgente, che notifica le modifiche dei valori
+    private VistaOrdinata<SimpleStringProperty> vista; /// @brief Vista sulla sorgente
+    private List<SimpleStringProperty> copia; /// @brief Copia della vista aggiornata solo dagli eventi
+    private final Comparator<SimpleStringProperty> perValore = Comparator.comparing(SimpleStringProperty::get); /// @brief Ordine dei valori
+
+    /**
+     * @brief Configurazione dell'ambiente prima di ogni test
+     *
+     * @pre Nessuna
+     * @post La vista mostra "d", "b", "e", "a", "c" nell'ordine della sorgente e la copia segue i suoi eventi
+     *
+     * @return void
+     */
+    @BeforeEach
+    public void setUp() {
+        sorgente = FXCollections.observableArrayList(p -> new Observable[] {p});
+        for (String s : new String[] {"d", "b", "e", "a", "c"}) {
+            sorgente.add(new SimpleStringProperty(s));
+        }
+        vista = new VistaOrdinata<>(sorgente);
+        copia = new ArrayList<>(vista);
+        vista.addListener((ListChangeListener<SimpleStringProperty>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    List<SimpleStringProperty> prima = new ArrayList<>(copia);
+                    for (int i = c.getFrom(); i < c.getTo(); i++) {
+                        copia.set(c.getPermutation(i), prima.get(i));
+                    }
+                } else if (!c.wasUpdated()) {
+                    copia.subList(c.getFrom(), c.getFrom() + c.getRemovedSize()).clear();
+                    copia.addAll(c.getFrom(), c.getAddedSubList());
+                }
+            }
+        });
+    }
+
+    /**
+     * @brief Valori mostrati dalla vista, dopo aver controllato che gli eventi la descrivano
+     *
+     * @return I valori nell'ordine della vista
+     */
+    private List<String> valori() {
+        assertEquals(new ArrayList<>(vista), copia);
+        List<String> v = new ArrayList<>();
+        for (SimpleStringProperty p : vista) {
+            v.add(p.get());
+        }
+        return v;
+    }
+
+    /**
+     * @brief Verifica l'ordinamento con e senza chiave e il ritorno all'ordine della sorgente
+     *
+     * @return void
+     */
+    @Test
+    public void testOrdinamento() {
+        System.out.println("testOrdinamento");
+
+        vista.setComparator(perValore);
+        assertEquals(List.of("a", "b", "c", "d", "e"), valori());
+        assertEquals(3, vista.getSourceIndex(0));
+        assertEquals(0, vista.getViewIndex(3));
+
+        ChiaviCollazione<SimpleStringProperty> chiavi = new ChiaviCollazione<>(SimpleStringProperty::get);
+        vista.ordina(chiavi.comparatore().reversed(), chiavi::chiave, true);
+        assertEquals(List.of("e", "d", "c", "b", "a"), valori());
+
+        vista.setComparator(null);
+        assertEquals(List.of("d", "b", "e", "a", "c"), valori());
+        assertNull(vista.getComparator());
+    }
+
+    /**
+     * @brief Verifica che a parità di chiave decida il resto del comparatore
+     *
+     * @return void
+     */
+    @Test
+    public void testParitaChiave() {
+        System.out.println("testParitaChiave");
+
+        sorgente.setAll(new SimpleStringProperty("Eco"), new SimpleStringProperty("eco"), new SimpleStringProperty("Bassani"));
+        vista.ordina(perValore.reversed(), p -> new byte[] {(byte) Character.toLowerCase(p.get().charAt(0))}, false);
+        assertEquals(List.of("Bassani", "eco", "Eco"), valori());
+    }
+
+    /**
+     * @brief Verifica aggiunte, rimozioni e sostituzioni su una vista ordinata
+     *
+     * @return void
+     */
+    @Test
+    public void testModificheSorgente() {
+        System.out.println("testModificheSorgente");
+
+        vista.setComparator(perValore);
+        sorgente.add(new SimpleStringProperty("bb"));
+        sorgente.add(0, new SimpleStringProperty("0"));
+        assertEquals(List.of("0", "a", "b", "bb", "c", "d", "e"), valori());
+
+        sorgente.remove(2, 4); // "b" ed "e"
+        assertEquals(List.of("0", "a", "bb", "c", "d"), valori());
+
+        sorgente.set(0, new SimpleStringProperty("z"));
+        assertEquals(List.of("a", "bb", "c", "d", "z"), valori());
+
+        List<SimpleStringProperty> molte = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            molte.add(new SimpleStringProperty("c" + (char) ('a' + (i * 7) % 26) + i));
+        }
+        sorgente.addAll(2, molte);
+        List<String> attesi = new ArrayList<>();
+        for (SimpleStringProperty p : sorgente) {
+            attesi.add(p.get());
+        }
+        attesi.sort(null);
+        assertEquals(attesi, valori());
+        for (int i = 0; i < vista.size(); i++) {
+            assertSame(vista.get(i), sorgente.get(vista.getSourceIndex(i)));
+        }
+
+        sorgente.clear();
+        assertEquals(List.of(), valori());
+    }
+
+    /**
+     * @brief Verifica che un valore modificato venga ricollocato
+     *
+     * @return void
+     */
+    @Test
+    public void testAggiornamento() {
+        System.out.println("testAggiornamento");
+
+        vista.setComparator(perValore);
+        sorgente.get(3).set("f"); // "a" diventa "f"
+        assertEquals(List.of("b", "c", "d", "e", "f"), valori());
+
+        sorgente.get(1).set("bb"); // resta al suo posto
+        assertEquals(List.of("bb", "c", "d", "e", "f"), valori());
+    }
+
+    /**
+     * @brief Verifica la vista sopra una lista filtrata, come nei model
+     *
+     * @return void
+     */
+    @Test
+    public void testSuFiltro() {
+        System.out.println("testSuFiltro");
+
+        FilteredList<SimpleStringProperty> filtrati = new FilteredList<>(sorgente);
+        VistaOrdinata<SimpleStringProperty> suFiltro = new VistaOrdinata<>(filtrati);
+        suFiltro.setComparator(perValore.reversed());
+
+        filtrati.setPredicate(p -> !p.get().equals("d"));
+        List<String> v = new ArrayList<>();
+        suFiltro.forEach(p -> v.add(p.get()));
+        assertEquals(List.of("e", "c", "b", "a"), v);
+
+        filtrati.setPredicate(null);
+        assertEquals(5, suFiltro.size());
+        assertEquals("e", suFiltro.get(0).get());
+        assertEquals("d", suFiltro.get(1).get());
+    }
+}
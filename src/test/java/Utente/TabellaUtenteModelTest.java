@@ -5,6 +5,7 @@ import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
 import java.time.LocalDate;
+import java.util.List;
 
 public class TabellaUtenteModelTest {
     
@@ -112,4 +113,86 @@ public class TabellaUtenteModelTest {
         assertNotNull(modelSenzaFile.getPersone());
         assertTrue(modelSenzaFile.getPersone().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCercaUtentiSimili() {
+        System.out.println("testCercaUtentiSimili");
+        
+        model.aggiungiPersona(NOME_TEST, COGNOME_TEST, MATRICOLA_TEST, EMAIL_TEST, ISCRIZIONE_TEST);
+        model.aggiungiPersona("Mario", "Rossi", "M00001", "m.rossi@mail.it", ISCRIZIONE_TEST);
+        
+        assertEquals(COGNOME_TEST, model.cercaUtentiSimili("Bianki", TabellaUtenteModel.CAMPO_COGNOME, 10).get(0).getCognome());
+        assertEquals("Rossi", model.cercaUtentiSimili("rosi", TabellaUtenteModel.CAMPO_COGNOME, 10).get(0).getCognome());
+        assertTrue(model.cercaUtentiSimili("rosi", TabellaUtenteModel.CAMPO_NOME, 10).isEmpty());
+        assertEquals("Mario", model.cercaUtentiSimili("Maro", TabellaUtenteModel.CAMPO_NOME, 10).get(0).getNome());
+        
+        Utente mario = model.cercaUtentiSimili("Maro", TabellaUtenteModel.CAMPO_NOME, 10).get(0);
+        mario.setCognome("Verdi");
+        model.aggiornaIndici(mario);
+        assertTrue(model.cercaUtentiSimili("rosi", TabellaUtenteModel.CAMPO_COGNOME, 10).isEmpty());
+        assertSame(mario, model.cercaUtentiSimili("verde", TabellaUtenteModel.CAMPO_COGNOME, 10).get(0));
+    }
+
+    @Test
+    public void testIndiciUtenti() {
+        System.out.println("testIndiciUtenti");
+        
+        assertTrue(model.aggiungiPersona(NOME_TEST, COGNOME_TEST, MATRICOLA_TEST, EMAIL_TEST, ISCRIZIONE_TEST));
+        assertTrue(model.aggiungiPersona("Mario", "Bianchi", "M00001", "m.bianchi@mail.it", ISCRIZIONE_TEST));
+        assertFalse(model.aggiungiPersona("Luca", "Verdi", " m12345 ", "l.verdi@mail.it", ISCRIZIONE_TEST));
+        assertFalse(model.aggiungiPersona("Luca", "Verdi", "M00002", "G.Bianchi@mail.it", ISCRIZIONE_TEST));
+        assertEquals(2, model.getPersone().size());
+        
+        Utente giulia = model.findByMatricola("m12345");
+        assertEquals(NOME_TEST, giulia.getNome());
+        assertSame(giulia, model.findByEmail(" G.BIANCHI@mail.it"));
+        assertEquals(2, model.findByCognome("bianchi").size());
+        assertEquals(1, model.findByNome("mario").size());
+        assertNull(model.findByMatricola("M99999"));
+        
+        assertFalse(model.modificaUtente(giulia, CampoUtente.MATRICOLA, "M00001"));
+        assertEquals(MATRICOLA_TEST, giulia.getMatricola());
+        assertTrue(model.modificaUtente(giulia, CampoUtente.MATRICOLA, "M00003"));
+        assertNull(model.findByMatricola(MATRICOLA_TEST));
+        assertSame(giulia, model.findByMatricola("M00003"));
+        assertTrue(model.modificaUtente(giulia, CampoUtente.COGNOME, "Rossi"));
+        assertEquals(1, model.findByCognome("Bianchi").size());
+        assertSame(giulia, model.findByCognome("rossi").get(0));
+        assertSame(giulia, model.interroga("matricola:m00003 cognome:ros").get(0));
+        
+        model.rimuoviPersona(giulia);
+        assertNull(model.findByEmail(EMAIL_TEST));
+        assertTrue(model.findByCognome("Rossi").isEmpty());
+        assertTrue(model.aggiungiPersona("Luca", "Verdi", MATRICOLA_TEST, EMAIL_TEST, ISCRIZIONE_TEST));
+        model.salvaSuBinario();
+        
+        TabellaUtenteModel nuovoModel = new TabellaUtenteModel();
+        assertEquals("Luca", nuovoModel.findByMatricola(MATRICOLA_TEST).getNome());
+        assertEquals(1, nuovoModel.findByCognome("bianchi").size());
+    }
+
+    @Test
+    public void testRicercaFonetica() {
+        System.out.println("testRicercaFonetica");
+        
+        model.aggiungiPersona("Mario", "Ciccarelli", "M00001", "m.ciccarelli@mail.it", ISCRIZIONE_TEST);
+        model.aggiungiPersona("Giovanni", "Scianna", "M00002", "g.scianna@mail.it", ISCRIZIONE_TEST);
+        model.aggiungiPersona("Giovanna", "Cicarelli", "M00003", "g.cicarelli@mail.it", ISCRIZIONE_TEST);
+        Utente mario = model.findByMatricola("M00001");
+        Utente giovanni = model.findByMatricola("M00002");
+        Utente giovanna = model.findByMatricola("M00003");
+        
+        assertEquals(2, model.findBySuono("cicarelli").size());
+        assertEquals(List.of(giovanni), model.findBySuono("Sciana"));
+        assertEquals(List.of(giovanni), model.findBySuono("giovani"));
+        assertEquals(List.of(mario), model.findBySuono("Cicarelli Mario"));
+        assertSame(giovanna, model.findBySuono("Giovanna Ciccarelli").get(0));
+        assertTrue(model.findBySuono("Rossi").isEmpty());
+        
+        assertTrue(model.modificaUtente(mario, CampoUtente.NOME, "Luca"));
+        assertTrue(model.findBySuono("Cicarelli Mario").isEmpty());
+        assertEquals(List.of(mario), model.findBySuono("Luca Cicarelli"));
+        model.rimuoviPersona(giovanni);
+        assertTrue(model.findBySuono("Sciana").isEmpty());
+    }
+}